@@ -0,0 +1,178 @@
+package com.taxdividend.backend.benchmark;
+
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.FxRate;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.model.SecurityMasterEntry;
+import com.taxdividend.backend.model.TaxRule;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.FxRateRepository;
+import com.taxdividend.backend.repository.SecurityMasterRepository;
+import com.taxdividend.backend.repository.TaxRuleRepository;
+import com.taxdividend.backend.service.fx.FxRateIndex;
+import com.taxdividend.backend.service.tax.SecurityTypeClassifier;
+import com.taxdividend.backend.service.tax.TaxRuleIndex;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic fixtures shared by the benchmarks.
+ *
+ * Data is generated from a fixed seed so runs are comparable across commits.
+ * Dividend counts follow the benchmark {@code @Param}s: 10, 100 and 1,000
+ * dividends per user.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String RESIDENCE_COUNTRY = "CH";
+
+    private static final String[] SOURCE_COUNTRIES = { "FR", "DE", "US", "NL", "IT" };
+    private static final String[] TREATY_RATES = { "15.00", "15.00", "15.00", "15.00", "15.00" };
+    private static final String[] FORM_TYPES = { "5000", "5001", "BUNDLE" };
+    private static final String[] WITHHOLDING_RATES = { "25.00", "26.38", "30.00", "15.00", "26.00" };
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user() {
+        return User.builder()
+                .id(new UUID(0L, 1L))
+                .email("benchmark@example.com")
+                .fullName("Bench Mark")
+                .address("Rue du Rhone 1, 1204 Geneve")
+                .canton("GE")
+                .taxId("756.1234.5678.97")
+                .country(RESIDENCE_COUNTRY)
+                .build();
+    }
+
+    /**
+     * {@code count} dividends spread over the source countries of {@link #taxRules()}.
+     */
+    public static List<Dividend> dividends(User user, int count) {
+        Random random = new Random(count);
+        List<Dividend> dividends = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int country = i % SOURCE_COUNTRIES.length;
+            BigDecimal rate = new BigDecimal(WITHHOLDING_RATES[country]);
+            BigDecimal gross = BigDecimal.valueOf(1_000 + random.nextInt(500_000), 2);
+            BigDecimal withheld = gross.multiply(rate).movePointLeft(2).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal treatyRate = new BigDecimal(TREATY_RATES[country]);
+            BigDecimal treatyWithholding = gross.multiply(treatyRate).movePointLeft(2).setScale(2, RoundingMode.HALF_UP);
+            dividends.add(Dividend.builder()
+                    .id(new UUID(1L, i))
+                    .user(user)
+                    .isin(SOURCE_COUNTRIES[country] + String.format("%010d", i))
+                    .securityName("Security " + i)
+                    .grossAmount(gross)
+                    .currency("EUR")
+                    .withholdingRate(rate)
+                    .withholdingTax(withheld)
+                    .treatyRate(treatyRate)
+                    .reclaimableAmount(withheld.subtract(treatyWithholding).max(BigDecimal.ZERO))
+                    .sourceCountry(SOURCE_COUNTRIES[country])
+                    .paymentDate(LocalDate.of(2024, 1, 1).plusDays(random.nextInt(365)))
+                    .build());
+        }
+        return dividends;
+    }
+
+    /**
+     * {@code count} generated-form records, as listed on the forms page.
+     */
+    public static List<GeneratedForm> generatedForms(User user, int count) {
+        List<GeneratedForm> forms = new ArrayList<>(count);
+        LocalDateTime generatedAt = LocalDateTime.of(2025, 1, 15, 10, 0);
+        for (int i = 0; i < count; i++) {
+            String formType = FORM_TYPES[i % FORM_TYPES.length];
+            UUID id = new UUID(3L, i);
+            forms.add(GeneratedForm.builder()
+                    .id(id)
+                    .user(user)
+                    .formType(formType)
+                    .taxYear(2024)
+                    .fileName("form_" + formType + "_2024_" + i + ".pdf")
+                    .s3Key("forms/" + user.getId() + "/" + id + ".pdf")
+                    .fileSize(150_000L + i)
+                    .createdAt(generatedAt.plusMinutes(i))
+                    .expiresAt(generatedAt.plusDays(30))
+                    .build());
+        }
+        return forms;
+    }
+
+    /**
+     * One EQUITY treaty rule per source country towards {@link #RESIDENCE_COUNTRY}.
+     */
+    public static List<TaxRule> taxRules() {
+        List<TaxRule> rules = new ArrayList<>();
+        for (int i = 0; i < SOURCE_COUNTRIES.length; i++) {
+            rules.add(TaxRule.builder()
+                    .id(new UUID(2L, i))
+                    .sourceCountry(SOURCE_COUNTRIES[i])
+                    .residenceCountry(RESIDENCE_COUNTRY)
+                    .securityType("EQUITY")
+                    .standardWithholdingRate(new BigDecimal(WITHHOLDING_RATES[i]))
+                    .treatyRate(new BigDecimal(TREATY_RATES[i]))
+                    .reliefAtSourceAvailable(false)
+                    .refundProcedureAvailable(true)
+                    .effectiveFrom(LocalDate.of(2000, 1, 1))
+                    .build());
+        }
+        return rules;
+    }
+
+    /**
+     * A loaded index over {@link #taxRules()}; the repository is only read once, here.
+     */
+    public static TaxRuleIndex taxRuleIndex() {
+        TaxRuleRepository repository = Mockito.mock(TaxRuleRepository.class);
+        Mockito.when(repository.findAll()).thenReturn(taxRules());
+        TaxRuleIndex index = new TaxRuleIndex(repository, new ConcurrentMapCacheManager(), event -> {
+        });
+        index.reload();
+        return index;
+    }
+
+    /**
+     * A loaded FX index with daily USD and CHF rates over 2024, the dividend payment year.
+     */
+    public static FxRateIndex fxRateIndex() {
+        List<FxRate> rates = new ArrayList<>();
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < 366; i++, day = day.plusDays(1)) {
+            rates.add(FxRate.builder().currency("USD").rateDate(day)
+                    .rate(new BigDecimal("1.08").add(BigDecimal.valueOf(i % 50, 4))).build());
+            rates.add(FxRate.builder().currency("CHF").rateDate(day)
+                    .rate(new BigDecimal("0.94").add(BigDecimal.valueOf(i % 50, 4))).build());
+        }
+        FxRateRepository repository = Mockito.mock(FxRateRepository.class);
+        Mockito.when(repository.findAll()).thenReturn(rates);
+        FxRateIndex index = new FxRateIndex(repository, "EUR", Duration.ofDays(7));
+        index.reload();
+        return index;
+    }
+
+    /**
+     * A loaded classifier with the default prefix fallbacks; fixture ISINs all resolve to EQUITY.
+     */
+    public static SecurityTypeClassifier securityTypeClassifier() {
+        SecurityMasterRepository repository = Mockito.mock(SecurityMasterRepository.class);
+        Mockito.when(repository.findAll()).thenReturn(List.of(
+                SecurityMasterEntry.builder().isinPrefix("XS").securityType("BOND").build(),
+                SecurityMasterEntry.builder().isinPrefix("EU").securityType("BOND").build()));
+        SecurityTypeClassifier classifier = new SecurityTypeClassifier(repository);
+        classifier.reload();
+        return classifier;
+    }
+}
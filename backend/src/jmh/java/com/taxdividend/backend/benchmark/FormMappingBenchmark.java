@@ -0,0 +1,55 @@
+package com.taxdividend.backend.benchmark;
+
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.service.pdf.Form5000FieldMapper;
+import com.taxdividend.backend.service.pdf.Form5001FieldMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Field mapping for Forms 5000 and 5001, without any PDF work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormMappingBenchmark {
+
+    private static final int TAX_YEAR = 2024;
+
+    @Param({ "10", "100", "1000" })
+    private int dividendCount;
+
+    private final Form5000FieldMapper form5000FieldMapper = new Form5000FieldMapper();
+    private final Form5001FieldMapper form5001FieldMapper = new Form5001FieldMapper(BenchmarkFixtures.fxRateIndex());
+
+    private User user;
+    private List<Dividend> dividends;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkFixtures.user();
+        dividends = BenchmarkFixtures.dividends(user, dividendCount);
+    }
+
+    @Benchmark
+    public Map<String, String> form5000Fields() {
+        return form5000FieldMapper.mapToFormFields(user, TAX_YEAR);
+    }
+
+    @Benchmark
+    public Map<String, String> form5001Fields() {
+        return form5001FieldMapper.mapToFormFields(user, dividends, TAX_YEAR);
+    }
+
+    @Benchmark
+    public List<Map<String, String>> form5001Pages() {
+        return form5001FieldMapper.mapToFormPages(user, dividends, TAX_YEAR);
+    }
+}
@@ -0,0 +1,63 @@
+package com.taxdividend.backend.benchmark;
+
+import com.taxdividend.backend.api.dto.DividendDto;
+import com.taxdividend.backend.api.dto.GeneratedFormDto;
+import com.taxdividend.backend.api.dto.TaxRuleDto;
+import com.taxdividend.backend.mapper.DividendMapper;
+import com.taxdividend.backend.mapper.FormMapper;
+import com.taxdividend.backend.mapper.TaxRuleMapper;
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.model.TaxRule;
+import com.taxdividend.backend.model.User;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct entity-to-DTO mapping at API list sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int dividendCount;
+
+    private final DividendMapper dividendMapper = Mappers.getMapper(DividendMapper.class);
+    private final FormMapper formMapper = Mappers.getMapper(FormMapper.class);
+    private final TaxRuleMapper taxRuleMapper = Mappers.getMapper(TaxRuleMapper.class);
+
+    private List<Dividend> dividends;
+    private List<GeneratedForm> generatedForms;
+    private List<TaxRule> taxRules;
+
+    @Setup
+    public void setUp() {
+        User user = BenchmarkFixtures.user();
+        dividends = BenchmarkFixtures.dividends(user, dividendCount);
+        generatedForms = BenchmarkFixtures.generatedForms(user, dividendCount);
+        taxRules = BenchmarkFixtures.taxRules();
+    }
+
+    @Benchmark
+    public List<DividendDto> dividendsToDto() {
+        return dividendMapper.toDtoList(dividends);
+    }
+
+    @Benchmark
+    public List<GeneratedFormDto> formsToDto() {
+        return formMapper.toGeneratedFormDto(generatedForms);
+    }
+
+    @Benchmark
+    public List<TaxRuleDto> taxRulesToDto() {
+        return taxRuleMapper.toApiDtoList(taxRules);
+    }
+}
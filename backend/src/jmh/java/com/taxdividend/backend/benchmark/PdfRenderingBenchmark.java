@@ -0,0 +1,96 @@
+package com.taxdividend.backend.benchmark;
+
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.service.ZipService;
+import com.taxdividend.backend.service.pdf.Form5000FieldMapper;
+import com.taxdividend.backend.service.pdf.Form5001FieldMapper;
+import com.taxdividend.backend.service.pdf.PdfFormFiller;
+import com.taxdividend.backend.service.pdf.PdfTemplateRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF filling against the real templates, and ZIP assembly of a bundle.
+ *
+ * Templates are loaded into the {@link PdfTemplateRegistry} during setup, as
+ * they are at application startup, so scores exclude classpath I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfRenderingBenchmark {
+
+    private static final int TAX_YEAR = 2024;
+
+    @Param({ "10", "100", "1000" })
+    private int dividendCount;
+
+    private PdfFormFiller pdfFormFiller;
+    private final ZipService zipService = new ZipService();
+
+    private Map<String, String> form5000Fields;
+    private Map<String, String> form5001Fields;
+    private List<Map<String, String>> form5001Pages;
+    private Map<String, byte[]> bundleFiles;
+
+    @Setup
+    public void setUp() throws IOException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PdfTemplateRegistry templateRegistry = new PdfTemplateRegistry(meterRegistry);
+        templateRegistry.get(PdfTemplateRegistry.FORM_5000_TEMPLATE);
+        templateRegistry.get(PdfTemplateRegistry.FORM_5001_TEMPLATE);
+        pdfFormFiller = new PdfFormFiller(templateRegistry, meterRegistry);
+
+        User user = BenchmarkFixtures.user();
+        List<Dividend> dividends = BenchmarkFixtures.dividends(user, dividendCount);
+        form5000Fields = new Form5000FieldMapper().mapToFormFields(user, TAX_YEAR);
+        Form5001FieldMapper form5001FieldMapper = new Form5001FieldMapper(BenchmarkFixtures.fxRateIndex());
+        form5001Fields = form5001FieldMapper.mapToFormFields(user, dividends, TAX_YEAR);
+        form5001Pages = form5001FieldMapper.mapToFormPages(user, dividends, TAX_YEAR);
+
+        bundleFiles = new LinkedHashMap<>();
+        bundleFiles.put("form_5000_" + TAX_YEAR + ".pdf", fillForm5000());
+        bundleFiles.put("form_5001_" + TAX_YEAR + ".pdf", fillForm5001Pages());
+    }
+
+    @Benchmark
+    public byte[] fillForm5000() throws IOException {
+        return pdfFormFiller.fillPdfForm(PdfTemplateRegistry.FORM_5000_TEMPLATE, form5000Fields, true);
+    }
+
+    /**
+     * Single page, first {@link Form5001FieldMapper#MAX_DIVIDEND_LINES} dividends.
+     */
+    @Benchmark
+    public byte[] fillForm5001() throws IOException {
+        return pdfFormFiller.fillPdfForm(PdfTemplateRegistry.FORM_5001_TEMPLATE, form5001Fields, true);
+    }
+
+    /**
+     * Every dividend, the table page repeated as needed.
+     */
+    @Benchmark
+    public byte[] fillForm5001Pages() throws IOException {
+        return pdfFormFiller.fillPdfPages(PdfTemplateRegistry.FORM_5001_TEMPLATE,
+                PdfTemplateRegistry.FORM_5001_TABLE_PAGE, form5001Pages);
+    }
+
+    /**
+     * ZIP of pre-rendered 5000 + 5001 PDFs, as built for a BUNDLE.
+     */
+    @Benchmark
+    public byte[] createBundleZip() {
+        return zipService.createZip(bundleFiles);
+    }
+}
@@ -0,0 +1,81 @@
+package com.taxdividend.backend.benchmark;
+
+import com.taxdividend.backend.api.dto.TaxCalculationBatchResultDto;
+import com.taxdividend.backend.api.dto.TaxCalculationResultDto;
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.service.TaxCalculationService;
+import com.taxdividend.backend.service.tax.FixedPointTaxKernel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch tax calculation: fixed-point kernel vs the per-dividend BigDecimal path.
+ *
+ * Scores are batches per second; multiply by {@code dividendCount} for dividends per second.
+ * {@code kernel} measures the arithmetic alone, without rule lookup or DTO building.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxCalculationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int dividendCount;
+
+    private TaxCalculationService taxCalculationService;
+    private List<Dividend> dividends;
+
+    private long[] grossAmount;
+    private long[] withheldAmount;
+    private long[] treatyRate;
+    private long[] reclaimable;
+
+    @Setup
+    public void setUp() {
+        taxCalculationService = new TaxCalculationService(null, BenchmarkFixtures.taxRuleIndex(), null,
+                BenchmarkFixtures.fxRateIndex(), BenchmarkFixtures.securityTypeClassifier());
+        dividends = BenchmarkFixtures.dividends(BenchmarkFixtures.user(), dividendCount);
+
+        grossAmount = new long[dividendCount];
+        withheldAmount = new long[dividendCount];
+        treatyRate = new long[dividendCount];
+        reclaimable = new long[dividendCount];
+        for (int i = 0; i < dividendCount; i++) {
+            grossAmount[i] = FixedPointTaxKernel.toMinorUnits(dividends.get(i).getGrossAmount());
+            withheldAmount[i] = FixedPointTaxKernel.toMinorUnits(dividends.get(i).getWithholdingTax());
+            treatyRate[i] = 1_500L;
+        }
+    }
+
+    @Benchmark
+    public TaxCalculationBatchResultDto calculateBatch() {
+        return taxCalculationService.calculateBatch(dividends, BenchmarkFixtures.RESIDENCE_COUNTRY);
+    }
+
+    /**
+     * Baseline: what calculateBatch did before the kernel, one BigDecimal calculation per dividend.
+     */
+    @Benchmark
+    public void calculatePerDividend(Blackhole blackhole) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Dividend dividend : dividends) {
+            TaxCalculationResultDto result = taxCalculationService.calculateForDividend(
+                    dividend, BenchmarkFixtures.RESIDENCE_COUNTRY);
+            total = total.add(result.getReclaimableAmount());
+            blackhole.consume(result);
+        }
+        blackhole.consume(total);
+    }
+
+    @Benchmark
+    public long kernel() {
+        return FixedPointTaxKernel.calculate(grossAmount, withheldAmount, treatyRate, reclaimable, dividendCount);
+    }
+}
@@ -0,0 +1,40 @@
+package com.taxdividend.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated worker pools for background work.
+ *
+ * Pools:
+ * - formGenerationExecutor: renders and uploads forms for async generation jobs.
+ *   Bounded queue; submissions beyond capacity are rejected so callers can
+ *   back off instead of piling up work.
+ */
+@Configuration
+@Slf4j
+public class AsyncConfig {
+
+    public static final String FORM_GENERATION_EXECUTOR = "formGenerationExecutor";
+
+    @Bean(name = FORM_GENERATION_EXECUTOR)
+    public TaskExecutor formGenerationExecutor(
+            @Value("${app.forms.generation.workers:4}") int workers,
+            @Value("${app.forms.generation.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("form-gen-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+
+        log.info("Form generation executor initialized: {} workers, queue capacity {}", workers, queueCapacity);
+        return executor;
+    }
+}
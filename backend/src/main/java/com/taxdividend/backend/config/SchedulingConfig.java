@@ -0,0 +1,17 @@
+package com.taxdividend.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs.
+ *
+ * Jobs:
+ * - TaxRuleIndex: polls tax_rules for changes and hot-swaps the in-memory index
+ * - FormGenerationJobService: fails abandoned async form jobs and deletes expired ones
+ * - EcbRateLoader: loads the ECB daily reference rates into fx_rates
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -9,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +18,8 @@ import java.util.List;
 import java.util.UUID;
 import com.taxdividend.backend.api.dto.BulkImportDividendsResponseDto;
 import com.taxdividend.backend.api.dto.PaginatedDividendListDto;
+import com.taxdividend.backend.api.dto.ResidenceSimulationRequestDto;
+import com.taxdividend.backend.api.dto.ResidenceSimulationResultDto;
 import com.taxdividend.backend.api.dto.TaxCalculationBatchResultDto;
 import com.taxdividend.backend.api.dto.DividendDto;
 import com.taxdividend.backend.api.dto.DividendStatsDto;
@@ -30,13 +31,15 @@ import com.taxdividend.backend.security.UserContextHolder;
  *
  * Endpoints:
  * - GET /internal/dividends - List user's dividends (with optional filters:
- * startDate, endDate, status)
+ * startDate, endDate, status; keyset paging via cursor)
  * - GET /internal/dividends/{id} - Get dividend details
  * - POST /internal/dividends/{id}/calculate - Calculate tax for single dividend
  * - POST /internal/dividends/calculate-batch - Calculate tax for multiple
  * dividends
  * - POST /internal/dividends/{userId}/calculate-all - Calculate all user's
  * dividends
+ * - POST /internal/dividends/simulate-residence - What-if reclaimable amounts
+ * for other residence countries (read-only)
  * - DELETE /internal/dividends/{id} - Delete dividend
  *
  * Note: PDF parsing is now handled by an AI agent (not in this controller)
@@ -62,13 +65,14 @@ public class DividendController implements DividendsApi {
             Integer size,
             LocalDate startDate,
             LocalDate endDate,
-            String status) {
+            String status,
+            String cursor) {
 
         UUID userId = UserContextHolder.get().userId();
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "paymentDate"));
+        Pageable pageable = PageRequest.of(page, size);
 
-        // Delegate to service with filters
-        return ResponseEntity.ok(dividendService.listDividends(userId, pageable, startDate, endDate, status));
+        // Delegate to service with filters (ordering is fixed by the keyset)
+        return ResponseEntity.ok(dividendService.listDividends(userId, pageable, startDate, endDate, status, cursor));
     }
 
     /**
@@ -150,6 +154,20 @@ public class DividendController implements DividendsApi {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Simulate reclaimable amounts for other residence countries (nothing is persisted).
+     */
+    @Override
+    public ResponseEntity<ResidenceSimulationResultDto> simulateResidenceCountries(
+            ResidenceSimulationRequestDto request) {
+        UUID userId = com.taxdividend.backend.security.UserContextHolder.get().userId();
+
+        ResidenceSimulationResultDto result = taxCalculationService.simulateResidenceCountries(userId,
+                request.getResidenceCountries(), request.getTaxYear());
+
+        return ResponseEntity.ok(result);
+    }
+
     @Override
     public ResponseEntity<DividendStatsDto> getDividendStats(Integer taxYear) {
         // Get userId from UserContext (set by InternalApiKeyFilter)
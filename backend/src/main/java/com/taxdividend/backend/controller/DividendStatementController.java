@@ -1,6 +1,7 @@
 package com.taxdividend.backend.controller;
 
 import com.taxdividend.backend.api.DividendStatementsApi;
+import com.taxdividend.backend.api.dto.DividendDto;
 import com.taxdividend.backend.api.dto.DividendStatementDto;
 import com.taxdividend.backend.api.dto.DividendStatementStatusDto;
 import com.taxdividend.backend.api.dto.DividendStatementUpdateDto;
@@ -9,6 +10,7 @@ import com.taxdividend.backend.model.DividendStatementStatus;
 import com.taxdividend.backend.service.DividendStatementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
@@ -46,9 +48,18 @@ public class DividendStatementController implements DividendStatementsApi {
                 log.info("Uploading statement for user {}, broker {}, period {}-{}",
                                 userId, broker, periodStart, periodEnd);
 
-                DividendStatementDto statement = statementService.uploadStatement(file, userId, broker, periodStart,
-                                periodEnd);
-
+                DividendStatementDto statement;
+                try {
+                        statement = statementService.uploadStatement(file, userId, broker, periodStart, periodEnd);
+                } catch (DataIntegrityViolationException e) {
+                        // Same file uploaded concurrently: the retry finds the statement that won
+                        log.info("Concurrent upload of the same statement for user {}, retrying", userId);
+                        statement = statementService.uploadStatement(file, userId, broker, periodStart, periodEnd);
+                }
+
+                if (Boolean.TRUE.equals(statement.getDuplicate())) {
+                        return ResponseEntity.ok(statement);
+                }
                 return ResponseEntity.status(HttpStatus.CREATED).body(statement);
         }
 
@@ -62,6 +73,26 @@ public class DividendStatementController implements DividendStatementsApi {
                                 .orElse(ResponseEntity.notFound().build());
         }
 
+        @Override
+        public ResponseEntity<List<DividendDto>> listDividendStatementDividends(UUID id) {
+                UUID userId = SecurityHelper.getCurrentUserId();
+                log.debug("Listing dividends of statement {} for user {}", id, userId);
+
+                return statementService.listDividends(id, userId)
+                                .map(ResponseEntity::ok)
+                                .orElse(ResponseEntity.notFound().build());
+        }
+
+        @Override
+        public ResponseEntity<DividendStatementDto> findDividendStatementByContentHash(String contentHash) {
+                UUID userId = SecurityHelper.getCurrentUserId();
+                log.debug("Finding statement by content hash for user {}", userId);
+
+                return statementService.findByContentHash(userId, contentHash)
+                                .map(ResponseEntity::ok)
+                                .orElse(ResponseEntity.notFound().build());
+        }
+
         @Override
         public ResponseEntity<PaginatedDividendStatementsDto> listDividendStatements(
                         DividendStatementStatusDto status,
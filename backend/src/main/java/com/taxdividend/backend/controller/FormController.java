@@ -6,8 +6,10 @@ import com.taxdividend.backend.security.SecurityHelper;
 import com.taxdividend.backend.api.FormsApi;
 import com.taxdividend.backend.api.dto.FormGenerationRequestDto;
 import com.taxdividend.backend.api.dto.FormDownloadUrlResponseDto;
+import com.taxdividend.backend.api.dto.FormGenerationJobDto;
 import com.taxdividend.backend.api.dto.GenerateFormResultDto;
 import com.taxdividend.backend.service.AuditService;
+import com.taxdividend.backend.service.FormGenerationJobService;
 import com.taxdividend.backend.service.FormService;
 import com.taxdividend.backend.service.PdfGenerationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -16,6 +18,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -33,6 +36,8 @@ import java.util.UUID;
  *
  * Endpoints:
  * - POST /internal/forms/generate - Generate tax forms (5000, 5001, BUNDLE)
+ * - POST /internal/forms/generate-async - Queue form generation, returns a job
+ * - GET /internal/forms/jobs/{jobId} - Poll an async generation job
  * - GET /internal/forms - List user's generated forms
  * - GET /internal/forms/{id} - Get form metadata
  * - GET /internal/forms/{id}/download - Download form PDF/ZIP
@@ -52,6 +57,7 @@ public class FormController implements FormsApi {
     // StorageService removed (handled in service)
     private final AuditService auditService; // Used for generation log
     private final FormService formService;
+    private final FormGenerationJobService formGenerationJobService;
 
     /**
      * Generate tax forms (5000, 5001, or BUNDLE).
@@ -92,6 +98,36 @@ public class FormController implements FormsApi {
         }
     }
 
+    /**
+     * Queue form generation and return a job handle immediately.
+     */
+    @Override
+    public ResponseEntity<FormGenerationJobDto> generateFormsAsync(
+            FormGenerationRequestDto request) {
+        UUID userId = SecurityHelper.getCurrentUserId();
+
+        request.setUserId(userId);
+
+        try {
+            return ResponseEntity.accepted().body(formGenerationJobService.submit(request));
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Poll the status of an async generation job.
+     */
+    @Override
+    public ResponseEntity<FormGenerationJobDto> getFormGenerationJob(
+            UUID jobId) {
+        UUID userId = SecurityHelper.getCurrentUserId();
+
+        return formGenerationJobService.getJob(jobId, userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * List all forms for a user.
      */
@@ -121,14 +157,16 @@ public class FormController implements FormsApi {
     }
 
     /**
-     * Download form PDF or ZIP.
+     * Download form PDF or ZIP (streamed, with Range and If-None-Match support).
      */
     @Override
     public ResponseEntity<Resource> downloadForm(
-            UUID id) {
+            UUID id,
+            String range,
+            String ifNoneMatch) {
         UUID userId = SecurityHelper.getCurrentUserId();
 
-        return formService.downloadForm(id, userId);
+        return formService.downloadForm(id, userId, range, ifNoneMatch);
     }
 
     /**
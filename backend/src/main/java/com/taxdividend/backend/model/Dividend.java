@@ -16,9 +16,13 @@ import java.util.UUID;
  * Corresponds to the 'dividends' table in the database.
  */
 @Entity
-@Table(name = "dividends", indexes = {
+@Table(name = "dividends", uniqueConstraints = @UniqueConstraint(
+        name = "uq_dividends_user_isin_payment_gross",
+        columnNames = {"user_id", "isin", "payment_date", "gross_amount"}), indexes = {
         @Index(name = "idx_dividends_form_id", columnList = "form_id"),
-        @Index(name = "idx_dividends_user_id", columnList = "user_id"),
+        @Index(name = "idx_dividends_user_payment_date", columnList = "user_id, paymentDate DESC, id DESC"),
+        @Index(name = "idx_dividends_user_status_payment_date", columnList = "user_id, status, paymentDate DESC, id DESC"),
+        @Index(name = "idx_dividends_user_tax_year_status", columnList = "user_id, taxYear, status"),
         @Index(name = "idx_dividends_isin", columnList = "isin"),
         @Index(name = "idx_dividends_payment_date", columnList = "paymentDate"),
         @Index(name = "idx_dividends_source_country", columnList = "sourceCountry")
@@ -57,6 +61,12 @@ public class Dividend {
     @Column(name = "payment_date", nullable = false)
     private LocalDate paymentDate;
 
+    /**
+     * Year of paymentDate, generated by the database (read-only)
+     */
+    @Column(name = "tax_year", insertable = false, updatable = false)
+    private Integer taxYear;
+
     @Column(name = "gross_amount", nullable = false, precision = 12, scale = 2)
     private BigDecimal grossAmount;
 
@@ -17,7 +17,8 @@ import org.hibernate.annotations.JdbcTypeCode;
  * Tracks the lifecycle from upload to payment.
  */
 @Entity
-@Table(name = "dividend_statements")
+@Table(name = "dividend_statements", uniqueConstraints = @UniqueConstraint(
+        name = "uq_dividend_statements_user_content_hash", columnNames = {"user_id", "content_hash"}))
 @Getter
 @Setter
 @Builder
@@ -40,6 +41,10 @@ public class DividendStatement {
     @Column(name = "source_file_s3_key", nullable = false, length = 500)
     private String sourceFileS3Key;
 
+    // Hex SHA-256 of the source file (unique per user)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @Column(name = "broker", length = 100)
     private String broker;
 
@@ -132,6 +137,15 @@ public class DividendStatement {
         }
     }
 
+    /**
+     * Whether dividends were already extracted from this statement: it reached
+     * PARSED or a later status, or a bulk import recorded dividends for it.
+     */
+    public boolean isProcessed() {
+        return status.ordinal() >= DividendStatementStatus.PARSED.ordinal()
+                || (dividendCount != null && dividendCount > 0);
+    }
+
     /**
      * Validate status transition.
      * Throws IllegalStateException if transition is invalid.
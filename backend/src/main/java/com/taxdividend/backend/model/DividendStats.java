@@ -0,0 +1,64 @@
+package com.taxdividend.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Dividend count and reclaimable total for one user, tax year and status.
+ * Corresponds to the 'dividend_stats' table in the database.
+ *
+ * Rows are maintained by database triggers on 'dividends' and are read-only
+ * from the application.
+ */
+@Entity
+@Immutable
+@Table(name = "dividend_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DividendStats {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "dividend_count", nullable = false)
+    private Long dividendCount;
+
+    @Column(name = "reclaimable_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal reclaimableTotal;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Primary key: (user_id, tax_year, status)
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private UUID userId;
+
+        /**
+         * Year of the dividend payment date
+         */
+        @Column(name = "tax_year", nullable = false)
+        private Integer taxYear;
+
+        @Enumerated(EnumType.STRING)
+        @Column(length = 20, nullable = false, columnDefinition = "dividend_status")
+        @JdbcTypeCode(org.hibernate.type.SqlTypes.NAMED_ENUM)
+        private DividendStatus status;
+    }
+}
@@ -0,0 +1,79 @@
+package com.taxdividend.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Asynchronous form generation job.
+ * Corresponds to the 'form_generation_jobs' table in the database.
+ *
+ * Written at every stage of the job, so any backend replica can answer a
+ * status poll, whichever one accepted and runs the job.
+ */
+@Entity
+@Table(name = "form_generation_jobs", indexes = {
+    @Index(name = "idx_form_generation_jobs_updated_at", columnList = "updatedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FormGenerationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Stage stage;
+
+    /**
+     * Form type: 5000 (residence), 5001 (dividends), BUNDLE (both)
+     */
+    @Column(name = "form_type", nullable = false, length = 50)
+    private String formType;
+
+    @Column(name = "tax_year", nullable = false)
+    private Integer taxYear;
+
+    /**
+     * Generated form, once the job completed
+     */
+    @Column(name = "form_id")
+    private UUID formId;
+
+    @Column(name = "dividend_count")
+    private Integer dividendCount;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Progress of a job; PREPARING, RENDERING and COMPLETING are reported as RUNNING.
+     */
+    public enum Stage {
+        QUEUED,
+        PREPARING,
+        RENDERING,
+        COMPLETING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,67 @@
+package com.taxdividend.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * FX Rate entity representing a daily reference rate against EUR.
+ * Corresponds to the 'fx_rates' table in the database.
+ */
+@Entity
+@Table(name = "fx_rates",
+    uniqueConstraints = {
+        @UniqueConstraint(
+            name = "uk_fx_rates_currency_date",
+            columnNames = {"currency", "rate_date"}
+        )
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FxRate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    /**
+     * Quoted currency (ISO 4217 code)
+     */
+    @Column(nullable = false, length = 3)
+    private String currency;
+
+    /**
+     * Day the rate applies to
+     */
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    /**
+     * Units of currency per 1 EUR
+     */
+    @Column(nullable = false, precision = 18, scale = 8)
+    private BigDecimal rate;
+
+    /**
+     * Rate provider, e.g. ECB
+     */
+    @Column(length = 50)
+    private String source;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -19,7 +19,8 @@ import java.util.UUID;
     @Index(name = "idx_generated_forms_user_id", columnList = "user_id"),
     @Index(name = "idx_generated_forms_tax_year", columnList = "taxYear"),
     @Index(name = "idx_generated_forms_status", columnList = "status"),
-    @Index(name = "idx_generated_forms_created_at", columnList = "createdAt")
+    @Index(name = "idx_generated_forms_created_at", columnList = "createdAt"),
+    @Index(name = "idx_generated_forms_user_content_hash", columnList = "user_id, formType, contentHash")
 })
 @Data
 @NoArgsConstructor
@@ -70,6 +71,12 @@ public class GeneratedForm {
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
 
+    /**
+     * Hex SHA-256 of the form type, templates and field values, used to reuse identical forms
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     /**
      * Additional metadata (JSON): generation params, validation results, etc.
      */
@@ -0,0 +1,52 @@
+package com.taxdividend.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resume marker for a partitioned batch job.
+ * Corresponds to the 'job_checkpoints' table in the database.
+ *
+ * A row exists while a job run is in progress and is removed once the run
+ * completes, so its presence means the next run should resume from lastKey.
+ *
+ * Rows named {@code tax-rules-applied:<treaty key>} are permanent instead:
+ * lastKey holds the fingerprint of the tax rules the dividends of that key
+ * were last recalculated with.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    /**
+     * Keyset position of the last fully processed partition
+     */
+    @Column(name = "last_key")
+    private String lastKey;
+
+    @Column(name = "processed_count", nullable = false)
+    @Builder.Default
+    private Long processedCount = 0L;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private Long failedCount = 0L;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.taxdividend.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Security master entry mapping an ISIN, or an ISIN prefix, to a security type.
+ * Corresponds to the 'security_master' table in the database.
+ */
+@Entity
+@Table(name = "security_master",
+    indexes = {
+        @Index(name = "idx_security_master_updated_at", columnList = "updatedAt")
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SecurityMasterEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    /**
+     * Full ISIN (12 characters) or a shorter prefix used as a fallback
+     */
+    @Column(name = "isin_prefix", nullable = false, unique = true, length = 12)
+    private String isinPrefix;
+
+    /**
+     * Type of security: EQUITY, BOND, REIT, FUND, etc.
+     */
+    @Column(name = "security_type", nullable = false, length = 50)
+    private String securityType;
+
+    @Column(name = "security_name")
+    private String securityName;
+
+    /**
+     * Where the classification comes from, e.g. DEFAULT or a data vendor
+     */
+    @Column(length = 50)
+    private String source;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,74 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.Dividend;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Set-based write operations on dividends that bypass the JPA persistence
+ * context. Mixed into {@link DividendRepository} as a Spring Data fragment.
+ */
+public interface DividendBatchOperations {
+
+    /**
+     * Insert all dividends, skipping rows whose {@link DividendKey} the user
+     * already has (ON CONFLICT DO NOTHING), in one statement per batch.
+     *
+     * Each dividend must already carry its id, user and statement; entities are
+     * not attached to the persistence context.
+     *
+     * @return ids of the rows actually inserted
+     */
+    Set<UUID> insertAllSkippingDuplicates(List<Dividend> dividends);
+
+    /**
+     * Which of the given keys the user already has, in one query.
+     */
+    Set<DividendKey> findExistingKeys(UUID userId, Collection<DividendKey> keys);
+
+    /**
+     * Stream the keys of all the user's dividends, without loading entities.
+     */
+    void forEachKey(UUID userId, Consumer<DividendKey> action);
+
+    /**
+     * Write calculated amounts back for one user's dividends in a single statement.
+     *
+     * A null treaty rate keeps the stored value. Ids that do not belong to the
+     * user are ignored.
+     *
+     * @return number of updated rows
+     */
+    int updateCalculatedAmounts(UUID userId, List<CalculatedAmounts> amounts);
+
+    /**
+     * Identity of a dividend within a user's dividends, backed by the
+     * uq_dividends_user_isin_payment_gross unique index. The gross amount is
+     * normalized to the column scale so keys compare like the database does.
+     */
+    record DividendKey(String isin, LocalDate paymentDate, BigDecimal grossAmount) {
+
+        private static final int AMOUNT_SCALE = 2;
+
+        public DividendKey {
+            grossAmount = grossAmount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        }
+
+        public static DividendKey of(Dividend dividend) {
+            return new DividendKey(dividend.getIsin(), dividend.getPaymentDate(), dividend.getGrossAmount());
+        }
+    }
+
+    /**
+     * Calculated values for one dividend.
+     */
+    record CalculatedAmounts(UUID dividendId, BigDecimal reclaimableAmount, BigDecimal treatyRate) {
+    }
+}
@@ -0,0 +1,200 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.Dividend;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of {@link DividendBatchOperations}.
+ *
+ * Inserts, updates and key lookups are sent as parallel arrays and applied
+ * with a single statement over {@code unnest(...)}, one round-trip per batch
+ * whatever the row count. Inserts go in batches of
+ * {@code app.dividends.import.batch-size} and use {@code RETURNING id} so
+ * callers know exactly which rows were written.
+ */
+@RequiredArgsConstructor
+public class DividendBatchOperationsImpl implements DividendBatchOperations {
+
+    private static final String INSERT_SKIPPING_DUPLICATES_SQL = """
+            INSERT INTO dividends (id, user_id, statement_id, security_name, isin, payment_date,
+                                   gross_amount, currency, withholding_tax, withholding_rate,
+                                   reclaimable_amount, treaty_rate, source_country, status)
+            SELECT r.id, r.user_id, r.statement_id, r.security_name, r.isin, r.payment_date,
+                   r.gross_amount, r.currency, r.withholding_tax, r.withholding_rate,
+                   r.reclaimable_amount, r.treaty_rate, r.source_country, CAST(r.status AS dividend_status)
+            FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::varchar[], ?::varchar[], ?::date[],
+                        ?::numeric[], ?::varchar[], ?::numeric[], ?::numeric[],
+                        ?::numeric[], ?::numeric[], ?::varchar[], ?::varchar[])
+                 AS r(id, user_id, statement_id, security_name, isin, payment_date,
+                      gross_amount, currency, withholding_tax, withholding_rate,
+                      reclaimable_amount, treaty_rate, source_country, status)
+            ON CONFLICT (user_id, isin, payment_date, gross_amount) DO NOTHING
+            RETURNING id
+            """;
+
+    private static final String FIND_EXISTING_KEYS_SQL = """
+            SELECT d.isin, d.payment_date, d.gross_amount
+            FROM dividends d
+            JOIN unnest(?::varchar[], ?::date[], ?::numeric[]) AS k(isin, payment_date, gross_amount)
+              ON d.isin = k.isin
+             AND d.payment_date = k.payment_date
+             AND d.gross_amount = k.gross_amount
+            WHERE d.user_id = ?
+            """;
+
+    private static final String FIND_KEYS_SQL = """
+            SELECT isin, payment_date, gross_amount
+            FROM dividends
+            WHERE user_id = ?
+            """;
+
+    private static final String UPDATE_CALCULATED_SQL = """
+            UPDATE dividends d
+            SET reclaimable_amount = u.reclaimable_amount,
+                treaty_rate = COALESCE(u.treaty_rate, d.treaty_rate)
+            FROM unnest(?::uuid[], ?::numeric[], ?::numeric[]) AS u(id, reclaimable_amount, treaty_rate)
+            WHERE d.id = u.id
+              AND d.user_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.dividends.import.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public Set<UUID> insertAllSkippingDuplicates(List<Dividend> dividends) {
+        Set<UUID> inserted = new HashSet<>(dividends.size() * 2);
+        for (int from = 0; from < dividends.size(); from += batchSize) {
+            List<Dividend> batch = dividends.subList(from, Math.min(from + batchSize, dividends.size()));
+            int size = batch.size();
+
+            UUID[] ids = new UUID[size];
+            UUID[] userIds = new UUID[size];
+            UUID[] statementIds = new UUID[size];
+            String[] securityNames = new String[size];
+            String[] isins = new String[size];
+            Date[] paymentDates = new Date[size];
+            BigDecimal[] grossAmounts = new BigDecimal[size];
+            String[] currencies = new String[size];
+            BigDecimal[] withholdingTaxes = new BigDecimal[size];
+            BigDecimal[] withholdingRates = new BigDecimal[size];
+            BigDecimal[] reclaimableAmounts = new BigDecimal[size];
+            BigDecimal[] treatyRates = new BigDecimal[size];
+            String[] sourceCountries = new String[size];
+            String[] statuses = new String[size];
+            for (int i = 0; i < size; i++) {
+                Dividend dividend = batch.get(i);
+                ids[i] = dividend.getId();
+                userIds[i] = dividend.getUser().getId();
+                statementIds[i] = dividend.getStatement() != null ? dividend.getStatement().getId() : null;
+                securityNames[i] = dividend.getSecurityName();
+                isins[i] = dividend.getIsin();
+                paymentDates[i] = Date.valueOf(dividend.getPaymentDate());
+                grossAmounts[i] = dividend.getGrossAmount();
+                currencies[i] = dividend.getCurrency();
+                withholdingTaxes[i] = dividend.getWithholdingTax();
+                withholdingRates[i] = dividend.getWithholdingRate();
+                reclaimableAmounts[i] = dividend.getReclaimableAmount();
+                treatyRates[i] = dividend.getTreatyRate();
+                sourceCountries[i] = dividend.getSourceCountry();
+                statuses[i] = dividend.getStatus().name();
+            }
+
+            jdbcTemplate.query(INSERT_SKIPPING_DUPLICATES_SQL, ps -> {
+                Connection connection = ps.getConnection();
+                ps.setArray(1, connection.createArrayOf("uuid", ids));
+                ps.setArray(2, connection.createArrayOf("uuid", userIds));
+                ps.setArray(3, connection.createArrayOf("uuid", statementIds));
+                ps.setArray(4, connection.createArrayOf("varchar", securityNames));
+                ps.setArray(5, connection.createArrayOf("varchar", isins));
+                ps.setArray(6, connection.createArrayOf("date", paymentDates));
+                ps.setArray(7, connection.createArrayOf("numeric", grossAmounts));
+                ps.setArray(8, connection.createArrayOf("varchar", currencies));
+                ps.setArray(9, connection.createArrayOf("numeric", withholdingTaxes));
+                ps.setArray(10, connection.createArrayOf("numeric", withholdingRates));
+                ps.setArray(11, connection.createArrayOf("numeric", reclaimableAmounts));
+                ps.setArray(12, connection.createArrayOf("numeric", treatyRates));
+                ps.setArray(13, connection.createArrayOf("varchar", sourceCountries));
+                ps.setArray(14, connection.createArrayOf("varchar", statuses));
+            }, rs -> {
+                inserted.add(rs.getObject(1, UUID.class));
+            });
+        }
+        return inserted;
+    }
+
+    @Override
+    public Set<DividendKey> findExistingKeys(UUID userId, Collection<DividendKey> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+
+        String[] isins = new String[keys.size()];
+        Date[] paymentDates = new Date[keys.size()];
+        BigDecimal[] grossAmounts = new BigDecimal[keys.size()];
+        int i = 0;
+        for (DividendKey key : keys) {
+            isins[i] = key.isin();
+            paymentDates[i] = Date.valueOf(key.paymentDate());
+            grossAmounts[i] = key.grossAmount();
+            i++;
+        }
+
+        Set<DividendKey> existing = new HashSet<>();
+        jdbcTemplate.query(FIND_EXISTING_KEYS_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("varchar", isins));
+            ps.setArray(2, connection.createArrayOf("date", paymentDates));
+            ps.setArray(3, connection.createArrayOf("numeric", grossAmounts));
+            ps.setObject(4, userId);
+        }, rs -> {
+            existing.add(new DividendKey(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3)));
+        });
+        return existing;
+    }
+
+    @Override
+    public void forEachKey(UUID userId, Consumer<DividendKey> action) {
+        jdbcTemplate.query(FIND_KEYS_SQL, rs -> {
+            action.accept(new DividendKey(rs.getString(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3)));
+        }, userId);
+    }
+
+    @Override
+    public int updateCalculatedAmounts(UUID userId, List<CalculatedAmounts> amounts) {
+        if (amounts.isEmpty()) {
+            return 0;
+        }
+
+        UUID[] ids = new UUID[amounts.size()];
+        BigDecimal[] reclaimableAmounts = new BigDecimal[amounts.size()];
+        BigDecimal[] treatyRates = new BigDecimal[amounts.size()];
+        for (int i = 0; i < amounts.size(); i++) {
+            CalculatedAmounts row = amounts.get(i);
+            ids[i] = row.dividendId();
+            reclaimableAmounts[i] = row.reclaimableAmount();
+            treatyRates[i] = row.treatyRate();
+        }
+
+        return jdbcTemplate.update(UPDATE_CALCULATED_SQL, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("uuid", ids));
+            ps.setArray(2, connection.createArrayOf("numeric", reclaimableAmounts));
+            ps.setArray(3, connection.createArrayOf("numeric", treatyRates));
+            ps.setObject(4, userId);
+        });
+    }
+}
@@ -4,8 +4,10 @@ import com.taxdividend.backend.model.Dividend;
 import com.taxdividend.backend.model.DividendStatus;
 import com.taxdividend.backend.model.GeneratedForm;
 import com.taxdividend.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,7 +18,8 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface DividendRepository extends JpaRepository<Dividend, UUID> {
+public interface DividendRepository extends JpaRepository<Dividend, UUID>, JpaSpecificationExecutor<Dividend>,
+        DividendBatchOperations {
 
     /**
      * Find all dividends for a specific user
@@ -46,6 +49,13 @@ public interface DividendRepository extends JpaRepository<Dividend, UUID> {
     @EntityGraph(attributePaths = {"user", "form", "statement"})
     List<Dividend> findByFormId(UUID formId);
 
+    /**
+     * Find dividends imported from a statement, by payment date
+     * Uses EntityGraph to avoid N+1 queries
+     */
+    @EntityGraph(attributePaths = {"user", "form", "statement"})
+    List<Dividend> findByStatementIdOrderByPaymentDateAsc(UUID statementId);
+
     /**
      * Find dividends by ISIN
      * Uses EntityGraph to avoid N+1 queries
@@ -102,6 +112,69 @@ public interface DividendRepository extends JpaRepository<Dividend, UUID> {
     @EntityGraph(attributePaths = {"user", "statement"})
     List<Dividend> findByUserIdAndFormIsNull(UUID userId);
 
+    /**
+     * Find unsubmitted dividends of a user for one tax year
+     * Uses EntityGraph to avoid N+1 queries
+     */
+    @EntityGraph(attributePaths = {"user", "statement"})
+    List<Dividend> findByUserIdAndTaxYearAndFormIsNull(UUID userId, Integer taxYear);
+
+    /**
+     * Next page of users having unsubmitted dividends, ordered by user id (keyset)
+     */
+    @Query("SELECT DISTINCT d.user.id FROM Dividend d WHERE d.form IS NULL AND d.user.id > :afterUserId ORDER BY d.user.id")
+    List<UUID> findUserIdsWithUnsubmittedDividends(@Param("afterUserId") UUID afterUserId, Pageable pageable);
+
+    /**
+     * Count users having unsubmitted dividends after the given user id
+     */
+    @Query("SELECT COUNT(DISTINCT d.user.id) FROM Dividend d WHERE d.form IS NULL AND d.user.id > :afterUserId")
+    long countUsersWithUnsubmittedDividends(@Param("afterUserId") UUID afterUserId);
+
+    /**
+     * Next page of users having unsubmitted dividends in the given tax year, ordered by user id (keyset)
+     */
+    @Query("SELECT DISTINCT d.user.id FROM Dividend d WHERE d.form IS NULL AND d.taxYear = :taxYear "
+            + "AND d.user.id > :afterUserId ORDER BY d.user.id")
+    List<UUID> findUserIdsWithUnsubmittedDividendsForYear(@Param("taxYear") Integer taxYear,
+            @Param("afterUserId") UUID afterUserId, Pageable pageable);
+
+    /**
+     * Count users having unsubmitted dividends in the given tax year after the given user id
+     */
+    @Query("SELECT COUNT(DISTINCT d.user.id) FROM Dividend d WHERE d.form IS NULL AND d.taxYear = :taxYear "
+            + "AND d.user.id > :afterUserId")
+    long countUsersWithUnsubmittedDividendsForYear(@Param("taxYear") Integer taxYear,
+            @Param("afterUserId") UUID afterUserId);
+
+    /**
+     * IDs of a user's unsubmitted dividends for one tax year
+     */
+    @Query("SELECT d.id FROM Dividend d WHERE d.user.id = :userId AND d.taxYear = :taxYear AND d.form IS NULL "
+            + "ORDER BY d.id")
+    List<UUID> findUnsubmittedIdsByUserIdAndTaxYear(@Param("userId") UUID userId, @Param("taxYear") Integer taxYear);
+
+    /**
+     * Next chunk of a user's unsubmitted dividends, ordered by id (keyset)
+     */
+    @Query("SELECT d FROM Dividend d WHERE d.user.id = :userId AND d.form IS NULL AND d.id > :afterId ORDER BY d.id")
+    List<Dividend> findUnsubmittedChunk(@Param("userId") UUID userId, @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    /**
+     * Next chunk of unsubmitted dividends paid from a source country to residents of a
+     * residence country within [from, to], ordered by (paymentDate, id) (keyset)
+     */
+    @Query("SELECT d FROM Dividend d WHERE d.form IS NULL AND d.sourceCountry = :sourceCountry"
+            + " AND d.user.country = :residenceCountry AND d.paymentDate BETWEEN :from AND :to"
+            + " AND (d.paymentDate > :afterDate OR (d.paymentDate = :afterDate AND d.id > :afterId))"
+            + " ORDER BY d.paymentDate, d.id")
+    List<Dividend> findUnsubmittedChunkForTreaty(@Param("sourceCountry") String sourceCountry,
+            @Param("residenceCountry") String residenceCountry,
+            @Param("from") LocalDate from, @Param("to") LocalDate to,
+            @Param("afterDate") LocalDate afterDate, @Param("afterId") UUID afterId,
+            Pageable pageable);
+
     /**
      * Calculate total reclaimable amount for a user
      */
@@ -122,7 +195,7 @@ public interface DividendRepository extends JpaRepository<Dividend, UUID> {
     /**
      * Count total dividends for a user in a specific tax year
      */
-    @Query("SELECT COUNT(d) FROM Dividend d WHERE d.user.id = :userId AND YEAR(d.paymentDate) = :year")
+    @Query("SELECT COUNT(d) FROM Dividend d WHERE d.user.id = :userId AND d.taxYear = :year")
     long countByUserIdAndYear(@Param("userId") UUID userId, @Param("year") int year);
 
     /**
@@ -134,7 +207,7 @@ public interface DividendRepository extends JpaRepository<Dividend, UUID> {
     /**
      * Calculate sum of reclaimable amount by user, list of statuses and year
      */
-    @Query("SELECT SUM(d.reclaimableAmount) FROM Dividend d WHERE d.user.id = :userId AND d.status IN :statuses AND YEAR(d.paymentDate) = :year")
+    @Query("SELECT SUM(d.reclaimableAmount) FROM Dividend d WHERE d.user.id = :userId AND d.taxYear = :year AND d.status IN :statuses")
     BigDecimal sumReclaimableByStatusAndYear(@Param("userId") UUID userId,
             @Param("statuses") List<DividendStatus> statuses, @Param("year") int year);
 
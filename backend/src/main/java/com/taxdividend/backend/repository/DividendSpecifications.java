@@ -0,0 +1,49 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.DividendStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Composable filters for dividend listing queries.
+ */
+public final class DividendSpecifications {
+
+    private DividendSpecifications() {
+    }
+
+    public static Specification<Dividend> ofUser(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Dividend> paidOnOrAfter(LocalDate startDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("paymentDate"), startDate);
+    }
+
+    public static Specification<Dividend> paidOnOrBefore(LocalDate endDate) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("paymentDate"), endDate);
+    }
+
+    public static Specification<Dividend> hasStatus(DividendStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Dividend> unsubmitted() {
+        return (root, query, cb) -> cb.isNull(root.get("form"));
+    }
+
+    /**
+     * Keyset predicate: rows strictly after (paymentDate, id) in
+     * {@code paymentDate DESC, id DESC} order.
+     */
+    public static Specification<Dividend> after(LocalDate paymentDate, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("paymentDate"), paymentDate),
+                cb.and(
+                        cb.equal(root.get("paymentDate"), paymentDate),
+                        cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -53,6 +53,11 @@ public interface DividendStatementRepository extends JpaRepository<DividendState
      */
     Optional<DividendStatement> findByIdAndUserId(UUID id, UUID userId);
 
+    /**
+     * Find a user's statement by SHA-256 of its file content.
+     */
+    Optional<DividendStatement> findByUserIdAndContentHash(UUID userId, String contentHash);
+
     /**
      * Find all statements by broker for a user.
      * Uses EntityGraph to avoid N+1 queries
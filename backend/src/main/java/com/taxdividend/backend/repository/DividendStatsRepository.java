@@ -0,0 +1,22 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.DividendStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DividendStatsRepository extends JpaRepository<DividendStats, DividendStats.Key> {
+
+    /**
+     * All-time statistics rows of a user (primary key prefix scan)
+     */
+    List<DividendStats> findByIdUserId(UUID userId);
+
+    /**
+     * Statistics rows of a user for one tax year, one per status (primary key prefix scan)
+     */
+    List<DividendStats> findByIdUserIdAndIdTaxYear(UUID userId, Integer taxYear);
+}
@@ -0,0 +1,35 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.FormGenerationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface FormGenerationJobRepository extends JpaRepository<FormGenerationJob, UUID> {
+
+    /**
+     * Move jobs still in one of the given stages and not updated since a point in time
+     * to a new stage, e.g. to fail jobs whose node died
+     */
+    @Modifying
+    @Query("UPDATE FormGenerationJob j SET j.stage = :stage, j.errorMessage = :errorMessage"
+            + " WHERE j.stage IN :stages AND j.updatedAt < :before")
+    int updateStageNotUpdatedSince(@Param("stages") Collection<FormGenerationJob.Stage> stages,
+            @Param("before") LocalDateTime before,
+            @Param("stage") FormGenerationJob.Stage stage,
+            @Param("errorMessage") String errorMessage);
+
+    /**
+     * Remove jobs past their retention
+     */
+    @Modifying
+    @Query("DELETE FROM FormGenerationJob j WHERE j.updatedAt < :before")
+    int deleteNotUpdatedSince(@Param("before") LocalDateTime before);
+}
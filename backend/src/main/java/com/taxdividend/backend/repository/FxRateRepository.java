@@ -0,0 +1,28 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, UUID> {
+
+    /**
+     * Cheap change probe for the in-memory rate index (row count + last update)
+     */
+    @Query("SELECT COUNT(r) AS rateCount, MAX(r.updatedAt) AS lastUpdatedAt FROM FxRate r")
+    FxRateVersion findVersion();
+
+    /**
+     * Projection for {@link #findVersion()}
+     */
+    interface FxRateVersion {
+        long getRateCount();
+
+        LocalDateTime getLastUpdatedAt();
+    }
+}
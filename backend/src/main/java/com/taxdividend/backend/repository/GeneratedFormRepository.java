@@ -63,6 +63,12 @@ public interface GeneratedFormRepository extends JpaRepository<GeneratedForm, UU
      */
     Optional<GeneratedForm> findByS3Key(String s3Key);
 
+    /**
+     * Latest unexpired form of a user with the given content hash
+     */
+    Optional<GeneratedForm> findFirstByUserIdAndFormTypeAndContentHashAndExpiresAtAfterOrderByCreatedAtDesc(
+            UUID userId, String formType, String contentHash, LocalDateTime now);
+
     /**
      * Find expired forms
      * Uses EntityGraph to avoid N+1 queries
@@ -0,0 +1,16 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+
+    /**
+     * Rows of a family of jobs sharing a name prefix
+     */
+    List<JobCheckpoint> findByJobNameStartingWith(String prefix);
+}
@@ -0,0 +1,34 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.SecurityMasterEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SecurityMasterRepository extends JpaRepository<SecurityMasterEntry, UUID> {
+
+    /**
+     * Entries inserted or updated at or after the given time, for incremental refreshes
+     */
+    List<SecurityMasterEntry> findByUpdatedAtGreaterThanEqual(LocalDateTime updatedAt);
+
+    /**
+     * Cheap change probe for the in-memory classifier (row count + last update)
+     */
+    @Query("SELECT COUNT(s) AS entryCount, MAX(s.updatedAt) AS lastUpdatedAt FROM SecurityMasterEntry s")
+    SecurityMasterVersion findVersion();
+
+    /**
+     * Projection for {@link #findVersion()}
+     */
+    interface SecurityMasterVersion {
+        long getEntryCount();
+
+        LocalDateTime getLastUpdatedAt();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -89,4 +90,19 @@ public interface TaxRuleRepository extends JpaRepository<TaxRule, UUID> {
         @Param("residenceCountry") String residenceCountry,
         @Param("date") LocalDate date
     );
+
+    /**
+     * Cheap change probe for the in-memory rule index (row count + last update)
+     */
+    @Query("SELECT COUNT(tr) AS ruleCount, MAX(tr.updatedAt) AS lastUpdatedAt FROM TaxRule tr")
+    TaxRuleVersion findVersion();
+
+    /**
+     * Projection for {@link #findVersion()}
+     */
+    interface TaxRuleVersion {
+        long getRuleCount();
+
+        LocalDateTime getLastUpdatedAt();
+    }
 }
@@ -26,7 +26,8 @@ import java.util.stream.Collectors;
  *
  * Security checks:
  * 1. Validates X-Internal-Api-Key header matches configured secret
- * 2. Extracts and validates X-User-Context header (Base64-encoded JSON with userId, email, roles)
+ * 2. Extracts and validates X-User-Context header (Base64-encoded JSON with userId, email, roles);
+ *    parsed contexts and known user IDs are cached briefly in {@link UserContextCache}
  * 3. Stores user context in both SecurityContextHolder and UserContextHolder
  *
  * Architecture:
@@ -55,15 +56,18 @@ public class InternalApiKeyFilter extends OncePerRequestFilter {
 
     private final ObjectMapper objectMapper;
     private final com.taxdividend.backend.service.UserService userService;
+    private final UserContextCache userContextCache;
 
     /**
      * Constructor with dependencies injection.
      * In Spring Boot 4, ObjectMapper must be explicitly configured as a bean.
      * @see com.taxdividend.backend.config.JacksonConfig
      */
-    public InternalApiKeyFilter(ObjectMapper objectMapper, com.taxdividend.backend.service.UserService userService) {
+    public InternalApiKeyFilter(ObjectMapper objectMapper, com.taxdividend.backend.service.UserService userService,
+            UserContextCache userContextCache) {
         this.objectMapper = objectMapper;
         this.userService = userService;
+        this.userContextCache = userContextCache;
     }
 
     @Override
@@ -105,30 +109,38 @@ public class InternalApiKeyFilter extends OncePerRequestFilter {
                 return;
             }
 
-            UserContext userContext;
-            try {
-                // Decode Base64 and parse JSON
-                byte[] decodedBytes = Base64.getDecoder().decode(userContextB64);
-                userContext = objectMapper.readValue(decodedBytes, UserContext.class);
-            } catch (Exception e) {
-                log.error("Failed to parse {} header: {}", USER_CONTEXT_HEADER, e.getMessage());
-                sendUnauthorized(response, "Invalid user context format");
-                return;
+            // Identical headers were already decoded and validated
+            UserContext userContext = userContextCache.getContext(userContextB64);
+            if (userContext == null) {
+                try {
+                    // Decode Base64 and parse JSON
+                    byte[] decodedBytes = Base64.getDecoder().decode(userContextB64);
+                    userContext = objectMapper.readValue(decodedBytes, UserContext.class);
+                } catch (Exception e) {
+                    log.error("Failed to parse {} header: {}", USER_CONTEXT_HEADER, e.getMessage());
+                    sendUnauthorized(response, "Invalid user context format");
+                    return;
+                }
+
+                if (userContext.userId() == null) {
+                    log.error("User context missing userId");
+                    sendUnauthorized(response, "Invalid user context: missing userId");
+                    return;
+                }
+
+                userContextCache.putContext(userContextB64, userContext);
             }
 
-            if (userContext.userId() == null) {
-                log.error("User context missing userId");
-                sendUnauthorized(response, "Invalid user context: missing userId");
-                return;
-            }
-
-            // 3. Auto-provision SSO users or validate classic users exist
-            try {
-                userService.findOrCreateFromSso(userContext);
-            } catch (com.taxdividend.backend.service.UserService.UserNotRegisteredException e) {
-                log.warn("User not registered: {}", e.getMessage());
-                sendUnauthorized(response, e.getMessage());
-                return;
+            // 3. Auto-provision SSO users or validate classic users exist (skipped for recently seen users)
+            if (!userContextCache.isKnownUser(userContext.userId())) {
+                try {
+                    userService.findOrCreateFromSso(userContext);
+                    userContextCache.markKnownUser(userContext.userId());
+                } catch (com.taxdividend.backend.service.UserService.UserNotRegisteredException e) {
+                    log.warn("User not registered: {}", e.getMessage());
+                    sendUnauthorized(response, e.getMessage());
+                    return;
+                }
             }
 
             // 4. Store user context in thread-local (for service layer access)
@@ -0,0 +1,86 @@
+package com.taxdividend.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Short-lived cache for the authentication path of {@link InternalApiKeyFilter}.
+ *
+ * Holds two bounded, TTL'd maps:
+ * - raw X-User-Context header value → validated UserContext (skips Base64 + JSON parsing)
+ * - user ID → known to exist in the database (skips the findOrCreateFromSso lookup)
+ *
+ * Only successful resolutions are cached. Entries for a user are dropped when
+ * the user is created or updated (see UserService), and the TTL bounds
+ * staleness for changes made outside the application.
+ */
+@Slf4j
+@Component
+public class UserContextCache {
+
+    private final Cache<String, UserContext> contexts;
+    private final Cache<UUID, Boolean> knownUsers;
+
+    public UserContextCache(MeterRegistry meterRegistry,
+            @Value("${app.security.user-context-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.user-context-cache.ttl:5m}") Duration ttl) {
+        this.contexts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.knownUsers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, contexts, "userContexts");
+        CaffeineCacheMetrics.monitor(meterRegistry, knownUsers, "knownUsers");
+    }
+
+    /**
+     * Previously validated context for this exact header value, or null.
+     */
+    public UserContext getContext(String header) {
+        return contexts.getIfPresent(header);
+    }
+
+    /**
+     * Remember a context that passed validation.
+     */
+    public void putContext(String header, UserContext userContext) {
+        contexts.put(header, userContext);
+    }
+
+    /**
+     * Whether the user was recently confirmed to exist in the database.
+     */
+    public boolean isKnownUser(UUID userId) {
+        return knownUsers.getIfPresent(userId) != null;
+    }
+
+    /**
+     * Record that the user exists in the database.
+     */
+    public void markKnownUser(UUID userId) {
+        knownUsers.put(userId, Boolean.TRUE);
+    }
+
+    /**
+     * Drop everything cached for a user, after it was created or changed.
+     */
+    public void invalidate(UUID userId) {
+        knownUsers.invalidate(userId);
+        contexts.asMap().values().removeIf(context -> userId.equals(context.userId()));
+        log.debug("Invalidated cached user context for {}", userId);
+    }
+}
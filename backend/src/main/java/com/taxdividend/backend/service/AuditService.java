@@ -1,9 +1,9 @@
 package com.taxdividend.backend.service;
 
 import com.taxdividend.backend.model.AuditLog;
-import com.taxdividend.backend.model.User;
 import com.taxdividend.backend.repository.AuditLogRepository;
-import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.audit.AuditEvent;
+import com.taxdividend.backend.service.audit.AuditLogWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -21,6 +21,8 @@ import java.util.stream.Collectors;
 
 /**
  * Implementation of audit service for logging user actions and security events.
+ *
+ * Actions are written behind by {@link AuditLogWriter}; queries read audit_logs directly.
  */
 @Slf4j
 @Service
@@ -28,45 +30,35 @@ import java.util.stream.Collectors;
 public class AuditService {
 
     private final AuditLogRepository auditLogRepository;
-    private final UserRepository userRepository;
+    private final AuditLogWriter auditLogWriter;
 
-    @Transactional
-    public AuditLog logAction(UUID userId, String action, String entityType, UUID entityId,
+    /**
+     * Record an action. The entry is queued for the write-behind writer, so
+     * this never touches the database on the caller's thread.
+     */
+    public void logAction(UUID userId, String action, String entityType, UUID entityId,
             Map<String, Object> details, String ipAddress, String userAgent) {
 
-        User user = userId != null ? userRepository.findById(userId).orElse(null) : null;
-
-        AuditLog auditLog = AuditLog.builder()
-                .user(user)
-                .action(action)
-                .entityType(entityType)
-                .entityId(entityId)
-                .details(details)
-                .ipAddress(ipAddress)
-                .userAgent(userAgent)
-                .build();
-
-        AuditLog saved = auditLogRepository.save(auditLog);
+        AuditEvent event = AuditEvent.of(userId, action, entityType, entityId, details, ipAddress, userAgent);
+        auditLogWriter.submit(event);
 
-        log.info("Audit log created: action={}, user={}, entity={}:{}",
+        log.info("Audit log queued: action={}, user={}, entity={}:{}",
                 action, userId, entityType, entityId);
-
-        return saved;
     }
 
-    @Transactional
-    public AuditLog logAction(UUID userId, String action, Map<String, Object> details,
+    public void logAction(UUID userId, String action, Map<String, Object> details,
             String ipAddress, String userAgent) {
-        return logAction(userId, action, null, null, details, ipAddress, userAgent);
+        logAction(userId, action, null, null, details, ipAddress, userAgent);
     }
 
-    @Transactional
-    public AuditLog logAction(UUID userId, String action) {
-        return logAction(userId, action, null, null, null, null, null);
+    public void logAction(UUID userId, String action) {
+        logAction(userId, action, null, null, null, null, null);
     }
 
-    @Transactional
-    public AuditLog logLogin(UUID userId, String email, boolean success, String ipAddress, String userAgent) {
+    /**
+     * Failed logins are written synchronously: {@link #isRateLimited} reads them back immediately.
+     */
+    public void logLogin(UUID userId, String email, boolean success, String ipAddress, String userAgent) {
         String action = success ? "LOGIN" : "LOGIN_FAILED";
 
         Map<String, Object> details = new HashMap<>();
@@ -75,22 +67,21 @@ public class AuditService {
 
         if (!success) {
             log.warn("Failed login attempt for email: {} from IP: {}", email, ipAddress);
-        } else {
-            log.info("Successful login for user: {} from IP: {}", userId, ipAddress);
+            auditLogWriter.writeNow(AuditEvent.of(userId, action, null, null, details, ipAddress, userAgent));
+            return;
         }
 
-        return logAction(userId, action, details, ipAddress, userAgent);
+        log.info("Successful login for user: {} from IP: {}", userId, ipAddress);
+        logAction(userId, action, details, ipAddress, userAgent);
     }
 
-    @Transactional
-    public AuditLog logLogout(UUID userId, String ipAddress) {
+    public void logLogout(UUID userId, String ipAddress) {
         log.info("User logout: {} from IP: {}", userId, ipAddress);
 
-        return logAction(userId, "LOGOUT", null, ipAddress, null);
+        logAction(userId, "LOGOUT", null, ipAddress, null);
     }
 
-    @Transactional
-    public AuditLog logPdfParsing(UUID userId, String fileName, int dividendCount, boolean success) {
+    public void logPdfParsing(UUID userId, String fileName, int dividendCount, boolean success) {
         Map<String, Object> details = new HashMap<>();
         details.put("fileName", fileName);
         details.put("dividendCount", dividendCount);
@@ -101,11 +92,10 @@ public class AuditService {
         log.info("PDF parsing logged: user={}, file={}, dividends={}, success={}",
                 userId, fileName, dividendCount, success);
 
-        return logAction(userId, action, "DIVIDEND", null, details, null, null);
+        logAction(userId, action, "DIVIDEND", null, details, null, null);
     }
 
-    @Transactional
-    public AuditLog logFormGeneration(UUID userId, UUID formId, String formType, int dividendCount) {
+    public void logFormGeneration(UUID userId, UUID formId, String formType, int dividendCount) {
         Map<String, Object> details = new HashMap<>();
         details.put("formType", formType);
         details.put("dividendCount", dividendCount);
@@ -113,11 +103,10 @@ public class AuditService {
         log.info("Form generation logged: user={}, form={}, type={}, dividends={}",
                 userId, formId, formType, dividendCount);
 
-        return logAction(userId, "FORM_GENERATED", "FORM", formId, details, null, null);
+        logAction(userId, "FORM_GENERATED", "FORM", formId, details, null, null);
     }
 
-    @Transactional
-    public AuditLog logTaxCalculation(UUID userId, int dividendCount, String totalReclaimable) {
+    public void logTaxCalculation(UUID userId, int dividendCount, String totalReclaimable) {
         Map<String, Object> details = new HashMap<>();
         details.put("dividendCount", dividendCount);
         details.put("totalReclaimable", totalReclaimable);
@@ -125,7 +114,7 @@ public class AuditService {
         log.info("Tax calculation logged: user={}, dividends={}, total={}",
                 userId, dividendCount, totalReclaimable);
 
-        return logAction(userId, "TAX_CALCULATED", "DIVIDEND", null, details, null, null);
+        logAction(userId, "TAX_CALCULATED", "DIVIDEND", null, details, null, null);
     }
 
     @Transactional(readOnly = true)
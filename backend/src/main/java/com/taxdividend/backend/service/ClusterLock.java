@@ -0,0 +1,128 @@
+package com.taxdividend.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * Cluster-wide mutual exclusion for jobs that must run on one replica at a
+ * time, backed by PostgreSQL session-level advisory locks.
+ *
+ * The lock name is hashed to the 64-bit advisory key with
+ * {@code hashtextextended}. A lease keeps its own connection for as long as
+ * it is held, outside any transaction, so the lock survives the short
+ * transactions of the job itself and is released by PostgreSQL if the
+ * holding node dies. Callers release it by closing the lease.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterLock {
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtextextended(?, 0))";
+    private static final String LOCK_SQL = "SELECT true FROM pg_advisory_lock(hashtextextended(?, 0))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtextextended(?, 0))";
+
+    private final DataSource dataSource;
+
+    /**
+     * Take the named lock if no node holds it.
+     *
+     * @param name Lock name, e.g. a job name
+     * @return The held lease, or empty if another session holds the lock
+     */
+    public Optional<Lease> tryAcquire(String name) {
+        return Optional.ofNullable(lock(name, TRY_LOCK_SQL));
+    }
+
+    /**
+     * Take the named lock, waiting for the node that holds it to release it.
+     * For work that must run after, rather than instead of, the current holder's.
+     *
+     * @param name Lock name, e.g. a job name
+     * @return The held lease
+     */
+    public Lease acquire(String name) {
+        return lock(name, LOCK_SQL);
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private Lease lock(String name, String sql) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(true);
+            if (query(connection, sql, name)) {
+                log.debug("Acquired cluster lock {}", name);
+                return new Lease(name, connection);
+            }
+            connection.close();
+            return null;
+        } catch (SQLException e) {
+            closeQuietly(connection);
+            throw new IllegalStateException("Failed to acquire cluster lock " + name, e);
+        }
+    }
+
+    private static boolean query(Connection connection, String sql, String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, name);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Failed to close cluster lock connection", e);
+        }
+    }
+
+    /**
+     * A held lock. Closing it unlocks and returns the connection to the pool.
+     */
+    public static class Lease implements AutoCloseable {
+
+        private final String name;
+        private final Connection connection;
+
+        protected Lease(String name, Connection connection) {
+            this.name = name;
+            this.connection = connection;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (!query(connection, UNLOCK_SQL, name)) {
+                    log.warn("Cluster lock {} was no longer held when released", name);
+                }
+            } catch (SQLException e) {
+                // A broken connection is evicted by the pool, and its session's locks go with it
+                log.warn("Failed to release cluster lock {}: {}", name, e.getMessage());
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+}
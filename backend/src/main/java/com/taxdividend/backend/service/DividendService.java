@@ -10,25 +10,37 @@ import com.taxdividend.backend.api.dto.TaxCalculationResultDto;
 import com.taxdividend.backend.mapper.DividendMapper;
 import com.taxdividend.backend.model.Dividend;
 import com.taxdividend.backend.model.DividendStatement;
+import com.taxdividend.backend.model.DividendStats;
 import com.taxdividend.backend.model.DividendStatus;
 import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendBatchOperations.DividendKey;
 import com.taxdividend.backend.repository.DividendRepository;
+import com.taxdividend.backend.repository.DividendSpecifications;
 import com.taxdividend.backend.repository.DividendStatementRepository;
+import com.taxdividend.backend.repository.DividendStatsRepository;
 import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.dividend.DuplicateDividendDetector;
+import com.taxdividend.backend.service.fx.CurrencyTotal;
+import com.taxdividend.backend.service.fx.FxRateIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -37,38 +49,69 @@ import java.util.UUID;
 @Transactional(readOnly = true)
 public class DividendService {
 
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "paymentDate", "id");
+
     private final DividendRepository dividendRepository;
     private final DividendStatementRepository statementRepository;
+    private final DividendStatsRepository dividendStatsRepository;
     private final UserRepository userRepository;
     private final DividendMapper dividendMapper;
     private final AuditService auditService;
     private final TaxCalculationService taxCalculationService;
     private final DividendStatementService statementService;
-
+    private final FxRateIndex fxRateIndex;
+    private final DuplicateDividendDetector duplicateDetector;
+
+    /**
+     * List a user's dividends, newest first, filtered and paged in the database.
+     *
+     * Without a cursor the requested page is returned along with totals. With a
+     * cursor (taken from a previous response's nextCursor) the rows after it are
+     * read by keyset on (payment_date, id), so deep pages cost the same as the
+     * first one; totals are not computed in that case.
+     */
     public PaginatedDividendListDto listDividends(UUID userId, Pageable pageable,
             LocalDate startDate,
-            LocalDate endDate, String status) {
-        List<Dividend> dividends;
-
-        // Apply filters based on provided parameters
-        if (startDate != null && endDate != null) {
-            // Date range filter
-            dividends = dividendRepository.findByUserIdAndPaymentDateBetween(userId, startDate, endDate);
-        } else if ("UNSUBMITTED".equalsIgnoreCase(status)) {
-            // Unsubmitted filter (dividends not linked to a form)
-            dividends = dividendRepository.findByUserIdAndFormIsNull(userId);
-        } else {
-            // No filters, get all dividends for user
-            dividends = dividendRepository.findByUserId(userId);
+            LocalDate endDate, String status, String cursor) {
+        Specification<Dividend> filter = DividendSpecifications.ofUser(userId);
+        if (startDate != null) {
+            filter = filter.and(DividendSpecifications.paidOnOrAfter(startDate));
+        }
+        if (endDate != null) {
+            filter = filter.and(DividendSpecifications.paidOnOrBefore(endDate));
+        }
+        if (status != null && !status.isBlank()) {
+            filter = filter.and(statusFilter(status));
         }
 
-        // Note: Status filtering for SUBMITTED, APPROVED, PAID would require additional
-        // logic
-        // based on form_submissions table, which is not yet implemented
+        int size = pageable.getPageSize();
+        PaginatedDividendListDto result;
 
-        Page<Dividend> dividendPage = PageableExecutionUtils.getPage(dividends, pageable, dividends::size);
+        if (cursor == null || cursor.isBlank()) {
+            Page<Dividend> dividendPage = dividendRepository.findAll(filter,
+                    PageRequest.of(pageable.getPageNumber(), size, KEYSET_SORT));
 
-        PaginatedDividendListDto result = dividendMapper.toPageResponse(dividendPage);
+            result = dividendMapper.toPageResponse(dividendPage);
+            if (dividendPage.hasNext()) {
+                result.setNextCursor(encodeCursor(dividendPage.getContent().getLast()));
+            }
+        } else {
+            Dividend last = decodeCursor(cursor);
+            // One extra row tells whether another page follows
+            List<Dividend> rows = dividendRepository.findBy(
+                    filter.and(DividendSpecifications.after(last.getPaymentDate(), last.getId())),
+                    query -> query.sortBy(KEYSET_SORT).limit(size + 1).all());
+
+            List<Dividend> content = rows.size() > size ? rows.subList(0, size) : rows;
+
+            result = new PaginatedDividendListDto();
+            result.setContent(dividendMapper.toDtoList(content));
+            result.setSize(size);
+            if (rows.size() > size) {
+                result.setNextCursor(encodeCursor(content.getLast()));
+            }
+        }
 
         return result;
     }
@@ -104,33 +147,32 @@ public class DividendService {
                 });
     }
 
+    /**
+     * Dashboard statistics, read from the trigger-maintained dividend_stats
+     * table: at most one row per status for a year, one per (year, status)
+     * all-time.
+     */
     public DividendStatsDto getStats(UUID userId, Integer taxYear) {
-        BigDecimal totalReclaimed;
-        BigDecimal pendingAmount;
-        long casesCount;
-
-        if (taxYear == null) {
-            // Global stats
-            totalReclaimed = dividendRepository.sumReclaimableByStatus(userId, DividendStatus.PAID);
-            pendingAmount = dividendRepository.sumReclaimableByStatuses(userId,
-                    Arrays.asList(DividendStatus.OPEN, DividendStatus.SENT));
-            casesCount = dividendRepository.countByUserId(userId);
-        } else {
-            // Stats filtered by year
-            totalReclaimed = dividendRepository.sumReclaimableByStatusAndYear(
-                    userId,
-                    Arrays.asList(DividendStatus.PAID),
-                    taxYear);
-            pendingAmount = dividendRepository.sumReclaimableByStatusAndYear(
-                    userId,
-                    Arrays.asList(DividendStatus.OPEN, DividendStatus.SENT),
-                    taxYear);
-            casesCount = dividendRepository.countByUserIdAndYear(userId, taxYear);
+        List<DividendStats> rows = taxYear == null
+                ? dividendStatsRepository.findByIdUserId(userId)
+                : dividendStatsRepository.findByIdUserIdAndIdTaxYear(userId, taxYear);
+
+        BigDecimal totalReclaimed = BigDecimal.ZERO;
+        BigDecimal pendingAmount = BigDecimal.ZERO;
+        long casesCount = 0;
+        for (DividendStats row : rows) {
+            casesCount += row.getDividendCount();
+            if (row.getId().getStatus() == DividendStatus.PAID) {
+                totalReclaimed = totalReclaimed.add(row.getReclaimableTotal());
+            } else {
+                // OPEN and SENT
+                pendingAmount = pendingAmount.add(row.getReclaimableTotal());
+            }
         }
 
         DividendStatsDto stats = new DividendStatsDto();
-        stats.setTotalReclaimed(totalReclaimed != null ? totalReclaimed : BigDecimal.ZERO);
-        stats.setPendingAmount(pendingAmount != null ? pendingAmount : BigDecimal.ZERO);
+        stats.setTotalReclaimed(totalReclaimed);
+        stats.setPendingAmount(pendingAmount);
         stats.setCasesCount((int) casesCount);
 
         return stats;
@@ -160,17 +202,19 @@ public class DividendService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
 
-        List<UUID> importedIds = new ArrayList<>();
+        // Validate and compute every row in memory; rows that fail are reported
+        // individually and never reach the database
+        List<Dividend> toInsert = new ArrayList<>(request.getDividends().size());
         List<String> errors = new ArrayList<>();
-        BigDecimal totalGross = BigDecimal.ZERO;
-        BigDecimal totalReclaimable = BigDecimal.ZERO;
-        int successCount = 0;
 
-        // Process each dividend
+        int row = 0;
         for (BulkImportDividendItemDto item : request.getDividends()) {
+            row++;
             try {
-                // Create dividend entity
+                validateImportItem(item);
+
                 Dividend dividend = Dividend.builder()
+                        .id(UUID.randomUUID())
                         .user(user)
                         .statement(statement)
                         .securityName(item.getSecurityName())
@@ -188,46 +232,145 @@ public class DividendService {
                 TaxCalculationResultDto taxResult = taxCalculationService.calculateForDividend(dividend,
                         user.getCountry());
 
-                // Set calculated values
                 dividend.setReclaimableAmount(taxResult.getReclaimableAmount());
                 dividend.setTreatyRate(taxResult.getTreatyRate());
-
-                // Save dividend
-                dividend = dividendRepository.save(dividend);
-                importedIds.add(dividend.getId());
-
-                totalGross = totalGross.add(item.getGrossAmount());
-                totalReclaimable = totalReclaimable.add(taxResult.getReclaimableAmount());
-                successCount++;
-
-                log.debug("Imported dividend {} - {} ({})", dividend.getId(),
-                        item.getSecurityName(), item.getIsin());
+                toInsert.add(dividend);
 
             } catch (Exception e) {
-                log.error("Failed to import dividend: {} - {}", item.getIsin(), e.getMessage());
-                errors.add(String.format("%s (%s): %s", item.getSecurityName(), item.getIsin(), e.getMessage()));
+                log.warn("Rejected dividend at row {}: {} - {}", row, item.getIsin(), e.getMessage());
+                errors.add(String.format("Row %d - %s (%s): %s", row, item.getSecurityName(), item.getIsin(),
+                        e.getMessage()));
             }
         }
 
-        // Update statement metadata
+        // Drop dividends the user already has, and repeats within this import
+        Set<DividendKey> existing = duplicateDetector.findExisting(userId,
+                toInsert.stream().map(DividendKey::of).toList());
+        Set<DividendKey> seen = new HashSet<>();
+        List<Dividend> candidates = new ArrayList<>(toInsert.size());
+        for (Dividend dividend : toInsert) {
+            DividendKey key = DividendKey.of(dividend);
+            if (!existing.contains(key) && seen.add(key)) {
+                candidates.add(dividend);
+            }
+        }
+
+        // The unique index skips duplicates committed concurrently or unknown to the filter
+        Set<UUID> insertedIds = dividendRepository.insertAllSkippingDuplicates(candidates);
+        List<Dividend> inserted = candidates.stream()
+                .filter(dividend -> insertedIds.contains(dividend.getId()))
+                .toList();
+        duplicateDetector.recordInserted(userId, inserted.stream().map(DividendKey::of).toList());
+
+        int successCount = inserted.size();
+        int duplicateCount = toInsert.size() - successCount;
+        List<UUID> importedIds = inserted.stream().map(Dividend::getId).toList();
+
+        // Totals of inserted rows only, in the reporting currency at the rate of each payment date
+        FxRateIndex.Snapshot rates = fxRateIndex.snapshot();
+        CurrencyTotal totalGross = new CurrencyTotal(rates, fxRateIndex.reportingCurrency());
+        CurrencyTotal totalReclaimable = new CurrencyTotal(rates, fxRateIndex.reportingCurrency());
+        for (Dividend dividend : inserted) {
+            totalGross.add(dividend.getGrossAmount(), dividend.getCurrency(), dividend.getPaymentDate());
+            totalReclaimable.add(dividend.getReclaimableAmount(), dividend.getCurrency(), dividend.getPaymentDate());
+        }
+
+        // Update statement metadata; partial totals are returned to the caller but never stored
+        boolean complete = totalGross.unconvertedCount() == 0;
         statementService.updateAfterParsing(
                 request.getStatementId(),
                 successCount,
-                totalGross,
-                totalReclaimable);
+                complete ? totalGross.amount() : null,
+                complete ? totalReclaimable.amount() : null);
 
-        log.info("Bulk import completed: {} success, {} failures, total gross: {}, total reclaimable: {}",
-                successCount, errors.size(), totalGross, totalReclaimable);
+        if (!complete) {
+            log.warn("{} imported dividends left out of the {} totals: no FX rate available, "
+                    + "statement totals left unset", totalGross.unconvertedCount(), totalGross.currency());
+        }
+        log.info("Bulk import completed: {} success, {} duplicates, {} failures, total gross: {} {}, "
+                + "total reclaimable: {} {}",
+                successCount, duplicateCount, errors.size(), totalGross.amount(), totalGross.currency(),
+                totalReclaimable.amount(), totalReclaimable.currency());
 
         // Build response
         BulkImportDividendsResponseDto response = new BulkImportDividendsResponseDto();
         response.setImportedCount(successCount);
         response.setFailedCount(errors.size());
-        response.setTotalGrossAmount(totalGross);
-        response.setTotalReclaimable(totalReclaimable);
+        response.setDuplicateCount(duplicateCount);
+        response.setTotalGrossAmount(totalGross.amount());
+        response.setTotalReclaimable(totalReclaimable.amount());
+        response.setCurrency(totalGross.currency());
+        response.setUnconvertedCount(totalGross.unconvertedCount());
         response.setDividendIds(importedIds);
         response.setErrors(errors);
 
         return response;
     }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    /**
+     * Check an import row against the dividends table constraints, so a single
+     * bad row cannot abort the batch insert.
+     */
+    private void validateImportItem(BulkImportDividendItemDto item) {
+        if (item.getSecurityName() == null || item.getSecurityName().isBlank()) {
+            throw new IllegalArgumentException("Security name is required");
+        }
+        if (item.getSecurityName().length() > 255) {
+            throw new IllegalArgumentException("Security name exceeds 255 characters");
+        }
+        if (item.getIsin() == null || item.getIsin().length() != 12) {
+            throw new IllegalArgumentException("ISIN must be 12 characters");
+        }
+        if (item.getPaymentDate() == null) {
+            throw new IllegalArgumentException("Payment date is required");
+        }
+        if (item.getCurrency() == null || item.getCurrency().length() != 3) {
+            throw new IllegalArgumentException("Currency must be a 3-letter code");
+        }
+        if (item.getSourceCountry() == null || item.getSourceCountry().length() != 2) {
+            throw new IllegalArgumentException("Source country must be a 2-letter code");
+        }
+        if (item.getGrossAmount() == null || item.getGrossAmount().signum() < 0) {
+            throw new IllegalArgumentException("Gross amount must be non-negative");
+        }
+        if (item.getWithholdingTax() == null || item.getWithholdingTax().signum() < 0) {
+            throw new IllegalArgumentException("Withholding tax must be non-negative");
+        }
+        if (item.getWithholdingRate() == null || item.getWithholdingRate().signum() < 0
+                || item.getWithholdingRate().compareTo(ONE_HUNDRED) > 0) {
+            throw new IllegalArgumentException("Withholding rate must be between 0 and 100");
+        }
+    }
+
+    private static Specification<Dividend> statusFilter(String status) {
+        return switch (status.toUpperCase()) {
+            case "UNSUBMITTED" -> DividendSpecifications.unsubmitted();
+            case "OPEN" -> DividendSpecifications.hasStatus(DividendStatus.OPEN);
+            case "SENT", "SUBMITTED" -> DividendSpecifications.hasStatus(DividendStatus.SENT);
+            case "PAID", "APPROVED" -> DividendSpecifications.hasStatus(DividendStatus.PAID);
+            default -> throw new IllegalArgumentException("Unknown status filter: " + status);
+        };
+    }
+
+    private static String encodeCursor(Dividend dividend) {
+        String key = dividend.getPaymentDate() + "|" + dividend.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Dividend decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf('|');
+            return Dividend.builder()
+                    .paymentDate(LocalDate.parse(key.substring(0, separator)))
+                    .id(UUID.fromString(key.substring(separator + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
 }
@@ -1,41 +1,60 @@
 package com.taxdividend.backend.service;
 
+import com.taxdividend.backend.api.dto.DividendDto;
 import com.taxdividend.backend.api.dto.DividendStatementDto;
 import com.taxdividend.backend.api.dto.DividendStatementUpdateDto;
 import com.taxdividend.backend.dto.FileUploadResultDTO;
 import com.taxdividend.backend.exception.StorageException;
+import com.taxdividend.backend.mapper.DividendMapper;
 import com.taxdividend.backend.mapper.DividendStatementMapper;
 import com.taxdividend.backend.model.DividendStatement;
 import com.taxdividend.backend.model.DividendStatementStatus;
 import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendRepository;
 import com.taxdividend.backend.repository.DividendStatementRepository;
 import com.taxdividend.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Implementation of DividendStatementService.
+ *
+ * Uploads are deduplicated per user by SHA-256 of the file content: an
+ * identical file returns the existing statement without storing anything.
+ * It is flagged as duplicate only once its dividends were extracted, so an
+ * upload interrupted before parsing or import can be resumed on it.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class DividendStatementService {
 
+        private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
         private final DividendStatementRepository statementRepository;
+        private final DividendRepository dividendRepository;
         private final UserRepository userRepository;
         private final StorageService storageService;
         private final DividendStatementMapper mapper;
+        private final DividendMapper dividendMapper;
 
         @Transactional
         public DividendStatementDto uploadStatement(
@@ -62,6 +81,22 @@ public class DividendStatementService {
                         throw new IllegalArgumentException("Period end must be after period start");
                 }
 
+                // Hash before storing, so a re-upload never reaches storage
+                String contentHash = sha256Hex(file);
+                Optional<DividendStatement> existing = statementRepository.findByUserIdAndContentHash(userId,
+                                contentHash);
+                if (existing.isPresent()) {
+                        DividendStatement statement = existing.get();
+                        if (statement.isProcessed()) {
+                                log.info("Statement already uploaded by user {} as {}, skipping storage",
+                                                userId, statement.getId());
+                                return mapper.toDto(statement).duplicate(true);
+                        }
+                        log.info("Statement {} of user {} stored but not processed yet ({}), resuming it",
+                                        statement.getId(), userId, statement.getStatus());
+                        return mapper.toDto(statement).duplicate(false);
+                }
+
                 // Upload file to storage
                 FileUploadResultDTO uploadResult = storageService.uploadFile(file, "statements");
                 if (!uploadResult.getSuccess()) {
@@ -74,6 +109,7 @@ public class DividendStatementService {
                                 .user(user)
                                 .sourceFileName(file.getOriginalFilename())
                                 .sourceFileS3Key(uploadResult.getS3Key())
+                                .contentHash(contentHash)
                                 .broker(broker)
                                 .periodStart(periodStart)
                                 .periodEnd(periodEnd)
@@ -83,11 +119,30 @@ public class DividendStatementService {
                                 .totalReclaimable(BigDecimal.ZERO)
                                 .build();
 
-                statement = statementRepository.save(statement);
+                try {
+                        // Flush now so a concurrent upload of the same file fails here, not at commit
+                        statement = statementRepository.saveAndFlush(statement);
+                } catch (DataIntegrityViolationException e) {
+                        storageService.deleteFile(uploadResult.getS3Key());
+                        throw e;
+                }
 
                 log.info("Statement uploaded successfully: {}", statement.getId());
 
-                return mapper.toDto(statement);
+                return mapper.toDto(statement).duplicate(false);
+        }
+
+        @Transactional(readOnly = true)
+        public Optional<DividendStatementDto> findByContentHash(UUID userId, String contentHash) {
+                return statementRepository.findByUserIdAndContentHash(userId, contentHash.toLowerCase(Locale.ROOT))
+                                .map(mapper::toDto);
+        }
+
+        @Transactional(readOnly = true)
+        public Optional<List<DividendDto>> listDividends(UUID id, UUID userId) {
+                return statementRepository.findByIdAndUserId(id, userId)
+                                .map(statement -> dividendMapper.toDtoList(
+                                                dividendRepository.findByStatementIdOrderByPaymentDateAsc(id)));
         }
 
         @Transactional(readOnly = true)
@@ -215,4 +270,27 @@ public class DividendStatementService {
         public long countByStatus(UUID userId, DividendStatementStatus status) {
                 return statementRepository.countByUserIdAndStatus(userId, status);
         }
+
+        // ========================================
+        // Private Helper Methods
+        // ========================================
+
+        /**
+         * Hex SHA-256 of the file, read in chunks so large uploads are never held in memory.
+         */
+        private static String sha256Hex(MultipartFile file) {
+                try (InputStream in = file.getInputStream()) {
+                        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+                        int read;
+                        while ((read = in.read(buffer)) != -1) {
+                                digest.update(buffer, 0, read);
+                        }
+                        return HexFormat.of().formatHex(digest.digest());
+                } catch (IOException e) {
+                        throw new StorageException("Failed to read statement file", e);
+                } catch (NoSuchAlgorithmException e) {
+                        throw new IllegalStateException("SHA-256 is not available", e);
+                }
+        }
 }
@@ -0,0 +1,337 @@
+package com.taxdividend.backend.service;
+
+import com.taxdividend.backend.api.dto.FormGenerationRequestDto;
+import com.taxdividend.backend.dto.FileUploadResultDTO;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.model.JobCheckpoint;
+import com.taxdividend.backend.repository.DividendRepository;
+import com.taxdividend.backend.repository.JobCheckpointRepository;
+import com.taxdividend.backend.service.PdfGenerationService.RenderPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Year-end campaign: generates a BUNDLE (Form 5000 + 5001) for every user
+ * with unsubmitted dividends in a tax year.
+ *
+ * Users are read by keyset on user_id in pages. Each user of a page runs on
+ * its own virtual thread, at most {@code concurrency} at a time, through the
+ * same three stages as async jobs ({@link FormGenerationJobService}): prepare
+ * and complete each run in a short transaction of their own, while rendering
+ * and uploading hold no database connection. A failed user is counted and
+ * logged without stopping the campaign.
+ *
+ * After each page, the last user id is stored in job_checkpoints, so an
+ * interrupted run resumes after that user. Generating links the user's
+ * dividends to the new form, so running the campaign again only picks up
+ * users that failed or got new dividends since.
+ *
+ * A run of a tax year holds the cluster lock named after its checkpoint, so
+ * replicas never run the same campaign, or share its checkpoint, at once.
+ */
+@Slf4j
+@Component
+public class FormCampaignJob {
+
+    public static final String JOB_NAME_PREFIX = "form-campaign-";
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final int MAX_REPORTED_FAILURES = 100;
+
+    private final PdfGenerationService pdfGenerationService;
+    private final StorageService storageService;
+    private final AuditService auditService;
+    private final DividendRepository dividendRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ClusterLock clusterLock;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int concurrency;
+    private final int partitionSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong usersRemaining = new AtomicLong();
+    private final AtomicLong usersCompleted = new AtomicLong();
+    private final AtomicLong formsGenerated = new AtomicLong();
+    private final AtomicLong usersFailed = new AtomicLong();
+    private final AtomicReference<Instant> startedAt = new AtomicReference<>();
+    private final Queue<UUID> failedUserIds = new ConcurrentLinkedQueue<>();
+
+    private final Counter generatedCounter;
+    private final Counter failedCounter;
+    private final Counter skippedCounter;
+    private final Timer userTimer;
+
+    public FormCampaignJob(PdfGenerationService pdfGenerationService,
+            StorageService storageService,
+            AuditService auditService,
+            DividendRepository dividendRepository,
+            JobCheckpointRepository checkpointRepository,
+            ClusterLock clusterLock,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.forms.campaign.concurrency:8}") int concurrency,
+            @Value("${app.forms.campaign.partition-size:200}") int partitionSize) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.storageService = storageService;
+        this.auditService = auditService;
+        this.dividendRepository = dividendRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.clusterLock = clusterLock;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.concurrency = concurrency;
+        this.partitionSize = partitionSize;
+
+        this.generatedCounter = Counter.builder("forms.campaign.users")
+                .tag("outcome", "generated")
+                .description("Users the campaign generated a bundle for")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("forms.campaign.users")
+                .tag("outcome", "failed")
+                .description("Users the campaign could not generate a bundle for")
+                .register(meterRegistry);
+        this.skippedCounter = Counter.builder("forms.campaign.users")
+                .tag("outcome", "skipped")
+                .description("Users whose dividends were submitted before the campaign reached them")
+                .register(meterRegistry);
+        this.userTimer = Timer.builder("forms.campaign.user")
+                .description("Time to prepare, render, upload and record one user's bundle")
+                .register(meterRegistry);
+        Gauge.builder("forms.campaign.users.remaining", usersRemaining, AtomicLong::get)
+                .description("Users left to process in the current campaign")
+                .register(meterRegistry);
+        Gauge.builder("forms.campaign.running", running, r -> r.get() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run (or resume) the campaign for a tax year.
+     *
+     * @throws IllegalStateException if a campaign is already running on this node, or
+     *         the campaign for this year is running on another one
+     */
+    public Summary run(int taxYear) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A form campaign is already running");
+        }
+
+        String jobName = JOB_NAME_PREFIX + taxYear;
+        try (ClusterLock.Lease lease = clusterLock.tryAcquire(jobName).orElseThrow(() ->
+                new IllegalStateException("The form campaign for " + taxYear + " is running on another node"))) {
+            return execute(jobName, taxYear);
+        } finally {
+            running.set(false);
+            usersRemaining.set(0);
+        }
+    }
+
+    /**
+     * Run the campaign for the previous tax year. Disabled unless
+     * {@code app.forms.campaign.cron} is set.
+     */
+    @Scheduled(cron = "${app.forms.campaign.cron:-}")
+    public void runScheduled() {
+        int taxYear = LocalDate.now().getYear() - 1;
+        try {
+            run(taxYear);
+        } catch (Exception e) {
+            log.error("Scheduled form campaign for {} failed", taxYear, e);
+        }
+    }
+
+    /**
+     * Live progress of the current (or last) run.
+     */
+    public Progress progress() {
+        Instant start = startedAt.get();
+        Duration elapsed = start != null ? Duration.between(start, Instant.now()) : Duration.ZERO;
+        long generated = formsGenerated.get();
+        double perSecond = elapsed.toMillis() > 0 ? generated * 1000.0 / elapsed.toMillis() : 0;
+
+        return new Progress(running.get(), usersCompleted.get(), usersRemaining.get(), generated,
+                usersFailed.get(), elapsed, perSecond);
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private Summary execute(String jobName, int taxYear) {
+        JobCheckpoint checkpoint = transactionTemplate.execute(status -> checkpointRepository.findById(jobName)
+                .orElseGet(() -> checkpointRepository.save(JobCheckpoint.builder()
+                        .jobName(jobName)
+                        .startedAt(LocalDateTime.now())
+                        .build())));
+
+        UUID afterUserId = checkpoint.getLastKey() != null ? UUID.fromString(checkpoint.getLastKey()) : MIN_UUID;
+        if (checkpoint.getLastKey() != null) {
+            log.info("Resuming form campaign {} after user {}", taxYear, afterUserId);
+        }
+        long resumedGenerated = checkpoint.getProcessedCount();
+        long resumedFailed = checkpoint.getFailedCount();
+
+        startedAt.set(Instant.now());
+        usersCompleted.set(0);
+        formsGenerated.set(0);
+        usersFailed.set(0);
+        failedUserIds.clear();
+        usersRemaining.set(dividendRepository.countUsersWithUnsubmittedDividendsForYear(taxYear, afterUserId));
+
+        log.info("Form campaign {}: {} users with unsubmitted dividends ({} concurrent, pages of {})",
+                taxYear, usersRemaining.get(), concurrency, partitionSize);
+
+        Semaphore permits = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("form-campaign-", 0).factory())) {
+
+            List<UUID> userIds;
+            while (!(userIds = dividendRepository.findUserIdsWithUnsubmittedDividendsForYear(
+                    taxYear, afterUserId, PageRequest.of(0, partitionSize))).isEmpty()) {
+
+                List<Future<?>> users = new ArrayList<>(userIds.size());
+                for (UUID userId : userIds) {
+                    users.add(executor.submit(() -> {
+                        generateBounded(userId, taxYear, permits);
+                        return null;
+                    }));
+                }
+                for (Future<?> user : users) {
+                    await(user);
+                }
+
+                afterUserId = userIds.getLast();
+                saveCheckpoint(jobName, afterUserId, resumedGenerated + formsGenerated.get(),
+                        resumedFailed + usersFailed.get());
+
+                Progress progress = progress();
+                log.info("Form campaign {} progress: {} users done, {} remaining, {} failed ({} forms/s)",
+                        taxYear, progress.usersCompleted(), progress.usersRemaining(), progress.usersFailed(),
+                        String.format("%.1f", progress.formsPerSecond()));
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.deleteById(jobName));
+
+        Progress progress = progress();
+        log.info("Form campaign {} completed in {}: {} forms generated, {} users failed ({} forms/s)",
+                taxYear, progress.elapsed(), progress.formsGenerated(), progress.usersFailed(),
+                String.format("%.1f", progress.formsPerSecond()));
+
+        return new Summary(taxYear, progress.formsGenerated(), progress.usersFailed(),
+                List.copyOf(failedUserIds), progress.elapsed(), progress.formsPerSecond());
+    }
+
+    private void generateBounded(UUID userId, int taxYear, Semaphore permits) throws InterruptedException {
+        permits.acquire();
+        try {
+            userTimer.record(() -> generateForUser(userId, taxYear));
+        } finally {
+            permits.release();
+            usersCompleted.incrementAndGet();
+            usersRemaining.decrementAndGet();
+        }
+    }
+
+    /**
+     * Generate one user's bundle. Failures are recorded, never thrown.
+     */
+    private void generateForUser(UUID userId, int taxYear) {
+        FileUploadResultDTO upload = null;
+        GeneratedForm form = null;
+        try {
+            List<UUID> dividendIds = dividendRepository.findUnsubmittedIdsByUserIdAndTaxYear(userId, taxYear);
+            if (dividendIds.isEmpty()) {
+                skippedCounter.increment();
+                return;
+            }
+
+            RenderPlan plan = pdfGenerationService.prepare(new FormGenerationRequestDto()
+                    .userId(userId)
+                    .formType(FormGenerationRequestDto.FormTypeEnum.BUNDLE)
+                    .taxYear(taxYear)
+                    .dividendIds(dividendIds));
+            upload = pdfGenerationService.render(plan);
+            form = pdfGenerationService.complete(plan, upload);
+
+            auditService.logFormGeneration(userId, form.getId(), plan.formType(), plan.dividendIds().size());
+            formsGenerated.incrementAndGet();
+            generatedCounter.increment();
+
+        } catch (Exception e) {
+            log.warn("Form campaign {}: generation failed for user {}: {}", taxYear, userId, e.getMessage());
+            if (upload != null && form == null) {
+                // Uploaded but never recorded: remove the orphan object
+                storageService.deleteFile(upload.getS3Key());
+            }
+            usersFailed.incrementAndGet();
+            failedCounter.increment();
+            if (failedUserIds.size() < MAX_REPORTED_FAILURES) {
+                failedUserIds.add(userId);
+            }
+        }
+    }
+
+    private void saveCheckpoint(String jobName, UUID lastUserId, long processedCount, long failedCount) {
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.findById(jobName)
+                .ifPresent(checkpoint -> {
+                    checkpoint.setLastKey(lastUserId.toString());
+                    checkpoint.setProcessedCount(processedCount);
+                    checkpoint.setFailedCount(failedCount);
+                }));
+    }
+
+    private static void await(Future<?> user) {
+        try {
+            user.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Form campaign interrupted", e);
+        } catch (ExecutionException e) {
+            // Per-user failures are recorded; anything reaching here stops the run at the last checkpoint
+            throw new IllegalStateException("Form campaign failed", e.getCause());
+        }
+    }
+
+    /**
+     * Outcome of a completed run.
+     *
+     * @param failedUserIds users that failed, capped at {@value #MAX_REPORTED_FAILURES}
+     */
+    public record Summary(int taxYear, long formsGenerated, long usersFailed, List<UUID> failedUserIds,
+            Duration elapsed, double formsPerSecond) {
+    }
+
+    /**
+     * Point-in-time view of a run, for monitoring.
+     */
+    public record Progress(boolean running, long usersCompleted, long usersRemaining, long formsGenerated,
+            long usersFailed, Duration elapsed, double formsPerSecond) {
+    }
+}
@@ -0,0 +1,254 @@
+package com.taxdividend.backend.service;
+
+import com.taxdividend.backend.api.dto.FormGenerationJobDto;
+import com.taxdividend.backend.api.dto.FormGenerationJobDto.StatusEnum;
+import com.taxdividend.backend.api.dto.FormGenerationRequestDto;
+import com.taxdividend.backend.api.dto.GenerateFormResultDto;
+import com.taxdividend.backend.config.AsyncConfig;
+import com.taxdividend.backend.dto.FileUploadResultDTO;
+import com.taxdividend.backend.model.FormGenerationJob;
+import com.taxdividend.backend.model.FormGenerationJob.Stage;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.repository.FormGenerationJobRepository;
+import com.taxdividend.backend.repository.GeneratedFormRepository;
+import com.taxdividend.backend.service.PdfGenerationService.RenderPlan;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous form generation.
+ *
+ * A submitted request becomes a job that runs on the dedicated
+ * {@link AsyncConfig#FORM_GENERATION_EXECUTOR} pool in three stages:
+ * prepare (short read-only transaction), render + upload (no transaction),
+ * complete (short write transaction). A database connection is therefore
+ * never held while talking to storage.
+ *
+ * Job statuses live in form_generation_jobs, written on submit and at the
+ * start of every stage, so a poll can be answered by any replica, not only
+ * the one running the job. The download URL of a completed job is signed
+ * from its generated_forms row when polled. A periodic cleanup fails jobs
+ * not updated for {@code app.forms.generation.job-timeout} (their node
+ * stopped) and deletes jobs after {@code app.forms.generation.job-retention}.
+ */
+@Slf4j
+@Service
+public class FormGenerationJobService {
+
+    private static final Duration DOWNLOAD_URL_EXPIRATION = Duration.ofDays(7);
+    private static final Set<Stage> UNFINISHED_STAGES = EnumSet.of(Stage.QUEUED, Stage.PREPARING, Stage.RENDERING,
+            Stage.COMPLETING);
+
+    private final PdfGenerationService pdfGenerationService;
+    private final StorageService storageService;
+    private final AuditService auditService;
+    private final FormGenerationJobRepository jobRepository;
+    private final GeneratedFormRepository generatedFormRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    private final Duration jobRetention;
+    private final Duration jobTimeout;
+
+    public FormGenerationJobService(PdfGenerationService pdfGenerationService,
+            StorageService storageService,
+            AuditService auditService,
+            FormGenerationJobRepository jobRepository,
+            GeneratedFormRepository generatedFormRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(AsyncConfig.FORM_GENERATION_EXECUTOR) TaskExecutor executor,
+            MeterRegistry meterRegistry,
+            @Value("${app.forms.generation.job-retention:1h}") Duration jobRetention,
+            @Value("${app.forms.generation.job-timeout:15m}") Duration jobTimeout) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.storageService = storageService;
+        this.auditService = auditService;
+        this.jobRepository = jobRepository;
+        this.generatedFormRepository = generatedFormRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.jobRetention = jobRetention;
+        this.jobTimeout = jobTimeout;
+    }
+
+    /**
+     * Enqueue a generation job and return immediately.
+     *
+     * @throws TaskRejectedException if the generation queue is full
+     */
+    public FormGenerationJobDto submit(FormGenerationRequestDto request) {
+        FormGenerationJob job = transactionTemplate.execute(status -> jobRepository.save(FormGenerationJob.builder()
+                .userId(request.getUserId())
+                .stage(Stage.QUEUED)
+                .formType(request.getFormType().getValue())
+                .taxYear(request.getTaxYear())
+                .build()));
+
+        try {
+            executor.execute(() -> run(job.getId(), request));
+        } catch (TaskRejectedException e) {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.deleteById(job.getId()));
+            log.warn("Form generation queue full, rejecting job for user {}", request.getUserId());
+            throw e;
+        }
+
+        log.info("Queued form generation job {} for user {}: type={}, year={}",
+                job.getId(), request.getUserId(), job.getFormType(), job.getTaxYear());
+        return toDto(job);
+    }
+
+    /**
+     * Current status of a job, if it exists and belongs to the user.
+     */
+    public Optional<FormGenerationJobDto> getJob(UUID jobId, UUID userId) {
+        return jobRepository.findById(jobId)
+                .filter(job -> job.getUserId().equals(userId))
+                .map(this::toDto);
+    }
+
+    /**
+     * Fail jobs abandoned by a node that stopped, and delete jobs past their retention.
+     * Safe to run on every replica at once.
+     */
+    @Scheduled(fixedDelayString = "${app.forms.generation.job-cleanup-interval:5m}",
+            initialDelayString = "${app.forms.generation.job-cleanup-interval:5m}")
+    public void cleanUpJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Integer abandoned = transactionTemplate.execute(status -> jobRepository.updateStageNotUpdatedSince(
+                    UNFINISHED_STAGES, now.minus(jobTimeout), Stage.FAILED,
+                    "Generation interrupted: the node running the job stopped"));
+            Integer expired = transactionTemplate.execute(status -> jobRepository.deleteNotUpdatedSince(
+                    now.minus(jobRetention)));
+            log.debug("Form generation job cleanup: {} abandoned, {} expired", abandoned, expired);
+        } catch (Exception e) {
+            log.error("Failed to clean up form generation jobs", e);
+        }
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private void run(UUID jobId, FormGenerationRequestDto request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        FileUploadResultDTO upload = null;
+        GeneratedForm form = null;
+        try {
+            update(jobId, job -> job.setStage(Stage.PREPARING));
+            RenderPlan plan = pdfGenerationService.prepare(request);
+
+            update(jobId, job -> job.setStage(Stage.RENDERING));
+            upload = pdfGenerationService.render(plan);
+
+            update(jobId, job -> job.setStage(Stage.COMPLETING));
+            form = pdfGenerationService.complete(plan, upload);
+
+            auditService.logFormGeneration(request.getUserId(), form.getId(), plan.formType(),
+                    plan.dividendIds().size());
+
+            UUID formId = form.getId();
+            update(jobId, job -> {
+                job.setStage(Stage.COMPLETED);
+                job.setFormId(formId);
+                job.setDividendCount(plan.dividendIds().size());
+            });
+            log.info("Form generation job {} completed: form {}", jobId, formId);
+
+        } catch (Exception e) {
+            log.error("Form generation job {} failed", jobId, e);
+            if (upload != null && form == null) {
+                // Uploaded but never recorded: remove the orphan object
+                storageService.deleteFile(upload.getS3Key());
+            }
+            fail(jobId, "Generation failed: " + e.getMessage());
+
+        } finally {
+            sample.stop(Timer.builder("forms.generation.job")
+                    .description("End-to-end duration of async form generation jobs")
+                    .tag("formType", request.getFormType().getValue())
+                    .register(meterRegistry));
+        }
+    }
+
+    private void fail(UUID jobId, String errorMessage) {
+        try {
+            update(jobId, job -> {
+                job.setStage(Stage.FAILED);
+                job.setErrorMessage(errorMessage);
+            });
+        } catch (Exception e) {
+            // Left unfinished: the cleanup fails it once it times out
+            log.error("Failed to record failure of form generation job {}", jobId, e);
+        }
+    }
+
+    private void update(UUID jobId, Consumer<FormGenerationJob> change) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(change));
+    }
+
+    private FormGenerationJobDto toDto(FormGenerationJob job) {
+        FormGenerationJobDto dto = new FormGenerationJobDto();
+        dto.setJobId(job.getId());
+        dto.setStatus(status(job.getStage()));
+        dto.setFormType(job.getFormType());
+        dto.setTaxYear(job.getTaxYear());
+        dto.setResult(job.getStage() == Stage.COMPLETED ? result(job) : null);
+        dto.setErrors(job.getErrorMessage() != null ? List.of(job.getErrorMessage()) : List.of());
+        dto.setCreatedAt(toOffsetDateTime(job.getCreatedAt()));
+        dto.setUpdatedAt(toOffsetDateTime(job.getUpdatedAt()));
+        return dto;
+    }
+
+    private GenerateFormResultDto result(FormGenerationJob job) {
+        GenerateFormResultDto result = new GenerateFormResultDto();
+        result.setSuccess(true);
+        result.setFormId(job.getFormId());
+        result.setFormType(job.getFormType());
+        result.setDividendCount(job.getDividendCount());
+        if (job.getFormId() != null) {
+            generatedFormRepository.findById(job.getFormId()).ifPresent(form -> {
+                result.setFileName(form.getFileName());
+                result.setDownloadUrl(storageService.generatePresignedUrl(form.getS3Key(),
+                        DOWNLOAD_URL_EXPIRATION));
+            });
+        }
+        return result;
+    }
+
+    private static StatusEnum status(Stage stage) {
+        return switch (stage) {
+            case QUEUED -> StatusEnum.QUEUED;
+            case PREPARING, RENDERING, COMPLETING -> StatusEnum.RUNNING;
+            case COMPLETED -> StatusEnum.COMPLETED;
+            case FAILED -> StatusEnum.FAILED;
+        };
+    }
+
+    private static OffsetDateTime toOffsetDateTime(LocalDateTime value) {
+        return value != null ? value.atOffset(ZoneOffset.UTC) : null;
+    }
+}
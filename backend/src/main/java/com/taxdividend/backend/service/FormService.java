@@ -4,17 +4,19 @@ import com.taxdividend.backend.api.dto.GeneratedFormDto;
 import com.taxdividend.backend.mapper.FormMapper;
 import com.taxdividend.backend.model.GeneratedForm;
 import com.taxdividend.backend.repository.GeneratedFormRepository;
+import io.minio.StatObjectResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -55,7 +57,15 @@ public class FormService {
                 .map(f -> mapper.toApiDto(f));
     }
 
-    public ResponseEntity<Resource> downloadForm(UUID id, UUID userId) {
+    /**
+     * Stream a form file from storage to the client.
+     *
+     * The storage stream is handed to the response as-is and closed by the
+     * message converter once written (or when the client aborts), so the file
+     * is never buffered on heap. Honors a single byte range (multiple ranges
+     * are coalesced into their span) and If-None-Match against the storage ETag.
+     */
+    public ResponseEntity<Resource> downloadForm(UUID id, UUID userId, String rangeHeader, String ifNoneMatch) {
         GeneratedForm form = generatedFormRepository.findById(id)
                 .filter(f -> f.getUser().getId().equals(userId))
                 .orElse(null);
@@ -65,7 +75,13 @@ public class FormService {
         }
 
         try {
-            byte[] fileBytes = storageService.downloadFileAsBytes(form.getS3Key());
+            StatObjectResponse stat = storageService.statFile(form.getS3Key());
+            long size = stat.size();
+            String etag = "\"" + stat.etag() + "\"";
+
+            if (matchesEtag(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
 
             String contentType = "BUNDLE".equals(form.getFormType())
                     ? "application/zip"
@@ -74,16 +90,50 @@ public class FormService {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.parseMediaType(contentType));
             headers.setContentDispositionFormData("attachment", form.getFileName());
-            headers.setContentLength(fileBytes.length);
+            headers.setETag(etag);
+            headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+            if (rangeHeader == null || rangeHeader.isBlank()) {
+                headers.setContentLength(size);
+
+                log.info("Downloading form {} for user {}: {} ({} bytes)",
+                        id, userId, form.getFileName(), size);
+                auditService.logAction(userId, "FORM_DOWNLOADED", "FORM", id, null, null, null);
+
+                return ResponseEntity.ok()
+                        .headers(headers)
+                        .body(new InputStreamResource(storageService.downloadFile(form.getS3Key())));
+            }
 
-            log.info("Downloading form {} for user {}: {} ({} bytes)",
-                    id, userId, form.getFileName(), fileBytes.length);
+            // Malformed ranges are rejected rather than ignored: Spring would otherwise try
+            // to slice the 200 body itself, which cannot be done on a stream
+            long start;
+            long end;
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                start = ranges.stream().mapToLong(r -> r.getRangeStart(size)).min().orElseThrow();
+                end = ranges.stream().mapToLong(r -> r.getRangeEnd(size)).max().orElseThrow();
+            } catch (IllegalArgumentException e) {
+                return rangeNotSatisfiable(size);
+            }
+            if (end < start) {
+                // bytes=-0 selects nothing
+                return rangeNotSatisfiable(size);
+            }
 
-            auditService.logAction(userId, "FORM_DOWNLOADED", "FORM", id, null, null, null);
+            long length = end - start + 1;
+            headers.setContentLength(length);
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+
+            log.debug("Downloading form {} range {}-{}/{}", id, start, end, size);
+            if (start == 0) {
+                // Count a download once, not once per resumed chunk
+                auditService.logAction(userId, "FORM_DOWNLOADED", "FORM", id, null, null, null);
+            }
 
-            return ResponseEntity.ok()
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
                     .headers(headers)
-                    .body(new InputStreamResource(new ByteArrayInputStream(fileBytes)));
+                    .body(new InputStreamResource(storageService.downloadFileRange(form.getS3Key(), start, length)));
 
         } catch (Exception e) {
             log.error("Failed to download form {}", id, e);
@@ -145,4 +195,30 @@ public class FormService {
                 .map(f -> mapper.toApiDto(f))
                 .toList();
     }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private static ResponseEntity<Resource> rangeNotSatisfiable(long size) {
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                .build();
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
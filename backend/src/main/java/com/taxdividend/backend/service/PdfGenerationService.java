@@ -12,22 +12,35 @@ import com.taxdividend.backend.repository.GeneratedFormRepository;
 import com.taxdividend.backend.repository.UserRepository;
 import com.taxdividend.backend.service.pdf.Form5000FieldMapper;
 import com.taxdividend.backend.service.pdf.Form5001FieldMapper;
+import com.taxdividend.backend.service.pdf.FormContentHasher;
 import com.taxdividend.backend.service.pdf.PdfFormFiller;
+import com.taxdividend.backend.service.pdf.PdfTemplateRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -50,12 +63,16 @@ public class PdfGenerationService {
     private final PdfFormFiller pdfFormFiller;
     private final Form5000FieldMapper form5000Mapper;
     private final Form5001FieldMapper form5001Mapper;
+    private final FormContentHasher formContentHasher;
 
     @Value("${app.forms.expiry-days:30}")
     private int formExpiryDays;
 
-    private static final String FORM_5000_TEMPLATE = "templates/forms/form_5000_template.pdf";
-    private static final String FORM_5001_TEMPLATE = "templates/forms/form_5001_template.pdf";
+    private static final String FORM_5000_TEMPLATE = PdfTemplateRegistry.FORM_5000_TEMPLATE;
+    private static final String FORM_5001_TEMPLATE = PdfTemplateRegistry.FORM_5001_TEMPLATE;
+    private static final int FORM_5001_TABLE_PAGE = PdfTemplateRegistry.FORM_5001_TABLE_PAGE;
+    /** Bytes buffered between a form or ZIP writer and its upload. */
+    private static final int PIPE_SIZE = 64 * 1024;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     @Transactional
@@ -125,18 +142,12 @@ public class PdfGenerationService {
         }
 
         try {
-            byte[] pdfBytes = createForm5000Pdf(user, taxYear);
+            Map<String, String> fieldValues = form5000Mapper.mapToFormFields(user, taxYear);
+            String contentHash = formContentHasher.hash("5000", fieldValues, null);
 
             String fileName = String.format("Form_5000_%s_%d.pdf", user.getEmail(), taxYear);
-            FileUploadResultDTO uploadResult = uploadFormPdf(pdfBytes, fileName, "forms");
-
-            if (uploadResult == null || !uploadResult.getSuccess()) {
-                String errorMsg = uploadResult != null ? uploadResult.getErrorMessage() : "Upload returned null";
-                throw new PdfGenerationException("Failed to upload Form 5000: " + errorMsg);
-            }
-
-            // Save to database
-            GeneratedForm form = saveGeneratedForm(user, uploadResult, "5000", taxYear, 0);
+            GeneratedForm form = reuseOrStore(user, "5000", taxYear, contentHash,
+                    () -> uploadFormPdf(createForm5000Pdf(fieldValues), fileName, "forms"));
 
             // Generate download URL
             String downloadUrl = storageService.generatePresignedUrl(form.getS3Key(), Duration.ofDays(7));
@@ -176,18 +187,12 @@ public class PdfGenerationService {
         }
 
         try {
-            byte[] pdfBytes = createForm5001Pdf(user, dividends, taxYear);
+            List<Map<String, String>> pages = form5001Mapper.mapToFormPages(user, dividends, taxYear);
+            String contentHash = formContentHasher.hash("5001", null, pages);
 
             String fileName = String.format("Form_5001_%s_%d.pdf", user.getEmail(), taxYear);
-            FileUploadResultDTO uploadResult = uploadFormPdf(pdfBytes, fileName, "forms");
-
-            if (uploadResult == null || !uploadResult.getSuccess()) {
-                String errorMsg = uploadResult != null ? uploadResult.getErrorMessage() : "Upload returned null";
-                throw new PdfGenerationException("Failed to upload Form 5001: " + errorMsg);
-            }
-
-            // Save to database
-            GeneratedForm form = saveGeneratedForm(user, uploadResult, "5001", taxYear, dividends.size());
+            GeneratedForm form = reuseOrStore(user, "5001", taxYear, contentHash,
+                    () -> uploadFormPdf(createForm5001Pdf(pages), fileName, "forms"));
 
             // Link dividends to this form
             for (Dividend dividend : dividends) {
@@ -219,23 +224,15 @@ public class PdfGenerationService {
         log.info("Generating BUNDLE for user {}, year {}", user.getId(), taxYear);
 
         try {
-            // Generate both PDFs
-            byte[] form5000Pdf = createForm5000Pdf(user, taxYear);
-            byte[] form5001Pdf = createForm5001Pdf(user, dividends, taxYear);
+            // Map on this thread: user and dividends belong to the current persistence context
+            Map<String, String> form5000Fields = form5000Mapper.mapToFormFields(user, taxYear);
+            List<Map<String, String>> form5001Pages = form5001Mapper.mapToFormPages(user, dividends, taxYear);
 
-            // Create ZIP bundle
-            byte[] zipBytes = createZipBundle(form5000Pdf, form5001Pdf, user.getEmail(), taxYear);
+            String contentHash = formContentHasher.hash("BUNDLE", form5000Fields, form5001Pages);
 
             String fileName = String.format("Bundle_%s_%d.zip", user.getEmail(), taxYear);
-            FileUploadResultDTO uploadResult = uploadFormPdf(zipBytes, fileName, "bundles");
-
-            if (uploadResult == null || !uploadResult.getSuccess()) {
-                String errorMsg = uploadResult != null ? uploadResult.getErrorMessage() : "Upload returned null";
-                throw new PdfGenerationException("Failed to upload BUNDLE: " + errorMsg);
-            }
-
-            // Save to database
-            GeneratedForm form = saveGeneratedForm(user, uploadResult, "BUNDLE", taxYear, dividends.size());
+            GeneratedForm form = reuseOrStore(user, "BUNDLE", taxYear, contentHash,
+                    () -> uploadBundle(form5000Fields, form5001Pages, user.getEmail(), taxYear, fileName, "bundles"));
 
             // Link dividends to this form
             for (Dividend dividend : dividends) {
@@ -273,26 +270,24 @@ public class PdfGenerationService {
 
         log.info("Regenerating form {} (type: {}) for user {}", formId, formType, user.getId());
 
+        GenerateFormResultDto result;
         if ("5000".equals(formType)) {
-            if (existingForm.getS3Key() != null) {
-                storageService.deleteFile(existingForm.getS3Key());
-            }
-            return generateForm5000(user, taxYear);
+            result = generateForm5000(user, taxYear);
         } else if ("5001".equals(formType)) {
-            if (existingForm.getS3Key() != null) {
-                storageService.deleteFile(existingForm.getS3Key());
-            }
             List<Dividend> dividends = dividendRepository.findByFormId(formId);
-            return generateForm5001(user, dividends, taxYear);
+            result = generateForm5001(user, dividends, taxYear);
         } else if ("BUNDLE".equals(formType)) {
-            if (existingForm.getS3Key() != null) {
-                storageService.deleteFile(existingForm.getS3Key());
-            }
             List<Dividend> dividends = dividendRepository.findByFormId(formId);
-            return generateBundle(user, dividends, taxYear);
+            result = generateBundle(user, dividends, taxYear);
         } else {
             throw new PdfGenerationException("Unknown form type: " + formType);
         }
+
+        // Unchanged content reuses the existing form, whose object must then stay
+        if (existingForm.getS3Key() != null && !formId.equals(result.getFormId())) {
+            storageService.deleteFile(existingForm.getS3Key());
+        }
+        return result;
     }
 
     @Transactional
@@ -300,7 +295,9 @@ public class PdfGenerationService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new PdfGenerationException("User not found: " + userId));
 
-        List<Dividend> unsubmittedDividends = dividendRepository.findByUserIdAndFormIsNull(userId);
+        List<Dividend> unsubmittedDividends = taxYear != null
+                ? dividendRepository.findByUserIdAndTaxYearAndFormIsNull(userId, taxYear)
+                : dividendRepository.findByUserIdAndFormIsNull(userId);
 
         if (unsubmittedDividends.isEmpty()) {
             throw new PdfGenerationException("No unsubmitted dividends found for user");
@@ -321,6 +318,117 @@ public class PdfGenerationService {
         }
     }
 
+    // ========================================
+    // Staged Generation (used by async jobs)
+    // ========================================
+
+    /**
+     * Stage 1: validate the request and capture everything needed to render
+     * the form, so that rendering and upload can run without a DB transaction.
+     */
+    @Transactional(readOnly = true)
+    public RenderPlan prepare(FormGenerationRequestDto request) {
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new PdfGenerationException("User not found: " + request.getUserId()));
+
+        String formType = request.getFormType().getValue();
+        Integer taxYear = request.getTaxYear();
+
+        Map<String, String> form5000Fields = null;
+        List<Map<String, String>> form5001Pages = null;
+        List<UUID> dividendIds = List.of();
+
+        if ("5000".equals(formType) || "BUNDLE".equals(formType)) {
+            if (user.getFullName() == null || user.getAddress() == null || user.getCountry() == null) {
+                throw new PdfGenerationException(
+                        "User data incomplete: missing required fields (fullName, address, country)");
+            }
+            form5000Fields = form5000Mapper.mapToFormFields(user, taxYear);
+        }
+
+        if ("5001".equals(formType) || "BUNDLE".equals(formType)) {
+            if (request.getDividendIds() == null || request.getDividendIds().isEmpty()) {
+                throw new PdfGenerationException("Dividend IDs required for " + formType);
+            }
+            List<Dividend> dividends = dividendRepository.findAllById(request.getDividendIds()).stream()
+                    .filter(d -> d.getUser().getId().equals(user.getId()))
+                    .toList();
+            if (dividends.isEmpty()) {
+                throw new PdfGenerationException("Cannot generate Form 5001: dividend list is empty");
+            }
+            form5001Pages = form5001Mapper.mapToFormPages(user, dividends, taxYear);
+            dividendIds = dividends.stream().map(Dividend::getId).toList();
+        }
+
+        return switch (formType) {
+            case "5000" -> new RenderPlan(user.getId(), formType, taxYear,
+                    String.format("Form_5000_%s_%d.pdf", user.getEmail(), taxYear), "forms",
+                    user.getEmail(), form5000Fields, null, dividendIds);
+            case "5001" -> new RenderPlan(user.getId(), formType, taxYear,
+                    String.format("Form_5001_%s_%d.pdf", user.getEmail(), taxYear), "forms",
+                    user.getEmail(), null, form5001Pages, dividendIds);
+            case "BUNDLE" -> new RenderPlan(user.getId(), formType, taxYear,
+                    String.format("Bundle_%s_%d.zip", user.getEmail(), taxYear), "bundles",
+                    user.getEmail(), form5000Fields, form5001Pages, dividendIds);
+            default -> throw new PdfGenerationException("Invalid form type: " + formType);
+        };
+    }
+
+    /**
+     * Stage 2: fill the PDF(s) and upload the result. Runs outside any
+     * transaction, so slow storage never holds a database connection.
+     */
+    public FileUploadResultDTO render(RenderPlan plan) {
+        try {
+            FileUploadResultDTO uploadResult = switch (plan.formType()) {
+                case "5000" -> uploadFormPdf(
+                        pdfFormFiller.fillForm(FORM_5000_TEMPLATE, plan.form5000Fields(), true),
+                        plan.fileName(), plan.folder());
+                case "5001" -> uploadFormPdf(
+                        pdfFormFiller.fillPages(FORM_5001_TEMPLATE, FORM_5001_TABLE_PAGE, plan.form5001Pages()),
+                        plan.fileName(), plan.folder());
+                default -> uploadBundle(plan.form5000Fields(), plan.form5001Pages(), plan.userEmail(),
+                        plan.taxYear(), plan.fileName(), plan.folder());
+            };
+
+            if (uploadResult == null || !uploadResult.getSuccess()) {
+                String errorMsg = uploadResult != null ? uploadResult.getErrorMessage() : "Upload returned null";
+                throw new PdfGenerationException("Failed to upload " + plan.formType() + ": " + errorMsg);
+            }
+            return uploadResult;
+
+        } catch (IOException e) {
+            log.error("Failed to render {} for user {}", plan.formType(), plan.userId(), e);
+            throw new PdfGenerationException(plan.formType() + " generation failed", e);
+        }
+    }
+
+    /**
+     * Stage 3: record the uploaded form and link its dividends in one short transaction.
+     */
+    @Transactional
+    public GeneratedForm complete(RenderPlan plan, FileUploadResultDTO uploadResult) {
+        User user = userRepository.findById(plan.userId())
+                .orElseThrow(() -> new PdfGenerationException("User not found: " + plan.userId()));
+
+        String contentHash;
+        try {
+            contentHash = formContentHasher.hash(plan.formType(), plan.form5000Fields(), plan.form5001Pages());
+        } catch (IOException e) {
+            throw new PdfGenerationException("Failed to hash " + plan.formType() + " content", e);
+        }
+
+        GeneratedForm form = saveGeneratedForm(user, uploadResult, plan.formType(), plan.taxYear(), contentHash);
+
+        if (!plan.dividendIds().isEmpty()) {
+            for (Dividend dividend : dividendRepository.findAllById(plan.dividendIds())) {
+                dividend.setForm(form);
+            }
+        }
+
+        return form;
+    }
+
     // ========================================
     // Private Helper Methods
     // ========================================
@@ -329,15 +437,12 @@ public class PdfGenerationService {
      * Create Form 5000 PDF (Attestation de résidence fiscale) using official
      * template.
      */
-    private byte[] createForm5000Pdf(User user, Integer taxYear) throws IOException {
-        log.debug("Creating Form 5000 PDF from template for user {}, year {}", user.getId(), taxYear);
+    private PDDocument createForm5000Pdf(Map<String, String> fieldValues) throws IOException {
+        log.debug("Creating Form 5000 PDF from template");
 
         try {
-            // Map user data to form fields
-            Map<String, String> fieldValues = form5000Mapper.mapToFormFields(user, taxYear);
-
             // Fill template and flatten (make non-editable)
-            return pdfFormFiller.fillPdfForm(FORM_5000_TEMPLATE, fieldValues, true);
+            return pdfFormFiller.fillForm(FORM_5000_TEMPLATE, fieldValues, true);
 
         } catch (IOException e) {
             log.error("Failed to create Form 5000 PDF", e);
@@ -346,18 +451,15 @@ public class PdfGenerationService {
     }
 
     /**
-     * Create Form 5001 PDF (Liquidation de dividendes) using official template.
+     * Create Form 5001 PDF (Liquidation de dividendes) using official template,
+     * spanning as many pages as needed to list every dividend.
      */
-    private byte[] createForm5001Pdf(User user, List<Dividend> dividends, Integer taxYear) throws IOException {
-        log.debug("Creating Form 5001 PDF from template for user {}, year {}, {} dividends",
-                user.getId(), taxYear, dividends.size());
+    private PDDocument createForm5001Pdf(List<Map<String, String>> pages) throws IOException {
+        log.debug("Creating Form 5001 PDF from template, {} pages", pages.size());
 
         try {
-            // Map user and dividend data to form fields
-            Map<String, String> fieldValues = form5001Mapper.mapToFormFields(user, dividends, taxYear);
-
-            // Fill template and flatten (make non-editable)
-            return pdfFormFiller.fillPdfForm(FORM_5001_TEMPLATE, fieldValues, true);
+            // Fill the template, repeating its table page as needed, and flatten
+            return pdfFormFiller.fillPages(FORM_5001_TEMPLATE, FORM_5001_TABLE_PAGE, pages);
 
         } catch (IOException e) {
             log.error("Failed to create Form 5001 PDF", e);
@@ -366,43 +468,170 @@ public class PdfGenerationService {
     }
 
     /**
-     * Create ZIP bundle with both forms.
+     * Reuse a stored form with the same content hash, or render, upload and
+     * record a new one.
+     *
+     * A form is reused while it has not expired and its object is still in
+     * storage; its expiry is pushed back as if it had just been generated.
      */
-    private byte[] createZipBundle(byte[] form5000, byte[] form5001, String userEmail, Integer taxYear)
-            throws IOException {
+    private GeneratedForm reuseOrStore(User user, String formType, Integer taxYear, String contentHash,
+            FormUpload upload) throws IOException {
+        Optional<GeneratedForm> reusable = generatedFormRepository
+                .findFirstByUserIdAndFormTypeAndContentHashAndExpiresAtAfterOrderByCreatedAtDesc(user.getId(),
+                        formType, contentHash, LocalDateTime.now())
+                .filter(form -> storageService.fileExists(form.getS3Key()));
+        if (reusable.isPresent()) {
+            GeneratedForm form = reusable.get();
+            log.info("Reusing {} form {} for user {}: content unchanged", formType, form.getId(), user.getId());
+            form.setExpiresAt(LocalDateTime.now().plusDays(formExpiryDays));
+            return generatedFormRepository.save(form);
+        }
 
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ZipOutputStream zos = new ZipOutputStream(baos)) {
+        FileUploadResultDTO uploadResult = upload.run();
+        if (uploadResult == null || !uploadResult.getSuccess()) {
+            String errorMsg = uploadResult != null ? uploadResult.getErrorMessage() : "Upload returned null";
+            String label = "BUNDLE".equals(formType) ? formType : "Form " + formType;
+            throw new PdfGenerationException("Failed to upload " + label + ": " + errorMsg);
+        }
 
-            // Add Form 5000
-            ZipEntry entry5000 = new ZipEntry(String.format("Form_5000_%s_%d.pdf", userEmail, taxYear));
-            zos.putNextEntry(entry5000);
-            zos.write(form5000);
-            zos.closeEntry();
+        // Save to database
+        return saveGeneratedForm(user, uploadResult, formType, taxYear, contentHash);
+    }
 
-            // Add Form 5001
-            ZipEntry entry5001 = new ZipEntry(String.format("Form_5001_%s_%d.pdf", userEmail, taxYear));
-            zos.putNextEntry(entry5001);
-            zos.write(form5001);
+    /**
+     * Render both forms of a BUNDLE concurrently and stream them as a ZIP into
+     * storage.
+     *
+     * Each form renders on its own virtual thread, so a bundle takes about as
+     * long as the slower form instead of the sum of both. Neither form nor the
+     * archive is ever serialized in memory: each document is saved straight
+     * into its ZIP entry, deflated into the pipe the upload reads from.
+     */
+    private FileUploadResultDTO uploadBundle(Map<String, String> form5000Fields,
+            List<Map<String, String>> form5001Pages, String userEmail, Integer taxYear,
+            String fileName, String folder) throws IOException {
+
+        List<Future<PDDocument>> rendered = new ArrayList<>(2);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<PDDocument> form5000 = executor.submit(
+                    () -> pdfFormFiller.fillForm(FORM_5000_TEMPLATE, form5000Fields, true));
+            rendered.add(form5000);
+            Future<PDDocument> form5001 = executor.submit(
+                    () -> pdfFormFiller.fillPages(FORM_5001_TEMPLATE, FORM_5001_TABLE_PAGE, form5001Pages));
+            rendered.add(form5001);
+
+            Map<String, PDDocument> entries = new LinkedHashMap<>();
+            entries.put(String.format("Form_5000_%s_%d.pdf", userEmail, taxYear), join(form5000, form5001));
+            entries.put(String.format("Form_5001_%s_%d.pdf", userEmail, taxYear), join(form5001, form5000));
+
+            return uploadStreamed(executor, fileName, "application/zip", folder, out -> writeZip(out, entries));
+        } finally {
+            // Only once the executor has closed, so no writer is still saving them
+            closeRendered(rendered);
+        }
+    }
+
+    /**
+     * Write the ZIP entries. The central directory is only written when every
+     * entry made it, so a failed write never looks complete.
+     */
+    private static void writeZip(OutputStream out, Map<String, PDDocument> entries) throws IOException {
+        ZipOutputStream zos = new ZipOutputStream(out);
+        for (Map.Entry<String, PDDocument> entry : entries.entrySet()) {
+            zos.putNextEntry(new ZipEntry(entry.getKey()));
+            // save() closes the stream it writes to; only the entry may end here
+            try (OutputStream entryOut = new BufferedOutputStream(new EntryOutputStream(zos), PIPE_SIZE)) {
+                entry.getValue().save(entryOut);
+            }
             zos.closeEntry();
+        }
+        zos.close();
+    }
 
-            zos.finish();
-            return baos.toByteArray();
+    /**
+     * Upload what the writer produces through a pipe, so the file is never held
+     * in memory as a whole. The writer runs on the executor, and an object left
+     * truncated by a failed write is deleted.
+     */
+    private FileUploadResultDTO uploadStreamed(ExecutorService executor, String fileName, String contentType,
+            String folder, StreamWriter writer) throws IOException {
+        PipedInputStream in = new PipedInputStream(PIPE_SIZE);
+        PipedOutputStream pipeOut = new PipedOutputStream(in);
+        Future<Void> writing = executor.submit(() -> {
+            try (OutputStream out = new BufferedOutputStream(pipeOut, PIPE_SIZE)) {
+                writer.write(out);
+            }
+            return null;
+        });
+
+        FileUploadResultDTO uploadResult;
+        try (in) {
+            // Closing the read side also unblocks the writer if the upload gave up early
+            uploadResult = storageService.uploadFile(in, fileName, contentType, folder);
+        }
+
+        if (uploadResult == null || !uploadResult.getSuccess()) {
+            // Reported by the caller; the writer stops on the closed pipe
+            return uploadResult;
+        }
+
+        try {
+            join(writing);
+        } catch (IOException | PdfGenerationException e) {
+            // The upload saw a truncated file; do not leave it behind
+            storageService.deleteFile(uploadResult.getS3Key());
+            throw e;
         }
+        return uploadResult;
     }
 
     /**
-     * Upload form PDF to storage.
+     * Wait for a rendering or writing subtask, cancelling its siblings when it failed.
      */
-    private FileUploadResultDTO uploadFormPdf(byte[] pdfBytes, String fileName, String folder) {
-        try (ByteArrayInputStream bais = new ByteArrayInputStream(pdfBytes)) {
-            return storageService.uploadFile(bais, fileName, "application/pdf", folder);
-        } catch (IOException e) {
-            log.error("Failed to upload form PDF", e);
-            return FileUploadResultDTO.builder()
-                    .success(false)
-                    .errorMessage("Failed to upload: " + e.getMessage())
-                    .build();
+    private static <T> T join(Future<T> task, Future<?>... siblings) throws IOException {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            cancelAll(siblings);
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new PdfGenerationException("Form rendering failed", e.getCause());
+        } catch (InterruptedException e) {
+            cancelAll(siblings);
+            Thread.currentThread().interrupt();
+            throw new PdfGenerationException("Interrupted while rendering form", e);
+        }
+    }
+
+    private static void cancelAll(Future<?>... tasks) {
+        for (Future<?> task : tasks) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Close the documents of the rendering subtasks that completed.
+     */
+    private static void closeRendered(List<Future<PDDocument>> tasks) {
+        for (Future<PDDocument> task : tasks) {
+            if (task.state() == Future.State.SUCCESS) {
+                try {
+                    task.resultNow().close();
+                } catch (IOException e) {
+                    log.warn("Failed to close rendered form", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Upload a rendered form PDF to storage and close it.
+     */
+    private FileUploadResultDTO uploadFormPdf(PDDocument document, String fileName, String folder)
+            throws IOException {
+        try (document; ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return uploadStreamed(executor, fileName, "application/pdf", folder, document::save);
         }
     }
 
@@ -410,7 +639,7 @@ public class PdfGenerationService {
      * Save generated form to database.
      */
     private GeneratedForm saveGeneratedForm(User user, FileUploadResultDTO uploadResult,
-            String formType, Integer taxYear, int dividendCount) {
+            String formType, Integer taxYear, String contentHash) {
         GeneratedForm form = GeneratedForm.builder()
                 .user(user)
                 .s3Key(uploadResult.getS3Key())
@@ -419,9 +648,60 @@ public class PdfGenerationService {
                 .formType(formType)
                 .status("GENERATED")
                 .expiresAt(LocalDateTime.now().plusDays(formExpiryDays))
+                .contentHash(contentHash)
                 .build();
 
         return generatedFormRepository.save(form);
     }
 
+    /**
+     * Renders and uploads a form that could not be reused.
+     */
+    @FunctionalInterface
+    private interface FormUpload {
+        FileUploadResultDTO run() throws IOException;
+    }
+
+    /**
+     * Writes a file to the stream that {@link #uploadStreamed} uploads.
+     */
+    @FunctionalInterface
+    private interface StreamWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * ZIP entry stream that leaves the archive open when closed.
+     */
+    private static final class EntryOutputStream extends FilterOutputStream {
+
+        EntryOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Everything needed to render and store a form, detached from the persistence context.
+     */
+    public record RenderPlan(
+            UUID userId,
+            String formType,
+            Integer taxYear,
+            String fileName,
+            String folder,
+            String userEmail,
+            Map<String, String> form5000Fields,
+            List<Map<String, String>> form5001Pages,
+            List<UUID> dividendIds) {
+    }
 }
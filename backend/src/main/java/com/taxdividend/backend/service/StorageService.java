@@ -3,18 +3,22 @@ package com.taxdividend.backend.service;
 import com.taxdividend.backend.dto.FileUploadResultDTO;
 import com.taxdividend.backend.exception.StorageException;
 import com.taxdividend.backend.repository.GeneratedFormRepository;
+import com.taxdividend.backend.service.storage.MinioMultipartClient;
+import com.taxdividend.backend.service.storage.PartBufferPool;
 import io.minio.*;
 import io.minio.errors.*;
 import io.minio.http.Method;
 import io.minio.messages.DeleteError;
 import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
+import io.minio.messages.Part;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidKeyException;
@@ -36,6 +40,8 @@ public class StorageService {
 
     private final MinioClient minioClient;
     private final GeneratedFormRepository generatedFormRepository;
+    private final MinioMultipartClient multipartClient;
+    private final PartBufferPool partBufferPool;
 
     @Value("${storage.s3.bucket}")
     private String bucketName;
@@ -44,6 +50,8 @@ public class StorageService {
     private int formExpiryDays;
 
     private static final Duration DEFAULT_PRESIGNED_URL_EXPIRATION = Duration.ofHours(1);
+    /** Read before taking a part buffer; smaller streams are sent from it directly. */
+    private static final int FIRST_CHUNK_SIZE = 64 * 1024;
 
     public FileUploadResultDTO uploadFile(MultipartFile file, String folder) {
         try {
@@ -65,32 +73,33 @@ public class StorageService {
         }
     }
 
+    /**
+     * Upload a stream of unknown length.
+     *
+     * Streams that end within a small first chunk are sent from it. Larger
+     * ones are read one part at a time into a buffer from the bounded pool,
+     * so memory per upload is one part whatever the object size. Objects that
+     * fit in a single part are sent with a plain PUT; larger ones as a
+     * multipart upload, which is aborted if reading the stream or sending a
+     * part fails.
+     */
     public FileUploadResultDTO uploadFile(InputStream inputStream, String fileName,
             String contentType, String folder) {
+        String resolvedContentType = contentType != null ? contentType : "application/octet-stream";
         try {
             String s3Key = generateS3Key(folder, fileName);
 
-            // Need to know stream size - MinIO requires it
-            byte[] bytes = inputStream.readAllBytes();
-
-            PutObjectArgs args = PutObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(s3Key)
-                    .stream(new java.io.ByteArrayInputStream(bytes), bytes.length, -1)
-                    .contentType(contentType != null ? contentType : "application/octet-stream")
-                    .build();
-
-            ObjectWriteResponse response = minioClient.putObject(args);
+            StreamedObject uploaded = putStream(s3Key, resolvedContentType, inputStream);
 
-            log.info("File uploaded successfully: {} ({} bytes)", s3Key, bytes.length);
+            log.info("File uploaded successfully: {} ({} bytes)", s3Key, uploaded.size());
 
             return FileUploadResultDTO.builder()
                     .s3Key(s3Key)
                     .bucketName(bucketName)
                     .fileName(fileName)
-                    .fileSize((long) bytes.length)
-                    .contentType(contentType != null ? contentType : "application/octet-stream")
-                    .etag(response.etag())
+                    .fileSize(uploaded.size())
+                    .contentType(resolvedContentType)
+                    .etag(uploaded.response().etag())
                     .uploadedAt(LocalDateTime.now())
                     .success(true)
                     .build();
@@ -159,6 +168,47 @@ public class StorageService {
         }
     }
 
+    /**
+     * Open a stream on a byte range of a file. The caller must close it;
+     * closing early releases the upstream connection.
+     */
+    public InputStream downloadFileRange(String s3Key, long offset, long length) {
+        try {
+            log.debug("Downloading file range: {} [{}+{}]", s3Key, offset, length);
+
+            GetObjectArgs args = GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(s3Key)
+                    .offset(offset)
+                    .length(length)
+                    .build();
+
+            return minioClient.getObject(args);
+
+        } catch (Exception e) {
+            log.error("Failed to download file range: {}", s3Key, e);
+            throw new StorageException("Failed to download file: " + s3Key, e);
+        }
+    }
+
+    /**
+     * Read object metadata (size, ETag, last modified) without fetching content.
+     */
+    public StatObjectResponse statFile(String s3Key) {
+        try {
+            StatObjectArgs args = StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(s3Key)
+                    .build();
+
+            return minioClient.statObject(args);
+
+        } catch (Exception e) {
+            log.error("Failed to stat file: {}", s3Key, e);
+            throw new StorageException("Failed to stat file: " + s3Key, e);
+        }
+    }
+
     public byte[] downloadFileAsBytes(String s3Key) {
         try (InputStream inputStream = downloadFile(s3Key)) {
             return inputStream.readAllBytes();
@@ -369,6 +419,78 @@ public class StorageService {
     // Private Helper Methods
     // ========================================
 
+    /**
+     * Send the stream with a single PUT if it ends within the first chunk or
+     * the first part, otherwise part by part through a pooled buffer.
+     *
+     * Only streams larger than {@link #FIRST_CHUNK_SIZE} take a part buffer,
+     * so small uploads never wait on the pool.
+     */
+    private StreamedObject putStream(String s3Key, String contentType, InputStream in) throws Exception {
+        byte[] firstChunk = new byte[FIRST_CHUNK_SIZE];
+        int firstLength = in.readNBytes(firstChunk, 0, firstChunk.length);
+        if (firstLength < firstChunk.length) {
+            return putSingle(s3Key, contentType, firstChunk, firstLength);
+        }
+
+        byte[] buffer = partBufferPool.acquire();
+        try {
+            System.arraycopy(firstChunk, 0, buffer, 0, firstLength);
+            int length = firstLength + in.readNBytes(buffer, firstLength, buffer.length - firstLength);
+            if (length < buffer.length) {
+                return putSingle(s3Key, contentType, buffer, length);
+            }
+            return putMultipart(s3Key, contentType, in, buffer, length);
+        } finally {
+            partBufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Whole object in memory: a single PUT of known length.
+     */
+    private StreamedObject putSingle(String s3Key, String contentType, byte[] content, int length)
+            throws Exception {
+        PutObjectArgs args = PutObjectArgs.builder()
+                .bucket(bucketName)
+                .object(s3Key)
+                .stream(new ByteArrayInputStream(content, 0, length), length, -1)
+                .contentType(contentType)
+                .build();
+        return new StreamedObject(minioClient.putObject(args), length);
+    }
+
+    /**
+     * Multipart upload starting with the {@code length} bytes already in {@code buffer}.
+     */
+    private StreamedObject putMultipart(String s3Key, String contentType, InputStream in, byte[] buffer,
+            int length) throws Exception {
+        String uploadId = multipartClient.createMultipartUpload(bucketName, s3Key, contentType);
+        try {
+            List<Part> parts = new ArrayList<>();
+            long size = 0;
+            while (length > 0) {
+                parts.add(multipartClient.uploadPart(bucketName, s3Key, uploadId, parts.size() + 1, buffer, length));
+                size += length;
+                length = in.readNBytes(buffer, 0, buffer.length);
+            }
+
+            ObjectWriteResponse response = multipartClient.completeMultipartUpload(bucketName, s3Key, uploadId,
+                    parts);
+            log.debug("Multipart upload {} completed: {} parts", s3Key, parts.size());
+            return new StreamedObject(response, size);
+
+        } catch (Exception e) {
+            try {
+                multipartClient.abortMultipartUpload(bucketName, s3Key, uploadId);
+            } catch (Exception abortError) {
+                // Parts of an unfinished upload are never visible as an object, only as storage use
+                log.warn("Failed to abort multipart upload {} for {}", uploadId, s3Key, abortError);
+            }
+            throw e;
+        }
+    }
+
     /**
      * Ensure the bucket exists, create if not.
      */
@@ -389,4 +511,7 @@ public class StorageService {
             throw new StorageException("Failed to ensure bucket exists", e);
         }
     }
+
+    private record StreamedObject(ObjectWriteResponse response, long size) {
+    }
 }
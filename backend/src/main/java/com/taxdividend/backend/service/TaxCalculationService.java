@@ -1,14 +1,21 @@
 package com.taxdividend.backend.service;
 
+import com.taxdividend.backend.api.dto.ResidenceCountrySimulationDto;
+import com.taxdividend.backend.api.dto.ResidenceSimulationResultDto;
 import com.taxdividend.backend.api.dto.TaxCalculationBatchResultDto;
 import com.taxdividend.backend.api.dto.TaxCalculationResultDto;
 import com.taxdividend.backend.exception.TaxCalculationException;
 import com.taxdividend.backend.model.Dividend;
 import com.taxdividend.backend.model.TaxRule;
 import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendBatchOperations.CalculatedAmounts;
 import com.taxdividend.backend.repository.DividendRepository;
-import com.taxdividend.backend.repository.TaxRuleRepository;
 import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.fx.CurrencyTotal;
+import com.taxdividend.backend.service.fx.FxRateIndex;
+import com.taxdividend.backend.service.tax.FixedPointTaxKernel;
+import com.taxdividend.backend.service.tax.TaxRuleIndex;
+import com.taxdividend.backend.service.tax.TaxRuleLookup;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,7 +25,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,6 +35,12 @@ import java.util.UUID;
  * Implementation of tax calculation service.
  *
  * Calculates reclaimable amounts based on double taxation treaties.
+ * Treaty rules are resolved from the in-memory {@link TaxRuleIndex}, so a
+ * calculation never hits the database for rule lookups. The security type
+ * used to pick the rule comes from the in-memory {@link SecurityTypeClassifier}.
+ *
+ * Batch totals are converted to the reporting currency with the in-memory
+ * {@link FxRateIndex}, at the rate of each dividend's payment date.
  */
 @Slf4j
 @Service
@@ -33,8 +48,9 @@ import java.util.UUID;
 public class TaxCalculationService {
 
     private final DividendRepository dividendRepository;
-    private final TaxRuleRepository taxRuleRepository;
+    private final TaxRuleIndex taxRuleIndex;
     private final UserRepository userRepository;
+    private final FxRateIndex fxRateIndex;
 
     private static final int CALCULATION_SCALE = 2; // 2 decimal places
     private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
@@ -43,87 +59,7 @@ public class TaxCalculationService {
         log.debug("Calculating tax for dividend {} from {} to {}",
                 dividend.getIsin(), dividend.getSourceCountry(), residenceCountry);
 
-        TaxCalculationResultDto result = new TaxCalculationResultDto();
-
-        result.setDividendId(dividend.getId());
-        result.setWithheldAmount(dividend.getWithholdingTax().setScale(CALCULATION_SCALE, ROUNDING_MODE));
-        result.setStandardRate(dividend.getWithholdingRate());
-
-        // Determine security type (default to EQUITY)
-        String securityType = determineSecurityType(dividend);
-
-        // Find applicable tax rule
-        Optional<TaxRule> taxRuleOpt = taxRuleRepository.findApplicableRule(
-                dividend.getSourceCountry(),
-                residenceCountry,
-                securityType,
-                dividend.getPaymentDate());
-
-        if (taxRuleOpt.isEmpty()) {
-            // No tax treaty found
-            log.warn("No tax treaty found for {} -> {} on {}",
-                    dividend.getSourceCountry(), residenceCountry, dividend.getPaymentDate());
-
-            result.setSuccess(false);
-            result.setTreatyRate(null);
-            result.setReclaimableAmount(BigDecimal.ZERO);
-            result.addErrorsItem("No tax treaty available. Cannot reclaim withholding tax.");
-
-            return result;
-        }
-
-        // Tax treaty found - calculate reclaimable amount
-        TaxRule taxRule = taxRuleOpt.get();
-
-        if (taxRule.getTreatyRate() == null) {
-            // Treaty exists but no reduced rate
-            log.warn("Tax treaty exists but no treaty defined for rule {}", taxRule.getId());
-
-            result.setSuccess(false);
-            result.setTreatyRate(null);
-            result.setReclaimableAmount(BigDecimal.ZERO);
-            result.addErrorsItem("Tax treaty exists but no reduced rate defined.");
-
-            return result;
-        }
-
-        // Calculate treaty withholding tax (what should have been withheld)
-        BigDecimal treatyWithholdingTax = dividend.getGrossAmount()
-                .multiply(taxRule.getTreatyRate())
-                .divide(BigDecimal.valueOf(100), CALCULATION_SCALE, ROUNDING_MODE);
-
-        // Calculate reclaimable amount (actual withholding - treaty withholding)
-        BigDecimal reclaimableAmount = dividend.getWithholdingTax()
-                .subtract(treatyWithholdingTax)
-                .setScale(CALCULATION_SCALE, ROUNDING_MODE);
-
-        // Ensure non-negative
-        if (reclaimableAmount.compareTo(BigDecimal.ZERO) < 0) {
-            log.warn("Calculated negative reclaimable amount for dividend {}. Setting to zero.", dividend.getId());
-            reclaimableAmount = BigDecimal.ZERO;
-        }
-
-        result.setSuccess(true);
-        result.setTreatyRate(taxRule.getTreatyRate());
-        result.setReclaimableAmount(reclaimableAmount);
-
-        // Add notes based on reclaim options
-        if (reclaimableAmount.compareTo(BigDecimal.ZERO) > 0) {
-            if (taxRule.getRefundProcedureAvailable()) {
-                result.addErrorsItem("Refund procedure available. Can reclaim via forms 5000/5001.");
-            } else if (taxRule.getReliefAtSourceAvailable()) {
-                result.addErrorsItem("Only relief at source available. Refund not possible.");
-            } else {
-                result.addErrorsItem("No reclaim procedure available despite treaty.");
-            }
-        } else {
-            result.addErrorsItem("Treaty rate already applied. No additional reclaim possible.");
-        }
-
-        log.debug("Calculated reclaimable amount: {} {} for dividend {}",
-                reclaimableAmount, dividend.getCurrency(), dividend.getId());
-
-        return result;
+        return calculateWithRule(dividend, residenceCountry, findRule(taxRuleIndex, dividend, residenceCountry));
     }
 
     public TaxCalculationResultDto calculateForDividend(UUID dividendId, String residenceCountry) {
@@ -175,34 +111,114 @@ public class TaxCalculationService {
         return calculateBatch(dividends, country);
     }
 
+    /**
+     * Calculate a batch of dividends.
+     *
+     * Dividends whose amounts and treaty rate convert exactly to fixed point go
+     * through {@link FixedPointTaxKernel} over parallel long arrays; the rest
+     * (no treaty, missing values, more than 2 decimals) use the BigDecimal path.
+     * Both produce identical results. BigDecimal DTOs are only built at the end.
+     */
     public TaxCalculationBatchResultDto calculateBatch(List<Dividend> dividends, String residenceCountry) {
-        TaxCalculationBatchResultDto batchResult = new TaxCalculationBatchResultDto();
-        batchResult.setSuccessCount(0);
-        batchResult.setFailureCount(0);
-        batchResult.setTotalReclaimableAmount(BigDecimal.ZERO);
-        batchResult.setResults(new ArrayList<>());
+        return calculateBatch(dividends, residenceCountry, taxRuleIndex, fxRateIndex.snapshot());
+    }
 
-        List<TaxCalculationResultDto> results = new ArrayList<>();
-        int successCount = 0;
-        int failureCount = 0;
+    /**
+     * Simulate what the user would reclaim as a resident of each given country.
+     *
+     * Dividends are loaded once and every country is evaluated in memory, in
+     * parallel, against the same pinned snapshot of the treaty rules. Nothing is
+     * written back.
+     */
+    @Transactional(readOnly = true)
+    public ResidenceSimulationResultDto simulateResidenceCountries(UUID userId, List<String> residenceCountries,
+            Integer taxYear) {
+        List<Dividend> dividends = taxYear != null
+                ? dividendRepository.findByUserIdAndPaymentDateBetween(userId,
+                        LocalDate.of(taxYear, 1, 1), LocalDate.of(taxYear, 12, 31))
+                : dividendRepository.findByUserId(userId);
+        TaxRuleIndex.Snapshot rules = taxRuleIndex.snapshot();
+        FxRateIndex.Snapshot rates = fxRateIndex.snapshot();
+
+        List<ResidenceCountrySimulationDto> simulations = residenceCountries.stream()
+                .map(country -> country.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList()
+                .parallelStream()
+                .map(country -> {
+                    TaxCalculationBatchResultDto batch = calculateBatch(dividends, country, rules, rates);
+                    ResidenceCountrySimulationDto simulation = new ResidenceCountrySimulationDto();
+                    simulation.setResidenceCountry(country);
+                    simulation.setSuccessCount((int) batch.getResults().stream()
+                            .filter(result -> Boolean.TRUE.equals(result.getSuccess()))
+                            .count());
+                    simulation.setFailureCount(dividends.size() - simulation.getSuccessCount());
+                    simulation.setTotalReclaimableAmount(batch.getTotalReclaimableAmount());
+                    simulation.setUnconvertedCount(batch.getUnconvertedCount());
+                    return simulation;
+                })
+                .toList();
 
-        BigDecimal totalGross = BigDecimal.ZERO;
-        BigDecimal totalWithholding = BigDecimal.ZERO;
-        BigDecimal totalReclaimable = BigDecimal.ZERO;
+        ResidenceSimulationResultDto result = new ResidenceSimulationResultDto();
+        result.setTaxYear(taxYear);
+        result.setDividendCount(dividends.size());
+        result.setCurrency(fxRateIndex.reportingCurrency());
+        result.setSimulations(new ArrayList<>(simulations));
 
-        for (Dividend dividend : dividends) {
-            try {
-                TaxCalculationResultDto result = calculateForDividend(dividend, residenceCountry);
-                results.add(result);
-                successCount++;
+        log.info("Simulated {} residence countries over {} dividends for user {} (rules v{})",
+                simulations.size(), dividends.size(), userId, rules.version());
+
+        return result;
+    }
 
-                // Accumulate totals
-                totalGross = totalGross.add(dividend.getGrossAmount());
-                totalWithholding = totalWithholding.add(dividend.getWithholdingTax());
-                if (result.getReclaimableAmount() != null) {
-                    totalReclaimable = totalReclaimable.add(result.getReclaimableAmount());
+    private TaxCalculationBatchResultDto calculateBatch(List<Dividend> dividends, String residenceCountry,
+            TaxRuleLookup rules, FxRateIndex.Snapshot rates) {
+        int size = dividends.size();
+        TaxCalculationResultDto[] results = new TaxCalculationResultDto[size];
+        int successCount = 0;
+        int failureCount = 0;
+        CurrencyTotal totalReclaimable = new CurrencyTotal(rates, fxRateIndex.reportingCurrency());
+
+        // Kernel lanes: lane k holds dividend lanes[k]
+        int[] lanes = new int[size];
+        TaxRule[] laneRules = new TaxRule[size];
+        long[] grossAmount = new long[size];
+        long[] withheldAmount = new long[size];
+        long[] treatyRate = new long[size];
+        int laneCount = 0;
+
+        for (int i = 0; i < size; i++) {
+            Dividend dividend = dividends.get(i);
+            try {
+                Optional<TaxRule> taxRuleOpt = findRule(rules, dividend, residenceCountry);
+                TaxRule taxRule = taxRuleOpt.orElse(null);
+
+                long gross = FixedPointTaxKernel.toMinorUnits(dividend.getGrossAmount());
+                long withheld = FixedPointTaxKernel.toMinorUnits(dividend.getWithholdingTax());
+                long rate = taxRule != null
+                        ? FixedPointTaxKernel.toBasisPoints(taxRule.getTreatyRate())
+                        : FixedPointTaxKernel.NOT_REPRESENTABLE;
+
+                if (gross != FixedPointTaxKernel.NOT_REPRESENTABLE
+                        && withheld != FixedPointTaxKernel.NOT_REPRESENTABLE
+                        && rate != FixedPointTaxKernel.NOT_REPRESENTABLE
+                        && taxRule.getRefundProcedureAvailable() != null
+                        && taxRule.getReliefAtSourceAvailable() != null) {
+                    lanes[laneCount] = i;
+                    laneRules[laneCount] = taxRule;
+                    grossAmount[laneCount] = gross;
+                    withheldAmount[laneCount] = withheld;
+                    treatyRate[laneCount] = rate;
+                    laneCount++;
+                    continue;
                 }
 
+                TaxCalculationResultDto result = calculateWithRule(dividend, residenceCountry, taxRuleOpt);
+                results[i] = result;
+                successCount++;
+                totalReclaimable.add(result.getReclaimableAmount(), dividend.getCurrency(),
+                        dividend.getPaymentDate());
+
             } catch (Exception e) {
                 log.error("Failed to calculate tax for dividend {}", dividend.getId(), e);
 
@@ -216,18 +232,55 @@ public class TaxCalculationService {
                 failureResult.setSuccess(false);
                 failureResult.addErrorsItem("CALCULATION FAILED: " + e.getMessage());
 
-                results.add(failureResult);
+                results[i] = failureResult;
                 failureCount++;
             }
         }
 
-        batchResult.setResults(results);
+        long[] reclaimable = new long[laneCount];
+        FixedPointTaxKernel.calculate(grossAmount, withheldAmount, treatyRate, reclaimable, laneCount);
+
+        // Convert back to BigDecimal DTOs
+        for (int k = 0; k < laneCount; k++) {
+            Dividend dividend = dividends.get(lanes[k]);
+            TaxRule taxRule = laneRules[k];
+
+            BigDecimal reclaimableAmount;
+            if (reclaimable[k] < 0) {
+                log.warn("Calculated negative reclaimable amount for dividend {}. Setting to zero.", dividend.getId());
+                reclaimableAmount = BigDecimal.ZERO;
+            } else {
+                reclaimableAmount = FixedPointTaxKernel.fromMinorUnits(reclaimable[k]);
+                totalReclaimable.addMinorUnits(reclaimable[k], dividend.getCurrency(), dividend.getPaymentDate());
+            }
+
+            TaxCalculationResultDto result = new TaxCalculationResultDto();
+            result.setDividendId(dividend.getId());
+            result.setWithheldAmount(FixedPointTaxKernel.fromMinorUnits(withheldAmount[k]));
+            result.setStandardRate(dividend.getWithholdingRate());
+            result.setSuccess(true);
+            result.setTreatyRate(taxRule.getTreatyRate());
+            result.setReclaimableAmount(reclaimableAmount);
+            addReclaimNotes(result, taxRule, reclaimable[k] > 0);
+
+            results[lanes[k]] = result;
+        }
+        successCount += laneCount;
+
+        TaxCalculationBatchResultDto batchResult = new TaxCalculationBatchResultDto();
+        batchResult.setResults(new ArrayList<>(Arrays.asList(results)));
         batchResult.setSuccessCount(successCount);
         batchResult.setFailureCount(failureCount);
-        batchResult.setTotalReclaimableAmount(totalReclaimable.setScale(CALCULATION_SCALE, ROUNDING_MODE));
+        batchResult.setTotalReclaimableAmount(totalReclaimable.amount());
+        batchResult.setCurrency(totalReclaimable.currency());
+        batchResult.setUnconvertedCount(totalReclaimable.unconvertedCount());
 
-        log.info("Batch calculation completed: {} success, {} failures, total reclaimable: {}",
-                successCount, failureCount, totalReclaimable);
+        if (totalReclaimable.unconvertedCount() > 0) {
+            log.warn("{} reclaimable amounts left out of the {} total: no FX rate available",
+                    totalReclaimable.unconvertedCount(), totalReclaimable.currency());
+        }
+        log.info("Batch calculation completed: {} success ({} fixed-point), {} failures, total reclaimable: {} {}",
+                successCount, laneCount, failureCount, totalReclaimable.amount(), totalReclaimable.currency());
 
         return batchResult;
     }
@@ -270,113 +323,138 @@ public class TaxCalculationService {
         List<Dividend> dividends = dividendRepository.findByUserId(userId);
         TaxCalculationBatchResultDto result = calculateBatch(dividends, residenceCountry);
 
-        // Update all dividends with calculated values
-        for (TaxCalculationResultDto calcResult : result.getResults()) {
-            Dividend dividend = dividendRepository.findById(calcResult.getDividendId())
-                    .orElseThrow(
-                            () -> new TaxCalculationException("Dividend not found: " + calcResult.getDividendId()));
-
-            dividend.setReclaimableAmount(calcResult.getReclaimableAmount());
-            if (calcResult.getTreatyRate() != null) {
-                dividend.setTreatyRate(calcResult.getTreatyRate());
-            }
-            dividendRepository.save(dividend);
+        // Write all calculated values back in one statement
+        List<CalculatedAmounts> amounts = result.getResults().stream()
+                .map(calcResult -> new CalculatedAmounts(calcResult.getDividendId(),
+                        calcResult.getReclaimableAmount(), calcResult.getTreatyRate()))
+                .toList();
+        int updated = dividendRepository.updateCalculatedAmounts(userId, amounts);
+        if (updated != amounts.size()) {
+            log.warn("Expected to update {} dividends for user {} but updated {}", amounts.size(), userId, updated);
         }
 
         log.info("Updated {} dividends for user {} with calculated values",
-                result.getSuccessCount(), userId);
+                updated, userId);
 
         return result;
     }
 
     public UUID findApplicableTaxRule(String sourceCountry, String residenceCountry,
             String securityType, LocalDate paymentDate) {
-        Optional<TaxRule> taxRule = taxRuleRepository.findApplicableRule(
+        Optional<TaxRule> taxRule = taxRuleIndex.findApplicableRule(
                 sourceCountry, residenceCountry, securityType, paymentDate);
 
         return taxRule.map(TaxRule::getId).orElse(null);
     }
 
-    @Transactional
-    public TaxCalculationBatchResultDto recalculateUnsubmittedDividends() {
-        log.info("Recalculating all unsubmitted dividends");
+    // ========================================
+    // Private Helper Methods
+    // ========================================
 
-        List<Dividend> unsubmittedDividends = dividendRepository.findByFormIsNull();
+    /**
+     * Rule for the dividend's security type, falling back to the EQUITY rule
+     * when the treaty has no specific rule for that type.
+     */
+    private Optional<TaxRule> findRule(TaxRuleLookup rules, Dividend dividend, String residenceCountry) {
+        String securityType = securityTypeClassifier.classify(dividend.getIsin());
+        Optional<TaxRule> taxRule = rules.findApplicableRule(
+                dividend.getSourceCountry(),
+                residenceCountry,
+                securityType,
+                dividend.getPaymentDate());
+        if (taxRule.isEmpty() && !SecurityTypeClassifier.DEFAULT_SECURITY_TYPE.equals(securityType)) {
+            taxRule = rules.findApplicableRule(
+                    dividend.getSourceCountry(),
+                    residenceCountry,
+                    SecurityTypeClassifier.DEFAULT_SECURITY_TYPE,
+                    dividend.getPaymentDate());
+        }
+        return taxRule;
+    }
 
-        if (unsubmittedDividends.isEmpty()) {
-            log.info("No unsubmitted dividends found");
-            TaxCalculationBatchResultDto emptyResult = new TaxCalculationBatchResultDto();
-            emptyResult.setSuccessCount(0);
-            emptyResult.setFailureCount(0);
-            emptyResult.setTotalReclaimableAmount(BigDecimal.ZERO);
-            emptyResult.setResults(new ArrayList<>());
-            return emptyResult;
+    /**
+     * BigDecimal calculation against an already resolved rule.
+     */
+    private TaxCalculationResultDto calculateWithRule(Dividend dividend, String residenceCountry,
+            Optional<TaxRule> taxRuleOpt) {
+        TaxCalculationResultDto result = new TaxCalculationResultDto();
+
+        result.setDividendId(dividend.getId());
+        result.setWithheldAmount(dividend.getWithholdingTax().setScale(CALCULATION_SCALE, ROUNDING_MODE));
+        result.setStandardRate(dividend.getWithholdingRate());
+
+        if (taxRuleOpt.isEmpty()) {
+            // No tax treaty found
+            log.warn("No tax treaty found for {} -> {} on {}",
+                    dividend.getSourceCountry(), residenceCountry, dividend.getPaymentDate());
+
+            result.setSuccess(false);
+            result.setTreatyRate(null);
+            result.setReclaimableAmount(BigDecimal.ZERO);
+            result.addErrorsItem("No tax treaty available. Cannot reclaim withholding tax.");
+
+            return result;
         }
 
-        // Group by user and calculate
-        List<TaxCalculationResultDto> allResults = new ArrayList<>();
-        int totalSuccess = 0;
-        int totalFailure = 0;
+        // Tax treaty found - calculate reclaimable amount
+        TaxRule taxRule = taxRuleOpt.get();
 
-        for (Dividend dividend : unsubmittedDividends) {
-            try {
-                User user = dividend.getUser();
-                String residenceCountry = user.getCountry();
+        if (taxRule.getTreatyRate() == null) {
+            // Treaty exists but no reduced rate
+            log.warn("Tax treaty exists but no treaty defined for rule {}", taxRule.getId());
 
-                if (residenceCountry == null || residenceCountry.isEmpty()) {
-                    log.warn("Skipping dividend {} - user has no residence country", dividend.getId());
-                    totalFailure++;
-                    continue;
-                }
+            result.setSuccess(false);
+            result.setTreatyRate(null);
+            result.setReclaimableAmount(BigDecimal.ZERO);
+            result.addErrorsItem("Tax treaty exists but no reduced rate defined.");
 
-                TaxCalculationResultDto result = calculateForDividend(dividend, residenceCountry);
+            return result;
+        }
 
-                // Update dividend
-                dividend.setReclaimableAmount(result.getReclaimableAmount());
-                if (result.getTreatyRate() != null) {
-                    dividend.setTreatyRate(result.getTreatyRate());
-                }
-                dividendRepository.save(dividend);
+        // Calculate treaty withholding tax (what should have been withheld)
+        BigDecimal treatyWithholdingTax = dividend.getGrossAmount()
+                .multiply(taxRule.getTreatyRate())
+                .divide(BigDecimal.valueOf(100), CALCULATION_SCALE, ROUNDING_MODE);
 
-                allResults.add(result);
-                totalSuccess++;
+        // Calculate reclaimable amount (actual withholding - treaty withholding)
+        BigDecimal reclaimableAmount = dividend.getWithholdingTax()
+                .subtract(treatyWithholdingTax)
+                .setScale(CALCULATION_SCALE, ROUNDING_MODE);
 
-            } catch (Exception e) {
-                log.error("Failed to recalculate dividend {}", dividend.getId(), e);
-                totalFailure++;
-            }
+        // Ensure non-negative
+        if (reclaimableAmount.compareTo(BigDecimal.ZERO) < 0) {
+            log.warn("Calculated negative reclaimable amount for dividend {}. Setting to zero.", dividend.getId());
+            reclaimableAmount = BigDecimal.ZERO;
         }
 
-        // Calculate totals
-        // totalGross, totalWithholding not in API DTO?
-        // Only totalReclaimable
-        BigDecimal totalReclaimable = allResults.stream()
-                .map(TaxCalculationResultDto::getReclaimableAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        result.setSuccess(true);
+        result.setTreatyRate(taxRule.getTreatyRate());
+        result.setReclaimableAmount(reclaimableAmount);
 
-        log.info("Recalculation completed: {} success, {} failures", totalSuccess, totalFailure);
+        // Add notes based on reclaim options
+        addReclaimNotes(result, taxRule, reclaimableAmount.compareTo(BigDecimal.ZERO) > 0);
 
-        TaxCalculationBatchResultDto batchResult = new TaxCalculationBatchResultDto();
-        batchResult.setResults(allResults);
-        batchResult.setSuccessCount(totalSuccess);
-        batchResult.setFailureCount(totalFailure);
-        batchResult.setTotalReclaimableAmount(totalReclaimable.setScale(CALCULATION_SCALE, ROUNDING_MODE));
+        log.debug("Calculated reclaimable amount: {} {} for dividend {}",
+                reclaimableAmount, dividend.getCurrency(), dividend.getId());
 
-        return batchResult;
+        return result;
     }
 
-    // ========================================
-    // Private Helper Methods
-    // ========================================
-
     /**
-     * Determine security type from ISIN or other heuristics.
-     * Default to EQUITY if cannot be determined.
+     * Notes explaining how the reclaimable amount can be recovered.
      */
-    private String determineSecurityType(Dividend dividend) {
-        // Future enhancement: Parse ISIN to determine type
-        // For now, default to EQUITY
-        return "EQUITY";
+    private void addReclaimNotes(TaxCalculationResultDto result, TaxRule taxRule, boolean reclaimable) {
+        if (reclaimable) {
+            if (taxRule.getRefundProcedureAvailable()) {
+                result.addErrorsItem("Refund procedure available. Can reclaim via forms 5000/5001.");
+            } else if (taxRule.getReliefAtSourceAvailable()) {
+                result.addErrorsItem("Only relief at source available. Refund not possible.");
+            } else {
+                result.addErrorsItem("No reclaim procedure available despite treaty.");
+            }
+        } else {
+            result.addErrorsItem("Treaty rate already applied. No additional reclaim possible.");
+        }
     }
 
     /**
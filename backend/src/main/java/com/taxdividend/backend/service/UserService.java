@@ -3,6 +3,7 @@ package com.taxdividend.backend.service;
 import com.taxdividend.backend.model.User;
 import com.taxdividend.backend.repository.UserRepository;
 import com.taxdividend.backend.security.UserContext;
+import com.taxdividend.backend.security.UserContextCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +25,7 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserContextCache userContextCache;
 
     /**
      * Find user by ID or auto-provision for SSO users.
@@ -80,7 +82,9 @@ public class UserService {
                 .registrationSource(userContext.getRegistrationSource())
                 .build();
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userContextCache.invalidate(saved.getId());
+        return saved;
     }
 
     /**
@@ -126,7 +130,9 @@ public class UserService {
                 .registrationSource("CLASSIC")
                 .build();
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userContextCache.invalidate(saved.getId());
+        return saved;
     }
 
     /**
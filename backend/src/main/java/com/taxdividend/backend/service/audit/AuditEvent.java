@@ -0,0 +1,30 @@
+package com.taxdividend.backend.service.audit;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An audit entry waiting to be written to {@code audit_logs}.
+ *
+ * Carries the user ID rather than a User entity so recording an action needs
+ * no database access; the ID and timestamp are assigned when the event is
+ * created, not when it is flushed.
+ */
+public record AuditEvent(
+        UUID id,
+        UUID userId,
+        String action,
+        String entityType,
+        UUID entityId,
+        Map<String, Object> details,
+        String ipAddress,
+        String userAgent,
+        LocalDateTime createdAt) {
+
+    public static AuditEvent of(UUID userId, String action, String entityType, UUID entityId,
+            Map<String, Object> details, String ipAddress, String userAgent) {
+        return new AuditEvent(UUID.randomUUID(), userId, action, entityType, entityId, details,
+                ipAddress, userAgent, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,524 @@
+package com.taxdividend.backend.service.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind writer for audit logs.
+ *
+ * Callers hand events to a bounded in-memory buffer and return immediately. A
+ * single background thread drains the buffer and batch-inserts into
+ * {@code audit_logs} whenever {@code batch-size} events are pending or
+ * {@code flush-interval} has elapsed since the first pending event.
+ *
+ * When the buffer is full the {@link OverflowPolicy} applies. Batches that
+ * cannot be inserted, overflow under SPILL, and events still buffered at
+ * shutdown are appended to a spill file (JSON lines, fsynced), which is
+ * replayed on startup and after the next successful flush. Replay works on a
+ * renamed copy, so spilling never waits for it. A hard crash can lose at most
+ * the events still in memory, i.e. roughly one flush interval.
+ *
+ * The spill file only survives a restart if it is on a mounted volume; with
+ * {@code require-volume} the writer refuses to start otherwise. Replicas
+ * sharing the volume each use their own file and hold a lock on
+ * {@code <spill-file>.lock} while running, so files left by a writer that is
+ * gone (e.g. a recreated container) are replayed by the others.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    /**
+     * What to do with an event when the buffer is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait up to block-timeout for space, then spill. */
+        BLOCK,
+        /** Append straight to the spill file. */
+        SPILL,
+        /** Discard the event. */
+        DROP
+    }
+
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String REPLAY_SUFFIX = ".replaying";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_logs (id, user_id, action, entity_type, entity_id, details,
+                                    ip_address, user_agent, created_at)
+            VALUES (?, (SELECT u.id FROM users u WHERE u.id = ?), ?, ?, ?, CAST(? AS jsonb),
+                    CAST(? AS inet), ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditEvent> buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration blockTimeout;
+    private final Duration shutdownTimeout;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path lockFile;
+    private final boolean requireVolume;
+
+    private final Object spillLock = new Object();
+
+    private final Counter writtenCounter;
+    private final Counter spilledCounter;
+    private final Counter droppedCounter;
+    private final Counter replayedCounter;
+    private final Counter backpressureCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread worker;
+    private FileChannel lockChannel;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.writer.buffer-capacity:10000}") int bufferCapacity,
+            @Value("${app.audit.writer.batch-size:200}") int batchSize,
+            @Value("${app.audit.writer.flush-interval:1s}") Duration flushInterval,
+            @Value("${app.audit.writer.overflow-policy:SPILL}") OverflowPolicy overflowPolicy,
+            @Value("${app.audit.writer.block-timeout:100ms}") Duration blockTimeout,
+            @Value("${app.audit.writer.shutdown-timeout:10s}") Duration shutdownTimeout,
+            @Value("${app.audit.writer.spill-file:${java.io.tmpdir}/tax-dividend/audit-spill.jsonl}") Path spillFile,
+            @Value("${app.audit.writer.require-volume:false}") boolean requireVolume) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeout = blockTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.spillFile = spillFile.toAbsolutePath();
+        this.replayFile = this.spillFile.resolveSibling(this.spillFile.getFileName() + REPLAY_SUFFIX);
+        this.lockFile = this.spillFile.resolveSibling(this.spillFile.getFileName() + LOCK_SUFFIX);
+        this.requireVolume = requireVolume;
+
+        this.writtenCounter = eventCounter(meterRegistry, "written");
+        this.spilledCounter = eventCounter(meterRegistry, "spilled");
+        this.droppedCounter = eventCounter(meterRegistry, "dropped");
+        this.replayedCounter = eventCounter(meterRegistry, "replayed");
+        this.backpressureCounter = Counter.builder("audit.writer.backpressure")
+                .description("Submissions that had to wait for buffer space")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.writer.flush")
+                .description("Time to batch-insert buffered audit events")
+                .register(meterRegistry);
+        Gauge.builder("audit.writer.buffer.size", buffer, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (requireVolume) {
+            checkSpillVolume();
+        }
+        lockSpillFile();
+
+        running = true;
+        worker = Thread.ofPlatform().name("audit-writer").daemon(true).start(this::run);
+        log.info("Audit writer started: batch-size={}, flush-interval={}, overflow-policy={}, spill-file={}",
+                batchSize, flushInterval, overflowPolicy, spillFile);
+    }
+
+    /**
+     * Stop accepting work, flush what is buffered and spill anything left after the timeout.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(shutdownTimeout.toMillis());
+        }
+
+        List<AuditEvent> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("Audit writer stopped with {} buffered events, spilling to {}", remaining.size(), spillFile);
+            spill(remaining);
+        }
+
+        if (lockChannel != null) {
+            try {
+                lockChannel.close();
+            } catch (IOException e) {
+                log.warn("Could not release {}", lockFile, e);
+            }
+            lockChannel = null;
+        }
+    }
+
+    /**
+     * Queue an event for writing. Never blocks longer than block-timeout.
+     */
+    public void submit(AuditEvent event) {
+        if (buffer.offer(event)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                backpressureCounter.increment();
+                try {
+                    if (buffer.offer(event, blockTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                spill(List.of(event));
+            }
+            case SPILL -> spill(List.of(event));
+            case DROP -> {
+                droppedCounter.increment();
+                log.warn("Audit buffer full, dropping event {} for user {}", event.action(), event.userId());
+            }
+        }
+    }
+
+    /**
+     * Write an event synchronously, for entries that must be readable right away.
+     */
+    public void writeNow(AuditEvent event) {
+        insert(List.of(event));
+        writtenCounter.increment();
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private void run() {
+        replaySpill();
+
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                if (flush(batch)) {
+                    replaySpill();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Wait for the first event, then keep collecting until the batch is full or the flush interval elapses.
+     */
+    private void collectBatch(List<AuditEvent> batch) throws InterruptedException {
+        AuditEvent first = buffer.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            AuditEvent next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Fail unless the spill directory exists, is writable and is not on the
+     * root filesystem, i.e. is a volume that outlives the container.
+     */
+    private void checkSpillVolume() {
+        Path directory = spillFile.getParent();
+        if (!Files.isDirectory(directory) || !Files.isWritable(directory)) {
+            throw new IllegalStateException("Audit spill directory " + directory
+                    + " does not exist or is not writable; mount a volume there");
+        }
+        try {
+            if (Files.getFileStore(directory).equals(Files.getFileStore(Path.of("/")))) {
+                throw new IllegalStateException("Audit spill directory " + directory
+                        + " is on the container filesystem; mount a volume there");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot inspect audit spill directory " + directory, e);
+        }
+    }
+
+    /**
+     * Hold the lock that marks the spill file as owned by this writer until stop.
+     */
+    private void lockSpillFile() {
+        try {
+            Files.createDirectories(spillFile.getParent());
+            FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                channel.close();
+                throw new IllegalStateException("Audit spill file " + spillFile
+                        + " is used by another writer; give each instance its own file");
+            }
+            lockChannel = channel;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot lock audit spill file " + spillFile, e);
+        }
+    }
+
+    private boolean flush(List<AuditEvent> batch) {
+        try {
+            flushTimer.record(() -> insert(batch));
+            writtenCounter.increment(batch.size());
+            return true;
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Failed to write {} audit events, spilling to {}", batch.size(), spillFile, e);
+            spill(batch);
+            return false;
+        }
+    }
+
+    /**
+     * Insert events in one transaction (joining the caller's, if any). Idempotent
+     * on event ID, so replaying a partially written spill file is safe.
+     */
+    private void insert(List<AuditEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setObject(1, event.id());
+            ps.setObject(2, event.userId(), Types.OTHER);
+            ps.setString(3, event.action());
+            ps.setString(4, event.entityType());
+            ps.setObject(5, event.entityId(), Types.OTHER);
+            ps.setString(6, event.details() != null ? toJson(event.details()) : null);
+            ps.setString(7, event.ipAddress());
+            ps.setString(8, event.userAgent());
+            ps.setObject(9, event.createdAt());
+        }));
+    }
+
+    private void spill(List<AuditEvent> events) {
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillFile.getParent());
+                try (FileChannel channel = FileChannel.open(spillFile, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+                    for (AuditEvent event : events) {
+                        writer.write(toJson(event));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                    channel.force(false);
+                }
+                spilledCounter.increment(events.size());
+            } catch (IOException | UncheckedIOException e) {
+                droppedCounter.increment(events.size());
+                log.error("Failed to spill {} audit events to {}; events lost", events.size(), spillFile, e);
+            }
+        }
+    }
+
+    /**
+     * Insert spilled events back into the database.
+     *
+     * Files of writers that are gone go first, then a file left by an
+     * interrupted replay, then the current spill file. The database is never
+     * written under the spill lock, so SPILL callers are not held up by a slow
+     * replay.
+     */
+    private void replaySpill() {
+        adoptOrphans();
+        for (int round = 0; round < 2; round++) {
+            Path file = claimSpill();
+            if (file == null || !replay(file)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * The file to replay, if any. The spill file is renamed under the lock, so
+     * events spilled during the replay start a new one.
+     */
+    private Path claimSpill() {
+        synchronized (spillLock) {
+            if (Files.exists(replayFile)) {
+                return replayFile;
+            }
+            if (!Files.exists(spillFile)) {
+                return null;
+            }
+            try {
+                Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                return replayFile;
+            } catch (IOException e) {
+                log.error("Could not move {} aside for replay", spillFile, e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Replay the spill files of every writer in the directory whose lock is free.
+     */
+    private void adoptOrphans() {
+        List<Path> lockFiles;
+        try (Stream<Path> files = Files.list(spillFile.getParent())) {
+            lockFiles = files
+                    .filter(file -> file.getFileName().toString().endsWith(LOCK_SUFFIX))
+                    .filter(file -> !file.equals(lockFile))
+                    .toList();
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            log.warn("Could not look for orphaned audit spill files: {}", e.getMessage());
+            return;
+        }
+
+        for (Path orphanLock : lockFiles) {
+            String name = orphanLock.getFileName().toString();
+            Path orphan = orphanLock.resolveSibling(name.substring(0, name.length() - LOCK_SUFFIX.length()));
+            try (FileChannel channel = FileChannel.open(orphanLock, StandardOpenOption.WRITE);
+                    FileLock lock = channel.tryLock()) {
+                if (lock == null) {
+                    // Owner still running
+                    continue;
+                }
+                for (Path file : List.of(orphan.resolveSibling(orphan.getFileName() + REPLAY_SUFFIX), orphan)) {
+                    if (Files.exists(file) && !replay(file)) {
+                        return;
+                    }
+                }
+                Files.deleteIfExists(orphanLock);
+            } catch (NoSuchFileException | OverlappingFileLockException e) {
+                // Adopted by another writer meanwhile, or owned by one in this JVM
+            } catch (IOException e) {
+                log.warn("Could not adopt audit spill file {}: {}", orphan, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Insert the events of a claimed file in batches and delete it once all are written.
+     */
+    private boolean replay(Path file) {
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuditEvent.class));
+                } catch (JsonProcessingException e) {
+                    // A torn line from a crash mid-write must not block the rest
+                    droppedCounter.increment();
+                    log.error("Skipping unreadable audit spill line: {}", e.getOriginalMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    insert(batch);
+                    replayed += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                insert(batch);
+                replayed += batch.size();
+            }
+        } catch (IOException | DataAccessException | UncheckedIOException e) {
+            // Keep the whole file; rows already written are skipped on the next attempt
+            log.warn("Audit spill replay stopped after {} events: {}", replayed, e.getMessage());
+            replayedCounter.increment(replayed);
+            return false;
+        }
+
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            log.error("Replayed {} audit events but could not delete {}", replayed, file, e);
+            return false;
+        }
+        replayedCounter.increment(replayed);
+        if (replayed > 0) {
+            log.info("Replayed {} spilled audit events from {}", replayed, file);
+        }
+        return true;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Counter eventCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("audit.writer.events")
+                .tag("outcome", outcome)
+                .description("Audit events by write outcome")
+                .register(meterRegistry);
+    }
+}
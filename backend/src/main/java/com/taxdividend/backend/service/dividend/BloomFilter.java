@@ -0,0 +1,72 @@
+package com.taxdividend.backend.service.dividend;
+
+/**
+ * Fixed-size Bloom filter over 64-bit hashes.
+ *
+ * Never reports a hash that was added as absent; reports an absent hash as
+ * present with roughly the false positive rate it was sized for, as long as no
+ * more than the expected number of hashes are added. Bit positions come from
+ * double hashing (Kirsch-Mitzenmacher) of the two halves of the hash.
+ *
+ * Not thread-safe.
+ */
+final class BloomFilter {
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private long size;
+
+    private BloomFilter(long bitCount, int hashCount, long capacity) {
+        this.words = new long[(int) ((bitCount + 63) >>> 6)];
+        this.bitCount = (long) words.length << 6;
+        this.hashCount = hashCount;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Filter sized for the given number of hashes and false positive rate.
+     */
+    static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(expectedInsertions, 1);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int hashes = Math.max(1, (int) Math.round((double) bits / expected * ln2));
+        return new BloomFilter(Math.max(bits, 64), hashes, expected);
+    }
+
+    void put(long hash) {
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        size++;
+    }
+
+    boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = Long.rotateLeft(hash, 32) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether more hashes were added than the filter was sized for, so the
+     * false positive rate is above target.
+     */
+    boolean isSaturated() {
+        return size > capacity;
+    }
+
+    long size() {
+        return size;
+    }
+}
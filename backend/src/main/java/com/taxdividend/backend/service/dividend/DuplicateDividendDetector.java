@@ -0,0 +1,155 @@
+package com.taxdividend.backend.service.dividend;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taxdividend.backend.repository.DividendBatchOperations.DividendKey;
+import com.taxdividend.backend.repository.DividendRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Detects dividends a user already has before they are imported again, e.g.
+ * from overlapping broker statements.
+ *
+ * Each user gets an in-memory Bloom filter of their {@link DividendKey}s,
+ * built lazily from the database on first use and kept up to date as imports
+ * insert rows. Keys the filter rules out are new for certain and cost no
+ * query; the few it cannot rule out are confirmed with one batched lookup.
+ *
+ * The filter only saves queries: rows written by other paths or other
+ * instances may be missing from it, and the unique index on dividends stays
+ * the source of truth (imports insert with ON CONFLICT DO NOTHING). Filters
+ * expire after a TTL and are rebuilt once they hold more keys than they were
+ * sized for.
+ */
+@Slf4j
+@Component
+public class DuplicateDividendDetector {
+
+    private static final long MIN_CAPACITY = 1_024;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final DividendRepository dividendRepository;
+    private final double falsePositiveRate;
+    private final Cache<UUID, BloomFilter> filters;
+
+    private final Counter ruledOutCounter;
+    private final Counter queriedCounter;
+
+    public DuplicateDividendDetector(
+            DividendRepository dividendRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.dividends.duplicates.max-users:10000}") long maxUsers,
+            @Value("${app.dividends.duplicates.ttl:1h}") Duration ttl,
+            @Value("${app.dividends.duplicates.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.dividendRepository = dividendRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, filters, "dividendKeyFilters");
+        this.ruledOutCounter = Counter.builder("dividends.import.duplicate.checks")
+                .tag("outcome", "ruled_out")
+                .description("Imported dividends the Bloom filter proved new without a query")
+                .register(meterRegistry);
+        this.queriedCounter = Counter.builder("dividends.import.duplicate.checks")
+                .tag("outcome", "queried")
+                .description("Imported dividends checked against the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Keys among the given ones that the user already has in the database.
+     */
+    public Set<DividendKey> findExisting(UUID userId, Collection<DividendKey> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+
+        BloomFilter filter = filters.get(userId, this::load);
+        List<DividendKey> candidates;
+        synchronized (filter) {
+            candidates = keys.stream()
+                    .filter(key -> filter.mightContain(hash(key)))
+                    .distinct()
+                    .toList();
+        }
+
+        ruledOutCounter.increment(keys.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        queriedCounter.increment(candidates.size());
+        return dividendRepository.findExistingKeys(userId, candidates);
+    }
+
+    /**
+     * Add keys the user's dividends were just inserted with.
+     */
+    public void recordInserted(UUID userId, Collection<DividendKey> keys) {
+        BloomFilter filter = filters.getIfPresent(userId);
+        if (filter == null) {
+            // Loaded with these keys on next use
+            return;
+        }
+
+        boolean saturated;
+        synchronized (filter) {
+            keys.forEach(key -> filter.put(hash(key)));
+            saturated = filter.isSaturated();
+        }
+        if (saturated) {
+            // Rebuilt with a larger capacity on next use
+            filters.invalidate(userId);
+        }
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private BloomFilter load(UUID userId) {
+        long count = dividendRepository.countByUserId(userId);
+        BloomFilter filter = BloomFilter.create(Math.max(count * 2, MIN_CAPACITY), falsePositiveRate);
+        dividendRepository.forEachKey(userId, key -> filter.put(hash(key)));
+
+        log.debug("Built dividend key filter for user {}: {} keys", userId, filter.size());
+        return filter;
+    }
+
+    /**
+     * 64-bit hash of a key: FNV-1a over its fields, then the MurmurHash3
+     * finalizer so both halves are well mixed for double hashing.
+     */
+    static long hash(DividendKey key) {
+        long h = FNV_OFFSET_BASIS;
+        String isin = key.isin();
+        for (int i = 0; i < isin.length(); i++) {
+            h = (h ^ isin.charAt(i)) * FNV_PRIME;
+        }
+        h = (h ^ key.paymentDate().toEpochDay()) * FNV_PRIME;
+        h = (h ^ key.grossAmount().unscaledValue().longValue()) * FNV_PRIME;
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,23 @@
+package com.taxdividend.backend.service.fx;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Converts amounts between currencies at the daily rate of a given date.
+ *
+ * Implemented by the live {@link FxRateIndex} and by its immutable
+ * {@link FxRateIndex.Snapshot}, so callers can pin one consistent set of
+ * rates for a whole aggregation.
+ */
+public interface CurrencyConverter {
+
+    /**
+     * Convert an amount using the latest rates on or before {@code date}.
+     *
+     * @return the amount rounded HALF_UP to 2 decimals, the amount unchanged
+     *         when both currencies are equal, or empty when no usable rate exists
+     */
+    Optional<BigDecimal> convert(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date);
+}
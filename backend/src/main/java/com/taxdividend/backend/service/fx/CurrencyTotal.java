@@ -0,0 +1,91 @@
+package com.taxdividend.backend.service.fx;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Running total of amounts in mixed currencies, expressed in one target currency.
+ *
+ * Each amount is converted at the rate of its own date. Amounts already in the
+ * target currency are summed without any lookup; amounts that cannot be
+ * converted are left out of the total and counted in
+ * {@link #unconvertedCount()}. An amount without a currency is taken to be in
+ * the target currency. Not thread-safe.
+ */
+public final class CurrencyTotal {
+
+    private static final int SCALE = 2;
+
+    private final CurrencyConverter converter;
+    private final String currency;
+
+    private long minorUnits;
+    private BigDecimal amount = BigDecimal.ZERO;
+    private int unconvertedCount;
+
+    public CurrencyTotal(CurrencyConverter converter, String currency) {
+        this.converter = converter;
+        this.currency = currency.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Add an amount paid on {@code date}. Null amounts are ignored.
+     *
+     * @return false if the amount could not be converted
+     */
+    public boolean add(BigDecimal value, String valueCurrency, LocalDate date) {
+        if (value == null) {
+            return true;
+        }
+        if (isTargetCurrency(valueCurrency)) {
+            amount = amount.add(value);
+            return true;
+        }
+        return converter.convert(value, valueCurrency, currency, date)
+                .map(converted -> {
+                    amount = amount.add(converted);
+                    return true;
+                })
+                .orElseGet(() -> {
+                    unconvertedCount++;
+                    return false;
+                });
+    }
+
+    /**
+     * Add an amount in minor units (scale 2), as produced by the fixed-point kernel.
+     *
+     * @return false if the amount could not be converted
+     */
+    public boolean addMinorUnits(long value, String valueCurrency, LocalDate date) {
+        if (isTargetCurrency(valueCurrency)) {
+            minorUnits += value;
+            return true;
+        }
+        return add(BigDecimal.valueOf(value, SCALE), valueCurrency, date);
+    }
+
+    /**
+     * Total in the target currency, rounded HALF_UP to 2 decimals.
+     */
+    public BigDecimal amount() {
+        return amount.add(BigDecimal.valueOf(minorUnits, SCALE)).setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    public String currency() {
+        return currency;
+    }
+
+    /**
+     * Number of amounts left out because no rate was available.
+     */
+    public int unconvertedCount() {
+        return unconvertedCount;
+    }
+
+    private boolean isTargetCurrency(String valueCurrency) {
+        return valueCurrency == null || currency.equalsIgnoreCase(valueCurrency);
+    }
+}
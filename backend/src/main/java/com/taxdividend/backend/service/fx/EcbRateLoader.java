@@ -0,0 +1,166 @@
+package com.taxdividend.backend.service.fx;
+
+import com.taxdividend.backend.service.ClusterLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLConnection;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Loads the ECB euro foreign exchange reference rates into fx_rates.
+ *
+ * The ECB publishes one fixing per business day, quoted as units of currency
+ * per 1 EUR, which is the fx_rates convention. The default feed holds the last
+ * 90 days; pointing {@code app.fx.ecb.url} at the full history feed
+ * (eurofxref-hist.xml) once backfills every fixing since 1999.
+ *
+ * Rates are upserted, and a row is only rewritten when its rate changed, so
+ * reloading an unchanged feed leaves {@link FxRateIndex}'s version probe
+ * untouched. One replica loads at a time; the others pick the new rates up
+ * through the index refresh.
+ */
+@Slf4j
+@Component
+public class EcbRateLoader {
+
+    static final String SOURCE = "ECB";
+    private static final String LOCK_NAME = "fx-rates-ecb";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO fx_rates (currency, rate_date, rate, source)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (currency, rate_date) DO UPDATE
+            SET rate = EXCLUDED.rate, source = EXCLUDED.source
+            WHERE fx_rates.rate <> EXCLUDED.rate
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterLock clusterLock;
+    private final FxRateIndex fxRateIndex;
+    private final boolean enabled;
+    private final String url;
+    private final Duration timeout;
+
+    public EcbRateLoader(
+            JdbcTemplate jdbcTemplate,
+            ClusterLock clusterLock,
+            FxRateIndex fxRateIndex,
+            @Value("${app.fx.ecb.enabled:true}") boolean enabled,
+            @Value("${app.fx.ecb.url:https://www.ecb.europa.eu/stats/eurofxref/eurofxref-hist-90d.xml}") String url,
+            @Value("${app.fx.ecb.timeout:30s}") Duration timeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clusterLock = clusterLock;
+        this.fxRateIndex = fxRateIndex;
+        this.enabled = enabled;
+        this.url = url;
+        this.timeout = timeout;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        load();
+    }
+
+    /**
+     * Fetch the feed and store its rates. Failures are logged; the next run retries.
+     */
+    @Scheduled(fixedDelayString = "${app.fx.ecb.refresh-interval:6h}",
+            initialDelayString = "${app.fx.ecb.refresh-interval:6h}")
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        Optional<ClusterLock.Lease> lease = clusterLock.tryAcquire(LOCK_NAME);
+        if (lease.isEmpty()) {
+            log.debug("ECB rates are being loaded by another node");
+            return;
+        }
+
+        try (ClusterLock.Lease held = lease.get()) {
+            List<EcbRate> rates = fetch();
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rates.stream()
+                    .map(rate -> new Object[] {rate.currency(), Date.valueOf(rate.date()), rate.rate(), SOURCE})
+                    .toList());
+            log.info("Loaded {} ECB rates from {}", rates.size(), url);
+
+            // Pick the new rates up on this node now rather than at the next poll
+            fxRateIndex.refreshIfChanged();
+        } catch (Exception e) {
+            log.error("Failed to load ECB rates from {}", url, e);
+        }
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private List<EcbRate> fetch() throws Exception {
+        URLConnection connection = URI.create(url).toURL().openConnection();
+        connection.setConnectTimeout((int) timeout.toMillis());
+        connection.setReadTimeout((int) timeout.toMillis());
+        try (InputStream in = connection.getInputStream()) {
+            return parse(in);
+        }
+    }
+
+    /**
+     * Read the {@code <Cube time="..."><Cube currency="..." rate="..."/></Cube>}
+     * elements of an ECB feed.
+     */
+    static List<EcbRate> parse(InputStream in) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setExpandEntityReferences(false);
+
+        NodeList cubes = factory.newDocumentBuilder().parse(in).getElementsByTagName("Cube");
+        List<EcbRate> rates = new ArrayList<>();
+        for (int i = 0; i < cubes.getLength(); i++) {
+            Element day = (Element) cubes.item(i);
+            if (!day.hasAttribute("time")) {
+                continue;
+            }
+            LocalDate date = LocalDate.parse(day.getAttribute("time"));
+            NodeList children = day.getChildNodes();
+            for (int j = 0; j < children.getLength(); j++) {
+                if (children.item(j).getNodeType() == Node.ELEMENT_NODE) {
+                    Element quote = (Element) children.item(j);
+                    rates.add(new EcbRate(quote.getAttribute("currency").toUpperCase(Locale.ROOT), date,
+                            new BigDecimal(quote.getAttribute("rate"))));
+                }
+            }
+        }
+        if (rates.isEmpty()) {
+            throw new IOException("ECB feed holds no rates");
+        }
+        return rates;
+    }
+
+    /**
+     * One fixing: units of {@code currency} per 1 EUR on {@code date}.
+     */
+    record EcbRate(String currency, LocalDate date, BigDecimal rate) {
+    }
+}
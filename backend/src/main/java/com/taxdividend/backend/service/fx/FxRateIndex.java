@@ -0,0 +1,285 @@
+package com.taxdividend.backend.service.fx;
+
+import com.taxdividend.backend.model.FxRate;
+import com.taxdividend.backend.repository.FxRateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable, versioned in-memory time series of the fx_rates table.
+ *
+ * Rates are quoted against {@link #BASE_CURRENCY}. Each currency holds two
+ * parallel primitive arrays, epoch days and rates as fixed-point longs, sorted
+ * by date, so resolving a rate is a binary search with no database I/O and a
+ * year of daily rates costs a few kilobytes. Cross rates go through the base
+ * currency.
+ *
+ * The latest rate on or before the requested date is used (weekends and bank
+ * holidays have no fixing), as long as it is no older than the configured
+ * maximum staleness.
+ *
+ * Like {@link com.taxdividend.backend.service.tax.TaxRuleIndex}, the series
+ * are rebuilt off the read path and published through an AtomicReference,
+ * and a cheap version probe triggers a rebuild only when fx_rates changed.
+ */
+@Slf4j
+@Component
+public class FxRateIndex implements CurrencyConverter {
+
+    /** Currency all stored rates are quoted against. */
+    public static final String BASE_CURRENCY = "EUR";
+
+    private final FxRateRepository fxRateRepository;
+    private final String reportingCurrency;
+    private final int maxStaleDays;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public FxRateIndex(
+            FxRateRepository fxRateRepository,
+            @Value("${app.fx.reporting-currency:EUR}") String reportingCurrency,
+            @Value("${app.fx.max-staleness:7d}") Duration maxStaleness) {
+        this.fxRateRepository = fxRateRepository;
+        this.reportingCurrency = reportingCurrency.toUpperCase(Locale.ROOT);
+        this.maxStaleDays = (int) maxStaleness.toDays();
+    }
+
+    /**
+     * Currency aggregated totals are reported in.
+     */
+    public String reportingCurrency() {
+        return reportingCurrency;
+    }
+
+    /**
+     * A new running total in the reporting currency, pinned to the current rates.
+     */
+    public CurrencyTotal newReportingTotal() {
+        return new CurrencyTotal(snapshot(), reportingCurrency);
+    }
+
+    @Override
+    public Optional<BigDecimal> convert(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
+        return snapshot().convert(amount, fromCurrency, toCurrency, date);
+    }
+
+    /**
+     * All rates currently indexed, for callers that convert many amounts at once.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadIfAbsent();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Index will be loaded lazily on first conversion
+            log.error("Failed to load FX rate index at startup", e);
+        }
+    }
+
+    /**
+     * Poll fx_rates for changes and swap in new series when needed.
+     */
+    @Scheduled(fixedDelayString = "${app.fx.refresh-interval:15m}",
+            initialDelayString = "${app.fx.refresh-interval:15m}")
+    public void refreshIfChanged() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            reload();
+            return;
+        }
+
+        try {
+            FxRateRepository.FxRateVersion version = fxRateRepository.findVersion();
+            if (version.getRateCount() != snapshot.rateCount()
+                    || !Objects.equals(version.getLastUpdatedAt(), snapshot.lastUpdatedAt())) {
+                log.info("FX rates changed ({} -> {} rates), rebuilding index",
+                        snapshot.rateCount(), version.getRateCount());
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("Failed to check FX rates version", e);
+        }
+    }
+
+    /**
+     * Rebuild the series from the database and publish them atomically.
+     */
+    public synchronized Snapshot reload() {
+        Snapshot previous = current.get();
+        Snapshot snapshot = Snapshot.of(previous != null ? previous.version() + 1 : 1,
+                fxRateRepository.findAll(), maxStaleDays);
+        current.set(snapshot);
+
+        log.info("FX rate index v{} loaded: {} rates for {} currencies",
+                snapshot.version(), snapshot.rateCount(), snapshot.currencyCount());
+        return snapshot;
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private synchronized Snapshot loadIfAbsent() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * One immutable version of the index.
+     */
+    public static final class Snapshot implements CurrencyConverter {
+
+        /** Fixed-point scale of stored rates, matching fx_rates.rate. */
+        private static final int RATE_SCALE = 8;
+        private static final int AMOUNT_SCALE = 2;
+        private static final long BASE_RATE = 100_000_000L;
+
+        private final long version;
+        private final Map<String, Series> series;
+        private final int rateCount;
+        private final LocalDateTime lastUpdatedAt;
+        private final int maxStaleDays;
+
+        private Snapshot(long version, Map<String, Series> series, int rateCount, LocalDateTime lastUpdatedAt,
+                int maxStaleDays) {
+            this.version = version;
+            this.series = series;
+            this.rateCount = rateCount;
+            this.lastUpdatedAt = lastUpdatedAt;
+            this.maxStaleDays = maxStaleDays;
+        }
+
+        /**
+         * Build a snapshot from rate rows in any order. When a currency has two
+         * rows for the same date, the last one wins.
+         */
+        public static Snapshot of(long version, List<FxRate> rates, int maxStaleDays) {
+            Map<String, List<FxRate>> grouped = new HashMap<>();
+            LocalDateTime lastUpdatedAt = null;
+            for (FxRate rate : rates) {
+                grouped.computeIfAbsent(rate.getCurrency().toUpperCase(Locale.ROOT), k -> new ArrayList<>())
+                        .add(rate);
+                if (rate.getUpdatedAt() != null
+                        && (lastUpdatedAt == null || rate.getUpdatedAt().isAfter(lastUpdatedAt))) {
+                    lastUpdatedAt = rate.getUpdatedAt();
+                }
+            }
+
+            Map<String, Series> series = new HashMap<>(grouped.size() * 2);
+            grouped.forEach((currency, list) -> {
+                list.sort(Comparator.comparing(FxRate::getRateDate));
+                int[] days = new int[list.size()];
+                long[] values = new long[list.size()];
+                int count = 0;
+                for (FxRate rate : list) {
+                    int day = (int) rate.getRateDate().toEpochDay();
+                    if (count > 0 && days[count - 1] == day) {
+                        count--;
+                    }
+                    days[count] = day;
+                    values[count] = rate.getRate().setScale(RATE_SCALE, RoundingMode.HALF_UP).unscaledValue()
+                            .longValueExact();
+                    count++;
+                }
+                series.put(currency, new Series(Arrays.copyOf(days, count), Arrays.copyOf(values, count)));
+            });
+
+            return new Snapshot(version, Map.copyOf(series), rates.size(), lastUpdatedAt, maxStaleDays);
+        }
+
+        @Override
+        public Optional<BigDecimal> convert(BigDecimal amount, String fromCurrency, String toCurrency,
+                LocalDate date) {
+            if (amount == null || fromCurrency == null || toCurrency == null) {
+                return Optional.empty();
+            }
+            if (fromCurrency.equalsIgnoreCase(toCurrency)) {
+                return Optional.of(amount);
+            }
+            if (date == null) {
+                return Optional.empty();
+            }
+
+            long fromRate = rate(fromCurrency, date);
+            long toRate = rate(toCurrency, date);
+            if (fromRate <= 0 || toRate <= 0) {
+                return Optional.empty();
+            }
+
+            // amount / fromRate * toRate, rounded once
+            return Optional.of(amount.multiply(BigDecimal.valueOf(toRate, RATE_SCALE))
+                    .divide(BigDecimal.valueOf(fromRate, RATE_SCALE), AMOUNT_SCALE, RoundingMode.HALF_UP));
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int rateCount() {
+            return rateCount;
+        }
+
+        public int currencyCount() {
+            return series.size();
+        }
+
+        public LocalDateTime lastUpdatedAt() {
+            return lastUpdatedAt;
+        }
+
+        /**
+         * Rate against the base currency in fixed point, or 0 when unknown.
+         */
+        private long rate(String currency, LocalDate date) {
+            String code = currency.toUpperCase(Locale.ROOT);
+            if (BASE_CURRENCY.equals(code)) {
+                return BASE_RATE;
+            }
+            Series rates = series.get(code);
+            return rates != null ? rates.find((int) date.toEpochDay(), maxStaleDays) : 0L;
+        }
+    }
+
+    /**
+     * Daily rates of one currency: parallel arrays sorted by epoch day.
+     */
+    private record Series(int[] days, long[] rates) {
+
+        long find(int day, int maxStaleDays) {
+            int index = Arrays.binarySearch(days, day);
+            if (index < 0) {
+                // Latest fixing before the requested day
+                index = -index - 2;
+                if (index < 0 || day - days[index] > maxStaleDays) {
+                    return 0L;
+                }
+            }
+            return rates[index];
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.taxdividend.backend.service.pdf;
 
+import com.taxdividend.backend.exception.PdfGenerationException;
 import com.taxdividend.backend.model.Dividend;
 import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.service.fx.CurrencyConverter;
+import com.taxdividend.backend.service.fx.CurrencyTotal;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Maps User and Dividend data to Form 5001 (Liquidation de dividendes) PDF fields.
@@ -18,115 +25,203 @@ import java.util.Map;
  * Form 5001 is the dividend reclaim form listing all dividends subject to reclaim
  * with their gross amounts, withheld taxes, and reclaimable amounts.
  *
- * Note: Official Form 5001 typically has space for 10-12 dividend lines.
- * If more dividends exist, multiple forms or attachments may be needed.
+ * Field names are those of the template's first copy: {@code a1} (creditor
+ * name) and {@code a5} (date) on the cover page, and on the table page
+ * {@code b<line><column>} and {@code zc<band><line>} for
+ * {@link #MAX_DIVIDEND_LINES} lines, plus {@code zc4} for the total amount
+ * reclaimed. Larger statements are split across pages with
+ * {@link #mapToFormPages}.
+ *
+ * Each line keeps its own currency; totals are converted to EUR, the currency
+ * the form is filed in, at the rate of each line's payment date. A form whose
+ * totals would leave out a dividend for lack of a rate is refused rather than
+ * filed short.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class Form5001FieldMapper {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private static final int MAX_DIVIDEND_LINES = 10;
+    public static final int MAX_DIVIDEND_LINES = 17;
+    private static final String FORM_CURRENCY = "EUR";
+
+    // Table columns: col 1, 2, 9 and 10 are b<line><column>, col 7, 8 and 11 are zc<band><line>
+    private static final int COL_SECURITY = 1;
+    private static final int COL_PAYMENT_DATE = 2;
+    private static final int COL_TREATY_TAX = 7;
+    private static final int COL_WITHHELD_TAX = 8;
+    private static final int BAND_GROSS = 1;
+    private static final int BAND_DOMESTIC_TAX = 2;
+    private static final int BAND_RECLAIMABLE = 3;
+    private static final String TOTAL_RECLAIMABLE = "zc4";
+
+    private final CurrencyConverter currencyConverter;
 
     /**
      * Create field mappings for Form 5001.
      *
+     * Single-page variant: only the first {@link #MAX_DIVIDEND_LINES} dividends
+     * are listed. Use {@link #mapToFormPages} to render every dividend.
+     *
      * @param user User information
      * @param dividends List of dividends to include
      * @param taxYear Tax year
      * @return Map of PDF field names to values
+     * @throws PdfGenerationException if a listed dividend has no rate to EUR
      */
     public Map<String, String> mapToFormFields(User user, List<Dividend> dividends, Integer taxYear) {
         log.debug("Mapping user {} and {} dividends to Form 5001 fields for year {}",
                 user.getId(), dividends.size(), taxYear);
 
         Map<String, String> fields = new HashMap<>();
-
-        // Header - Personal information
-        fields.put("annee", taxYear != null ? taxYear.toString() : "");
-        fields.put("taxYear", taxYear != null ? taxYear.toString() : "");
-        fields.put("nom", user.getFullName() != null ? user.getFullName() : "");
-        fields.put("nomPrenom", user.getFullName() != null ? user.getFullName() : "");
-        fields.put("adresse", user.getAddress() != null ? user.getAddress() : "");
-        fields.put("nif", user.getTaxId() != null ? user.getTaxId() : "");
-        fields.put("email", user.getEmail() != null ? user.getEmail() : "");
-
-        String currentDate = LocalDate.now().format(DATE_FORMATTER);
-        fields.put("date", currentDate);
-        fields.put("dateSignature", currentDate);
+        putHeaderFields(fields, user, LocalDate.now().format(DATE_FORMATTER));
 
         // Dividend lines (limit to MAX_DIVIDEND_LINES)
         int lineCount = Math.min(dividends.size(), MAX_DIVIDEND_LINES);
-        BigDecimal totalGross = BigDecimal.ZERO;
-        BigDecimal totalWithheld = BigDecimal.ZERO;
-        BigDecimal totalReclaimable = BigDecimal.ZERO;
-
+        Totals totals = new Totals();
         for (int i = 0; i < lineCount; i++) {
-            Dividend dividend = dividends.get(i);
-            int lineNum = i + 1;
-
-            // Security name and ISIN
-            fields.put("ligne" + lineNum + "_nom", dividend.getSecurityName() != null ? dividend.getSecurityName() : "");
-            fields.put("ligne" + lineNum + "_isin", dividend.getIsin() != null ? dividend.getIsin() : "");
-            fields.put("nomTitre" + lineNum, dividend.getSecurityName() != null ? dividend.getSecurityName() : "");
-            fields.put("isin" + lineNum, dividend.getIsin() != null ? dividend.getIsin() : "");
-
-            // Payment date
-            String paymentDate = dividend.getPaymentDate() != null ?
-                    dividend.getPaymentDate().format(DATE_FORMATTER) : "";
-            fields.put("ligne" + lineNum + "_date", paymentDate);
-            fields.put("dateVersement" + lineNum, paymentDate);
-
-            // Amounts
-            String grossAmount = formatAmount(dividend.getGrossAmount());
-            String withheldTax = formatAmount(dividend.getWithholdingTax());
-            String reclaimable = formatAmount(dividend.getReclaimableAmount());
-
-            fields.put("ligne" + lineNum + "_brut", grossAmount);
-            fields.put("ligne" + lineNum + "_retenue", withheldTax);
-            fields.put("ligne" + lineNum + "_recuperable", reclaimable);
-
-            fields.put("montantBrut" + lineNum, grossAmount);
-            fields.put("taxeRetenue" + lineNum, withheldTax);
-            fields.put("montantRecuperable" + lineNum, reclaimable);
-
-            // Currency
-            fields.put("ligne" + lineNum + "_devise", dividend.getCurrency() != null ? dividend.getCurrency() : "EUR");
-            fields.put("devise" + lineNum, dividend.getCurrency() != null ? dividend.getCurrency() : "EUR");
-
-            // Source country
-            fields.put("ligne" + lineNum + "_pays", dividend.getSourceCountry() != null ? dividend.getSourceCountry() : "FR");
-            fields.put("paysSource" + lineNum, dividend.getSourceCountry() != null ? dividend.getSourceCountry() : "FR");
-
-            // Accumulate totals
-            totalGross = totalGross.add(dividend.getGrossAmount());
-            totalWithheld = totalWithheld.add(dividend.getWithholdingTax());
-            totalReclaimable = totalReclaimable.add(dividend.getReclaimableAmount());
+            putLineFields(fields, i + 1, dividends.get(i));
+            totals.add(dividends.get(i));
         }
 
-        // Total fields
-        fields.put("totalBrut", formatAmount(totalGross));
-        fields.put("totalRetenue", formatAmount(totalWithheld));
-        fields.put("totalRecuperable", formatAmount(totalReclaimable));
-        fields.put("montantTotalBrut", formatAmount(totalGross));
-        fields.put("montantTotalRetenue", formatAmount(totalWithheld));
-        fields.put("montantTotalRecuperable", formatAmount(totalReclaimable));
-
-        // Number of dividends
-        fields.put("nombreDividendes", String.valueOf(dividends.size()));
-        fields.put("dividendCount", String.valueOf(dividends.size()));
+        requireConverted(user, totals);
+        fields.put(TOTAL_RECLAIMABLE, formatAmount(totals.reclaimable.amount()));
 
         if (dividends.size() > MAX_DIVIDEND_LINES) {
             log.warn("Form 5001 can only display {} dividends, but {} were provided. " +
-                    "Consider splitting into multiple forms.", MAX_DIVIDEND_LINES, dividends.size());
-            fields.put("note", String.format("Attention: %d dividendes au total (formulaire limité à %d lignes)",
-                    dividends.size(), MAX_DIVIDEND_LINES));
+                    "Use mapToFormPages to list all of them.", MAX_DIVIDEND_LINES, dividends.size());
         }
 
         log.debug("Mapped {} fields for Form 5001 with {} dividend lines", fields.size(), lineCount);
         return fields;
     }
 
+    /**
+     * Create field mappings for every page of a multi-page Form 5001.
+     *
+     * Up to {@link #MAX_DIVIDEND_LINES} dividends fit on a single page. Beyond
+     * that, the first line of every page shows the page number and the amounts
+     * brought forward from previous pages, leaving one line less for
+     * dividends. The total of each page is cumulative, so the last page holds
+     * the grand total.
+     *
+     * @param user User information
+     * @param dividends All dividends to include, in display order
+     * @param taxYear Tax year
+     * @return One field map per page (at least one)
+     * @throws PdfGenerationException if a dividend has no rate to EUR
+     */
+    public List<Map<String, String>> mapToFormPages(User user, List<Dividend> dividends, Integer taxYear) {
+        int linesPerPage = dividends.size() <= MAX_DIVIDEND_LINES ? MAX_DIVIDEND_LINES : MAX_DIVIDEND_LINES - 1;
+        int pageCount = Math.max(1, (dividends.size() + linesPerPage - 1) / linesPerPage);
+        log.debug("Mapping user {} and {} dividends to {} Form 5001 page(s) for year {}",
+                user.getId(), dividends.size(), pageCount, taxYear);
+
+        String currentDate = LocalDate.now().format(DATE_FORMATTER);
+        List<Map<String, String>> pages = new ArrayList<>(pageCount);
+        Totals totals = new Totals();
+
+        for (int page = 0; page < pageCount; page++) {
+            Map<String, String> fields = new HashMap<>();
+            putHeaderFields(fields, user, currentDate);
+
+            int line = 1;
+            if (pageCount > 1) {
+                putCarryLine(fields, page, pageCount, totals);
+                line++;
+            }
+
+            int from = page * linesPerPage;
+            int to = Math.min(from + linesPerPage, dividends.size());
+            for (int i = from; i < to; i++) {
+                putLineFields(fields, line++, dividends.get(i));
+                totals.add(dividends.get(i));
+            }
+
+            fields.put(TOTAL_RECLAIMABLE, formatAmount(totals.reclaimable.amount()));
+            pages.add(fields);
+        }
+
+        requireConverted(user, totals);
+        return pages;
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private void putHeaderFields(Map<String, String> fields, User user, String currentDate) {
+        // Cover page: creditor name, date of the request
+        fields.put("a1", user.getFullName() != null ? user.getFullName() : "");
+        fields.put("a5", currentDate);
+    }
+
+    /**
+     * Page number and the totals brought forward from previous pages.
+     */
+    private void putCarryLine(Map<String, String> fields, int page, int pageCount, Totals totals) {
+        String pageNumber = String.format("Page %d/%d", page + 1, pageCount);
+        if (page == 0) {
+            fields.put(lineField(1, COL_SECURITY), pageNumber);
+            return;
+        }
+
+        fields.put(lineField(1, COL_SECURITY), pageNumber + " - report des pages précédentes");
+        BigDecimal withheld = totals.withheld.amount();
+        BigDecimal reclaimable = totals.reclaimable.amount();
+        fields.put(amountField(BAND_GROSS, 1), formatAmount(totals.gross.amount()));
+        fields.put(amountField(BAND_DOMESTIC_TAX, 1), formatAmount(withheld));
+        fields.put(lineField(1, COL_TREATY_TAX), formatAmount(withheld.subtract(reclaimable)));
+        fields.put(lineField(1, COL_WITHHELD_TAX), formatAmount(withheld));
+        fields.put(amountField(BAND_RECLAIMABLE, 1), formatAmount(reclaimable));
+    }
+
+    private void putLineFields(Map<String, String> fields, int lineNum, Dividend dividend) {
+        // Security name and ISIN; amount columns are numeric, so a foreign currency is named here
+        String security = dividend.getSecurityName() != null ? dividend.getSecurityName() : "";
+        if (dividend.getIsin() != null) {
+            security = security.isEmpty() ? dividend.getIsin() : security + " (" + dividend.getIsin() + ")";
+        }
+        if (dividend.getCurrency() != null && !FORM_CURRENCY.equals(dividend.getCurrency())) {
+            security = security + " - " + dividend.getCurrency();
+        }
+        fields.put(lineField(lineNum, COL_SECURITY), security);
+
+        // Payment date
+        fields.put(lineField(lineNum, COL_PAYMENT_DATE), dividend.getPaymentDate() != null ?
+                dividend.getPaymentDate().format(DATE_FORMATTER) : "");
+
+        // Amounts, in the dividend's currency
+        BigDecimal withheld = dividend.getWithholdingTax();
+        BigDecimal reclaimable = dividend.getReclaimableAmount();
+        BigDecimal treatyTax = withheld != null && reclaimable != null ? withheld.subtract(reclaimable) : null;
+
+        fields.put(amountField(BAND_GROSS, lineNum), formatAmount(dividend.getGrossAmount()));
+        fields.put(amountField(BAND_DOMESTIC_TAX, lineNum), formatAmount(withheld));
+        fields.put(lineField(lineNum, COL_TREATY_TAX), formatAmount(treatyTax));
+        fields.put(lineField(lineNum, COL_WITHHELD_TAX), formatAmount(withheld));
+        fields.put(amountField(BAND_RECLAIMABLE, lineNum), formatAmount(reclaimable));
+    }
+
+    private void requireConverted(User user, Totals totals) {
+        if (totals.unconvertedCount() > 0) {
+            log.warn("Form 5001 for user {}: no {} rate for {} dividend(s) in {}",
+                    user.getId(), FORM_CURRENCY, totals.unconvertedCount(), totals.unconvertedCurrencies);
+            throw new PdfGenerationException(String.format(
+                    "Cannot total Form 5001 in %s: no FX rate for %d dividend(s) in %s on their payment date",
+                    FORM_CURRENCY, totals.unconvertedCount(), String.join(", ", totals.unconvertedCurrencies)));
+        }
+    }
+
+    private static String lineField(int lineNum, int column) {
+        return "b" + lineNum + column;
+    }
+
+    private static String amountField(int band, int lineNum) {
+        return "zc" + band + lineNum;
+    }
+
     /**
      * Format amount for PDF form (2 decimal places).
      */
@@ -136,4 +231,31 @@ public class Form5001FieldMapper {
         }
         return String.format("%.2f", amount);
     }
+
+    /**
+     * Running totals across dividend lines, in the form currency.
+     */
+    private final class Totals {
+        private final CurrencyTotal gross = new CurrencyTotal(currencyConverter, FORM_CURRENCY);
+        private final CurrencyTotal withheld = new CurrencyTotal(currencyConverter, FORM_CURRENCY);
+        private final CurrencyTotal reclaimable = new CurrencyTotal(currencyConverter, FORM_CURRENCY);
+        private final Set<String> unconvertedCurrencies = new TreeSet<>();
+
+        void add(Dividend dividend) {
+            boolean converted = gross.add(dividend.getGrossAmount(), dividend.getCurrency(),
+                    dividend.getPaymentDate());
+            converted &= withheld.add(dividend.getWithholdingTax(), dividend.getCurrency(),
+                    dividend.getPaymentDate());
+            converted &= reclaimable.add(dividend.getReclaimableAmount(), dividend.getCurrency(),
+                    dividend.getPaymentDate());
+            if (!converted) {
+                unconvertedCurrencies.add(dividend.getCurrency());
+            }
+        }
+
+        int unconvertedCount() {
+            return Math.max(gross.unconvertedCount(),
+                    Math.max(withheld.unconvertedCount(), reclaimable.unconvertedCount()));
+        }
+    }
 }
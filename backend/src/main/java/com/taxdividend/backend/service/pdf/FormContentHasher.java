@@ -0,0 +1,109 @@
+package com.taxdividend.backend.service.pdf;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content address of a generated form: hex SHA-256 over the form type, the
+ * templates it is filled from and its field values.
+ *
+ * Field maps are hashed in key order and every string is length-prefixed,
+ * so the hash only depends on the content, never on map iteration order,
+ * and distinct field maps cannot collide by concatenation. Template bytes
+ * are part of the hash, so replacing a template never reuses forms rendered
+ * from the old one.
+ */
+@Component
+@RequiredArgsConstructor
+public class FormContentHasher {
+
+    /** Bump when the encoding below or the rendering of identical fields changes. */
+    private static final int FORMAT_VERSION = 1;
+
+    private final PdfTemplateRegistry templateRegistry;
+
+    private final Map<String, byte[]> templateDigests = new ConcurrentHashMap<>();
+
+    /**
+     * Hash of a form's content.
+     *
+     * @param form5000Fields Form 5000 field values, or null if the form has no Form 5000
+     * @param form5001Pages  Form 5001 field values per page, or null if the form has no Form 5001
+     */
+    public String hash(String formType, Map<String, String> form5000Fields,
+            List<Map<String, String>> form5001Pages) throws IOException {
+        MessageDigest digest = sha256();
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(),
+                digest))) {
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, formType);
+
+            out.writeBoolean(form5000Fields != null);
+            if (form5000Fields != null) {
+                out.write(templateDigest(PdfTemplateRegistry.FORM_5000_TEMPLATE));
+                writeFields(out, form5000Fields);
+            }
+
+            out.writeBoolean(form5001Pages != null);
+            if (form5001Pages != null) {
+                out.write(templateDigest(PdfTemplateRegistry.FORM_5001_TEMPLATE));
+                out.writeInt(form5001Pages.size());
+                for (Map<String, String> page : form5001Pages) {
+                    writeFields(out, page);
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private byte[] templateDigest(String templatePath) throws IOException {
+        byte[] templateDigest = templateDigests.get(templatePath);
+        if (templateDigest == null) {
+            templateDigest = sha256().digest(templateRegistry.get(templatePath).bytes());
+            templateDigests.put(templatePath, templateDigest);
+        }
+        return templateDigest;
+    }
+
+    private static void writeFields(DataOutputStream out, Map<String, String> fields) throws IOException {
+        out.writeInt(fields.size());
+        for (Map.Entry<String, String> field : new TreeMap<>(fields).entrySet()) {
+            writeString(out, field.getKey());
+            out.writeBoolean(field.getValue() != null);
+            if (field.getValue() != null) {
+                writeString(out, field.getValue());
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,27 +1,50 @@
 package com.taxdividend.backend.service.pdf;
 
+import com.taxdividend.backend.service.pdf.PdfTemplateRegistry.PdfTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotation;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationWidget;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
 import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
 import org.apache.pdfbox.pdmodel.interactive.form.PDField;
-import org.springframework.core.io.ClassPathResource;
+import org.apache.pdfbox.util.Matrix;
 import org.springframework.stereotype.Component;
 
+import java.awt.geom.Rectangle2D;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Helper class for filling PDF forms using official French tax form templates.
  *
- * Uses Apache PDFBox to load templates and fill form fields.
+ * Uses Apache PDFBox to fill form fields. Templates come from the
+ * {@link PdfTemplateRegistry}, so each fill parses from memory instead of
+ * re-reading the classpath, and field names are resolved against the
+ * template's precomputed field index.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class PdfFormFiller {
 
+    private final PdfTemplateRegistry templateRegistry;
+    private final MeterRegistry meterRegistry;
+
     /**
      * Fill a PDF form template with provided field values.
      *
@@ -33,40 +56,37 @@ public class PdfFormFiller {
      */
     public byte[] fillPdfForm(String templatePath, Map<String, String> fieldValues, boolean flatten)
             throws IOException {
+        try (PDDocument document = fillForm(templatePath, fieldValues, flatten)) {
+            return toBytes(document, templateRegistry.get(templatePath));
+        }
+    }
 
-        log.debug("Loading PDF template from: {}", templatePath);
+    /**
+     * Fill a PDF form template and return the open document, so the caller can
+     * save it straight to its destination. The caller must close it.
+     *
+     * @param templatePath Path to template in classpath
+     * @param fieldValues Map of field names to values
+     * @param flatten Whether to flatten the PDF (make fields non-editable)
+     * @return Filled document
+     * @throws IOException if template cannot be loaded or filled
+     */
+    public PDDocument fillForm(String templatePath, Map<String, String> fieldValues, boolean flatten)
+            throws IOException {
 
-        try (InputStream templateStream = new ClassPathResource(templatePath).getInputStream();
-                PDDocument document = Loader.loadPDF(templateStream.readAllBytes());
-                ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PdfTemplate template = templateRegistry.get(templatePath);
+        PDDocument document = template.open();
 
+        try {
             PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
 
             if (acroForm == null) {
                 log.warn("Template {} has no fillable form fields - using as-is", templatePath);
-                document.save(baos);
-                return baos.toByteArray();
+                return document;
             }
 
-            log.debug("Template has {} form fields", acroForm.getFields().size());
-
-            // Fill each field
-            for (Map.Entry<String, String> entry : fieldValues.entrySet()) {
-                String fieldName = entry.getKey();
-                String fieldValue = entry.getValue();
-
-                try {
-                    PDField field = acroForm.getField(fieldName);
-                    if (field != null) {
-                        field.setValue(fieldValue);
-                        log.debug("Set field '{}' to '{}'", fieldName, fieldValue);
-                    } else {
-                        log.warn("Field '{}' not found in template", fieldName);
-                    }
-                } catch (IOException e) {
-                    log.error("Failed to set field '{}': {}", fieldName, e.getMessage());
-                }
-            }
+            fillFields(acroForm, template, fieldValues);
 
             // Flatten if requested (makes fields non-editable)
             if (flatten) {
@@ -74,10 +94,97 @@ public class PdfFormFiller {
                 log.debug("PDF form flattened");
             }
 
-            document.save(baos);
             log.info("PDF form filled successfully with {} fields", fieldValues.size());
+            return document;
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        } finally {
+            stopTimer(sample, template);
+        }
+    }
 
-            return baos.toByteArray();
+    /**
+     * Fill a template whose table page repeats when the data does not fit on it.
+     *
+     * @param templatePath Path to template in classpath
+     * @param tablePageIndex Zero-based index of the page that repeats
+     * @param pages Field values for each page, in order
+     * @return Filled PDF as byte array
+     * @throws IOException if template cannot be loaded or filled
+     * @see #fillPages(String, int, List)
+     */
+    public byte[] fillPdfPages(String templatePath, int tablePageIndex, List<Map<String, String>> pages)
+            throws IOException {
+        try (PDDocument document = fillPages(templatePath, tablePageIndex, pages)) {
+            return toBytes(document, templateRegistry.get(templatePath));
+        }
+    }
+
+    /**
+     * Fill a template whose table page repeats when the data does not fit on it,
+     * and return the open document. The caller must close it.
+     *
+     * The template is parsed once. The first field map fills the whole
+     * template; every further map only produces another copy of the table
+     * page, inserted after the previous one. A copy shares the table page's
+     * content as a single form XObject and draws a snapshot of the filled
+     * widgets' appearances on top, so it carries no fields and adds only the
+     * page's own values to the output. Notice and cover pages are never
+     * repeated.
+     *
+     * @param templatePath Path to template in classpath
+     * @param tablePageIndex Zero-based index of the page that repeats
+     * @param pages Field values for each page, in order
+     * @return Filled and flattened document
+     * @throws IOException if template cannot be loaded or filled
+     */
+    public PDDocument fillPages(String templatePath, int tablePageIndex, List<Map<String, String>> pages)
+            throws IOException {
+        if (pages.size() == 1) {
+            return fillForm(templatePath, pages.get(0), true);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PdfTemplate template = templateRegistry.get(templatePath);
+        PDDocument document = template.open();
+
+        try {
+            PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
+            if (acroForm == null) {
+                throw new IOException("Template " + templatePath + " has no fillable form fields");
+            }
+
+            PDPage tablePage = document.getPage(tablePageIndex);
+            PDFormXObject tableContent = pageContent(document, tablePage);
+
+            // Continuation pages first: each one snapshots the table page as filled for it.
+            // Fields set for an earlier page are cleared unless this page sets them too.
+            Map<String, String> cleared = new HashMap<>();
+            PDPage previous = tablePage;
+            for (Map<String, String> fieldValues : pages.subList(1, pages.size())) {
+                Map<String, String> values = new HashMap<>(cleared);
+                values.putAll(fieldValues);
+                fillFields(acroForm, template, values);
+
+                PDPage copy = snapshotPage(document, tablePage, tableContent);
+                document.getPages().insertAfter(copy, previous);
+                previous = copy;
+                fieldValues.keySet().forEach(fieldName -> cleared.put(fieldName, ""));
+            }
+
+            // Then the template itself
+            cleared.putAll(pages.get(0));
+            fillFields(acroForm, template, cleared);
+            acroForm.flatten();
+
+            log.info("PDF form filled successfully: {} pages from {}", pages.size(), templatePath);
+            return document;
+        } catch (IOException | RuntimeException e) {
+            document.close();
+            throw e;
+        } finally {
+            stopTimer(sample, template);
         }
     }
 
@@ -89,8 +196,7 @@ public class PdfFormFiller {
      * @throws IOException if template cannot be loaded
      */
     public Map<String, String> listFormFields(String templatePath) throws IOException {
-        try (InputStream templateStream = new ClassPathResource(templatePath).getInputStream();
-                PDDocument document = Loader.loadPDF(templateStream.readAllBytes())) {
+        try (PDDocument document = templateRegistry.get(templatePath).open()) {
 
             PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
 
@@ -108,4 +214,113 @@ public class PdfFormFiller {
             return fields;
         }
     }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private static byte[] toBytes(PDDocument document, PdfTemplate template) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(template.bytes().length);
+        document.save(baos);
+        return baos.toByteArray();
+    }
+
+    private void stopTimer(Timer.Sample sample, PdfTemplate template) {
+        sample.stop(Timer.builder("pdf.form.fill")
+                .description("Time to fill a PDF form")
+                .tag("template", template.path())
+                .register(meterRegistry));
+    }
+
+    /**
+     * Static content of a page as a form XObject, to be shared by its copies.
+     */
+    private static PDFormXObject pageContent(PDDocument document, PDPage page) throws IOException {
+        PDFormXObject content;
+        try (InputStream in = page.getContents()) {
+            content = new PDFormXObject(new PDStream(document, in, COSName.FLATE_DECODE));
+        }
+        content.setResources(page.getResources());
+        content.setBBox(page.getMediaBox());
+        return content;
+    }
+
+    /**
+     * New page showing the page's content and its widgets as currently filled.
+     *
+     * Appearance streams are copied because filling the next page rewrites them
+     * in place. Widgets are placed the way {@link PDAcroForm#flatten()} does.
+     */
+    private static PDPage snapshotPage(PDDocument document, PDPage page, PDFormXObject pageContent)
+            throws IOException {
+        PDPage copy = new PDPage(page.getMediaBox());
+        copy.setRotation(page.getRotation());
+        copy.setResources(new PDResources());
+
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, copy)) {
+            contentStream.drawForm(pageContent);
+
+            for (PDAnnotation annotation : page.getAnnotations()) {
+                if (!(annotation instanceof PDAnnotationWidget widget) || widget.isHidden()
+                        || widget.isInvisible() || widget.getNormalAppearanceStream() == null) {
+                    continue;
+                }
+                PDAppearanceStream appearance = widget.getNormalAppearanceStream();
+                PDRectangle rect = widget.getRectangle();
+                Rectangle2D box = appearance.getBBox().transform(appearance.getMatrix()).getBounds2D();
+                if (rect == null || rect.getWidth() == 0 || rect.getHeight() == 0
+                        || box.getWidth() == 0 || box.getHeight() == 0) {
+                    continue;
+                }
+
+                PDFormXObject snapshot;
+                try (InputStream in = appearance.getContents()) {
+                    snapshot = new PDFormXObject(new PDStream(document, in, COSName.FLATE_DECODE));
+                }
+                snapshot.setBBox(appearance.getBBox());
+                snapshot.setMatrix(appearance.getMatrix().createAffineTransform());
+                snapshot.setResources(appearance.getResources());
+
+                Matrix placement = Matrix.getTranslateInstance(
+                        (float) (rect.getLowerLeftX() - box.getX()), (float) (rect.getLowerLeftY() - box.getY()));
+                placement.scale((float) (rect.getWidth() / box.getWidth()),
+                        (float) (rect.getHeight() / box.getHeight()));
+
+                contentStream.saveGraphicsState();
+                contentStream.transform(placement);
+                contentStream.drawForm(snapshot);
+                contentStream.restoreGraphicsState();
+            }
+        }
+        return copy;
+    }
+
+    private void fillFields(PDAcroForm acroForm, PdfTemplate template, Map<String, String> fieldValues) {
+        // Field lookups by path become map reads instead of tree walks
+        acroForm.setCacheFields(true);
+
+        // Fill each field
+        for (Map.Entry<String, String> entry : fieldValues.entrySet()) {
+            String fieldName = entry.getKey();
+            String fieldValue = entry.getValue();
+
+            String fieldPath = template.resolveField(fieldName);
+            if (fieldPath == null) {
+                log.warn("Field '{}' not found in template", fieldName);
+                continue;
+            }
+
+            try {
+                PDField field = acroForm.getField(fieldPath);
+                if (field != null) {
+                    field.setValue(fieldValue);
+                    log.debug("Set field '{}' to '{}'", fieldName, fieldValue);
+                } else {
+                    log.warn("Field '{}' not found in template", fieldName);
+                }
+            } catch (IOException e) {
+                log.error("Failed to set field '{}': {}", fieldName, e.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,158 @@
+package com.taxdividend.backend.service.pdf;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import org.apache.pdfbox.pdmodel.interactive.form.PDField;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of PDF form templates, read from the classpath once per process.
+ *
+ * Each template keeps its raw bytes and a precomputed map from field name
+ * (both partial and fully qualified) to fully qualified field path. Callers
+ * get a fresh, independent PDDocument per request through
+ * {@link PdfTemplate#open()}, which parses from memory and never touches the
+ * classpath again.
+ */
+@Slf4j
+@Component
+public class PdfTemplateRegistry {
+
+    public static final String FORM_5000_TEMPLATE = "templates/forms/form_5000_template.pdf";
+    public static final String FORM_5001_TEMPLATE = "templates/forms/form_5001_template.pdf";
+
+    /** Page of the Form 5001 template holding the dividend table, repeated for long statements. */
+    public static final int FORM_5001_TABLE_PAGE = 1;
+
+    private static final List<String> KNOWN_TEMPLATES = List.of(FORM_5000_TEMPLATE, FORM_5001_TEMPLATE);
+
+    private final Map<String, PdfTemplate> templates = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public PdfTemplateRegistry(MeterRegistry meterRegistry) {
+        this.hitCounter = Counter.builder("pdf.template.cache")
+                .tag("result", "hit")
+                .description("PDF template lookups served from memory")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("pdf.template.cache")
+                .tag("result", "miss")
+                .description("PDF template lookups that loaded from the classpath")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get a template, loading it on first use.
+     *
+     * @param templatePath Path to template in classpath
+     * @throws IOException if the template cannot be read
+     */
+    public PdfTemplate get(String templatePath) throws IOException {
+        PdfTemplate template = templates.get(templatePath);
+        if (template != null) {
+            hitCounter.increment();
+            return template;
+        }
+
+        missCounter.increment();
+        try {
+            return templates.computeIfAbsent(templatePath, path -> {
+                try {
+                    return load(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Warm up the official form templates so the first request does not pay for parsing.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadTemplates() {
+        for (String templatePath : KNOWN_TEMPLATES) {
+            try {
+                get(templatePath);
+            } catch (IOException e) {
+                log.error("Failed to preload PDF template {}", templatePath, e);
+            }
+        }
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private static PdfTemplate load(String templatePath) throws IOException {
+        log.debug("Loading PDF template from: {}", templatePath);
+
+        byte[] bytes;
+        try (InputStream templateStream = new ClassPathResource(templatePath).getInputStream()) {
+            bytes = templateStream.readAllBytes();
+        }
+
+        Map<String, String> fieldPaths = new HashMap<>();
+        try (PDDocument document = Loader.loadPDF(bytes)) {
+            PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
+            if (acroForm != null) {
+                Map<String, String> partialNames = new HashMap<>();
+                Set<String> ambiguous = new HashSet<>();
+                for (PDField field : acroForm.getFieldTree()) {
+                    String path = field.getFullyQualifiedName();
+                    String partialName = field.getPartialName();
+                    fieldPaths.put(path, path);
+                    if (partialName != null && partialNames.putIfAbsent(partialName, path) != null) {
+                        ambiguous.add(partialName);
+                    }
+                }
+                // Partial names are only usable when unambiguous and not shadowing a full path
+                partialNames.keySet().removeAll(ambiguous);
+                partialNames.forEach(fieldPaths::putIfAbsent);
+            }
+        }
+
+        log.info("Loaded PDF template {} ({} bytes, {} fields)", templatePath, bytes.length, fieldPaths.size());
+        return new PdfTemplate(templatePath, bytes, Map.copyOf(fieldPaths));
+    }
+
+    /**
+     * A parsed-once template: raw bytes plus field name to field path index.
+     */
+    public record PdfTemplate(String path, byte[] bytes, Map<String, String> fieldPaths) {
+
+        /**
+         * Open an independent, writable copy of the template.
+         */
+        public PDDocument open() throws IOException {
+            return Loader.loadPDF(bytes);
+        }
+
+        /**
+         * Resolve a field name to its fully qualified path, or null if the template has no such field.
+         */
+        public String resolveField(String fieldName) {
+            return fieldPaths.get(fieldName);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.taxdividend.backend.service.storage;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.UploadPartResponse;
+import io.minio.errors.MinioException;
+import io.minio.messages.Part;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.GeneralSecurityException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * MinIO client exposing the low-level multipart upload calls, which the SDK
+ * keeps protected.
+ *
+ * putObject() with an unknown length allocates its own part buffers on every
+ * upload; these calls let {@link com.taxdividend.backend.service.StorageService}
+ * send parts straight from pooled buffers instead. Like
+ * {@link io.minio.MinioClient}, every call blocks until the request completed
+ * and rethrows the SDK's exceptions.
+ */
+public class MinioMultipartClient extends MinioAsyncClient {
+
+    public MinioMultipartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * Start a multipart upload and return its upload ID.
+     */
+    public String createMultipartUpload(String bucket, String object, String contentType)
+            throws MinioException, IOException, GeneralSecurityException {
+        Multimap<String, String> headers = HashMultimap.create();
+        headers.put("Content-Type", contentType);
+        return await(createMultipartUploadAsync(bucket, null, object, headers, null)).result().uploadId();
+    }
+
+    /**
+     * Upload the first {@code length} bytes of {@code data} as part {@code partNumber}.
+     */
+    public Part uploadPart(String bucket, String object, String uploadId, int partNumber, byte[] data, int length)
+            throws MinioException, IOException, GeneralSecurityException {
+        UploadPartResponse response = await(
+                uploadPartAsync(bucket, null, object, data, length, uploadId, partNumber, null, null));
+        return new Part(partNumber, response.etag());
+    }
+
+    public ObjectWriteResponse completeMultipartUpload(String bucket, String object, String uploadId,
+            List<Part> parts) throws MinioException, IOException, GeneralSecurityException {
+        return await(completeMultipartUploadAsync(bucket, null, object, uploadId, parts.toArray(Part[]::new),
+                null, null));
+    }
+
+    /**
+     * Abort an upload so the storage backend drops the parts already sent.
+     */
+    public void abortMultipartUpload(String bucket, String object, String uploadId)
+            throws MinioException, IOException, GeneralSecurityException {
+        await(abortMultipartUploadAsync(bucket, null, object, uploadId, null, null));
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private static <T> T await(CompletableFuture<T> future)
+            throws MinioException, IOException, GeneralSecurityException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during multipart upload");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof MinioException minioException) {
+                throw minioException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof GeneralSecurityException securityException) {
+                throw securityException;
+            }
+            throw new IOException("Multipart upload request failed", cause);
+        }
+    }
+}
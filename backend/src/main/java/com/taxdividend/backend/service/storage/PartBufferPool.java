@@ -0,0 +1,84 @@
+package com.taxdividend.backend.service.storage;
+
+import com.taxdividend.backend.exception.StorageException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reusable part-sized buffers for streaming uploads.
+ *
+ * An upload holds one buffer at a time, so its memory is one part whatever
+ * the object size. At most {@code max-buffers} buffers exist at once, which
+ * bounds upload memory to that many parts: when all are taken, further
+ * uploads wait up to {@code acquire-timeout} for one to be released and then
+ * fail. Buffers are allocated lazily and kept for reuse once released.
+ */
+@Slf4j
+@Component
+public class PartBufferPool {
+
+    /** Smallest part S3 accepts for every part but the last. */
+    public static final DataSize MIN_PART_SIZE = DataSize.ofMegabytes(5);
+
+    private final int partSize;
+    private final Duration acquireTimeout;
+    private final Semaphore available;
+    private final ConcurrentLinkedQueue<byte[]> idle = new ConcurrentLinkedQueue<>();
+
+    public PartBufferPool(
+            @Value("${app.storage.upload.part-size:5MB}") DataSize partSize,
+            @Value("${app.storage.upload.max-buffers:8}") int maxBuffers,
+            @Value("${app.storage.upload.acquire-timeout:30s}") Duration acquireTimeout) {
+        if (partSize.compareTo(MIN_PART_SIZE) < 0 || partSize.toBytes() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Upload part size must be between 5MB and 2GB: " + partSize);
+        }
+        if (maxBuffers < 1) {
+            throw new IllegalArgumentException("At least one upload buffer is required: " + maxBuffers);
+        }
+        this.partSize = (int) partSize.toBytes();
+        this.acquireTimeout = acquireTimeout;
+        this.available = new Semaphore(maxBuffers, true);
+
+        log.info("Upload buffer pool initialized: {} byte parts, at most {} buffers", this.partSize, maxBuffers);
+    }
+
+    public int partSize() {
+        return partSize;
+    }
+
+    /**
+     * A free buffer, waiting up to the acquire timeout when all are in use.
+     *
+     * @throws StorageException if no buffer was released in time
+     */
+    public byte[] acquire() {
+        try {
+            if (!available.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new StorageException("No upload buffer available within " + acquireTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while waiting for an upload buffer", e);
+        }
+        byte[] buffer = idle.poll();
+        return buffer != null ? buffer : new byte[partSize];
+    }
+
+    /**
+     * Return a buffer taken with {@link #acquire()}. The caller must not touch
+     * it afterwards.
+     */
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == partSize) {
+            idle.offer(buffer);
+            available.release();
+        }
+    }
+}
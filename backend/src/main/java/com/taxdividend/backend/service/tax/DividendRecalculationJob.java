@@ -0,0 +1,521 @@
+package com.taxdividend.backend.service.tax;
+
+import com.taxdividend.backend.api.dto.TaxCalculationResultDto;
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.JobCheckpoint;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendRepository;
+import com.taxdividend.backend.repository.JobCheckpointRepository;
+import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.ClusterLock;
+import com.taxdividend.backend.service.TaxCalculationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resumable batch job recalculating reclaimable amounts of all unsubmitted
+ * dividends (not yet linked to a form), e.g. after a treaty rate change.
+ *
+ * Work is partitioned by user: users are read by keyset on user_id in pages,
+ * and each user of a page is processed on a bounded worker pool. A worker
+ * streams that user's dividends in keyset chunks and commits every chunk in
+ * its own transaction, so memory and lock footprint stay constant whatever
+ * the table size.
+ *
+ * After each page of users completes, the last user id is stored in
+ * job_checkpoints. If a run is interrupted, the next run resumes after that
+ * user; recalculation is idempotent, so a partially processed page is simply
+ * redone.
+ *
+ * Rule changes do not need a full run: on a {@link TaxRulesChangedEvent} only
+ * the unsubmitted dividends of each affected (source country, residence
+ * country) pair paid within the affected date range are recalculated, in
+ * keyset chunks on (payment_date, id), on a single background thread. The
+ * security type is not stored on dividends, so every dividend of the pair in
+ * the range is recalculated; each one still resolves its own rule.
+ *
+ * Every replica sees the same rule change, and rules changed while no node
+ * was running (e.g. by a migration shipped with a deployment) are seen by
+ * none. So the fingerprint of the rules last applied is stored per treaty
+ * key in job_checkpoints, and rule changes are applied under a cluster lock:
+ * keys whose stored fingerprint already matches are skipped, and at startup
+ * the index is diffed against the stored fingerprints to catch up.
+ *
+ * A full run holds the cluster lock named after its checkpoint, so only one
+ * replica runs it at a time.
+ */
+@Slf4j
+@Component
+public class DividendRecalculationJob {
+
+    public static final String JOB_NAME = "recalculate-unsubmitted-dividends";
+
+    /** Cluster lock serializing rule change recalculations across replicas. */
+    public static final String RULE_CHANGES_LOCK = "tax-rule-changes";
+
+    /** job_checkpoints rows holding, per treaty key, the fingerprint of the rules last applied. */
+    public static final String APPLIED_RULES_PREFIX = "tax-rules-applied:";
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final DividendRepository dividendRepository;
+    private final UserRepository userRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ClusterLock clusterLock;
+    private final TaxCalculationService taxCalculationService;
+    private final TaxRuleIndex taxRuleIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int parallelism;
+    private final int chunkSize;
+    private final int partitionSize;
+
+    private final ExecutorService ruleChangeExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("tax-rule-recalc").daemon(true).factory());
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong usersRemaining = new AtomicLong();
+    private final AtomicLong usersCompleted = new AtomicLong();
+    private final AtomicLong dividendsUpdated = new AtomicLong();
+    private final AtomicLong dividendsFailed = new AtomicLong();
+    private final AtomicReference<Instant> startedAt = new AtomicReference<>();
+
+    private final Counter updatedCounter;
+    private final Counter failedCounter;
+    private final Timer chunkTimer;
+
+    public DividendRecalculationJob(DividendRepository dividendRepository,
+            UserRepository userRepository,
+            JobCheckpointRepository checkpointRepository,
+            ClusterLock clusterLock,
+            TaxCalculationService taxCalculationService,
+            TaxRuleIndex taxRuleIndex,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.tax.recalculation.parallelism:4}") int parallelism,
+            @Value("${app.tax.recalculation.chunk-size:500}") int chunkSize,
+            @Value("${app.tax.recalculation.partition-size:100}") int partitionSize) {
+        this.dividendRepository = dividendRepository;
+        this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.clusterLock = clusterLock;
+        this.taxCalculationService = taxCalculationService;
+        this.taxRuleIndex = taxRuleIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        this.partitionSize = partitionSize;
+
+        this.updatedCounter = Counter.builder("tax.recalculation.dividends")
+                .tag("outcome", "updated")
+                .description("Dividends recalculated by the batch job")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("tax.recalculation.dividends")
+                .tag("outcome", "failed")
+                .description("Dividends the batch job could not recalculate")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("tax.recalculation.chunk")
+                .description("Time to recalculate and commit one chunk of dividends")
+                .register(meterRegistry);
+        Gauge.builder("tax.recalculation.users.remaining", usersRemaining, AtomicLong::get)
+                .description("Users left to process in the current run")
+                .register(meterRegistry);
+        Gauge.builder("tax.recalculation.running", running, r -> r.get() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run (or resume) the recalculation.
+     *
+     * @throws IllegalStateException if a run is already in progress on this node or another one
+     */
+    public Summary run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Dividend recalculation is already running");
+        }
+
+        try (ClusterLock.Lease lease = clusterLock.tryAcquire(JOB_NAME).orElseThrow(() ->
+                new IllegalStateException("Dividend recalculation is running on another node"))) {
+            return execute();
+        } finally {
+            running.set(false);
+            usersRemaining.set(0);
+        }
+    }
+
+    /**
+     * Recalculate dividends affected by a tax rule change, off the publishing thread.
+     */
+    @EventListener
+    public void onTaxRulesChanged(TaxRulesChangedEvent event) {
+        ruleChangeExecutor.execute(() -> {
+            try {
+                applyRuleChanges(event.fingerprints(), event.previousFingerprints(), event.ranges());
+            } catch (Exception e) {
+                log.error("Targeted recalculation for tax rule index v{} failed", event.version(), e);
+            }
+        });
+    }
+
+    /**
+     * Catch up with rules changed while no node was watching, off the startup thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ruleChangeExecutor.execute(() -> {
+            try {
+                applyRuleChanges(taxRuleIndex.snapshot().fingerprints(), null, List.of());
+            } catch (Exception e) {
+                log.error("Recalculation for tax rules changed since the last run failed", e);
+            }
+        });
+    }
+
+    /**
+     * Recalculate the dividends of every treaty key whose rules differ from the
+     * ones last applied, then store the new fingerprints.
+     *
+     * Waits for the cluster lock, so a change another replica has applied
+     * meanwhile is skipped. The given ranges are used for a key only if its
+     * stored fingerprint is the one they were diffed from; otherwise every
+     * payment date of the key is recalculated.
+     *
+     * @param fingerprints Per-key fingerprints of the rules to apply
+     * @param previousFingerprints Per-key fingerprints the ranges were diffed from, or null if unknown
+     * @param ranges Affected ranges between the two
+     */
+    public Summary applyRuleChanges(Map<TaxRuleIndex.Key, String> fingerprints,
+            Map<TaxRuleIndex.Key, String> previousFingerprints, List<TaxRulesChangedEvent.AffectedRange> ranges) {
+        try (ClusterLock.Lease lease = clusterLock.acquire(RULE_CHANGES_LOCK)) {
+            Map<TaxRuleIndex.Key, String> applied = transactionTemplate.execute(status -> appliedFingerprints());
+
+            Set<TaxRuleIndex.Key> keys = new HashSet<>(applied.keySet());
+            keys.addAll(fingerprints.keySet());
+            List<TaxRulesChangedEvent.AffectedRange> pending = new ArrayList<>();
+            for (TaxRuleIndex.Key key : keys) {
+                String appliedFingerprint = applied.get(key);
+                if (Objects.equals(appliedFingerprint, fingerprints.get(key))) {
+                    continue;
+                }
+                if (!applied.isEmpty() && previousFingerprints != null
+                        && Objects.equals(appliedFingerprint, previousFingerprints.get(key))) {
+                    ranges.stream().filter(range -> range.key().equals(key)).forEach(pending::add);
+                } else {
+                    pending.add(new TaxRulesChangedEvent.AffectedRange(key, TaxRuleIndex.OPEN_START,
+                            TaxRuleIndex.OPEN_END));
+                }
+            }
+
+            if (applied.isEmpty()) {
+                log.info("No applied tax rules recorded, recalculating all {} treaty keys", pending.size());
+            }
+            Summary summary = recalculateAffected(pending);
+            transactionTemplate.executeWithoutResult(status -> storeAppliedFingerprints(applied, fingerprints));
+            return summary;
+        }
+    }
+
+    /**
+     * Recalculate only the unsubmitted dividends falling in the given treaty ranges.
+     */
+    public Summary recalculateAffected(List<TaxRulesChangedEvent.AffectedRange> ranges) {
+        Instant start = Instant.now();
+        long updated = 0;
+        long failed = 0;
+        BigDecimal totalReclaimable = BigDecimal.ZERO;
+
+        for (TaxRulesChangedEvent.AffectedRange range : ranges) {
+            String sourceCountry = range.key().sourceCountry();
+            String residenceCountry = range.key().residenceCountry();
+            LocalDate afterDate = range.from();
+            UUID afterId = MIN_UUID;
+            int size;
+            do {
+                LocalDate cursorDate = afterDate;
+                UUID cursorId = afterId;
+                TreatyChunk chunk = chunkTimer.record(() -> transactionTemplate.execute(status -> {
+                    List<Dividend> dividends = dividendRepository.findUnsubmittedChunkForTreaty(sourceCountry,
+                            residenceCountry, range.from(), range.to(), cursorDate, cursorId,
+                            PageRequest.of(0, chunkSize));
+                    return new TreatyChunk(dividends.isEmpty() ? null : dividends.getLast(),
+                            dividends.size(), applyCalculations(dividends, residenceCountry));
+                }));
+
+                size = chunk.size();
+                updated += chunk.outcome().updated();
+                failed += chunk.outcome().failed();
+                totalReclaimable = totalReclaimable.add(chunk.outcome().reclaimable());
+                if (chunk.last() != null) {
+                    afterDate = chunk.last().getPaymentDate();
+                    afterId = chunk.last().getId();
+                }
+            } while (size == chunkSize);
+        }
+
+        Duration elapsed = Duration.between(start, Instant.now());
+        log.info("Targeted recalculation of {} treaty ranges completed in {}: {} updated, {} failures",
+                ranges.size(), elapsed, updated, failed);
+        return new Summary(updated, failed, totalReclaimable, elapsed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ruleChangeExecutor.shutdownNow();
+    }
+
+    /**
+     * Live progress of the current (or last) run.
+     */
+    public Progress progress() {
+        Instant start = startedAt.get();
+        Duration elapsed = start != null ? Duration.between(start, Instant.now()) : Duration.ZERO;
+        long updated = dividendsUpdated.get();
+        double perSecond = elapsed.toMillis() > 0 ? updated * 1000.0 / elapsed.toMillis() : 0;
+
+        return new Progress(running.get(), usersCompleted.get(), usersRemaining.get(),
+                updated, dividendsFailed.get(), elapsed, perSecond);
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private Summary execute() {
+        JobCheckpoint checkpoint = transactionTemplate.execute(status -> checkpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> checkpointRepository.save(JobCheckpoint.builder()
+                        .jobName(JOB_NAME)
+                        .startedAt(LocalDateTime.now())
+                        .build())));
+
+        UUID afterUserId = checkpoint.getLastKey() != null ? UUID.fromString(checkpoint.getLastKey()) : MIN_UUID;
+        if (checkpoint.getLastKey() != null) {
+            log.info("Resuming dividend recalculation after user {}", afterUserId);
+        }
+        long resumedProcessed = checkpoint.getProcessedCount();
+        long resumedFailed = checkpoint.getFailedCount();
+
+        startedAt.set(Instant.now());
+        usersCompleted.set(0);
+        dividendsUpdated.set(0);
+        dividendsFailed.set(0);
+        usersRemaining.set(dividendRepository.countUsersWithUnsubmittedDividends(afterUserId));
+
+        log.info("Recalculating unsubmitted dividends for {} users ({} workers, chunks of {})",
+                usersRemaining.get(), parallelism, chunkSize);
+
+        BigDecimal totalReclaimable = BigDecimal.ZERO;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("tax-recalc-", 0).factory())) {
+
+            List<UUID> userIds;
+            while (!(userIds = dividendRepository.findUserIdsWithUnsubmittedDividends(
+                    afterUserId, PageRequest.of(0, partitionSize))).isEmpty()) {
+
+                List<Future<BigDecimal>> partitions = new ArrayList<>(userIds.size());
+                for (UUID userId : userIds) {
+                    partitions.add(executor.submit(() -> recalculateUser(userId)));
+                }
+                for (Future<BigDecimal> partition : partitions) {
+                    totalReclaimable = totalReclaimable.add(await(partition));
+                }
+
+                afterUserId = userIds.getLast();
+                saveCheckpoint(afterUserId, resumedProcessed + dividendsUpdated.get(),
+                        resumedFailed + dividendsFailed.get());
+
+                log.info("Recalculation progress: {} users done, {} remaining, {} dividends updated",
+                        usersCompleted.get(), usersRemaining.get(), dividendsUpdated.get());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.deleteById(JOB_NAME));
+
+        Progress progress = progress();
+        log.info("Recalculation completed in {}: {} updated, {} failures ({} dividends/s)",
+                progress.elapsed(), progress.dividendsUpdated(), progress.dividendsFailed(),
+                String.format("%.1f", progress.dividendsPerSecond()));
+
+        return new Summary(progress.dividendsUpdated(), progress.dividendsFailed(), totalReclaimable,
+                progress.elapsed());
+    }
+
+    /**
+     * Recalculate all unsubmitted dividends of one user, one committed chunk at a time.
+     */
+    private BigDecimal recalculateUser(UUID userId) {
+        String residenceCountry = userRepository.findById(userId).map(User::getCountry).orElse(null);
+
+        BigDecimal reclaimable = BigDecimal.ZERO;
+        UUID afterId = MIN_UUID;
+        ChunkResult chunk;
+        do {
+            UUID cursor = afterId;
+            chunk = chunkTimer.record(() -> transactionTemplate.execute(
+                    status -> recalculateChunk(userId, residenceCountry, cursor)));
+            reclaimable = reclaimable.add(chunk.reclaimable());
+            afterId = chunk.lastId();
+        } while (chunk.size() == chunkSize);
+
+        usersCompleted.incrementAndGet();
+        usersRemaining.decrementAndGet();
+        return reclaimable;
+    }
+
+    private ChunkResult recalculateChunk(UUID userId, String residenceCountry, UUID afterId) {
+        List<Dividend> dividends = dividendRepository.findUnsubmittedChunk(userId, afterId,
+                PageRequest.of(0, chunkSize));
+        if (dividends.isEmpty()) {
+            return new ChunkResult(0, afterId, BigDecimal.ZERO);
+        }
+
+        Outcome outcome = applyCalculations(dividends, residenceCountry);
+        dividendsUpdated.addAndGet(outcome.updated());
+        dividendsFailed.addAndGet(outcome.failed());
+
+        return new ChunkResult(dividends.size(), dividends.getLast().getId(), outcome.reclaimable());
+    }
+
+    /**
+     * Recalculate managed dividends in place; changes are flushed when the chunk transaction commits.
+     */
+    private Outcome applyCalculations(List<Dividend> dividends, String residenceCountry) {
+        long updated = 0;
+        long failed = 0;
+        BigDecimal reclaimable = BigDecimal.ZERO;
+        for (Dividend dividend : dividends) {
+            if (residenceCountry == null || residenceCountry.isEmpty()) {
+                log.warn("Skipping dividend {} - user has no residence country", dividend.getId());
+                failed++;
+                failedCounter.increment();
+                continue;
+            }
+
+            try {
+                TaxCalculationResultDto result = taxCalculationService.calculateForDividend(dividend,
+                        residenceCountry);
+
+                dividend.setReclaimableAmount(result.getReclaimableAmount());
+                if (result.getTreatyRate() != null) {
+                    dividend.setTreatyRate(result.getTreatyRate());
+                }
+
+                reclaimable = reclaimable.add(result.getReclaimableAmount());
+                updated++;
+                updatedCounter.increment();
+            } catch (Exception e) {
+                log.error("Failed to recalculate dividend {}", dividend.getId(), e);
+                failed++;
+                failedCounter.increment();
+            }
+        }
+        return new Outcome(updated, failed, reclaimable);
+    }
+
+    private Map<TaxRuleIndex.Key, String> appliedFingerprints() {
+        Map<TaxRuleIndex.Key, String> applied = new HashMap<>();
+        for (JobCheckpoint row : checkpointRepository.findByJobNameStartingWith(APPLIED_RULES_PREFIX)) {
+            String[] key = row.getJobName().substring(APPLIED_RULES_PREFIX.length()).split(":", 3);
+            applied.put(new TaxRuleIndex.Key(key[0], key[1], key[2]), row.getLastKey());
+        }
+        return applied;
+    }
+
+    private void storeAppliedFingerprints(Map<TaxRuleIndex.Key, String> applied,
+            Map<TaxRuleIndex.Key, String> fingerprints) {
+        fingerprints.forEach((key, fingerprint) -> {
+            if (!fingerprint.equals(applied.get(key))) {
+                String jobName = appliedRulesJobName(key);
+                JobCheckpoint row = checkpointRepository.findById(jobName)
+                        .orElseGet(() -> JobCheckpoint.builder()
+                                .jobName(jobName)
+                                .startedAt(LocalDateTime.now())
+                                .build());
+                row.setLastKey(fingerprint);
+                checkpointRepository.save(row);
+            }
+        });
+        applied.keySet().stream()
+                .filter(key -> !fingerprints.containsKey(key))
+                .forEach(key -> checkpointRepository.deleteById(appliedRulesJobName(key)));
+    }
+
+    private static String appliedRulesJobName(TaxRuleIndex.Key key) {
+        return APPLIED_RULES_PREFIX + key.sourceCountry() + ":" + key.residenceCountry() + ":" + key.securityType();
+    }
+
+    private void saveCheckpoint(UUID lastUserId, long processedCount, long failedCount) {
+        transactionTemplate.executeWithoutResult(status -> checkpointRepository.findById(JOB_NAME)
+                .ifPresent(checkpoint -> {
+                    checkpoint.setLastKey(lastUserId.toString());
+                    checkpoint.setProcessedCount(processedCount);
+                    checkpoint.setFailedCount(failedCount);
+                }));
+    }
+
+    private static BigDecimal await(Future<BigDecimal> partition) {
+        try {
+            return partition.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dividend recalculation interrupted", e);
+        } catch (ExecutionException e) {
+            // Chunk commit failed: stop here, the checkpoint lets the next run resume
+            throw new IllegalStateException("Dividend recalculation failed", e.getCause());
+        }
+    }
+
+    private record ChunkResult(int size, UUID lastId, BigDecimal reclaimable) {
+    }
+
+    private record TreatyChunk(Dividend last, int size, Outcome outcome) {
+    }
+
+    private record Outcome(long updated, long failed, BigDecimal reclaimable) {
+    }
+
+    /**
+     * Outcome of a completed run.
+     */
+    public record Summary(long updatedCount, long failedCount, BigDecimal totalReclaimable, Duration elapsed) {
+    }
+
+    /**
+     * Point-in-time view of a run, for monitoring.
+     */
+    public record Progress(boolean running, long usersCompleted, long usersRemaining,
+            long dividendsUpdated, long dividendsFailed, Duration elapsed, double dividendsPerSecond) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.taxdividend.backend.service.tax;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point arithmetic for batch tax calculation.
+ *
+ * Amounts are carried as long minor units (cents, scale 2) and rates as long
+ * basis points (percent with scale 2), laid out in parallel arrays. Results
+ * are bit-identical to the BigDecimal path in TaxCalculationService:
+ * {@code gross * rate / 100} rounded HALF_UP to 2 decimals, then
+ * {@code withheld - treaty}.
+ *
+ * Values are only accepted when they convert exactly and stay within
+ * {@link #MAX_MINOR_UNITS} / {@link #MAX_BASIS_POINTS}, which keeps every
+ * intermediate product below {@code Long.MAX_VALUE}. Anything else must go
+ * through the BigDecimal path.
+ */
+public final class FixedPointTaxKernel {
+
+    /**
+     * Returned by the conversions when a value cannot be represented exactly.
+     */
+    public static final long NOT_REPRESENTABLE = Long.MIN_VALUE;
+
+    /** Amounts below 100 billion in major units. */
+    public static final long MAX_MINOR_UNITS = 10_000_000_000_000L;
+
+    /** Rates below 1000 %. */
+    public static final long MAX_BASIS_POINTS = 100_000L;
+
+    private static final int SCALE = 2;
+
+    /** gross (scale 2) * rate (scale 2) / 100 -> scale 2: divide the raw product by 10^4. */
+    private static final long PRODUCT_DIVISOR = 10_000L;
+
+    private FixedPointTaxKernel() {
+    }
+
+    /**
+     * Compute reclaimable amounts for {@code count} lanes.
+     *
+     * {@code reclaimable[i]} receives the raw {@code withheld - treaty} difference and may be
+     * negative; callers clamp it. The returned total only counts positive lanes, matching the
+     * BigDecimal path where negative amounts are replaced by zero.
+     *
+     * @return total reclaimable amount in minor units
+     */
+    public static long calculate(long[] grossAmount, long[] withheldAmount, long[] treatyRate,
+            long[] reclaimable, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long difference = withheldAmount[i] - treatyWithholding(grossAmount[i], treatyRate[i]);
+            reclaimable[i] = difference;
+            total += Math.max(difference, 0L);
+        }
+        return total;
+    }
+
+    /**
+     * Treaty withholding in minor units, rounded HALF_UP.
+     */
+    public static long treatyWithholding(long grossAmount, long treatyRate) {
+        long product = grossAmount * treatyRate;
+        long quotient = product / PRODUCT_DIVISOR;
+        long remainder = product % PRODUCT_DIVISOR;
+        // HALF_UP: ties round away from zero
+        if (Math.abs(remainder) * 2 >= PRODUCT_DIVISOR) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+
+    /**
+     * Convert an amount to minor units, or {@link #NOT_REPRESENTABLE}.
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return toFixedPoint(amount, MAX_MINOR_UNITS);
+    }
+
+    /**
+     * Convert a percentage rate to basis points, or {@link #NOT_REPRESENTABLE}.
+     */
+    public static long toBasisPoints(BigDecimal rate) {
+        return toFixedPoint(rate, MAX_BASIS_POINTS);
+    }
+
+    /**
+     * Convert minor units back to a scale-2 BigDecimal.
+     */
+    public static BigDecimal fromMinorUnits(long amount) {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private static long toFixedPoint(BigDecimal value, long limit) {
+        if (value == null) {
+            return NOT_REPRESENTABLE;
+        }
+        if (value.scale() > SCALE) {
+            value = value.stripTrailingZeros();
+            if (value.scale() > SCALE) {
+                return NOT_REPRESENTABLE;
+            }
+        }
+        // Bound the magnitude before converting so longValue() cannot overflow
+        if (value.precision() - value.scale() > 18 - SCALE) {
+            return NOT_REPRESENTABLE;
+        }
+        long fixed = value.movePointRight(SCALE).longValue();
+        return Math.abs(fixed) < limit ? fixed : NOT_REPRESENTABLE;
+    }
+}
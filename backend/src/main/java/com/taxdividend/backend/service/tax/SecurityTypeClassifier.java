@@ -0,0 +1,196 @@
+package com.taxdividend.backend.service.tax;
+
+import com.taxdividend.backend.model.SecurityMasterEntry;
+import com.taxdividend.backend.repository.SecurityMasterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Classifies securities by ISIN for tax rule selection, from an in-memory
+ * copy of the security_master table.
+ *
+ * Entries are full ISINs or shorter prefixes. Classification is a longest
+ * prefix match: one hash lookup per prefix length present in the table,
+ * starting with the full ISIN. ISINs without a match are EQUITY.
+ *
+ * Like {@link TaxRuleIndex}, snapshots are immutable and published through an
+ * AtomicReference, so classifying never locks or touches the database. A
+ * periodic version probe detects changes; new and updated entries are merged
+ * into a copy of the current index, and a full reload only happens when rows
+ * were deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityTypeClassifier {
+
+    public static final String DEFAULT_SECURITY_TYPE = "EQUITY";
+
+    private static final int ISIN_LENGTH = 12;
+
+    private final SecurityMasterRepository securityMasterRepository;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    /**
+     * Security type of the given ISIN, {@link #DEFAULT_SECURITY_TYPE} if unknown.
+     */
+    public String classify(String isin) {
+        return snapshot().classify(isin);
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadIfAbsent();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Classifier will be loaded lazily on first lookup
+            log.error("Failed to load security master at startup", e);
+        }
+    }
+
+    /**
+     * Poll security_master for changes and merge them into a new snapshot.
+     */
+    @Scheduled(fixedDelayString = "${app.tax.securities.refresh-interval:5m}",
+            initialDelayString = "${app.tax.securities.refresh-interval:5m}")
+    public synchronized void refreshIfChanged() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null || snapshot.lastUpdatedAt() == null) {
+            reload();
+            return;
+        }
+
+        try {
+            SecurityMasterRepository.SecurityMasterVersion version = securityMasterRepository.findVersion();
+            if (version.getEntryCount() == snapshot.entryCount()
+                    && Objects.equals(version.getLastUpdatedAt(), snapshot.lastUpdatedAt())) {
+                return;
+            }
+
+            // >= so rows committed later with the same timestamp are not missed; merging is idempotent
+            List<SecurityMasterEntry> changed = securityMasterRepository
+                    .findByUpdatedAtGreaterThanEqual(snapshot.lastUpdatedAt());
+            Snapshot merged = snapshot.merge(changed);
+            if (merged.entryCount() != version.getEntryCount()) {
+                log.info("Security master entries were removed ({} -> {}), reloading",
+                        merged.entryCount(), version.getEntryCount());
+                reload();
+                return;
+            }
+
+            current.set(merged);
+            log.info("Security master v{}: merged {} changed entries ({} total)",
+                    merged.version(), changed.size(), merged.entryCount());
+        } catch (Exception e) {
+            log.error("Failed to refresh security master", e);
+        }
+    }
+
+    /**
+     * Rebuild the index from the whole table and publish it atomically.
+     */
+    public synchronized Snapshot reload() {
+        Snapshot previous = current.get();
+        Snapshot snapshot = Snapshot.EMPTY.merge(securityMasterRepository.findAll(),
+                previous != null ? previous.version() + 1 : 1);
+        current.set(snapshot);
+
+        log.info("Security master v{} loaded: {} entries, prefix lengths {}",
+                snapshot.version(), snapshot.entryCount(), Arrays.toString(snapshot.prefixLengths()));
+        return snapshot;
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private synchronized Snapshot loadIfAbsent() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    private static String normalize(String isin) {
+        return isin.strip().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * One immutable version of the classifier.
+     *
+     * @param types         security type by ISIN or ISIN prefix (type strings are shared)
+     * @param prefixLengths distinct key lengths, longest first
+     */
+    public record Snapshot(long version, Map<String, String> types, int[] prefixLengths,
+            LocalDateTime lastUpdatedAt) {
+
+        static final Snapshot EMPTY = new Snapshot(0, Map.of(), new int[0], null);
+
+        public String classify(String isin) {
+            if (isin == null || types.isEmpty()) {
+                return DEFAULT_SECURITY_TYPE;
+            }
+            String code = normalize(isin);
+            for (int length : prefixLengths) {
+                if (length <= code.length()) {
+                    String type = types.get(length == code.length() ? code : code.substring(0, length));
+                    if (type != null) {
+                        return type;
+                    }
+                }
+            }
+            return DEFAULT_SECURITY_TYPE;
+        }
+
+        public int entryCount() {
+            return types.size();
+        }
+
+        Snapshot merge(List<SecurityMasterEntry> entries) {
+            return merge(entries, version + 1);
+        }
+
+        /**
+         * Copy of this snapshot with the given entries inserted or replaced.
+         */
+        Snapshot merge(List<SecurityMasterEntry> entries, long newVersion) {
+            Map<String, String> merged = new HashMap<>(types);
+            Map<String, String> typeNames = new HashMap<>();
+            merged.values().forEach(type -> typeNames.putIfAbsent(type, type));
+
+            LocalDateTime lastUpdated = lastUpdatedAt;
+            for (SecurityMasterEntry entry : entries) {
+                String type = entry.getSecurityType().toUpperCase(Locale.ROOT);
+                merged.put(normalize(entry.getIsinPrefix()), typeNames.computeIfAbsent(type, t -> t));
+                if (entry.getUpdatedAt() != null
+                        && (lastUpdated == null || entry.getUpdatedAt().isAfter(lastUpdated))) {
+                    lastUpdated = entry.getUpdatedAt();
+                }
+            }
+
+            TreeSet<Integer> lengths = new TreeSet<>();
+            merged.keySet().forEach(key -> lengths.add(Math.min(key.length(), ISIN_LENGTH)));
+            int[] prefixLengths = lengths.descendingSet().stream().mapToInt(Integer::intValue).toArray();
+
+            return new Snapshot(newVersion, Map.copyOf(merged), prefixLengths, lastUpdated);
+        }
+    }
+}
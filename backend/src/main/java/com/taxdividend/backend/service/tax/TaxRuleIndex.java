@@ -0,0 +1,390 @@
+package com.taxdividend.backend.service.tax;
+
+import com.taxdividend.backend.model.TaxRule;
+import com.taxdividend.backend.repository.TaxRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.taxdividend.backend.config.CacheConfig.TAX_RULES_CACHE;
+
+/**
+ * Immutable, versioned in-memory index of the tax_rules table.
+ *
+ * Rules are grouped by (sourceCountry, residenceCountry, securityType) and each
+ * group holds an array sorted by effectiveFrom, so resolving the rule for a
+ * payment date is a binary search with no database I/O.
+ *
+ * The whole index is rebuilt off the read path and published through an
+ * AtomicReference: readers never lock and always see a consistent snapshot.
+ * A cheap version probe (row count + max updated_at) runs periodically and
+ * triggers a rebuild only when tax_rules actually changed.
+ *
+ * Returned TaxRule instances are detached copies shared by all readers and
+ * must be treated as read-only.
+ *
+ * When a reload replaces an earlier snapshot, the two are diffed and a
+ * {@link TaxRulesChangedEvent} with the affected (treaty key, date range)
+ * pairs is published, so only the dividends those rules apply to need
+ * recalculating. The event also carries a fingerprint per treaty key of both
+ * snapshots, so the listener can tell whether the ranges cover everything
+ * since the rules it last applied (see {@link DividendRecalculationJob}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaxRuleIndex implements TaxRuleLookup {
+
+    private static final String DEFAULT_SECURITY_TYPE = "EQUITY";
+
+    /** Lower bound for ranges covering every payment date of a treaty key. */
+    public static final LocalDate OPEN_START = LocalDate.of(1900, 1, 1);
+
+    /** Upper bound for open-ended rules in affected ranges. */
+    public static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    private final TaxRuleRepository taxRuleRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    /**
+     * Find the rule applicable on the given date.
+     * Same semantics as {@link TaxRuleRepository#findApplicableRule}.
+     */
+    @Override
+    public Optional<TaxRule> findApplicableRule(String sourceCountry, String residenceCountry,
+            String securityType, LocalDate date) {
+        return snapshot().findApplicableRule(sourceCountry, residenceCountry, securityType, date);
+    }
+
+    /**
+     * All rules currently indexed, for callers that evaluate many lookups at once.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadIfAbsent();
+    }
+
+    public long version() {
+        return snapshot().version();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Index will be loaded lazily on first lookup
+            log.error("Failed to load tax rule index at startup", e);
+        }
+    }
+
+    /**
+     * Poll tax_rules for changes and swap in a new index when needed.
+     */
+    @Scheduled(fixedDelayString = "${app.tax.rules.index-refresh-interval:1m}",
+            initialDelayString = "${app.tax.rules.index-refresh-interval:1m}")
+    public void refreshIfChanged() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            reload();
+            return;
+        }
+
+        try {
+            TaxRuleRepository.TaxRuleVersion version = taxRuleRepository.findVersion();
+            if (version.getRuleCount() != snapshot.ruleCount()
+                    || !Objects.equals(version.getLastUpdatedAt(), snapshot.lastUpdatedAt())) {
+                log.info("Tax rules changed ({} -> {} rules), rebuilding index",
+                        snapshot.ruleCount(), version.getRuleCount());
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("Failed to check tax rules version", e);
+        }
+    }
+
+    /**
+     * Rebuild the index from the database and publish it atomically.
+     */
+    public synchronized Snapshot reload() {
+        Snapshot previous = current.get();
+        List<TaxRule> rules = taxRuleRepository.findAll();
+
+        Map<Key, List<TaxRule>> grouped = new HashMap<>();
+        LocalDateTime lastUpdatedAt = null;
+        for (TaxRule rule : rules) {
+            grouped.computeIfAbsent(key(rule.getSourceCountry(), rule.getResidenceCountry(), rule.getSecurityType()),
+                    k -> new ArrayList<>())
+                    .add(copyOf(rule));
+            if (rule.getUpdatedAt() != null
+                    && (lastUpdatedAt == null || rule.getUpdatedAt().isAfter(lastUpdatedAt))) {
+                lastUpdatedAt = rule.getUpdatedAt();
+            }
+        }
+
+        Map<Key, TaxRule[]> index = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((key, list) -> {
+            list.sort(Comparator.comparing(TaxRule::getEffectiveFrom));
+            index.put(key, list.toArray(TaxRule[]::new));
+        });
+
+        Snapshot snapshot = new Snapshot(
+                previous != null ? previous.version() + 1 : 1,
+                Map.copyOf(index),
+                rules.size(),
+                lastUpdatedAt);
+        current.set(snapshot);
+
+        Cache cache = cacheManager.getCache(TAX_RULES_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+
+        log.info("Tax rule index v{} loaded: {} rules in {} treaty keys",
+                snapshot.version(), snapshot.ruleCount(), index.size());
+
+        if (previous != null) {
+            List<TaxRulesChangedEvent.AffectedRange> ranges = affectedRanges(previous, snapshot);
+            if (!ranges.isEmpty()) {
+                log.info("Tax rule index v{}: {} affected treaty ranges", snapshot.version(), ranges.size());
+                eventPublisher.publishEvent(new TaxRulesChangedEvent(snapshot.version(), ranges,
+                        previous.fingerprints(), snapshot.fingerprints()));
+            }
+        }
+        return snapshot;
+    }
+
+    // ========================================
+    // Private Helper Methods
+    // ========================================
+
+    private synchronized Snapshot loadIfAbsent() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    private static Key key(String sourceCountry, String residenceCountry, String securityType) {
+        return new Key(
+                sourceCountry.toUpperCase(Locale.ROOT),
+                residenceCountry.toUpperCase(Locale.ROOT),
+                securityType != null ? securityType.toUpperCase(Locale.ROOT) : DEFAULT_SECURITY_TYPE);
+    }
+
+    /**
+     * Date ranges, per treaty key, covered by rules that were added, removed or
+     * changed between two snapshots. Overlapping ranges of a key are merged.
+     */
+    static List<TaxRulesChangedEvent.AffectedRange> affectedRanges(Snapshot previous, Snapshot current) {
+        Map<UUID, TaxRule> before = byId(previous);
+        Map<UUID, TaxRule> after = byId(current);
+
+        Map<Key, List<LocalDate[]>> intervals = new HashMap<>();
+        before.forEach((id, rule) -> {
+            TaxRule updated = after.get(id);
+            if (updated == null || !sameRule(rule, updated)) {
+                addInterval(intervals, rule);
+            }
+        });
+        after.forEach((id, rule) -> {
+            TaxRule old = before.get(id);
+            if (old == null || !sameRule(old, rule)) {
+                addInterval(intervals, rule);
+            }
+        });
+
+        List<TaxRulesChangedEvent.AffectedRange> ranges = new ArrayList<>();
+        intervals.forEach((key, list) -> {
+            list.sort(Comparator.comparing(interval -> interval[0]));
+            LocalDate from = list.getFirst()[0];
+            LocalDate to = list.getFirst()[1];
+            for (LocalDate[] interval : list.subList(1, list.size())) {
+                if (interval[0].isAfter(to.plusDays(1))) {
+                    ranges.add(new TaxRulesChangedEvent.AffectedRange(key, from, to));
+                    from = interval[0];
+                    to = interval[1];
+                } else if (interval[1].isAfter(to)) {
+                    to = interval[1];
+                }
+            }
+            ranges.add(new TaxRulesChangedEvent.AffectedRange(key, from, to));
+        });
+        return ranges;
+    }
+
+    private static Map<UUID, TaxRule> byId(Snapshot snapshot) {
+        Map<UUID, TaxRule> rules = new HashMap<>();
+        for (TaxRule[] intervals : snapshot.rules().values()) {
+            for (TaxRule rule : intervals) {
+                rules.put(rule.getId(), rule);
+            }
+        }
+        return rules;
+    }
+
+    private static void addInterval(Map<Key, List<LocalDate[]>> intervals, TaxRule rule) {
+        LocalDate to = rule.getEffectiveTo() != null ? rule.getEffectiveTo() : OPEN_END;
+        intervals.computeIfAbsent(key(rule.getSourceCountry(), rule.getResidenceCountry(), rule.getSecurityType()),
+                k -> new ArrayList<>())
+                .add(new LocalDate[] { rule.getEffectiveFrom(), to });
+    }
+
+    /**
+     * Whether two versions of a rule produce the same calculation.
+     */
+    private static boolean sameRule(TaxRule a, TaxRule b) {
+        return key(a.getSourceCountry(), a.getResidenceCountry(), a.getSecurityType())
+                .equals(key(b.getSourceCountry(), b.getResidenceCountry(), b.getSecurityType()))
+                && Objects.equals(a.getEffectiveFrom(), b.getEffectiveFrom())
+                && Objects.equals(a.getEffectiveTo(), b.getEffectiveTo())
+                && sameAmount(a.getTreatyRate(), b.getTreatyRate())
+                && sameAmount(a.getStandardWithholdingRate(), b.getStandardWithholdingRate())
+                && Objects.equals(a.getReliefAtSourceAvailable(), b.getReliefAtSourceAvailable())
+                && Objects.equals(a.getRefundProcedureAvailable(), b.getRefundProcedureAvailable());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * SHA-256 of the fields {@link #sameRule} compares, for the rules of one key in effective order.
+     */
+    private static String fingerprint(TaxRule[] intervals) {
+        MessageDigest digest = sha256();
+        for (TaxRule rule : intervals) {
+            String fields = String.join("|",
+                    String.valueOf(rule.getEffectiveFrom()),
+                    String.valueOf(rule.getEffectiveTo()),
+                    plainAmount(rule.getTreatyRate()),
+                    plainAmount(rule.getStandardWithholdingRate()),
+                    String.valueOf(rule.getReliefAtSourceAvailable()),
+                    String.valueOf(rule.getRefundProcedureAvailable()));
+            digest.update((fields + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String plainAmount(BigDecimal amount) {
+        return amount != null ? amount.stripTrailingZeros().toPlainString() : "null";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Detached copy so the index never holds a managed entity.
+     */
+    private static TaxRule copyOf(TaxRule rule) {
+        return TaxRule.builder()
+                .id(rule.getId())
+                .sourceCountry(rule.getSourceCountry())
+                .residenceCountry(rule.getResidenceCountry())
+                .securityType(rule.getSecurityType())
+                .standardWithholdingRate(rule.getStandardWithholdingRate())
+                .treatyRate(rule.getTreatyRate())
+                .reliefAtSourceAvailable(rule.getReliefAtSourceAvailable())
+                .refundProcedureAvailable(rule.getRefundProcedureAvailable())
+                .effectiveFrom(rule.getEffectiveFrom())
+                .effectiveTo(rule.getEffectiveTo())
+                .notes(rule.getNotes())
+                .createdAt(rule.getCreatedAt())
+                .updatedAt(rule.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Treaty key: (sourceCountry, residenceCountry, securityType), upper-cased.
+     */
+    public record Key(String sourceCountry, String residenceCountry, String securityType) {
+    }
+
+    /**
+     * One published version of the index.
+     *
+     * A snapshot can be pinned and queried directly so that many lookups see
+     * the same rules even if the index is reloaded meanwhile.
+     */
+    public record Snapshot(long version, Map<Key, TaxRule[]> rules, long ruleCount, LocalDateTime lastUpdatedAt)
+            implements TaxRuleLookup {
+
+        /**
+         * Per treaty key, a hash of everything that drives the calculation of its
+         * rules. Keys with equal fingerprints in two snapshots resolve every
+         * payment date to the same result.
+         */
+        public Map<Key, String> fingerprints() {
+            Map<Key, String> fingerprints = new HashMap<>(rules.size() * 2);
+            rules.forEach((key, intervals) -> fingerprints.put(key, fingerprint(intervals)));
+            return Map.copyOf(fingerprints);
+        }
+
+        @Override
+        public Optional<TaxRule> findApplicableRule(String sourceCountry, String residenceCountry,
+                String securityType, LocalDate date) {
+            if (sourceCountry == null || residenceCountry == null || date == null) {
+                return Optional.empty();
+            }
+
+            TaxRule[] intervals = rules.get(key(sourceCountry, residenceCountry, securityType));
+            if (intervals == null) {
+                return Optional.empty();
+            }
+
+            // Last interval starting on or before the date
+            int low = 0;
+            int high = intervals.length - 1;
+            int candidate = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (!intervals[mid].getEffectiveFrom().isAfter(date)) {
+                    candidate = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+
+            // Walk back in case of overlapping intervals (should not happen with clean data)
+            for (int i = candidate; i >= 0; i--) {
+                LocalDate effectiveTo = intervals[i].getEffectiveTo();
+                if (effectiveTo == null || !effectiveTo.isBefore(date)) {
+                    return Optional.of(intervals[i]);
+                }
+            }
+
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.taxdividend.backend.service.tax;
+
+import com.taxdividend.backend.model.TaxRule;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Resolves the tax rule applicable to a treaty key on a payment date.
+ *
+ * Implemented by {@link TaxRuleIndex} (always the latest rules) and by
+ * {@link TaxRuleIndex.Snapshot} (one pinned version).
+ */
+public interface TaxRuleLookup {
+
+    Optional<TaxRule> findApplicableRule(String sourceCountry, String residenceCountry,
+            String securityType, LocalDate date);
+}
@@ -0,0 +1,26 @@
+package com.taxdividend.backend.service.tax;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Published by {@link TaxRuleIndex} when a reload finds inserted, updated or
+ * deleted rules.
+ *
+ * Each range covers the effective interval of a changed rule, before and after
+ * the change, merged per treaty key. Dividends outside these ranges resolve to
+ * the same rule as before and do not need recalculating.
+ *
+ * @param previousFingerprints per-key fingerprints of the snapshot the ranges were diffed from
+ * @param fingerprints         per-key fingerprints of the new snapshot
+ */
+public record TaxRulesChangedEvent(long version, List<AffectedRange> ranges,
+        Map<TaxRuleIndex.Key, String> previousFingerprints, Map<TaxRuleIndex.Key, String> fingerprints) {
+
+    /**
+     * Payment dates [from, to] of one treaty key whose applicable rule may have changed.
+     */
+    public record AffectedRange(TaxRuleIndex.Key key, LocalDate from, LocalDate to) {
+    }
+}
@@ -0,0 +1,82 @@
+-- ============================================================================
+-- V10: Dividend Unique Key
+-- ============================================================================
+-- A dividend is identified per user by (isin, payment_date, gross_amount), so
+-- overlapping broker statements cannot import the same payment twice. Bulk
+-- imports insert with ON CONFLICT DO NOTHING against this index.
+--
+-- Existing duplicates are removed first, keeping per key the row that went
+-- furthest in the workflow (attached to a form, then PAID > SENT > OPEN),
+-- then the oldest. Only OPEN copies not attached to a form are deleted: if a
+-- key still has several rows after that, submitted data is involved and the
+-- migration fails with the offending keys so they can be resolved by hand.
+-- Count and totals of the affected statements are recomputed from the rows
+-- that remain.
+-- ============================================================================
+
+CREATE TEMPORARY TABLE v10_affected_statements (statement_id UUID PRIMARY KEY) ON COMMIT DROP;
+
+WITH ranked AS (
+    SELECT id,
+           row_number() OVER (
+               PARTITION BY user_id, isin, payment_date, gross_amount
+               ORDER BY (form_id IS NOT NULL) DESC,
+                        CASE status WHEN 'PAID' THEN 0 WHEN 'SENT' THEN 1 ELSE 2 END,
+                        created_at,
+                        id
+           ) AS rn
+    FROM dividends
+),
+removed AS (
+    DELETE FROM dividends d
+    USING ranked r
+    WHERE d.id = r.id
+      AND r.rn > 1
+      AND d.status = 'OPEN'
+      AND d.form_id IS NULL
+    RETURNING d.statement_id
+)
+INSERT INTO v10_affected_statements (statement_id)
+SELECT DISTINCT statement_id
+FROM removed
+WHERE statement_id IS NOT NULL;
+
+DO $$
+DECLARE
+    conflicts TEXT;
+BEGIN
+    SELECT string_agg(format('user %s, ISIN %s, paid %s, gross %s: %s rows',
+                             user_id, isin, payment_date, gross_amount, row_count), E'\n')
+    INTO conflicts
+    FROM (
+        SELECT user_id, isin, payment_date, gross_amount, count(*) AS row_count
+        FROM dividends
+        GROUP BY user_id, isin, payment_date, gross_amount
+        HAVING count(*) > 1
+        ORDER BY user_id, isin, payment_date, gross_amount
+        LIMIT 100
+    ) c;
+
+    IF conflicts IS NOT NULL THEN
+        RAISE EXCEPTION 'Duplicate dividends that are submitted or attached to a form must be resolved by hand before the unique key can be added:%',
+            E'\n' || conflicts;
+    END IF;
+END $$;
+
+UPDATE dividend_statements s
+SET dividend_count = t.dividend_count,
+    total_gross_amount = t.total_gross_amount,
+    total_reclaimable = t.total_reclaimable
+FROM (
+    SELECT a.statement_id,
+           count(d.id) AS dividend_count,
+           COALESCE(sum(d.gross_amount), 0) AS total_gross_amount,
+           COALESCE(sum(d.reclaimable_amount), 0) AS total_reclaimable
+    FROM v10_affected_statements a
+    LEFT JOIN dividends d ON d.statement_id = a.statement_id
+    GROUP BY a.statement_id
+) t
+WHERE s.id = t.statement_id;
+
+CREATE UNIQUE INDEX uq_dividends_user_isin_payment_gross
+    ON dividends(user_id, isin, payment_date, gross_amount);
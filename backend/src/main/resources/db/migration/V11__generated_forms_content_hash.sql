@@ -0,0 +1,17 @@
+-- ============================================================================
+-- V11: Generated Form Content Hash
+-- ============================================================================
+-- SHA-256 of the form type, templates and field values a form was rendered
+-- from, so generating a form whose content has not changed reuses the stored
+-- object instead of rendering and uploading it again.
+-- Forms generated before this migration keep a NULL hash and are never reused.
+-- ============================================================================
+
+ALTER TABLE generated_forms
+    ADD COLUMN content_hash VARCHAR(64);
+
+CREATE INDEX idx_generated_forms_user_content_hash
+    ON generated_forms(user_id, form_type, content_hash)
+    WHERE content_hash IS NOT NULL;
+
+COMMENT ON COLUMN generated_forms.content_hash IS 'Hex SHA-256 of the form type, templates and field values';
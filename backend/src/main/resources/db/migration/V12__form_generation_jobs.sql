@@ -0,0 +1,34 @@
+-- ============================================================================
+-- V12: Form Generation Jobs
+-- ============================================================================
+-- Status of asynchronous form generation jobs. Each stage (submit, prepare,
+-- render, complete) writes its row, so a job accepted by one backend replica
+-- can be polled through any other. Rows are deleted once they have not
+-- changed for app.forms.generation.job-retention.
+-- ============================================================================
+
+CREATE TABLE form_generation_jobs (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    stage VARCHAR(20) NOT NULL,
+    form_type VARCHAR(50) NOT NULL,
+    tax_year INTEGER NOT NULL,
+    form_id UUID REFERENCES generated_forms(id) ON DELETE SET NULL,
+    dividend_count INTEGER,
+    error_message TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT valid_form_generation_stage
+        CHECK (stage IN ('QUEUED', 'PREPARING', 'RENDERING', 'COMPLETING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE INDEX idx_form_generation_jobs_updated_at ON form_generation_jobs(updated_at);
+
+CREATE TRIGGER update_form_generation_jobs_updated_at
+    BEFORE UPDATE ON form_generation_jobs
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE form_generation_jobs IS 'Asynchronous form generation jobs, shared by all backend replicas';
+COMMENT ON COLUMN form_generation_jobs.stage IS 'QUEUED, PREPARING, RENDERING, COMPLETING, COMPLETED or FAILED';
+COMMENT ON COLUMN form_generation_jobs.form_id IS 'Generated form, once the job completed';
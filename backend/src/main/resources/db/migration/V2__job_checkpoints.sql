@@ -0,0 +1,23 @@
+-- ============================================================================
+-- V2: Batch Job Checkpoints
+-- ============================================================================
+-- Progress markers for long-running batch jobs so an interrupted run can
+-- resume after the last fully processed partition instead of starting over.
+-- ============================================================================
+
+CREATE TABLE job_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    last_key VARCHAR(255),
+    processed_count BIGINT NOT NULL DEFAULT 0,
+    failed_count BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TRIGGER update_job_checkpoints_updated_at
+    BEFORE UPDATE ON job_checkpoints
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE job_checkpoints IS 'Resume markers for partitioned batch jobs (one row per running job)';
+COMMENT ON COLUMN job_checkpoints.last_key IS 'Keyset position of the last fully processed partition';
@@ -0,0 +1,13 @@
+-- ============================================================================
+-- V3: Dividend Listing Index
+-- ============================================================================
+-- Supports keyset pagination of a user's dividends ordered by
+-- (payment_date DESC, id DESC), optionally filtered by status. Each page is
+-- a range scan of at most page-size entries instead of a full per-user read.
+-- ============================================================================
+
+CREATE INDEX idx_dividends_user_payment_date ON dividends(user_id, payment_date DESC, id DESC);
+CREATE INDEX idx_dividends_user_status_payment_date ON dividends(user_id, status, payment_date DESC, id DESC);
+
+-- Covered by the leading column of idx_dividends_user_payment_date
+DROP INDEX IF EXISTS idx_dividends_user_id;
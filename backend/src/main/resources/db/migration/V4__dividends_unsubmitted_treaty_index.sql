@@ -0,0 +1,12 @@
+-- ============================================================================
+-- V4: Unsubmitted Dividends by Treaty Index
+-- ============================================================================
+-- Supports targeted recalculation after a tax rule change: unsubmitted
+-- dividends of one source country within a payment date range, read in
+-- (payment_date, id) keyset order. The scan is proportional to the affected
+-- rows instead of the whole table.
+-- ============================================================================
+
+CREATE INDEX idx_dividends_unsubmitted_source_payment_date
+    ON dividends(source_country, payment_date, id)
+    WHERE form_id IS NULL;
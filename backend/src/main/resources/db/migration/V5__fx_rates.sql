@@ -0,0 +1,30 @@
+-- ============================================================================
+-- V5: Daily FX Rates
+-- ============================================================================
+-- Daily reference rates used to convert dividend amounts to the reporting
+-- currency when totals span several currencies. Rates are quoted against EUR
+-- (units of currency per 1 EUR, ECB convention). The whole table is loaded
+-- into memory by FxRateIndex; updated_at drives its change probe.
+-- ============================================================================
+
+CREATE TABLE fx_rates (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    currency VARCHAR(3) NOT NULL,
+    rate_date DATE NOT NULL,
+    rate DECIMAL(18,8) NOT NULL,
+    source VARCHAR(50),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT valid_fx_rate CHECK (rate > 0),
+    UNIQUE(currency, rate_date)
+);
+
+CREATE TRIGGER update_fx_rates_updated_at
+    BEFORE UPDATE ON fx_rates
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE fx_rates IS 'Daily FX reference rates against EUR';
+COMMENT ON COLUMN fx_rates.currency IS 'Quoted currency (ISO 4217 code)';
+COMMENT ON COLUMN fx_rates.rate IS 'Units of currency per 1 EUR';
+COMMENT ON COLUMN fx_rates.source IS 'Rate provider, e.g. ECB';
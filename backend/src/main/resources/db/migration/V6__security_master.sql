@@ -0,0 +1,37 @@
+-- ============================================================================
+-- V6: Security Master
+-- ============================================================================
+-- Security type by ISIN, used to pick the matching tax_rules.security_type
+-- (EQUITY, BOND, REIT, FUND, ...). An entry is either a full 12-character
+-- ISIN or a shorter prefix acting as a fallback; the longest match wins and
+-- unmatched ISINs are treated as EQUITY. The table is loaded into memory by
+-- SecurityTypeClassifier and refreshed incrementally through updated_at.
+-- ============================================================================
+
+CREATE TABLE security_master (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    isin_prefix VARCHAR(12) NOT NULL UNIQUE,
+    security_type VARCHAR(50) NOT NULL,
+    security_name VARCHAR(255),
+    source VARCHAR(50),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT valid_isin_prefix CHECK (isin_prefix ~ '^[A-Z0-9]{2,12}$')
+);
+
+CREATE INDEX idx_security_master_updated_at ON security_master(updated_at);
+
+CREATE TRIGGER update_security_master_updated_at
+    BEFORE UPDATE ON security_master
+    FOR EACH ROW
+    EXECUTE FUNCTION update_updated_at_column();
+
+COMMENT ON TABLE security_master IS 'Security type by ISIN or ISIN prefix';
+COMMENT ON COLUMN security_master.isin_prefix IS 'Full ISIN (12 characters) or prefix fallback';
+COMMENT ON COLUMN security_master.security_type IS 'Type of security: EQUITY, BOND, REIT, FUND, etc.';
+
+-- Prefix fallbacks: XS ISINs are issued for international (Euro)bonds,
+-- EU ISINs for debt of the European Union institutions
+INSERT INTO security_master (isin_prefix, security_type, source) VALUES
+    ('XS', 'BOND', 'DEFAULT'),
+    ('EU', 'BOND', 'DEFAULT');
@@ -0,0 +1,118 @@
+-- ============================================================================
+-- V7: Materialized Dividend Statistics
+-- ============================================================================
+-- Per (user, tax year, status) dividend count and reclaimable total, so the
+-- dashboard statistics are a primary-key range read instead of aggregates
+-- over dividends. Maintained by statement-level triggers on dividends: each
+-- INSERT, UPDATE or DELETE statement folds its transition tables into one
+-- delta per key, so bulk imports and bulk recalculations cost one upsert per
+-- touched key rather than one per row. Keys that drop to zero dividends are
+-- removed.
+-- ============================================================================
+
+CREATE TABLE dividend_stats (
+    user_id UUID NOT NULL,
+    tax_year INTEGER NOT NULL,
+    status dividend_status NOT NULL,
+    dividend_count BIGINT NOT NULL DEFAULT 0,
+    reclaimable_total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, tax_year, status)
+);
+
+COMMENT ON TABLE dividend_stats IS 'Dividend count and reclaimable total per user, tax year and status (trigger-maintained)';
+COMMENT ON COLUMN dividend_stats.tax_year IS 'Year of dividends.payment_date';
+
+-- Backfill from existing dividends
+INSERT INTO dividend_stats (user_id, tax_year, status, dividend_count, reclaimable_total)
+SELECT user_id, EXTRACT(YEAR FROM payment_date)::int, status, COUNT(*), COALESCE(SUM(reclaimable_amount), 0)
+FROM dividends
+GROUP BY user_id, EXTRACT(YEAR FROM payment_date)::int, status;
+
+-- INSERT: add the new rows
+CREATE OR REPLACE FUNCTION dividend_stats_after_insert()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO dividend_stats AS s (user_id, tax_year, status, dividend_count, reclaimable_total)
+    SELECT user_id, EXTRACT(YEAR FROM payment_date)::int, status, COUNT(*), COALESCE(SUM(reclaimable_amount), 0)
+    FROM new_rows
+    GROUP BY 1, 2, 3
+    ON CONFLICT (user_id, tax_year, status) DO UPDATE
+        SET dividend_count = s.dividend_count + EXCLUDED.dividend_count,
+            reclaimable_total = s.reclaimable_total + EXCLUDED.reclaimable_total,
+            updated_at = CURRENT_TIMESTAMP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- UPDATE: add the net difference between new and old rows; statements that
+-- leave every key unchanged (e.g. linking dividends to a form) write nothing
+CREATE OR REPLACE FUNCTION dividend_stats_after_update()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO dividend_stats AS s (user_id, tax_year, status, dividend_count, reclaimable_total)
+    SELECT user_id, tax_year, status, SUM(dividend_count), SUM(reclaimable_total)
+    FROM (
+        SELECT user_id, EXTRACT(YEAR FROM payment_date)::int AS tax_year, status,
+               1 AS dividend_count, COALESCE(reclaimable_amount, 0) AS reclaimable_total
+        FROM new_rows
+        UNION ALL
+        SELECT user_id, EXTRACT(YEAR FROM payment_date)::int, status,
+               -1, -COALESCE(reclaimable_amount, 0)
+        FROM old_rows
+    ) delta
+    GROUP BY user_id, tax_year, status
+    HAVING SUM(dividend_count) <> 0 OR SUM(reclaimable_total) <> 0
+    ON CONFLICT (user_id, tax_year, status) DO UPDATE
+        SET dividend_count = s.dividend_count + EXCLUDED.dividend_count,
+            reclaimable_total = s.reclaimable_total + EXCLUDED.reclaimable_total,
+            updated_at = CURRENT_TIMESTAMP;
+
+    DELETE FROM dividend_stats s
+    USING (SELECT DISTINCT user_id FROM old_rows) changed
+    WHERE s.user_id = changed.user_id AND s.dividend_count = 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- DELETE: subtract the old rows. Keys are only updated, never inserted, so a
+-- user deletion cascading to dividends cannot recreate rows for that user.
+CREATE OR REPLACE FUNCTION dividend_stats_after_delete()
+RETURNS TRIGGER AS $$
+BEGIN
+    UPDATE dividend_stats s
+    SET dividend_count = s.dividend_count - delta.dividend_count,
+        reclaimable_total = s.reclaimable_total - delta.reclaimable_total,
+        updated_at = CURRENT_TIMESTAMP
+    FROM (
+        SELECT user_id, EXTRACT(YEAR FROM payment_date)::int AS tax_year, status,
+               COUNT(*) AS dividend_count, COALESCE(SUM(reclaimable_amount), 0) AS reclaimable_total
+        FROM old_rows
+        GROUP BY 1, 2, 3
+    ) delta
+    WHERE s.user_id = delta.user_id AND s.tax_year = delta.tax_year AND s.status = delta.status;
+
+    DELETE FROM dividend_stats s
+    USING (SELECT DISTINCT user_id FROM old_rows) changed
+    WHERE s.user_id = changed.user_id AND s.dividend_count = 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER dividend_stats_insert
+    AFTER INSERT ON dividends
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION dividend_stats_after_insert();
+
+CREATE TRIGGER dividend_stats_update
+    AFTER UPDATE ON dividends
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION dividend_stats_after_update();
+
+CREATE TRIGGER dividend_stats_delete
+    AFTER DELETE ON dividends
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION dividend_stats_after_delete();
@@ -0,0 +1,18 @@
+-- ============================================================================
+-- V8: Dividend Tax Year
+-- ============================================================================
+-- Stored tax_year generated from payment_date, so year-scoped queries can
+-- filter on a plain column instead of YEAR(payment_date), which no index can
+-- serve. The composite index answers per-user, per-year counts and status
+-- sums (reclaimable_amount is included for index-only scans) and the
+-- unsubmitted dividends of a year used for form generation.
+-- ============================================================================
+
+ALTER TABLE dividends
+    ADD COLUMN tax_year INTEGER GENERATED ALWAYS AS (EXTRACT(YEAR FROM payment_date)::int) STORED;
+
+CREATE INDEX idx_dividends_user_tax_year_status
+    ON dividends(user_id, tax_year, status)
+    INCLUDE (reclaimable_amount);
+
+COMMENT ON COLUMN dividends.tax_year IS 'Year of payment_date (generated)';
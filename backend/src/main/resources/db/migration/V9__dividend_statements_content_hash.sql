@@ -0,0 +1,16 @@
+-- ============================================================================
+-- V9: Dividend Statement Content Hash
+-- ============================================================================
+-- SHA-256 of the uploaded file, so re-uploading the same statement returns
+-- the existing one instead of storing, parsing and importing it again.
+-- Statements uploaded before this migration keep a NULL hash and never
+-- match (NULLs are distinct in the unique index).
+-- ============================================================================
+
+ALTER TABLE dividend_statements
+    ADD COLUMN content_hash VARCHAR(64);
+
+CREATE UNIQUE INDEX uq_dividend_statements_user_content_hash
+    ON dividend_statements(user_id, content_hash);
+
+COMMENT ON COLUMN dividend_statements.content_hash IS 'Hex SHA-256 of the source file, unique per user';
@@ -32,7 +32,7 @@ public class TestSecurityConfig {
         ObjectMapper objectMapper = new ObjectMapper()
                 .configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-        return new InternalApiKeyFilter(objectMapper, null) {
+        return new InternalApiKeyFilter(objectMapper, null, null) {
             @Override
             protected void doFilterInternal(jakarta.servlet.http.HttpServletRequest request,
                     jakarta.servlet.http.HttpServletResponse response,
@@ -97,7 +97,7 @@ class DividendControllerTest {
         void shouldListUserDividends() throws Exception {
                 // Given
                 com.taxdividend.backend.api.dto.PaginatedDividendListDto response = new com.taxdividend.backend.api.dto.PaginatedDividendListDto();
-                when(dividendService.listDividends(eq(testUserId), any(), isNull(), isNull(), isNull()))
+                when(dividendService.listDividends(eq(testUserId), any(), isNull(), isNull(), isNull(), isNull()))
                                 .thenReturn(response);
 
                 // When/Then
@@ -107,7 +107,27 @@ class DividendControllerTest {
                                 .param("size", "20"))
                                 .andExpect(status().isOk());
 
-                verify(dividendService).listDividends(eq(testUserId), any(), isNull(), isNull(), isNull());
+                verify(dividendService).listDividends(eq(testUserId), any(), isNull(), isNull(), isNull(), isNull());
+        }
+
+        @Test
+        @DisplayName("Should pass status filter and cursor to the service")
+        void shouldListDividendsAfterCursor() throws Exception {
+                // Given
+                com.taxdividend.backend.api.dto.PaginatedDividendListDto response = new com.taxdividend.backend.api.dto.PaginatedDividendListDto();
+                response.setNextCursor("next");
+                when(dividendService.listDividends(eq(testUserId), any(), isNull(), isNull(), eq("PAID"), eq("abc")))
+                                .thenReturn(response);
+
+                // When/Then
+                mockMvc.perform(get("/internal/dividends")
+                                .header("X-User-Context", getUserContextHeader(testUserId))
+                                .param("status", "PAID")
+                                .param("cursor", "abc"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+                verify(dividendService).listDividends(eq(testUserId), any(), isNull(), isNull(), eq("PAID"), eq("abc"));
         }
 
         @Test
@@ -175,6 +195,47 @@ class DividendControllerTest {
                 verify(taxCalculationService).calculateAndUpdate(dividendId, "CH");
         }
 
+        @Test
+        @DisplayName("Should simulate residence countries for the current user")
+        void shouldSimulateResidenceCountries() throws Exception {
+                // Given
+                com.taxdividend.backend.api.dto.ResidenceCountrySimulationDto simulation = new com.taxdividend.backend.api.dto.ResidenceCountrySimulationDto();
+                simulation.setResidenceCountry("DE");
+                simulation.setSuccessCount(1);
+                simulation.setFailureCount(0);
+                simulation.setTotalReclaimableAmount(new BigDecimal("12.50"));
+                com.taxdividend.backend.api.dto.ResidenceSimulationResultDto result = new com.taxdividend.backend.api.dto.ResidenceSimulationResultDto();
+                result.setDividendCount(1);
+                result.setSimulations(List.of(simulation));
+
+                when(taxCalculationService.simulateResidenceCountries(testUserId, List.of("DE", "CH"), 2024))
+                                .thenReturn(result);
+
+                // When/Then
+                mockMvc.perform(post("/internal/dividends/simulate-residence")
+                                .header("X-User-Context", getUserContextHeader(testUserId))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"residenceCountries\":[\"DE\",\"CH\"],\"taxYear\":2024}"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.simulations[0].residenceCountry").value("DE"))
+                                .andExpect(jsonPath("$.simulations[0].totalReclaimableAmount").value(12.50));
+
+                verify(taxCalculationService).simulateResidenceCountries(testUserId, List.of("DE", "CH"), 2024);
+                verifyNoInteractions(auditService);
+        }
+
+        @Test
+        @DisplayName("Should reject a simulation without countries")
+        void shouldRejectEmptySimulation() throws Exception {
+                mockMvc.perform(post("/internal/dividends/simulate-residence")
+                                .header("X-User-Context", getUserContextHeader(testUserId))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"residenceCountries\":[]}"))
+                                .andExpect(status().isBadRequest());
+
+                verifyNoInteractions(taxCalculationService);
+        }
+
         @Test
         @DisplayName("Should calculate batch of dividends")
         void shouldCalculateBatch() throws Exception {
@@ -121,6 +121,29 @@ class DividendStatementControllerTest {
                                         eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 12, 31)));
                 }
 
+                @Test
+                @DisplayName("Should return 200 with the existing statement for a duplicate upload")
+                void shouldReturnExistingStatementForDuplicateUpload() throws Exception {
+                        // Given
+                        MockMultipartFile file = new MockMultipartFile(
+                                        "file",
+                                        "statement.pdf",
+                                        "application/pdf",
+                                        "PDF content".getBytes());
+                        testStatementDTO.setDuplicate(true);
+
+                        when(statementService.uploadStatement(any(), eq(testUserId), any(), any(), any()))
+                                        .thenReturn(testStatementDTO);
+
+                        // When/Then
+                        mockMvc.perform(multipart("/internal/dividend-statements")
+                                        .file(file)
+                                        .header("X-User-Context", getUserContextHeader(testUserId)))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.id").value(statementId.toString()))
+                                        .andExpect(jsonPath("$.duplicate").value(true));
+                }
+
                 // Note: File and parameter validation is handled at OpenAPI generation level
                 // These tests would require specific validation annotations on the generated
                 // API interface
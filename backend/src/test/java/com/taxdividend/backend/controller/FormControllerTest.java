@@ -1,6 +1,7 @@
 package com.taxdividend.backend.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taxdividend.backend.api.dto.FormGenerationJobDto;
 import com.taxdividend.backend.api.dto.FormGenerationRequestDto;
 import com.taxdividend.backend.config.TestSecurityConfig;
 import com.taxdividend.backend.api.dto.GenerateFormResultDto;
@@ -8,6 +9,7 @@ import com.taxdividend.backend.mapper.FormMapper;
 import com.taxdividend.backend.model.GeneratedForm;
 import com.taxdividend.backend.model.User;
 import com.taxdividend.backend.service.AuditService;
+import com.taxdividend.backend.service.FormGenerationJobService;
 import com.taxdividend.backend.service.FormService;
 import com.taxdividend.backend.service.PdfGenerationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +19,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -57,6 +60,9 @@ class FormControllerTest {
         @MockitoBean
         private AuditService auditService;
 
+        @MockitoBean
+        private FormGenerationJobService formGenerationJobService;
+
         private UUID testUserId;
         private User testUser;
         private GeneratedForm testForm;
@@ -218,6 +224,90 @@ class FormControllerTest {
                                 .andExpect(jsonPath("$.errors").isArray());
         }
 
+        @Test
+        @DisplayName("Should accept async generation request")
+        void shouldAcceptAsyncGeneration() throws Exception {
+                // Given
+                FormGenerationRequestDto request = new FormGenerationRequestDto()
+                                .userId(testUserId)
+                                .formType(FormGenerationRequestDto.FormTypeEnum._5000)
+                                .taxYear(2024);
+
+                UUID jobId = UUID.randomUUID();
+                FormGenerationJobDto job = new FormGenerationJobDto()
+                                .jobId(jobId)
+                                .status(FormGenerationJobDto.StatusEnum.QUEUED)
+                                .formType("5000")
+                                .taxYear(2024);
+
+                when(formGenerationJobService.submit(any(FormGenerationRequestDto.class)))
+                                .thenReturn(job);
+
+                // When/Then
+                mockMvc.perform(post("/internal/forms/generate-async")
+                                .header("X-User-Context", getUserContextHeader(testUserId))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isAccepted())
+                                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                                .andExpect(jsonPath("$.status").value("QUEUED"));
+
+                verify(pdfGenerationService, never()).generateForms(any());
+        }
+
+        @Test
+        @DisplayName("Should return 503 when generation queue is full")
+        void shouldRejectAsyncGenerationWhenQueueFull() throws Exception {
+                // Given
+                FormGenerationRequestDto request = new FormGenerationRequestDto()
+                                .userId(testUserId)
+                                .formType(FormGenerationRequestDto.FormTypeEnum._5001)
+                                .taxYear(2024);
+
+                when(formGenerationJobService.submit(any(FormGenerationRequestDto.class)))
+                                .thenThrow(new TaskRejectedException("queue full"));
+
+                // When/Then
+                mockMvc.perform(post("/internal/forms/generate-async")
+                                .header("X-User-Context", getUserContextHeader(testUserId))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isServiceUnavailable());
+        }
+
+        @Test
+        @DisplayName("Should return async job status")
+        void shouldGetFormGenerationJob() throws Exception {
+                // Given
+                UUID jobId = UUID.randomUUID();
+                FormGenerationJobDto job = new FormGenerationJobDto()
+                                .jobId(jobId)
+                                .status(FormGenerationJobDto.StatusEnum.COMPLETED)
+                                .result(new GenerateFormResultDto().success(true).formId(testForm.getId()));
+
+                when(formGenerationJobService.getJob(jobId, testUserId)).thenReturn(Optional.of(job));
+
+                // When/Then
+                mockMvc.perform(get("/internal/forms/jobs/{jobId}", jobId)
+                                .header("X-User-Context", getUserContextHeader(testUserId)))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                                .andExpect(jsonPath("$.result.formId").value(testForm.getId().toString()));
+        }
+
+        @Test
+        @DisplayName("Should return 404 for unknown async job")
+        void shouldReturn404ForUnknownJob() throws Exception {
+                // Given
+                UUID jobId = UUID.randomUUID();
+                when(formGenerationJobService.getJob(jobId, testUserId)).thenReturn(Optional.empty());
+
+                // When/Then
+                mockMvc.perform(get("/internal/forms/jobs/{jobId}", jobId)
+                                .header("X-User-Context", getUserContextHeader(testUserId)))
+                                .andExpect(status().isNotFound());
+        }
+
         @Test
         @DisplayName("Should list user's forms")
         void shouldListUserForms() throws Exception {
@@ -287,7 +377,7 @@ class FormControllerTest {
                                 .contentType(org.springframework.http.MediaType.APPLICATION_PDF)
                                 .body(resource);
 
-                when(formService.downloadForm(formId, testUserId))
+                when(formService.downloadForm(formId, testUserId, null, null))
                                 .thenReturn(response);
 
                 // When/Then
@@ -295,7 +385,7 @@ class FormControllerTest {
                                 .header("X-User-Context", getUserContextHeader(testUserId)))
                                 .andExpect(status().isOk());
 
-                verify(formService).downloadForm(formId, testUserId);
+                verify(formService).downloadForm(formId, testUserId, null, null);
         }
 
         @Test
@@ -311,7 +401,7 @@ class FormControllerTest {
                                 .contentType(org.springframework.http.MediaType.parseMediaType("application/zip"))
                                 .body(resource);
 
-                when(formService.downloadForm(bundleFormId, testUserId))
+                when(formService.downloadForm(bundleFormId, testUserId, null, null))
                                 .thenReturn(response);
 
                 // When/Then
@@ -319,7 +409,7 @@ class FormControllerTest {
                                 .header("X-User-Context", getUserContextHeader(testUserId)))
                                 .andExpect(status().isOk());
 
-                verify(formService).downloadForm(bundleFormId, testUserId);
+                verify(formService).downloadForm(bundleFormId, testUserId, null, null);
         }
 
         @Test
@@ -448,7 +538,7 @@ class FormControllerTest {
                 // Given
                 UUID formId = testForm.getId();
 
-                when(formService.downloadForm(formId, testUserId))
+                when(formService.downloadForm(formId, testUserId, null, null))
                                 .thenReturn(org.springframework.http.ResponseEntity.notFound().build());
 
                 // When/Then
@@ -0,0 +1,95 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.service.ClusterLock;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for ClusterLock on PostgreSQL advisory locks.
+ *
+ * The test data source opens a new connection per call, so two ClusterLock
+ * instances behave like two replicas with separate sessions.
+ */
+@DisplayName("Cluster Lock Tests")
+class ClusterLockTest extends PostgresIntegrationTest {
+
+        private static ClusterLock firstNode;
+        private static ClusterLock secondNode;
+
+        @BeforeAll
+        static void createNodes() {
+                firstNode = new ClusterLock(jdbcTemplate.getDataSource());
+                secondNode = new ClusterLock(jdbcTemplate.getDataSource());
+        }
+
+        @Test
+        @DisplayName("Should let only one node hold a lock until it is released")
+        void shouldExcludeOtherNodeUntilReleased() {
+                // Given
+                Optional<ClusterLock.Lease> held = firstNode.tryAcquire("form-campaign-2024");
+
+                // When/Then
+                assertThat(held).isPresent();
+                assertThat(secondNode.tryAcquire("form-campaign-2024")).isEmpty();
+
+                held.get().close();
+                try (ClusterLock.Lease lease = secondNode.tryAcquire("form-campaign-2024").orElseThrow()) {
+                        assertThat(lease.name()).isEqualTo("form-campaign-2024");
+                }
+        }
+
+        @Test
+        @DisplayName("Should make a blocking acquire wait for the holder to release")
+        void shouldWaitForHolder() throws Exception {
+                // Given
+                ClusterLock.Lease held = firstNode.acquire("tax-rule-changes");
+
+                // When
+                CompletableFuture<ClusterLock.Lease> waiting = CompletableFuture.supplyAsync(
+                                () -> secondNode.acquire("tax-rule-changes"));
+
+                // Then
+                Thread.sleep(300);
+                assertThat(waiting).isNotDone();
+                held.close();
+                try (ClusterLock.Lease lease = waiting.get(5, TimeUnit.SECONDS)) {
+                        assertThat(lease.name()).isEqualTo("tax-rule-changes");
+                }
+        }
+
+        @Test
+        @DisplayName("Should not block locks with another name")
+        void shouldLockNamesIndependently() {
+                try (ClusterLock.Lease campaign = firstNode.tryAcquire("form-campaign-2023").orElseThrow();
+                                ClusterLock.Lease recalculation = secondNode.tryAcquire("tax-rules-changed")
+                                                .orElseThrow()) {
+                        assertThat(campaign.name()).isNotEqualTo(recalculation.name());
+                }
+        }
+
+        @Test
+        @DisplayName("Should release the lock when the holding session ends")
+        void shouldReleaseWhenSessionEnds() {
+                // Given
+                ClusterLock.Lease held = firstNode.tryAcquire("form-campaign-2022").orElseThrow();
+
+                // When - the node dies without unlocking
+                jdbcTemplate.queryForList("""
+                                SELECT pg_terminate_backend(pid, 5000) FROM pg_locks
+                                WHERE locktype = 'advisory' AND granted AND pid <> pg_backend_pid()
+                                """);
+
+                // Then
+                try (ClusterLock.Lease lease = secondNode.tryAcquire("form-campaign-2022").orElseThrow()) {
+                        assertThat(lease.name()).isEqualTo("form-campaign-2022");
+                }
+                held.close();
+        }
+}
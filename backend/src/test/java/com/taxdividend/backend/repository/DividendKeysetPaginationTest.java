@@ -0,0 +1,118 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.api.dto.DividendDto;
+import com.taxdividend.backend.api.dto.PaginatedDividendListDto;
+import com.taxdividend.backend.mapper.DividendMapper;
+import com.taxdividend.backend.service.DividendService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for DividendService.listDividends cursor paging on a
+ * Hibernate-backed DividendRepository.
+ *
+ * Three dividends share a payment date, so page boundaries fall inside a run
+ * of equal dates and the id has to break the tie.
+ */
+@DisplayName("Dividend Keyset Pagination Tests")
+class DividendKeysetPaginationTest extends PostgresIntegrationTest {
+
+        private static final LocalDate SHARED_DATE = LocalDate.of(2024, 5, 31);
+
+        private static UUID userId;
+        private static DividendService dividendService;
+
+        @BeforeAll
+        static void insertDividends() {
+                userId = insertUser();
+                insertDividend(userId, LocalDate.of(2024, 6, 30), "OPEN", "1.00", "10.00");
+                insertDividend(userId, SHARED_DATE, "OPEN", "2.00", "20.00");
+                insertDividend(userId, SHARED_DATE, "SENT", "2.10", "21.00");
+                insertDividend(userId, SHARED_DATE, "PAID", "2.20", "22.00");
+                insertDividend(userId, LocalDate.of(2024, 3, 15), "SENT", "3.00", "30.00");
+                // Another user's dividend on the shared date stays out of every page
+                insertDividend(insertUser(), SHARED_DATE, "OPEN", "2.00", "20.00");
+
+                DividendRepository dividendRepository = repository(DividendRepository.class,
+                                new DividendBatchOperationsImpl(jdbcTemplate));
+                dividendService = new DividendService(dividendRepository, null, null, null,
+                                Mappers.getMapper(DividendMapper.class), null, null, null, null, null);
+        }
+
+        @Test
+        @DisplayName("Should return every dividend once in (payment date, id) order whatever the page size")
+        void shouldPageThroughEqualPaymentDates() {
+                // Given
+                List<UUID> expected = idsInKeysetOrder("");
+
+                // When/Then
+                for (int size = 1; size <= 4; size++) {
+                        assertThat(listAll(null, size)).as("page size %d", size).containsExactlyElementsOf(expected);
+                }
+                assertThat(expected).hasSize(5);
+        }
+
+        @Test
+        @DisplayName("Should stop with no cursor once the last row is returned")
+        void shouldEndWithoutCursor() {
+                // Given: a cursor pointing at the second-to-last row
+                PaginatedDividendListDto first = dividendService.listDividends(userId, PageRequest.of(0, 4),
+                                null, null, null, null);
+
+                // When
+                PaginatedDividendListDto last = dividendService.listDividends(userId, PageRequest.of(0, 4),
+                                null, null, null, first.getNextCursor());
+
+                // Then
+                assertThat(first.getContent()).hasSize(4);
+                assertThat(last.getContent()).extracting(DividendDto::getPaymentDate)
+                                .containsExactly(LocalDate.of(2024, 3, 15));
+                assertThat(last.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should map each status filter and keep it across pages")
+        void shouldFilterByStatusAcrossPages() {
+                assertThat(listAll("open", 1)).containsExactlyElementsOf(idsInKeysetOrder("AND status = 'OPEN'"));
+                assertThat(listAll("SENT", 1)).containsExactlyElementsOf(idsInKeysetOrder("AND status = 'SENT'"));
+                assertThat(listAll("SUBMITTED", 1)).containsExactlyElementsOf(idsInKeysetOrder("AND status = 'SENT'"));
+                assertThat(listAll("APPROVED", 1)).containsExactlyElementsOf(idsInKeysetOrder("AND status = 'PAID'"));
+                assertThat(listAll("PAID", 1)).containsExactlyElementsOf(idsInKeysetOrder("AND status = 'PAID'"));
+                assertThat(listAll("UNSUBMITTED", 2)).containsExactlyElementsOf(idsInKeysetOrder("AND form_id IS NULL"));
+        }
+
+        /**
+         * Follow nextCursor from the first page until it runs out.
+         */
+        private static List<UUID> listAll(String status, int size) {
+                List<UUID> ids = new ArrayList<>();
+                String cursor = null;
+                for (int page = 0; page < 10; page++) {
+                        PaginatedDividendListDto result = dividendService.listDividends(userId, PageRequest.of(0, size),
+                                        null, null, status, cursor);
+                        result.getContent().forEach(dividend -> ids.add(dividend.getId()));
+                        cursor = result.getNextCursor();
+                        if (cursor == null) {
+                                return ids;
+                        }
+                }
+                return fail("Cursor did not run out after 10 pages: " + ids);
+        }
+
+        private static List<UUID> idsInKeysetOrder(String condition) {
+                return jdbcTemplate.queryForList(
+                                "SELECT id FROM dividends WHERE user_id = ? " + condition
+                                                + " ORDER BY payment_date DESC, id DESC",
+                                UUID.class, userId);
+        }
+}
@@ -0,0 +1,105 @@
+package com.taxdividend.backend.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the dividend_stats triggers (V7).
+ */
+@DisplayName("Dividend Stats Trigger Tests")
+class DividendStatsMigrationTest extends PostgresIntegrationTest {
+
+        @Test
+        @DisplayName("Should maintain stats on insert, status change, recalculation and delete")
+        void shouldMaintainStatsIncrementally() {
+                // Given
+                UUID userId = insertUser();
+                UUID first = insertDividend(userId, LocalDate.of(2024, 3, 15), "OPEN", "15.00");
+                insertDividend(userId, LocalDate.of(2024, 9, 1), "OPEN", "10.00");
+                insertDividend(userId, LocalDate.of(2023, 6, 1), "PAID", "7.50");
+
+                assertThat(stats(userId)).containsExactly(
+                                row(2023, "PAID", 1, "7.50"),
+                                row(2024, "OPEN", 2, "25.00"));
+
+                // When - status change and recalculation in one statement
+                jdbcTemplate.update("UPDATE dividends SET status = 'SENT', reclaimable_amount = 12.00 WHERE id = ?",
+                                first);
+
+                // Then
+                assertThat(stats(userId)).containsExactly(
+                                row(2023, "PAID", 1, "7.50"),
+                                row(2024, "OPEN", 1, "10.00"),
+                                row(2024, "SENT", 1, "12.00"));
+
+                // When - delete; the emptied key disappears
+                jdbcTemplate.update("DELETE FROM dividends WHERE id = ?", first);
+
+                // Then
+                assertThat(stats(userId)).containsExactly(
+                                row(2023, "PAID", 1, "7.50"),
+                                row(2024, "OPEN", 1, "10.00"));
+        }
+
+        @Test
+        @DisplayName("Should fold multi-row statements and leave stats untouched by unrelated updates")
+        void shouldHandleBulkStatements() {
+                // Given
+                UUID userId = insertUser();
+                for (int i = 1; i <= 5; i++) {
+                        insertDividend(userId, LocalDate.of(2024, i, 1), "OPEN", "2.00");
+                }
+                Object before = jdbcTemplate.queryForObject(
+                                "SELECT updated_at FROM dividend_stats WHERE user_id = ?", Object.class, userId);
+
+                // When - a column outside the stats changes on every row
+                jdbcTemplate.update("UPDATE dividends SET security_name = 'Renamed' WHERE user_id = ?", userId);
+
+                // Then
+                assertThat(jdbcTemplate.queryForObject(
+                                "SELECT updated_at FROM dividend_stats WHERE user_id = ?", Object.class, userId))
+                                .isEqualTo(before);
+
+                // When - one bulk status change
+                jdbcTemplate.update("UPDATE dividends SET status = 'PAID' WHERE user_id = ?", userId);
+
+                // Then
+                assertThat(stats(userId)).containsExactly(row(2024, "PAID", 5, "10.00"));
+        }
+
+        @Test
+        @DisplayName("Should drop all stats when the user is deleted")
+        void shouldDropStatsWithUser() {
+                // Given
+                UUID userId = insertUser();
+                insertDividend(userId, LocalDate.of(2024, 3, 15), "OPEN", "15.00");
+
+                // When - dividends are removed by ON DELETE CASCADE
+                jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+
+                // Then
+                assertThat(stats(userId)).isEmpty();
+        }
+
+        private static List<Map<String, Object>> stats(UUID userId) {
+                return jdbcTemplate.queryForList("""
+                                SELECT tax_year, status::text AS status, dividend_count, reclaimable_total
+                                FROM dividend_stats
+                                WHERE user_id = ?
+                                ORDER BY tax_year, status
+                                """, userId);
+        }
+
+        private static Map<String, Object> row(int taxYear, String status, long count, String total) {
+                return Map.of("tax_year", taxYear, "status", status, "dividend_count", count,
+                                "reclaimable_total", new BigDecimal(total));
+        }
+}
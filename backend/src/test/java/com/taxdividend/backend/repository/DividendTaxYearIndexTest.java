@@ -0,0 +1,110 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.DividendStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the dividends.tax_year column and its index (V8).
+ *
+ * The year queries run through DividendRepository, and the SQL Hibernate
+ * generated for them is explained as a generic plan. Sequential scans are
+ * disabled for the EXPLAIN so the assertions hold on a small table.
+ */
+@DisplayName("Dividend Tax Year Index Tests")
+class DividendTaxYearIndexTest extends PostgresIntegrationTest {
+
+        private static final String INDEX = "idx_dividends_user_tax_year_status";
+
+        private static UUID userId;
+        private static DividendRepository dividendRepository;
+
+        @BeforeAll
+        static void insertDividends() {
+                userId = insertUser();
+                insertDividend(userId, LocalDate.of(2023, 12, 31), "PAID", "5.00");
+                insertDividend(userId, LocalDate.of(2024, 1, 1), "OPEN", "15.00");
+                insertDividend(userId, LocalDate.of(2024, 6, 30), "SENT", "10.00");
+                jdbcTemplate.execute("VACUUM ANALYZE dividends");
+
+                dividendRepository = repository(DividendRepository.class, new DividendBatchOperationsImpl(jdbcTemplate));
+        }
+
+        @Test
+        @DisplayName("Should generate tax_year from the payment date")
+        void shouldGenerateTaxYear() {
+                assertThat(jdbcTemplate.queryForList(
+                                "SELECT tax_year FROM dividends WHERE user_id = ? ORDER BY payment_date",
+                                Integer.class, userId))
+                                .containsExactly(2023, 2024, 2024);
+        }
+
+        @Test
+        @DisplayName("Should count a user's dividends of a year through the index")
+        void shouldCountByYearThroughIndex() {
+                assertThat(dividendRepository.countByUserIdAndYear(userId, 2024)).isEqualTo(2L);
+                assertThat(explain(lastSql())).contains(INDEX).doesNotContain("Seq Scan");
+        }
+
+        @Test
+        @DisplayName("Should sum reclaimable amounts by year and status through the index")
+        void shouldSumByYearAndStatusThroughIndex() {
+                assertThat(dividendRepository.sumReclaimableByStatusAndYear(userId,
+                                List.of(DividendStatus.OPEN, DividendStatus.SENT), 2024))
+                                .isEqualByComparingTo("25.00");
+                assertThat(explain(lastSql())).contains(INDEX).doesNotContain("Seq Scan");
+        }
+
+        @Test
+        @DisplayName("Should find a year's unsubmitted dividends through the index")
+        void shouldFindUnsubmittedByYearThroughIndex() {
+                assertThat(dividendRepository.findByUserIdAndTaxYearAndFormIsNull(userId, 2023))
+                                .extracting(Dividend::getPaymentDate)
+                                .containsExactly(LocalDate.of(2023, 12, 31));
+                assertThat(explain(lastSql())).contains(INDEX).doesNotContain("Seq Scan");
+        }
+
+        /**
+         * Generic plan of a statement as Hibernate sent it, with its JDBC
+         * placeholders turned into numbered parameters.
+         */
+        private static String explain(String sql) {
+                StringBuilder numbered = new StringBuilder();
+                int parameter = 0;
+                for (char c : sql.toCharArray()) {
+                        if (c == '?') {
+                                numbered.append('$').append(++parameter);
+                        } else {
+                                numbered.append(c);
+                        }
+                }
+
+                return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                        StringBuilder plan = new StringBuilder();
+                        try (Statement statement = connection.createStatement()) {
+                                statement.execute("SET enable_seqscan = off");
+                                try (ResultSet rows = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numbered)) {
+                                        while (rows.next()) {
+                                                plan.append(rows.getString(1)).append('\n');
+                                        }
+                                }
+                        } finally {
+                                try (Statement statement = connection.createStatement()) {
+                                        statement.execute("RESET enable_seqscan");
+                                }
+                        }
+                        return plan.toString();
+                });
+        }
+}
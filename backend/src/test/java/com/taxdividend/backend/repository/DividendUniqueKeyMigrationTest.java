@@ -0,0 +1,144 @@
+package com.taxdividend.backend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the duplicate cleanup of the dividends unique key
+ * migration (V10).
+ *
+ * Each test migrates its own schema up to V9, inserts duplicates the old
+ * imports could create, then runs V10.
+ */
+@DisplayName("Dividend Unique Key Migration Tests")
+class DividendUniqueKeyMigrationTest extends PostgresIntegrationTest {
+
+        private static final LocalDate PAID_ON = LocalDate.of(2024, 5, 31);
+
+        private Flyway flyway;
+        private JdbcTemplate jdbc;
+        private UUID userId;
+        private UUID statementId;
+
+        @BeforeEach
+        void setUp() {
+                String schema = "v10_" + UUID.randomUUID().toString().replace("-", "");
+                DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                                POSTGRES.getJdbcUrl() + "&currentSchema=" + schema,
+                                POSTGRES.getUsername(), POSTGRES.getPassword());
+                flyway = Flyway.configure()
+                                .dataSource(dataSource)
+                                .schemas(schema)
+                                .locations("classpath:db/migration")
+                                .target("9")
+                                .load();
+                flyway.migrate();
+                jdbc = new JdbcTemplate(dataSource);
+
+                userId = UUID.randomUUID();
+                jdbc.update("INSERT INTO users (id, email, password_hash) VALUES (?, ?, 'x')",
+                                userId, userId + "@example.com");
+                statementId = UUID.randomUUID();
+                jdbc.update("""
+                                INSERT INTO dividend_statements (id, user_id, source_file_name, source_file_s3_key,
+                                                                 dividend_count, total_gross_amount, total_reclaimable)
+                                VALUES (?, ?, 'statement.pdf', 'statements/statement.pdf', 3, 300.00, 45.00)
+                                """, statementId, userId);
+        }
+
+        @Test
+        @DisplayName("Should delete unsubmitted copies and recompute the statement aggregates")
+        void shouldDeleteOpenCopiesAndRecomputeStatement() {
+                // Given - one payment imported twice, plus another payment
+                UUID sent = insertDividend("SENT", "100.00", "15.00");
+                UUID copy = insertDividend("OPEN", "100.00", "15.00");
+                UUID other = insertDividend("OPEN", "100.01", "15.00");
+
+                // When
+                migrateToLatest();
+
+                // Then
+                assertThat(jdbc.queryForList("SELECT id FROM dividends", UUID.class))
+                                .containsExactlyInAnyOrder(sent, other)
+                                .doesNotContain(copy);
+                Map<String, Object> statement = jdbc.queryForMap(
+                                "SELECT dividend_count, total_gross_amount, total_reclaimable FROM dividend_statements WHERE id = ?",
+                                statementId);
+                assertThat(statement.get("dividend_count")).isEqualTo(2);
+                assertThat((BigDecimal) statement.get("total_gross_amount")).isEqualByComparingTo("200.01");
+                assertThat((BigDecimal) statement.get("total_reclaimable")).isEqualByComparingTo("30.00");
+        }
+
+        @Test
+        @DisplayName("Should fail with the offending key instead of deleting submitted duplicates")
+        void shouldRefuseToDeleteSubmittedDuplicates() {
+                // Given - both copies went beyond OPEN
+                insertDividend("SENT", "100.00", "15.00");
+                insertDividend("PAID", "100.00", "15.00");
+                insertDividend("OPEN", "100.00", "15.00");
+
+                // When/Then
+                assertThatThrownBy(this::migrateToLatest)
+                                .isInstanceOf(FlywayException.class)
+                                .hasMessageContaining("must be resolved by hand")
+                                .hasMessageContaining("ISIN FR0000120271, paid 2024-05-31, gross 100.00: 2 rows");
+
+                // Rolled back: nothing deleted, statement untouched
+                assertThat(jdbc.queryForObject("SELECT count(*) FROM dividends", Long.class)).isEqualTo(3L);
+                assertThat(jdbc.queryForObject("SELECT total_gross_amount FROM dividend_statements WHERE id = ?",
+                                BigDecimal.class, statementId)).isEqualByComparingTo("300.00");
+        }
+
+        @Test
+        @DisplayName("Should keep an OPEN copy attached to a form")
+        void shouldKeepCopyAttachedToForm() {
+                // Given - the copy on a form wins; the other OPEN one goes
+                UUID formId = UUID.randomUUID();
+                jdbc.update("""
+                                INSERT INTO generated_forms (id, user_id, s3_key, file_name, tax_year, form_type)
+                                VALUES (?, ?, 'forms/5000.pdf', '5000.pdf', 2024, '5000')
+                                """, formId, userId);
+                insertDividend("OPEN", "100.00", "15.00");
+                UUID onForm = insertDividend("OPEN", "100.00", "15.00");
+                jdbc.update("UPDATE dividends SET form_id = ? WHERE id = ?", formId, onForm);
+
+                // When
+                migrateToLatest();
+
+                // Then
+                assertThat(jdbc.queryForList("SELECT id FROM dividends", UUID.class)).containsExactly(onForm);
+        }
+
+        private void migrateToLatest() {
+                Flyway.configure()
+                                .configuration(flyway.getConfiguration())
+                                .target("latest")
+                                .load()
+                                .migrate();
+        }
+
+        private UUID insertDividend(String status, String grossAmount, String reclaimableAmount) {
+                UUID id = UUID.randomUUID();
+                jdbc.update("""
+                                INSERT INTO dividends (id, user_id, statement_id, security_name, isin, payment_date,
+                                                       gross_amount, currency, withholding_tax, withholding_rate,
+                                                       reclaimable_amount, source_country, status)
+                                VALUES (?, ?, ?, 'Total Energies', 'FR0000120271', ?, ?, 'EUR', 25.00, 25.00, ?,
+                                        'FR', ?::dividend_status)
+                                """, id, userId, statementId, PAID_ON, new BigDecimal(grossAmount),
+                                new BigDecimal(reclaimableAmount), status);
+                return id;
+        }
+}
@@ -0,0 +1,105 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.DividendStatus;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendBatchOperations.DividendKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Integration tests for the dividends unique key (V10) and the duplicate-aware
+ * batch operations.
+ */
+@DisplayName("Dividend Unique Key Tests")
+class DividendUniqueKeyTest extends PostgresIntegrationTest {
+
+        private static final String ISIN = "FR0000120271";
+        private static final LocalDate EXISTING_DATE = LocalDate.of(2024, 3, 15);
+
+        private DividendBatchOperationsImpl batchOperations;
+        private UUID userId;
+
+        @BeforeEach
+        void setUp() {
+                batchOperations = new DividendBatchOperationsImpl(jdbcTemplate);
+                ReflectionTestUtils.setField(batchOperations, "batchSize", 2);
+
+                userId = insertUser();
+                insertDividend(userId, EXISTING_DATE, "OPEN", "15.00");
+        }
+
+        @Test
+        @DisplayName("Should insert new rows and skip existing keys and repeats within the import")
+        void shouldSkipDuplicatesOnInsert() {
+                // Given - gross amount 100.0 matches the stored 100.00
+                Dividend existing = dividend(EXISTING_DATE, "100.0");
+                Dividend first = dividend(LocalDate.of(2024, 6, 14), "100.00");
+                Dividend repeat = dividend(LocalDate.of(2024, 6, 14), "100.00");
+                Dividend second = dividend(LocalDate.of(2024, 9, 13), "42.50");
+
+                // When
+                Set<UUID> inserted = batchOperations.insertAllSkippingDuplicates(
+                                List.of(existing, first, repeat, second));
+
+                // Then
+                assertThat(inserted).containsExactlyInAnyOrder(first.getId(), second.getId());
+                assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM dividends WHERE user_id = ?",
+                                Long.class, userId)).isEqualTo(3L);
+        }
+
+        @Test
+        @DisplayName("Should reject a duplicate from a plain insert")
+        void shouldEnforceUniqueKey() {
+                assertThatThrownBy(() -> insertDividend(userId, EXISTING_DATE, "OPEN", "15.00"))
+                                .hasMessageContaining("uq_dividends_user_isin_payment_gross");
+                // Other users may hold the same payment
+                assertThatCode(() -> insertDividend(insertUser(), EXISTING_DATE, "OPEN", "15.00"))
+                                .doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should find existing keys in one query and stream all keys of a user")
+        void shouldFindAndStreamKeys() {
+                // Given
+                DividendKey stored = new DividendKey(ISIN, EXISTING_DATE, new BigDecimal("100"));
+                DividendKey unknown = new DividendKey(ISIN, EXISTING_DATE, new BigDecimal("99.99"));
+
+                // When
+                Set<DividendKey> existing = batchOperations.findExistingKeys(userId, List.of(stored, unknown));
+                List<DividendKey> streamed = new ArrayList<>();
+                batchOperations.forEachKey(userId, streamed::add);
+
+                // Then
+                assertThat(existing).containsExactly(stored);
+                assertThat(streamed).containsExactly(stored);
+        }
+
+        private Dividend dividend(LocalDate paymentDate, String grossAmount) {
+                return Dividend.builder()
+                                .id(UUID.randomUUID())
+                                .user(User.builder().id(userId).build())
+                                .securityName("Total Energies")
+                                .isin(ISIN)
+                                .paymentDate(paymentDate)
+                                .grossAmount(new BigDecimal(grossAmount))
+                                .currency("EUR")
+                                .withholdingTax(new BigDecimal("12.80"))
+                                .withholdingRate(new BigDecimal("12.80"))
+                                .reclaimableAmount(BigDecimal.ZERO)
+                                .sourceCountry("FR")
+                                .status(DividendStatus.OPEN)
+                                .build();
+        }
+}
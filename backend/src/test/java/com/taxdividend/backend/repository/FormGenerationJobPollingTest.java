@@ -0,0 +1,150 @@
+package com.taxdividend.backend.repository;
+
+import com.taxdividend.backend.api.dto.FormGenerationJobDto;
+import com.taxdividend.backend.api.dto.FormGenerationRequestDto;
+import com.taxdividend.backend.dto.FileUploadResultDTO;
+import com.taxdividend.backend.exception.PdfGenerationException;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.service.AuditService;
+import com.taxdividend.backend.service.FormGenerationJobService;
+import com.taxdividend.backend.service.PdfGenerationService;
+import com.taxdividend.backend.service.PdfGenerationService.RenderPlan;
+import com.taxdividend.backend.service.StorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Integration tests for FormGenerationJobService across replicas.
+ *
+ * Two service instances share the database, like two backend nodes: node A
+ * accepts and runs the job, node B only answers polls.
+ */
+@DisplayName("Form Generation Job Polling Tests")
+class FormGenerationJobPollingTest extends PostgresIntegrationTest {
+
+        private final PdfGenerationService pdfGenerationService = mock(PdfGenerationService.class);
+        private final StorageService storageService = mock(StorageService.class);
+        private final List<Runnable> queued = new ArrayList<>();
+
+        private UUID userId;
+        private FormGenerationRequestDto request;
+        private RenderPlan plan;
+
+        @BeforeEach
+        void setUp() {
+                userId = insertUser();
+                request = new FormGenerationRequestDto()
+                                .userId(userId)
+                                .formType(FormGenerationRequestDto.FormTypeEnum._5000)
+                                .taxYear(2024);
+                plan = new RenderPlan(userId, "5000", 2024, "Form_5000_2024.pdf", "forms/2024",
+                                "test@example.com", Map.of(), null, List.of(UUID.randomUUID()));
+                queued.clear();
+        }
+
+        @Test
+        @DisplayName("Should report every stage of a job run by another node")
+        void shouldPollJobRunByAnotherNode() {
+                // Given
+                UUID formId = insertForm("forms/2024/a.pdf");
+                FileUploadResultDTO upload = FileUploadResultDTO.builder().s3Key("forms/2024/a.pdf").build();
+                FormGenerationJobService nodeA = node(queued::add, Duration.ofMinutes(15));
+                FormGenerationJobService nodeB = node(task -> fail("Node B runs no jobs"), Duration.ofMinutes(15));
+
+                when(pdfGenerationService.prepare(request)).thenReturn(plan);
+                when(pdfGenerationService.complete(plan, upload))
+                                .thenReturn(GeneratedForm.builder().id(formId).build());
+                when(storageService.generatePresignedUrl(eq("forms/2024/a.pdf"), any(Duration.class)))
+                                .thenReturn("https://storage/a.pdf");
+
+                // When
+                FormGenerationJobDto submitted = nodeA.submit(request);
+                FormGenerationJobDto queuedOnB = nodeB.getJob(submitted.getJobId(), userId).orElseThrow();
+
+                when(pdfGenerationService.render(plan)).thenAnswer(invocation -> {
+                        assertThat(nodeB.getJob(submitted.getJobId(), userId).orElseThrow().getStatus())
+                                        .isEqualTo(FormGenerationJobDto.StatusEnum.RUNNING);
+                        return upload;
+                });
+                queued.forEach(Runnable::run);
+
+                // Then
+                assertThat(queuedOnB.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.QUEUED);
+                assertThat(queuedOnB.getCreatedAt()).isNotNull();
+
+                FormGenerationJobDto completed = nodeB.getJob(submitted.getJobId(), userId).orElseThrow();
+                assertThat(completed.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.COMPLETED);
+                assertThat(completed.getResult().getFormId()).isEqualTo(formId);
+                assertThat(completed.getResult().getFileName()).isEqualTo("Form_5000_2024.pdf");
+                assertThat(completed.getResult().getDownloadUrl()).isEqualTo("https://storage/a.pdf");
+                assertThat(completed.getResult().getDividendCount()).isEqualTo(1);
+                assertThat(nodeB.getJob(submitted.getJobId(), UUID.randomUUID())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should report the error of a job that failed on another node")
+        void shouldPollFailedJob() {
+                // Given
+                FormGenerationJobService nodeA = node(queued::add, Duration.ofMinutes(15));
+                FormGenerationJobService nodeB = node(task -> fail("Node B runs no jobs"), Duration.ofMinutes(15));
+                when(pdfGenerationService.prepare(request)).thenThrow(new PdfGenerationException("User data incomplete"));
+
+                // When
+                FormGenerationJobDto submitted = nodeA.submit(request);
+                queued.forEach(Runnable::run);
+
+                // Then
+                FormGenerationJobDto failed = nodeB.getJob(submitted.getJobId(), userId).orElseThrow();
+                assertThat(failed.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.FAILED);
+                assertThat(failed.getErrors()).singleElement().asString().contains("User data incomplete");
+                assertThat(failed.getResult()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should fail a job left behind by a node that stopped")
+        void shouldFailAbandonedJob() throws InterruptedException {
+                // Given - node A accepted the job and died before running it
+                FormGenerationJobService nodeA = node(queued::add, Duration.ofMinutes(15));
+                FormGenerationJobService nodeB = node(task -> fail("Node B runs no jobs"), Duration.ofMillis(1));
+                FormGenerationJobDto submitted = nodeA.submit(request);
+                Thread.sleep(10);
+
+                // When
+                nodeB.cleanUpJobs();
+
+                // Then
+                FormGenerationJobDto abandoned = nodeB.getJob(submitted.getJobId(), userId).orElseThrow();
+                assertThat(abandoned.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.FAILED);
+                assertThat(abandoned.getErrors()).singleElement().asString().contains("interrupted");
+        }
+
+        private FormGenerationJobService node(TaskExecutor executor, Duration jobTimeout) {
+                return new FormGenerationJobService(pdfGenerationService, storageService, mock(AuditService.class),
+                                transactionalRepository(FormGenerationJobRepository.class),
+                                transactionalRepository(GeneratedFormRepository.class), transactionManager(),
+                                executor, new SimpleMeterRegistry(), Duration.ofHours(1), jobTimeout);
+        }
+
+        private UUID insertForm(String s3Key) {
+                UUID formId = UUID.randomUUID();
+                jdbcTemplate.update("""
+                                INSERT INTO generated_forms (id, user_id, s3_key, file_name, tax_year, form_type)
+                                VALUES (?, ?, ?, 'Form_5000_2024.pdf', 2024, '5000')
+                                """, formId, userId, s3Key);
+                return formId;
+        }
+}
@@ -0,0 +1,153 @@
+package com.taxdividend.backend.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Base class for repository integration tests against a real PostgreSQL.
+ *
+ * Runs the Flyway migrations once per test class on a Testcontainers
+ * database, without starting the Spring context. Skipped when Docker is not
+ * available. Repositories from {@link #repository} run on Hibernate, and the
+ * SQL it sends is kept in {@link #executedSql} so tests can check the
+ * statements the application really issues. Code that writes through
+ * repositories uses {@link #transactionalRepository} and
+ * {@link #transactionManager}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+abstract class PostgresIntegrationTest {
+
+        @Container
+        static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+        protected static JdbcTemplate jdbcTemplate;
+
+        /** SQL sent by Hibernate, in order. */
+        protected static final List<String> executedSql = new CopyOnWriteArrayList<>();
+
+        private static EntityManagerFactory entityManagerFactory;
+
+        @BeforeAll
+        static void migrate() {
+                DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                                POSTGRES.getJdbcUrl() + "&currentSchema=taxdividend",
+                                POSTGRES.getUsername(), POSTGRES.getPassword());
+                Flyway.configure()
+                                .dataSource(dataSource)
+                                .schemas("taxdividend")
+                                .locations("classpath:db/migration")
+                                .load()
+                                .migrate();
+                jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+
+        @AfterAll
+        static void closeEntityManagerFactory() {
+                if (entityManagerFactory != null) {
+                        entityManagerFactory.close();
+                        entityManagerFactory = null;
+                }
+                executedSql.clear();
+        }
+
+        /**
+         * Spring Data repository on the test database, mapped like the application
+         * does, with the given implementations of its custom fragments.
+         */
+        protected static <R> R repository(Class<R> repositoryInterface, Object... fragments) {
+                return new JpaRepositoryFactory(entityManagerFactory().createEntityManager())
+                                .getRepository(repositoryInterface, RepositoryFragments.just(fragments));
+        }
+
+        /**
+         * Like {@link #repository}, but on a shared entity manager that joins the
+         * transactions of {@link #transactionManager}, as in the application.
+         */
+        protected static <R> R transactionalRepository(Class<R> repositoryInterface) {
+                return new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(
+                                entityManagerFactory())).getRepository(repositoryInterface);
+        }
+
+        /**
+         * Transaction manager on the same entity manager factory as the repositories.
+         */
+        protected static PlatformTransactionManager transactionManager() {
+                return new JpaTransactionManager(entityManagerFactory());
+        }
+
+        private static EntityManagerFactory entityManagerFactory() {
+                if (entityManagerFactory == null) {
+                        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+                        factory.setDataSource(jdbcTemplate.getDataSource());
+                        factory.setPackagesToScan("com.taxdividend.backend.model");
+                        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+                        factory.setJpaPropertyMap(Map.of(
+                                        AvailableSettings.PHYSICAL_NAMING_STRATEGY,
+                                        CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                                        AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                                                executedSql.add(sql);
+                                                return sql;
+                                        }));
+                        factory.afterPropertiesSet();
+                        entityManagerFactory = factory.getObject();
+                }
+                return entityManagerFactory;
+        }
+
+        /**
+         * The last statement Hibernate sent.
+         */
+        protected static String lastSql() {
+                return executedSql.getLast();
+        }
+
+        protected static UUID insertUser() {
+                UUID userId = UUID.randomUUID();
+                jdbcTemplate.update("INSERT INTO users (id, email, password_hash) VALUES (?, ?, 'x')",
+                                userId, userId + "@example.com");
+                return userId;
+        }
+
+        protected static UUID insertDividend(UUID userId, LocalDate paymentDate, String status,
+                        String reclaimableAmount) {
+                return insertDividend(userId, paymentDate, status, reclaimableAmount, "100.00");
+        }
+
+        protected static UUID insertDividend(UUID userId, LocalDate paymentDate, String status,
+                        String reclaimableAmount, String grossAmount) {
+                UUID id = UUID.randomUUID();
+                jdbcTemplate.update("""
+                                INSERT INTO dividends (id, user_id, security_name, isin, payment_date, gross_amount,
+                                                       currency, withholding_tax, withholding_rate, reclaimable_amount,
+                                                       source_country, status)
+                                VALUES (?, ?, 'Total Energies', 'FR0000120271', ?, ?, 'EUR', 30.00, 30.00, ?,
+                                        'FR', ?::dividend_status)
+                                """, id, userId, paymentDate, new BigDecimal(grossAmount), new BigDecimal(reclaimableAmount),
+                                status);
+                return id;
+        }
+}
@@ -0,0 +1,126 @@
+package com.taxdividend.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taxdividend.backend.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InternalApiKeyFilter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Internal API Key Filter Tests")
+class InternalApiKeyFilterTest {
+
+        private static final String API_KEY = "test-api-key";
+
+        @Mock
+        private UserService userService;
+
+        @Mock
+        private FilterChain filterChain;
+
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private UserContextCache userContextCache;
+        private InternalApiKeyFilter filter;
+        private UUID userId;
+
+        @BeforeEach
+        void setUp() {
+                userContextCache = new UserContextCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+                filter = new InternalApiKeyFilter(objectMapper, userService, userContextCache);
+                ReflectionTestUtils.setField(filter, "expectedApiKey", API_KEY);
+                userId = UUID.randomUUID();
+        }
+
+        private MockHttpServletRequest request(UUID userId) throws Exception {
+                UserContext context = new UserContext(userId, "test@example.com", new String[] { "USER" }, "keycloak");
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/dividends");
+                request.addHeader("X-Internal-Api-Key", API_KEY);
+                request.addHeader("X-User-Context",
+                                Base64.getEncoder().encodeToString(objectMapper.writeValueAsBytes(context)));
+                return request;
+        }
+
+        @Test
+        @DisplayName("Should look the user up once and serve repeated requests from cache")
+        void shouldCacheUserResolution() throws Exception {
+                // When
+                for (int i = 0; i < 3; i++) {
+                        MockHttpServletResponse response = new MockHttpServletResponse();
+                        filter.doFilter(request(userId), response, filterChain);
+                        assertThat(response.getStatus()).isEqualTo(200);
+                }
+
+                // Then
+                verify(userService, times(1)).findOrCreateFromSso(any(UserContext.class));
+                verify(filterChain, times(3)).doFilter(any(), any());
+                assertThat(userContextCache.isKnownUser(userId)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should check the database again after invalidation")
+        void shouldReloadAfterInvalidation() throws Exception {
+                // Given
+                filter.doFilter(request(userId), new MockHttpServletResponse(), filterChain);
+
+                // When
+                userContextCache.invalidate(userId);
+                filter.doFilter(request(userId), new MockHttpServletResponse(), filterChain);
+
+                // Then
+                verify(userService, times(2)).findOrCreateFromSso(any(UserContext.class));
+        }
+
+        @Test
+        @DisplayName("Should not cache unregistered users")
+        void shouldNotCacheUnregisteredUsers() throws Exception {
+                // Given
+                when(userService.findOrCreateFromSso(any(UserContext.class)))
+                                .thenThrow(new UserService.UserNotRegisteredException("register first"));
+
+                // When
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request(userId), response, filterChain);
+
+                // Then
+                assertThat(response.getStatus()).isEqualTo(401);
+                assertThat(userContextCache.isKnownUser(userId)).isFalse();
+                verifyNoInteractions(filterChain);
+        }
+
+        @Test
+        @DisplayName("Should reject requests with a wrong API key before using the cache")
+        void shouldRejectInvalidApiKey() throws Exception {
+                // Given
+                filter.doFilter(request(userId), new MockHttpServletResponse(), filterChain);
+                MockHttpServletRequest request = request(userId);
+                request.removeHeader("X-Internal-Api-Key");
+                request.addHeader("X-Internal-Api-Key", "wrong");
+
+                // When
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request, response, filterChain);
+
+                // Then
+                assertThat(response.getStatus()).isEqualTo(401);
+                verify(filterChain, times(1)).doFilter(any(), any());
+        }
+}
@@ -3,12 +3,14 @@ package com.taxdividend.backend.service;
 import com.taxdividend.backend.model.AuditLog;
 import com.taxdividend.backend.model.User;
 import com.taxdividend.backend.repository.AuditLogRepository;
-import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.audit.AuditEvent;
+import com.taxdividend.backend.service.audit.AuditLogWriter;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -33,7 +35,7 @@ class AuditServiceTest {
         private AuditLogRepository auditLogRepository;
 
         @Mock
-        private UserRepository userRepository;
+        private AuditLogWriter auditLogWriter;
 
         @InjectMocks
         private AuditService auditService;
@@ -62,25 +64,18 @@ class AuditServiceTest {
                 String ipAddress = "192.168.1.1";
                 String userAgent = "Mozilla/5.0";
 
-                when(userRepository.findById(testUserId))
-                                .thenReturn(Optional.of(testUser));
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logAction(
+                auditService.logAction(
                                 testUserId, action, entityType, entityId, details, ipAddress, userAgent);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getAction()).isEqualTo(action);
-                assertThat(result.getEntityType()).isEqualTo(entityType);
-                assertThat(result.getEntityId()).isEqualTo(entityId);
-                assertThat(result.getDetails()).isEqualTo(details);
-                assertThat(result.getIpAddress()).isEqualTo(ipAddress);
-                assertThat(result.getUserAgent()).isEqualTo(userAgent);
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = submitted();
+                assertThat(result.action()).isEqualTo(action);
+                assertThat(result.entityType()).isEqualTo(entityType);
+                assertThat(result.entityId()).isEqualTo(entityId);
+                assertThat(result.details()).isEqualTo(details);
+                assertThat(result.ipAddress()).isEqualTo(ipAddress);
+                assertThat(result.userAgent()).isEqualTo(userAgent);
         }
 
         @Test
@@ -91,23 +86,16 @@ class AuditServiceTest {
                 String ipAddress = "192.168.1.1";
                 String userAgent = "Mozilla/5.0";
 
-                when(userRepository.findById(testUserId))
-                                .thenReturn(Optional.of(testUser));
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logLogin(
+                auditService.logLogin(
                                 testUserId, email, true, ipAddress, userAgent);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getAction()).isEqualTo("LOGIN");
-                assertThat(result.getDetails()).containsEntry("email", email);
-                assertThat(result.getDetails()).containsEntry("success", true);
-                assertThat(result.getIpAddress()).isEqualTo(ipAddress);
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = submitted();
+                assertThat(result.action()).isEqualTo("LOGIN");
+                assertThat(result.details()).containsEntry("email", email);
+                assertThat(result.details()).containsEntry("success", true);
+                assertThat(result.ipAddress()).isEqualTo(ipAddress);
         }
 
         @Test
@@ -118,20 +106,16 @@ class AuditServiceTest {
                 String ipAddress = "192.168.1.1";
                 String userAgent = "Mozilla/5.0";
 
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logLogin(
+                auditService.logLogin(
                                 null, email, false, ipAddress, userAgent);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getAction()).isEqualTo("LOGIN_FAILED");
-                assertThat(result.getDetails()).containsEntry("success", false);
-                assertThat(result.getIpAddress()).isEqualTo(ipAddress);
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = written();
+                assertThat(result.action()).isEqualTo("LOGIN_FAILED");
+                assertThat(result.details()).containsEntry("success", false);
+                assertThat(result.ipAddress()).isEqualTo(ipAddress);
+                verify(auditLogWriter, never()).submit(any());
         }
 
         @Test
@@ -140,20 +124,13 @@ class AuditServiceTest {
                 // Given
                 String ipAddress = "192.168.1.1";
 
-                when(userRepository.findById(testUserId))
-                                .thenReturn(Optional.of(testUser));
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logLogout(testUserId, ipAddress);
+                auditService.logLogout(testUserId, ipAddress);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getAction()).isEqualTo("LOGOUT");
-                assertThat(result.getIpAddress()).isEqualTo(ipAddress);
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = submitted();
+                assertThat(result.action()).isEqualTo("LOGOUT");
+                assertThat(result.ipAddress()).isEqualTo(ipAddress);
         }
 
         @Test
@@ -164,24 +141,17 @@ class AuditServiceTest {
                 int dividendCount = 5;
                 boolean success = true;
 
-                when(userRepository.findById(testUserId))
-                                .thenReturn(Optional.of(testUser));
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logPdfParsing(
+                auditService.logPdfParsing(
                                 testUserId, fileName, dividendCount, success);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getAction()).isEqualTo("PDF_PARSED");
-                assertThat(result.getEntityType()).isEqualTo("DIVIDEND");
-                assertThat(result.getDetails()).containsEntry("fileName", fileName);
-                assertThat(result.getDetails()).containsEntry("dividendCount", dividendCount);
-                assertThat(result.getDetails()).containsEntry("success", success);
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = submitted();
+                assertThat(result.action()).isEqualTo("PDF_PARSED");
+                assertThat(result.entityType()).isEqualTo("DIVIDEND");
+                assertThat(result.details()).containsEntry("fileName", fileName);
+                assertThat(result.details()).containsEntry("dividendCount", dividendCount);
+                assertThat(result.details()).containsEntry("success", success);
         }
 
         @Test
@@ -192,24 +162,17 @@ class AuditServiceTest {
                 String formType = "5000";
                 int dividendCount = 3;
 
-                when(userRepository.findById(testUserId))
-                                .thenReturn(Optional.of(testUser));
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logFormGeneration(
+                auditService.logFormGeneration(
                                 testUserId, formId, formType, dividendCount);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getAction()).isEqualTo("FORM_GENERATED");
-                assertThat(result.getEntityType()).isEqualTo("FORM");
-                assertThat(result.getEntityId()).isEqualTo(formId);
-                assertThat(result.getDetails()).containsEntry("formType", formType);
-                assertThat(result.getDetails()).containsEntry("dividendCount", dividendCount);
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = submitted();
+                assertThat(result.action()).isEqualTo("FORM_GENERATED");
+                assertThat(result.entityType()).isEqualTo("FORM");
+                assertThat(result.entityId()).isEqualTo(formId);
+                assertThat(result.details()).containsEntry("formType", formType);
+                assertThat(result.details()).containsEntry("dividendCount", dividendCount);
         }
 
         @Test
@@ -219,23 +182,16 @@ class AuditServiceTest {
                 int dividendCount = 10;
                 String totalReclaimable = "500.00";
 
-                when(userRepository.findById(testUserId))
-                                .thenReturn(Optional.of(testUser));
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logTaxCalculation(
+                auditService.logTaxCalculation(
                                 testUserId, dividendCount, totalReclaimable);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getAction()).isEqualTo("TAX_CALCULATED");
-                assertThat(result.getEntityType()).isEqualTo("DIVIDEND");
-                assertThat(result.getDetails()).containsEntry("dividendCount", dividendCount);
-                assertThat(result.getDetails()).containsEntry("totalReclaimable", totalReclaimable);
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = submitted();
+                assertThat(result.action()).isEqualTo("TAX_CALCULATED");
+                assertThat(result.entityType()).isEqualTo("DIVIDEND");
+                assertThat(result.details()).containsEntry("dividendCount", dividendCount);
+                assertThat(result.details()).containsEntry("totalReclaimable", totalReclaimable);
         }
 
         @Test
@@ -383,44 +339,32 @@ class AuditServiceTest {
         @Test
         @DisplayName("Should handle null user ID gracefully")
         void shouldHandleNullUserIdGracefully() {
-                // Given
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
-
                 // When
-                AuditLog result = auditService.logAction(
+                auditService.logAction(
                                 null, "ACTION", "TYPE", null, null, "192.168.1.1", "Mozilla");
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getUser()).isNull();
-
-                verify(auditLogRepository).save(any(AuditLog.class));
-                verify(userRepository, never()).findById(any());
+                AuditEvent result = submitted();
+                assertThat(result.userId()).isNull();
         }
 
         @Test
-        @DisplayName("Should handle user not found")
+        @DisplayName("Should queue unknown users without a lookup (resolved to NULL on insert)")
         void shouldHandleUserNotFound() {
                 // Given
                 UUID nonExistentUserId = UUID.randomUUID();
-                when(userRepository.findById(nonExistentUserId))
-                                .thenReturn(Optional.empty());
-                when(auditLogRepository.save(any(AuditLog.class)))
-                                .thenAnswer(invocation -> invocation.getArgument(0));
 
                 // When
-                AuditLog result = auditService.logAction(
+                auditService.logAction(
                                 nonExistentUserId, "ACTION", null, null, null, null, null);
 
                 // Then
-                assertThat(result).isNotNull();
-                assertThat(result.getUser()).isNull();
-
-                verify(auditLogRepository).save(any(AuditLog.class));
+                AuditEvent result = submitted();
+                assertThat(result.userId()).isEqualTo(nonExistentUserId);
+                verifyNoInteractions(auditLogRepository);
         }
 
-        // Helper method
+        // Helper methods
         private AuditLog createMockAuditLog(String action) {
                 return AuditLog.builder()
                                 .id(UUID.randomUUID())
@@ -429,4 +373,16 @@ class AuditServiceTest {
                                 .createdAt(LocalDateTime.now())
                                 .build();
         }
+
+        private AuditEvent submitted() {
+                ArgumentCaptor<AuditEvent> captor = ArgumentCaptor.forClass(AuditEvent.class);
+                verify(auditLogWriter).submit(captor.capture());
+                return captor.getValue();
+        }
+
+        private AuditEvent written() {
+                ArgumentCaptor<AuditEvent> captor = ArgumentCaptor.forClass(AuditEvent.class);
+                verify(auditLogWriter).writeNow(captor.capture());
+                return captor.getValue();
+        }
 }
@@ -0,0 +1,524 @@
+package com.taxdividend.backend.service;
+
+import com.taxdividend.backend.api.dto.BulkImportDividendItemDto;
+import com.taxdividend.backend.api.dto.BulkImportDividendsRequestDto;
+import com.taxdividend.backend.api.dto.BulkImportDividendsResponseDto;
+import com.taxdividend.backend.api.dto.PaginatedDividendListDto;
+import com.taxdividend.backend.api.dto.TaxCalculationResultDto;
+import com.taxdividend.backend.mapper.DividendMapper;
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.DividendStatement;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendBatchOperations.DividendKey;
+import com.taxdividend.backend.repository.DividendRepository;
+import com.taxdividend.backend.repository.DividendStatementRepository;
+import com.taxdividend.backend.repository.DividendStatsRepository;
+import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.dividend.DuplicateDividendDetector;
+import com.taxdividend.backend.service.fx.FxRateIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DividendService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DividendService Tests")
+class DividendServiceTest {
+
+        private static final UUID USER_ID = UUID.randomUUID();
+        private static final UUID STATEMENT_ID = UUID.randomUUID();
+
+        private static final String TOTAL_ISIN = "FR0000120271";
+        private static final String LVMH_ISIN = "FR0000121014";
+        private static final String NESTLE_ISIN = "CH0038863350";
+        private static final LocalDate PAID_ON = LocalDate.of(2024, 5, 31);
+
+        @Mock
+        private DividendRepository dividendRepository;
+
+        @Mock
+        private DividendStatementRepository statementRepository;
+
+        @Mock
+        private DividendStatsRepository dividendStatsRepository;
+
+        @Mock
+        private UserRepository userRepository;
+
+        @Mock
+        private DividendMapper dividendMapper;
+
+        @Mock
+        private AuditService auditService;
+
+        @Mock
+        private TaxCalculationService taxCalculationService;
+
+        @Mock
+        private DividendStatementService statementService;
+
+        @Mock
+        private FxRateIndex fxRateIndex;
+
+        private DividendService service;
+
+        @BeforeEach
+        void setUp() {
+                // The real detector, so its Bloom filter is built from the mocked repository
+                DuplicateDividendDetector duplicateDetector = new DuplicateDividendDetector(dividendRepository,
+                                new SimpleMeterRegistry(), 100, Duration.ofHours(1), 0.01);
+
+                service = new DividendService(dividendRepository, statementRepository, dividendStatsRepository,
+                                userRepository, dividendMapper, auditService, taxCalculationService, statementService,
+                                fxRateIndex, duplicateDetector);
+        }
+
+        @Nested
+        @DisplayName("Bulk import")
+        class BulkImport {
+
+                private User user;
+
+                @BeforeEach
+                void setUp() {
+                        user = User.builder().id(USER_ID).country("CH").build();
+                        DividendStatement statement = DividendStatement.builder().id(STATEMENT_ID).user(user).build();
+
+                        lenient().when(statementRepository.findByIdAndUserId(STATEMENT_ID, USER_ID))
+                                        .thenReturn(Optional.of(statement));
+                        lenient().when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
+                        lenient().when(fxRateIndex.snapshot()).thenReturn(FxRateIndex.Snapshot.of(1, List.of(), 7));
+                        lenient().when(fxRateIndex.reportingCurrency()).thenReturn("EUR");
+
+                        // Reclaimable is 10% of gross
+                        lenient().when(taxCalculationService.calculateForDividend(any(Dividend.class), eq("CH")))
+                                        .thenAnswer(invocation -> {
+                                                Dividend dividend = invocation.getArgument(0);
+                                                TaxCalculationResultDto result = new TaxCalculationResultDto();
+                                                result.setReclaimableAmount(dividend.getGrossAmount()
+                                                                .movePointLeft(1).setScale(2, RoundingMode.HALF_UP));
+                                                result.setTreatyRate(new BigDecimal("15.00"));
+                                                return result;
+                                        });
+
+                        // The user has no dividends yet unless a test stores some
+                        lenient().when(dividendRepository.countByUserId(USER_ID)).thenReturn(0L);
+                        lenient().when(dividendRepository.insertAllSkippingDuplicates(anyList()))
+                                        .thenAnswer(invocation -> idsOf(invocation.getArgument(0)));
+                }
+
+                @Test
+                @DisplayName("Should insert a dividend repeated within one import once")
+                void shouldInsertRepeatOnce() {
+                        // Given
+                        BulkImportDividendsRequestDto request = request(
+                                        item(TOTAL_ISIN, "100.00"),
+                                        item(TOTAL_ISIN, "100.00"),
+                                        item(LVMH_ISIN, "50.00"));
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID, request);
+
+                        // Then
+                        assertThat(insertedIsins()).containsExactly(TOTAL_ISIN, LVMH_ISIN);
+                        assertThat(response.getImportedCount()).isEqualTo(2);
+                        assertThat(response.getDuplicateCount()).isEqualTo(1);
+                        assertThat(response.getFailedCount()).isZero();
+                        assertThat(response.getDividendIds()).hasSize(2);
+                }
+
+                @Test
+                @DisplayName("Should query only keys the filter cannot rule out and skip those the database confirms")
+                void shouldSkipStoredDividends() {
+                        // Given: the user already has the TotalEnergies dividend
+                        DividendKey stored = new DividendKey(TOTAL_ISIN, PAID_ON, new BigDecimal("100.00"));
+                        storedKeys(stored);
+                        when(dividendRepository.findExistingKeys(USER_ID, List.of(stored))).thenReturn(Set.of(stored));
+
+                        BulkImportDividendsRequestDto request = request(
+                                        item(TOTAL_ISIN, "100.00"),
+                                        item(LVMH_ISIN, "50.00"));
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID, request);
+
+                        // Then: the new LVMH key was ruled out without a query
+                        verify(dividendRepository).findExistingKeys(USER_ID, List.of(stored));
+                        assertThat(insertedIsins()).containsExactly(LVMH_ISIN);
+                        assertThat(response.getImportedCount()).isEqualTo(1);
+                        assertThat(response.getDuplicateCount()).isEqualTo(1);
+                }
+
+                @Test
+                @DisplayName("Should import a dividend the filter flags when the database no longer has it")
+                void shouldImportKeyNotConfirmedByDatabase() {
+                        // Given: the filter holds a key whose row is gone
+                        DividendKey deleted = new DividendKey(TOTAL_ISIN, PAID_ON, new BigDecimal("100.00"));
+                        storedKeys(deleted);
+                        when(dividendRepository.findExistingKeys(eq(USER_ID), anyCollection())).thenReturn(Set.of());
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID,
+                                        request(item(TOTAL_ISIN, "100.00")));
+
+                        // Then
+                        verify(dividendRepository).findExistingKeys(USER_ID, List.of(deleted));
+                        assertThat(insertedIsins()).containsExactly(TOTAL_ISIN);
+                        assertThat(response.getImportedCount()).isEqualTo(1);
+                        assertThat(response.getDuplicateCount()).isZero();
+                }
+
+                @Test
+                @DisplayName("Should count rows skipped by the unique index as duplicates and leave them out of the totals")
+                void shouldCountConflictsAsDuplicates() {
+                        // Given: a concurrent import committed the Nestle dividend first
+                        when(dividendRepository.insertAllSkippingDuplicates(anyList())).thenAnswer(invocation -> {
+                                List<Dividend> dividends = invocation.getArgument(0);
+                                return idsOf(dividends.stream()
+                                                .filter(dividend -> !NESTLE_ISIN.equals(dividend.getIsin()))
+                                                .toList());
+                        });
+
+                        BulkImportDividendsRequestDto request = request(
+                                        item(TOTAL_ISIN, "100.00"),
+                                        item(LVMH_ISIN, "50.00"),
+                                        item(NESTLE_ISIN, "400.00"),
+                                        item(LVMH_ISIN, "50.00"));
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID, request);
+
+                        // Then: one repeat and one conflict
+                        assertThat(response.getImportedCount()).isEqualTo(2);
+                        assertThat(response.getDuplicateCount()).isEqualTo(2);
+                        assertThat(response.getDividendIds()).hasSize(2);
+                        assertThat(response.getTotalGrossAmount()).isEqualByComparingTo("150.00");
+                        assertThat(response.getTotalReclaimable()).isEqualByComparingTo("15.00");
+                        assertThat(response.getCurrency()).isEqualTo("EUR");
+                        verify(statementService).updateAfterParsing(STATEMENT_ID, 2,
+                                        new BigDecimal("150.00"), new BigDecimal("15.00"));
+                }
+
+                @Test
+                @DisplayName("Should return partial totals flagged but not store them when an FX rate is missing")
+                void shouldNotStorePartialTotals() {
+                        // Given: no USD rates are loaded
+                        BulkImportDividendItemDto usd = item(NESTLE_ISIN, "400.00");
+                        usd.setCurrency("USD");
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID,
+                                        request(item(TOTAL_ISIN, "100.00"), usd));
+
+                        // Then
+                        assertThat(response.getImportedCount()).isEqualTo(2);
+                        assertThat(response.getTotalGrossAmount()).isEqualByComparingTo("100.00");
+                        assertThat(response.getTotalReclaimable()).isEqualByComparingTo("10.00");
+                        assertThat(response.getUnconvertedCount()).isEqualTo(1);
+                        verify(statementService).updateAfterParsing(STATEMENT_ID, 2, null, null);
+                }
+
+                @Test
+                @DisplayName("Should report an import of known dividends as all duplicates")
+                void shouldReportAllDuplicates() {
+                        // Given
+                        DividendKey stored = new DividendKey(TOTAL_ISIN, PAID_ON, new BigDecimal("100.00"));
+                        storedKeys(stored);
+                        when(dividendRepository.findExistingKeys(USER_ID, List.of(stored))).thenReturn(Set.of(stored));
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID,
+                                        request(item(TOTAL_ISIN, "100.00"), item(TOTAL_ISIN, "100.00")));
+
+                        // Then
+                        assertThat(response.getImportedCount()).isZero();
+                        assertThat(response.getDuplicateCount()).isEqualTo(2);
+                        assertThat(response.getTotalGrossAmount()).isEqualByComparingTo("0.00");
+                        verify(statementService).updateAfterParsing(STATEMENT_ID, 0,
+                                        new BigDecimal("0.00"), new BigDecimal("0.00"));
+                }
+
+                @Test
+                @DisplayName("Should report invalid rows by number and still import the valid ones")
+                void shouldReportInvalidRowsAndImportValidOnes() {
+                        // Given: rows 2 and 4 break table constraints
+                        BulkImportDividendItemDto badIsin = item("FR00001", "80.00");
+                        BulkImportDividendItemDto badRate = item(NESTLE_ISIN, "400.00");
+                        badRate.setWithholdingRate(new BigDecimal("135"));
+
+                        BulkImportDividendsRequestDto request = request(
+                                        item(TOTAL_ISIN, "100.00"),
+                                        badIsin,
+                                        item(LVMH_ISIN, "50.00"),
+                                        badRate);
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID, request);
+
+                        // Then
+                        assertThat(response.getFailedCount()).isEqualTo(2);
+                        assertThat(response.getErrors()).containsExactly(
+                                        "Row 2 - Security FR00001 (FR00001): ISIN must be 12 characters",
+                                        "Row 4 - Security CH0038863350 (CH0038863350): "
+                                                        + "Withholding rate must be between 0 and 100");
+                        assertThat(insertedIsins()).containsExactly(TOTAL_ISIN, LVMH_ISIN);
+                        assertThat(response.getImportedCount()).isEqualTo(2);
+                        assertThat(response.getDuplicateCount()).isZero();
+                        verify(taxCalculationService, times(2)).calculateForDividend(any(Dividend.class), eq("CH"));
+                }
+
+                @Test
+                @DisplayName("Should reject each constraint a row can break")
+                void shouldRejectEachInvalidField() {
+                        // Given
+                        BulkImportDividendItemDto noName = item(TOTAL_ISIN, "1.00");
+                        noName.setSecurityName(" ");
+                        BulkImportDividendItemDto longName = item(TOTAL_ISIN, "2.00");
+                        longName.setSecurityName("x".repeat(256));
+                        BulkImportDividendItemDto noDate = item(TOTAL_ISIN, "3.00");
+                        noDate.setPaymentDate(null);
+                        BulkImportDividendItemDto badCurrency = item(TOTAL_ISIN, "4.00");
+                        badCurrency.setCurrency("EURO");
+                        BulkImportDividendItemDto badCountry = item(TOTAL_ISIN, "5.00");
+                        badCountry.setSourceCountry("FRA");
+                        BulkImportDividendItemDto negativeGross = item(TOTAL_ISIN, "-6.00");
+                        BulkImportDividendItemDto negativeTax = item(TOTAL_ISIN, "7.00");
+                        negativeTax.setWithholdingTax(new BigDecimal("-1.00"));
+                        BulkImportDividendItemDto noRate = item(TOTAL_ISIN, "8.00");
+                        noRate.setWithholdingRate(null);
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID, request(
+                                        noName, longName, noDate, badCurrency, badCountry, negativeGross,
+                                        negativeTax, noRate));
+
+                        // Then
+                        assertThat(response.getErrors())
+                                        .extracting(error -> error.substring(error.lastIndexOf(": ") + 2))
+                                        .containsExactly(
+                                                        "Security name is required",
+                                                        "Security name exceeds 255 characters",
+                                                        "Payment date is required",
+                                                        "Currency must be a 3-letter code",
+                                                        "Source country must be a 2-letter code",
+                                                        "Gross amount must be non-negative",
+                                                        "Withholding tax must be non-negative",
+                                                        "Withholding rate must be between 0 and 100");
+                        assertThat(response.getErrors()).allSatisfy(error -> assertThat(error).startsWith("Row "));
+                        assertThat(response.getImportedCount()).isZero();
+                        verifyNoInteractions(taxCalculationService);
+                }
+
+                @Test
+                @DisplayName("Should report a row whose tax calculation fails and import the others")
+                void shouldReportFailedTaxCalculation() {
+                        // Given
+                        when(taxCalculationService.calculateForDividend(
+                                        argThat(dividend -> LVMH_ISIN.equals(dividend.getIsin())), eq("CH")))
+                                        .thenThrow(new IllegalStateException("No tax rule for FR"));
+
+                        // When
+                        BulkImportDividendsResponseDto response = service.bulkImportDividends(USER_ID,
+                                        request(item(TOTAL_ISIN, "100.00"), item(LVMH_ISIN, "50.00")));
+
+                        // Then
+                        assertThat(response.getErrors())
+                                        .containsExactly("Row 2 - Security FR0000121014 (FR0000121014): No tax rule for FR");
+                        assertThat(insertedIsins()).containsExactly(TOTAL_ISIN);
+                        assertThat(response.getImportedCount()).isEqualTo(1);
+                }
+
+                @Test
+                @DisplayName("Should update the statement totals once with the imported rows")
+                void shouldUpdateStatementOnce() {
+                        // Given
+                        BulkImportDividendItemDto invalid = item(NESTLE_ISIN, "400.00");
+                        invalid.setCurrency(null);
+
+                        // When
+                        service.bulkImportDividends(USER_ID, request(
+                                        item(TOTAL_ISIN, "100.00"), invalid, item(LVMH_ISIN, "50.25")));
+
+                        // Then
+                        verify(statementService, times(1)).updateAfterParsing(STATEMENT_ID, 2,
+                                        new BigDecimal("150.25"), new BigDecimal("15.03"));
+                        verifyNoMoreInteractions(statementService);
+                }
+
+                @Test
+                @DisplayName("Should reject an import into another user's statement")
+                void shouldRejectUnknownStatement() {
+                        // Given
+                        UUID otherUser = UUID.randomUUID();
+                        when(statementRepository.findByIdAndUserId(STATEMENT_ID, otherUser)).thenReturn(Optional.empty());
+
+                        // When/Then
+                        assertThatThrownBy(() -> service.bulkImportDividends(otherUser,
+                                        request(item(TOTAL_ISIN, "100.00"))))
+                                        .isInstanceOf(IllegalArgumentException.class)
+                                        .hasMessageContaining("Statement not found");
+                        verify(dividendRepository, never()).insertAllSkippingDuplicates(anyList());
+                        verifyNoInteractions(statementService);
+                }
+
+                @SuppressWarnings("unchecked")
+                private void storedKeys(DividendKey... keys) {
+                        when(dividendRepository.countByUserId(USER_ID)).thenReturn((long) keys.length);
+                        doAnswer(invocation -> {
+                                Consumer<DividendKey> action = invocation.getArgument(1, Consumer.class);
+                                for (DividendKey key : keys) {
+                                        action.accept(key);
+                                }
+                                return null;
+                        }).when(dividendRepository).forEachKey(eq(USER_ID), any());
+                }
+
+                @SuppressWarnings("unchecked")
+                private List<String> insertedIsins() {
+                        ArgumentCaptor<List<Dividend>> captor = ArgumentCaptor.forClass(List.class);
+                        verify(dividendRepository).insertAllSkippingDuplicates(captor.capture());
+                        return captor.getValue().stream().map(Dividend::getIsin).toList();
+                }
+        }
+
+        @Nested
+        @DisplayName("List dividends")
+        class ListDividends {
+
+                @Test
+                @DisplayName("Should return a cursor naming the last row of a page that has a successor")
+                @SuppressWarnings("unchecked")
+                void shouldBuildCursorFromLastRow() {
+                        // Given
+                        Dividend first = Dividend.builder().id(UUID.randomUUID()).paymentDate(PAID_ON).build();
+                        Dividend last = Dividend.builder().id(UUID.randomUUID()).paymentDate(PAID_ON).build();
+                        Page<Dividend> page = new PageImpl<>(List.of(first, last), PageRequest.of(0, 2), 5);
+                        when(dividendRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+                        when(dividendMapper.toPageResponse(page)).thenReturn(new PaginatedDividendListDto());
+
+                        // When
+                        PaginatedDividendListDto result = service.listDividends(USER_ID, PageRequest.of(0, 2),
+                                        null, null, null, null);
+
+                        // Then
+                        String key = new String(Base64.getUrlDecoder().decode(result.getNextCursor()),
+                                        StandardCharsets.UTF_8);
+                        assertThat(key).isEqualTo(PAID_ON + "|" + last.getId());
+                        assertThat(result.getNextCursor()).doesNotContain("=");
+
+                        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+                        verify(dividendRepository).findAll(any(Specification.class), pageable.capture());
+                        assertThat(pageable.getValue().getSort()).isEqualTo(
+                                        Sort.by(Sort.Direction.DESC, "paymentDate", "id"));
+                }
+
+                @Test
+                @DisplayName("Should return no cursor on the last page")
+                @SuppressWarnings("unchecked")
+                void shouldOmitCursorOnLastPage() {
+                        // Given
+                        Page<Dividend> page = new PageImpl<>(
+                                        List.of(Dividend.builder().id(UUID.randomUUID()).paymentDate(PAID_ON).build()),
+                                        PageRequest.of(0, 2), 1);
+                        when(dividendRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(page);
+                        when(dividendMapper.toPageResponse(page)).thenReturn(new PaginatedDividendListDto());
+
+                        // When
+                        PaginatedDividendListDto result = service.listDividends(USER_ID, PageRequest.of(0, 2),
+                                        null, null, null, "");
+
+                        // Then
+                        assertThat(result.getNextCursor()).isNull();
+                }
+
+                @Test
+                @DisplayName("Should reject a malformed cursor")
+                void shouldRejectMalformedCursor() {
+                        String noSeparator = Base64.getUrlEncoder().withoutPadding()
+                                        .encodeToString(PAID_ON.toString().getBytes(StandardCharsets.UTF_8));
+                        String badId = Base64.getUrlEncoder().withoutPadding()
+                                        .encodeToString((PAID_ON + "|42").getBytes(StandardCharsets.UTF_8));
+
+                        for (String cursor : List.of("not a cursor!", noSeparator, badId)) {
+                                assertThatThrownBy(() -> service.listDividends(USER_ID, PageRequest.of(0, 2),
+                                                null, null, null, cursor))
+                                                .isInstanceOf(IllegalArgumentException.class)
+                                                .hasMessage("Invalid cursor: " + cursor);
+                        }
+                        verifyNoInteractions(dividendRepository);
+                }
+
+                @Test
+                @DisplayName("Should reject an unknown status filter")
+                void shouldRejectUnknownStatus() {
+                        assertThatThrownBy(() -> service.listDividends(USER_ID, PageRequest.of(0, 2),
+                                        null, null, "REJECTED", null))
+                                        .isInstanceOf(IllegalArgumentException.class)
+                                        .hasMessage("Unknown status filter: REJECTED");
+                        verifyNoInteractions(dividendRepository);
+                }
+        }
+
+        // ========================================
+        // Private Helper Methods
+        // ========================================
+
+        private static BulkImportDividendsRequestDto request(BulkImportDividendItemDto... items) {
+                BulkImportDividendsRequestDto request = new BulkImportDividendsRequestDto();
+                request.setStatementId(STATEMENT_ID);
+                request.setDividends(List.of(items));
+                return request;
+        }
+
+        private static BulkImportDividendItemDto item(String isin, String grossAmount) {
+                BulkImportDividendItemDto item = new BulkImportDividendItemDto();
+                item.setSecurityName("Security " + isin);
+                item.setIsin(isin);
+                item.setPaymentDate(PAID_ON);
+                item.setGrossAmount(new BigDecimal(grossAmount));
+                item.setCurrency("EUR");
+                item.setWithholdingTax(new BigDecimal(grossAmount).multiply(new BigDecimal("0.25")));
+                item.setWithholdingRate(new BigDecimal("25.00"));
+                item.setSourceCountry(isin.substring(0, 2));
+                return item;
+        }
+
+        private static Set<UUID> idsOf(List<Dividend> dividends) {
+                return dividends.stream().map(Dividend::getId).collect(Collectors.toSet());
+        }
+}
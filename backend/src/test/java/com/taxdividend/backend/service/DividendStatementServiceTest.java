@@ -4,10 +4,12 @@ import com.taxdividend.backend.api.dto.DividendStatementDto;
 import com.taxdividend.backend.api.dto.DividendStatementUpdateDto;
 import com.taxdividend.backend.dto.FileUploadResultDTO;
 import com.taxdividend.backend.exception.StorageException;
+import com.taxdividend.backend.mapper.DividendMapper;
 import com.taxdividend.backend.mapper.DividendStatementMapper;
 import com.taxdividend.backend.model.DividendStatement;
 import com.taxdividend.backend.model.DividendStatementStatus;
 import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendRepository;
 import com.taxdividend.backend.repository.DividendStatementRepository;
 import com.taxdividend.backend.repository.UserRepository;
 import com.taxdividend.backend.api.dto.DividendStatementStatusDto;
@@ -20,12 +22,14 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -49,6 +53,9 @@ class DividendStatementServiceTest {
     @Mock
     private DividendStatementRepository statementRepository;
 
+    @Mock
+    private DividendRepository dividendRepository;
+
     @Mock
     private UserRepository userRepository;
 
@@ -58,6 +65,9 @@ class DividendStatementServiceTest {
     @Mock
     private DividendStatementMapper mapper;
 
+    @Mock
+    private DividendMapper dividendMapper;
+
     @InjectMocks
     private DividendStatementService service;
 
@@ -114,15 +124,20 @@ class DividendStatementServiceTest {
     @DisplayName("Upload Statement Tests")
     class UploadStatementTests {
 
+        // SHA-256 of "PDF content"
+        private static final String PDF_CONTENT_HASH =
+                "7e7f04c8b5646f7ad29b1cb0c8085d4ff9c6b08f2a632f496641b31f524c7b98";
+
         @Test
         @DisplayName("Should upload statement successfully")
-        void shouldUploadStatementSuccessfully() {
+        void shouldUploadStatementSuccessfully() throws Exception {
             // Given
             String broker = "InteractiveBrokers";
             LocalDate periodStart = LocalDate.of(2024, 1, 1);
             LocalDate periodEnd = LocalDate.of(2024, 12, 31);
 
             when(mockFile.isEmpty()).thenReturn(false);
+            when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("PDF content".getBytes()));
             when(mockFile.getOriginalFilename()).thenReturn("statement.pdf");
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
@@ -131,7 +146,7 @@ class DividendStatementServiceTest {
                     .s3Key("statements/statement.pdf")
                     .build();
             when(storageService.uploadFile(mockFile, "statements")).thenReturn(uploadResult);
-            when(statementRepository.save(any(DividendStatement.class))).thenReturn(statement);
+            when(statementRepository.saveAndFlush(any(DividendStatement.class))).thenReturn(statement);
             when(mapper.toDto(statement)).thenReturn(statementDTO);
 
             // When
@@ -141,10 +156,100 @@ class DividendStatementServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getId()).isEqualTo(statementId);
             assertThat(result.getBroker()).isEqualTo(broker);
+            assertThat(result.getDuplicate()).isFalse();
 
+            ArgumentCaptor<DividendStatement> captor = ArgumentCaptor.forClass(DividendStatement.class);
             verify(userRepository).findById(userId);
             verify(storageService).uploadFile(mockFile, "statements");
-            verify(statementRepository).save(any(DividendStatement.class));
+            verify(statementRepository).saveAndFlush(captor.capture());
+            assertThat(captor.getValue().getContentHash()).isEqualTo(PDF_CONTENT_HASH);
+        }
+
+        @Test
+        @DisplayName("Should return the existing statement when the same file is uploaded again")
+        void shouldReturnExistingStatementForDuplicateContent() throws Exception {
+            // Given
+            statement.updateStatus(DividendStatementStatus.PARSED);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(mockFile.isEmpty()).thenReturn(false);
+            when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("PDF content".getBytes()));
+            when(statementRepository.findByUserIdAndContentHash(userId, PDF_CONTENT_HASH))
+                    .thenReturn(Optional.of(statement));
+            when(mapper.toDto(statement)).thenReturn(statementDTO);
+
+            // When
+            DividendStatementDto result = service.uploadStatement(
+                    mockFile, userId, "IB", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+
+            // Then
+            assertThat(result.getId()).isEqualTo(statementId);
+            assertThat(result.getDuplicate()).isTrue();
+            verifyNoInteractions(storageService);
+            verify(statementRepository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("Should resume an identical upload whose statement was never parsed")
+        void shouldResumeUnprocessedStatementForDuplicateContent() throws Exception {
+            // Given
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(mockFile.isEmpty()).thenReturn(false);
+            when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("PDF content".getBytes()));
+            when(statementRepository.findByUserIdAndContentHash(userId, PDF_CONTENT_HASH))
+                    .thenReturn(Optional.of(statement));
+            when(mapper.toDto(statement)).thenReturn(statementDTO);
+
+            // When
+            DividendStatementDto result = service.uploadStatement(
+                    mockFile, userId, "IB", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+
+            // Then
+            assertThat(result.getId()).isEqualTo(statementId);
+            assertThat(result.getDuplicate()).isFalse();
+            verifyNoInteractions(storageService);
+            verify(statementRepository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("Should flag as duplicate a statement whose dividends were imported before parsing completed")
+        void shouldFlagImportedStatementAsDuplicate() throws Exception {
+            // Given
+            statement.setDividendCount(3);
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(mockFile.isEmpty()).thenReturn(false);
+            when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("PDF content".getBytes()));
+            when(statementRepository.findByUserIdAndContentHash(userId, PDF_CONTENT_HASH))
+                    .thenReturn(Optional.of(statement));
+            when(mapper.toDto(statement)).thenReturn(statementDTO);
+
+            // When
+            DividendStatementDto result = service.uploadStatement(
+                    mockFile, userId, "IB", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+
+            // Then
+            assertThat(result.getDuplicate()).isTrue();
+            verifyNoInteractions(storageService);
+        }
+
+        @Test
+        @DisplayName("Should delete the stored file when a concurrent upload wins the unique index")
+        void shouldDeleteStoredFileWhenConcurrentUploadWins() throws Exception {
+            // Given
+            when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+            when(mockFile.isEmpty()).thenReturn(false);
+            when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("PDF content".getBytes()));
+            when(storageService.uploadFile(mockFile, "statements")).thenReturn(FileUploadResultDTO.builder()
+                    .success(true)
+                    .s3Key("statements/copy.pdf")
+                    .build());
+            when(statementRepository.saveAndFlush(any(DividendStatement.class)))
+                    .thenThrow(new DataIntegrityViolationException("uq_dividend_statements_user_content_hash"));
+
+            // When/Then
+            assertThatThrownBy(() -> service.uploadStatement(
+                    mockFile, userId, "IB", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            verify(storageService).deleteFile("statements/copy.pdf");
         }
 
         @Test
@@ -192,10 +297,11 @@ class DividendStatementServiceTest {
 
         @Test
         @DisplayName("Should throw exception when storage upload fails")
-        void shouldThrowExceptionWhenStorageUploadFails() {
+        void shouldThrowExceptionWhenStorageUploadFails() throws Exception {
             // Given
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
             when(mockFile.isEmpty()).thenReturn(false);
+            when(mockFile.getInputStream()).thenReturn(new ByteArrayInputStream("PDF content".getBytes()));
 
             FileUploadResultDTO uploadResult = FileUploadResultDTO.builder()
                     .success(false)
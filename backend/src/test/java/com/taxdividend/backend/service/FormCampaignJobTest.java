@@ -0,0 +1,207 @@
+package com.taxdividend.backend.service;
+
+import com.taxdividend.backend.api.dto.FormGenerationRequestDto;
+import com.taxdividend.backend.dto.FileUploadResultDTO;
+import com.taxdividend.backend.exception.PdfGenerationException;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.model.JobCheckpoint;
+import com.taxdividend.backend.repository.DividendRepository;
+import com.taxdividend.backend.repository.JobCheckpointRepository;
+import com.taxdividend.backend.service.PdfGenerationService.RenderPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FormCampaignJob.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Form Campaign Job Tests")
+class FormCampaignJobTest {
+
+        private static final UUID MIN_UUID = new UUID(0L, 0L);
+        private static final int TAX_YEAR = 2024;
+        private static final String JOB_NAME = FormCampaignJob.JOB_NAME_PREFIX + TAX_YEAR;
+
+        @Mock
+        private PdfGenerationService pdfGenerationService;
+
+        @Mock
+        private StorageService storageService;
+
+        @Mock
+        private AuditService auditService;
+
+        @Mock
+        private DividendRepository dividendRepository;
+
+        @Mock
+        private JobCheckpointRepository checkpointRepository;
+
+        @Mock
+        private ClusterLock clusterLock;
+
+        @Mock
+        private ClusterLock.Lease lease;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        private SimpleMeterRegistry meterRegistry;
+        private FormCampaignJob job;
+
+        @BeforeEach
+        void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                // two users at a time, two users per page
+                job = new FormCampaignJob(pdfGenerationService, storageService, auditService, dividendRepository,
+                                checkpointRepository, clusterLock, transactionManager, meterRegistry, 2, 2);
+
+                lenient().when(clusterLock.tryAcquire(JOB_NAME)).thenReturn(Optional.of(lease));
+                lenient().when(checkpointRepository.save(any(JobCheckpoint.class)))
+                                .thenAnswer(invocation -> invocation.getArgument(0));
+                lenient().when(pdfGenerationService.prepare(any(FormGenerationRequestDto.class)))
+                                .thenAnswer(invocation -> plan(invocation.getArgument(0)));
+                lenient().when(pdfGenerationService.render(any(RenderPlan.class)))
+                                .thenAnswer(invocation -> upload(invocation.getArgument(0)));
+                lenient().when(pdfGenerationService.complete(any(RenderPlan.class), any(FileUploadResultDTO.class)))
+                                .thenAnswer(invocation -> GeneratedForm.builder().id(UUID.randomUUID()).build());
+        }
+
+        @Test
+        @DisplayName("Should generate a bundle per user, record failures and clear the checkpoint")
+        void shouldGenerateBundlesForAllUsers() {
+                UUID first = new UUID(0L, 1L);
+                UUID second = new UUID(0L, 2L);
+                UUID failing = new UUID(0L, 3L);
+                UUID submitted = new UUID(0L, 4L);
+
+                when(checkpointRepository.findById(JOB_NAME)).thenReturn(Optional.empty());
+                when(dividendRepository.countUsersWithUnsubmittedDividendsForYear(TAX_YEAR, MIN_UUID)).thenReturn(4L);
+                when(dividendRepository.findUserIdsWithUnsubmittedDividendsForYear(eq(TAX_YEAR), eq(MIN_UUID), any()))
+                                .thenReturn(List.of(first, second));
+                when(dividendRepository.findUserIdsWithUnsubmittedDividendsForYear(eq(TAX_YEAR), eq(second), any()))
+                                .thenReturn(List.of(failing, submitted));
+                when(dividendRepository.findUserIdsWithUnsubmittedDividendsForYear(eq(TAX_YEAR), eq(submitted), any()))
+                                .thenReturn(List.of());
+                when(dividendRepository.findUnsubmittedIdsByUserIdAndTaxYear(any(UUID.class), eq(TAX_YEAR)))
+                                .thenReturn(List.of(UUID.randomUUID()));
+                when(dividendRepository.findUnsubmittedIdsByUserIdAndTaxYear(submitted, TAX_YEAR))
+                                .thenReturn(List.of());
+                doThrow(new PdfGenerationException("User data incomplete"))
+                                .when(pdfGenerationService).prepare(argThat(request -> failing.equals(request.getUserId())));
+
+                FormCampaignJob.Summary summary = job.run(TAX_YEAR);
+
+                assertThat(summary.formsGenerated()).isEqualTo(2);
+                assertThat(summary.usersFailed()).isEqualTo(1);
+                assertThat(summary.failedUserIds()).containsExactly(failing);
+                assertThat(job.progress().usersCompleted()).isEqualTo(4);
+                assertThat(meterRegistry.get("forms.campaign.users").tag("outcome", "generated")
+                                .counter().count()).isEqualTo(2);
+                assertThat(meterRegistry.get("forms.campaign.users").tag("outcome", "skipped")
+                                .counter().count()).isEqualTo(1);
+                verify(auditService, times(2)).logFormGeneration(any(UUID.class), any(UUID.class), eq("BUNDLE"),
+                                eq(1));
+                verify(checkpointRepository).deleteById(JOB_NAME);
+                verify(lease).close();
+        }
+
+        @Test
+        @DisplayName("Should refuse to run while another node holds the campaign lock")
+        void shouldNotRunWhileLockedElsewhere() {
+                when(clusterLock.tryAcquire(JOB_NAME)).thenReturn(Optional.empty());
+
+                assertThatThrownBy(() -> job.run(TAX_YEAR))
+                                .isInstanceOf(IllegalStateException.class)
+                                .hasMessageContaining("running on another node");
+
+                verifyNoInteractions(checkpointRepository, dividendRepository, pdfGenerationService);
+                assertThat(job.progress().running()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should release the campaign lock when the run fails")
+        void shouldReleaseLockWhenRunFails() {
+                when(checkpointRepository.findById(JOB_NAME)).thenThrow(new IllegalStateException("Connection refused"));
+
+                assertThatThrownBy(() -> job.run(TAX_YEAR)).hasMessage("Connection refused");
+
+                verify(lease).close();
+                assertThat(job.progress().running()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should resume after the checkpointed user")
+        void shouldResumeFromCheckpoint() {
+                UUID lastUserId = UUID.randomUUID();
+                JobCheckpoint checkpoint = JobCheckpoint.builder()
+                                .jobName(JOB_NAME)
+                                .lastKey(lastUserId.toString())
+                                .startedAt(LocalDateTime.now())
+                                .build();
+
+                when(checkpointRepository.findById(JOB_NAME)).thenReturn(Optional.of(checkpoint));
+                when(dividendRepository.findUserIdsWithUnsubmittedDividendsForYear(eq(TAX_YEAR), eq(lastUserId),
+                                any()))
+                                .thenReturn(List.of());
+
+                FormCampaignJob.Summary summary = job.run(TAX_YEAR);
+
+                assertThat(summary.formsGenerated()).isZero();
+                verify(dividendRepository, never()).findUserIdsWithUnsubmittedDividendsForYear(eq(TAX_YEAR),
+                                eq(MIN_UUID), any());
+                verify(dividendRepository).countUsersWithUnsubmittedDividendsForYear(TAX_YEAR, lastUserId);
+        }
+
+        @Test
+        @DisplayName("Should delete the uploaded bundle when recording the form fails")
+        void shouldDeleteOrphanUploadWhenCompleteFails() {
+                UUID userId = UUID.randomUUID();
+
+                when(checkpointRepository.findById(JOB_NAME)).thenReturn(Optional.empty());
+                when(dividendRepository.findUserIdsWithUnsubmittedDividendsForYear(eq(TAX_YEAR), eq(MIN_UUID), any()))
+                                .thenReturn(List.of(userId));
+                when(dividendRepository.findUserIdsWithUnsubmittedDividendsForYear(eq(TAX_YEAR), eq(userId), any()))
+                                .thenReturn(List.of());
+                when(dividendRepository.findUnsubmittedIdsByUserIdAndTaxYear(userId, TAX_YEAR))
+                                .thenReturn(List.of(UUID.randomUUID()));
+                when(pdfGenerationService.complete(any(RenderPlan.class), any(FileUploadResultDTO.class)))
+                                .thenThrow(new IllegalStateException("Connection refused"));
+
+                FormCampaignJob.Summary summary = job.run(TAX_YEAR);
+
+                assertThat(summary.usersFailed()).isEqualTo(1);
+                verify(storageService).deleteFile("bundles/" + userId + ".zip");
+                verify(checkpointRepository).deleteById(JOB_NAME);
+        }
+
+        private static RenderPlan plan(FormGenerationRequestDto request) {
+                return new RenderPlan(request.getUserId(), request.getFormType().getValue(), request.getTaxYear(),
+                                "Bundle.zip", "bundles", "test@example.com", Map.of(), List.of(),
+                                request.getDividendIds());
+        }
+
+        private static FileUploadResultDTO upload(RenderPlan plan) {
+                return FileUploadResultDTO.builder()
+                                .success(true)
+                                .s3Key("bundles/" + plan.userId() + ".zip")
+                                .build();
+        }
+}
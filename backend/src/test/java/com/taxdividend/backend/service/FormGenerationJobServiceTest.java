@@ -0,0 +1,274 @@
+package com.taxdividend.backend.service;
+
+import com.taxdividend.backend.api.dto.FormGenerationJobDto;
+import com.taxdividend.backend.api.dto.FormGenerationRequestDto;
+import com.taxdividend.backend.dto.FileUploadResultDTO;
+import com.taxdividend.backend.exception.PdfGenerationException;
+import com.taxdividend.backend.model.FormGenerationJob;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.repository.FormGenerationJobRepository;
+import com.taxdividend.backend.repository.GeneratedFormRepository;
+import com.taxdividend.backend.service.PdfGenerationService.RenderPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FormGenerationJobService.
+ * Jobs run on a SyncTaskExecutor so the full lifecycle completes inside submit().
+ * The job repository is backed by a map shared by every service instance, like
+ * the table shared by every replica.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Form Generation Job Service Tests")
+class FormGenerationJobServiceTest {
+
+        @Mock
+        private PdfGenerationService pdfGenerationService;
+
+        @Mock
+        private StorageService storageService;
+
+        @Mock
+        private AuditService auditService;
+
+        @Mock
+        private FormGenerationJobRepository jobRepository;
+
+        @Mock
+        private GeneratedFormRepository generatedFormRepository;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        private final Map<UUID, FormGenerationJob> jobTable = new ConcurrentHashMap<>();
+
+        private UUID userId;
+        private FormGenerationRequestDto request;
+        private RenderPlan plan;
+
+        @BeforeEach
+        void setUp() {
+                userId = UUID.randomUUID();
+                request = new FormGenerationRequestDto()
+                                .userId(userId)
+                                .formType(FormGenerationRequestDto.FormTypeEnum._5000)
+                                .taxYear(2024);
+                plan = new RenderPlan(userId, "5000", 2024, "Form_5000_2024.pdf", "forms/2024",
+                                "test@example.com", Map.of(), null, List.of(UUID.randomUUID()));
+
+                lenient().when(jobRepository.save(any(FormGenerationJob.class))).thenAnswer(invocation -> {
+                        FormGenerationJob job = invocation.getArgument(0);
+                        if (job.getId() == null) {
+                                job.setId(UUID.randomUUID());
+                        }
+                        jobTable.put(job.getId(), job);
+                        return job;
+                });
+                lenient().when(jobRepository.findById(any(UUID.class)))
+                                .thenAnswer(invocation -> Optional.ofNullable(jobTable.get(invocation.getArgument(0))));
+                lenient().doAnswer(invocation -> jobTable.remove(invocation.getArgument(0)))
+                                .when(jobRepository).deleteById(any(UUID.class));
+        }
+
+        private FormGenerationJobService service(TaskExecutor executor) {
+                return new FormGenerationJobService(pdfGenerationService, storageService, auditService, jobRepository,
+                                generatedFormRepository, transactionManager, executor, new SimpleMeterRegistry(),
+                                Duration.ofHours(1), Duration.ofMinutes(15));
+        }
+
+        @Test
+        @DisplayName("Should run a job to completion and expose its result")
+        void shouldCompleteJob() {
+                // Given
+                FileUploadResultDTO upload = FileUploadResultDTO.builder().s3Key("forms/2024/a.pdf").build();
+                GeneratedForm form = GeneratedForm.builder()
+                                .id(UUID.randomUUID())
+                                .fileName("Form_5000_2024.pdf")
+                                .s3Key("forms/2024/a.pdf")
+                                .build();
+
+                when(pdfGenerationService.prepare(request)).thenReturn(plan);
+                when(pdfGenerationService.render(plan)).thenReturn(upload);
+                when(pdfGenerationService.complete(plan, upload)).thenReturn(form);
+                when(generatedFormRepository.findById(form.getId())).thenReturn(Optional.of(form));
+                when(storageService.generatePresignedUrl(eq("forms/2024/a.pdf"), any(Duration.class)))
+                                .thenReturn("https://storage/a.pdf");
+
+                FormGenerationJobService service = service(new SyncTaskExecutor());
+
+                // When
+                FormGenerationJobDto submitted = service.submit(request);
+
+                // Then
+                FormGenerationJobDto job = service.getJob(submitted.getJobId(), userId).orElseThrow();
+                assertThat(job.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.COMPLETED);
+                assertThat(job.getResult().getFormId()).isEqualTo(form.getId());
+                assertThat(job.getResult().getDownloadUrl()).isEqualTo("https://storage/a.pdf");
+                assertThat(job.getResult().getFileName()).isEqualTo("Form_5000_2024.pdf");
+                assertThat(job.getResult().getDividendCount()).isEqualTo(1);
+
+                verify(auditService).logFormGeneration(userId, form.getId(), "5000", 1);
+        }
+
+        @Test
+        @DisplayName("Should mark job failed and remove orphaned upload when completion fails")
+        void shouldFailJobAndCleanUpUpload() {
+                // Given
+                FileUploadResultDTO upload = FileUploadResultDTO.builder().s3Key("forms/2024/b.pdf").build();
+
+                when(pdfGenerationService.prepare(request)).thenReturn(plan);
+                when(pdfGenerationService.render(plan)).thenReturn(upload);
+                when(pdfGenerationService.complete(plan, upload)).thenThrow(new RuntimeException("db down"));
+
+                FormGenerationJobService service = service(new SyncTaskExecutor());
+
+                // When
+                FormGenerationJobDto submitted = service.submit(request);
+
+                // Then
+                FormGenerationJobDto job = service.getJob(submitted.getJobId(), userId).orElseThrow();
+                assertThat(job.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.FAILED);
+                assertThat(job.getErrors()).singleElement().asString().contains("db down");
+
+                verify(storageService).deleteFile("forms/2024/b.pdf");
+                verifyNoInteractions(auditService);
+        }
+
+        @Test
+        @DisplayName("Should not delete anything when rendering fails before upload")
+        void shouldFailJobWithoutUpload() {
+                // Given
+                when(pdfGenerationService.prepare(request)).thenReturn(plan);
+                when(pdfGenerationService.render(plan)).thenThrow(new PdfGenerationException("bad template"));
+
+                FormGenerationJobService service = service(new SyncTaskExecutor());
+
+                // When
+                FormGenerationJobDto submitted = service.submit(request);
+
+                // Then
+                assertThat(service.getJob(submitted.getJobId(), userId))
+                                .get()
+                                .extracting(FormGenerationJobDto::getStatus)
+                                .isEqualTo(FormGenerationJobDto.StatusEnum.FAILED);
+                verify(storageService, never()).deleteFile(anyString());
+        }
+
+        @Test
+        @DisplayName("Should hide jobs from other users")
+        void shouldHideOtherUsersJobs() {
+                // Given
+                FormGenerationJobService service = service(task -> {
+                        // Never runs: job stays QUEUED
+                });
+
+                // When
+                FormGenerationJobDto submitted = service.submit(request);
+
+                // Then
+                assertThat(submitted.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.QUEUED);
+                assertThat(service.getJob(submitted.getJobId(), userId)).isPresent();
+                assertThat(service.getJob(submitted.getJobId(), UUID.randomUUID())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should propagate rejection and forget the job when the queue is full")
+        void shouldPropagateRejection() {
+                // Given
+                FormGenerationJobService service = service(task -> {
+                        throw new TaskRejectedException("queue full");
+                });
+
+                // When/Then
+                assertThatThrownBy(() -> service.submit(request))
+                                .isInstanceOf(TaskRejectedException.class);
+                verifyNoInteractions(pdfGenerationService);
+                assertThat(jobTable).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should answer polls on another instance than the one running the job")
+        void shouldPollJobFromAnotherInstance() {
+                // Given - node A accepts and runs the job, node B only answers polls
+                List<Runnable> queued = new ArrayList<>();
+                FormGenerationJobService nodeA = service(queued::add);
+                FormGenerationJobService nodeB = service(task -> fail("Node B runs no jobs"));
+
+                FileUploadResultDTO upload = FileUploadResultDTO.builder().s3Key("forms/2024/c.pdf").build();
+                GeneratedForm form = GeneratedForm.builder()
+                                .id(UUID.randomUUID())
+                                .fileName("Form_5000_2024.pdf")
+                                .s3Key("forms/2024/c.pdf")
+                                .build();
+                when(pdfGenerationService.prepare(request)).thenReturn(plan);
+                when(pdfGenerationService.render(plan)).thenAnswer(invocation -> {
+                        // Mid-render, node B already reports the job as running
+                        assertThat(nodeB.getJob(jobTable.keySet().iterator().next(), userId))
+                                        .get()
+                                        .extracting(FormGenerationJobDto::getStatus)
+                                        .isEqualTo(FormGenerationJobDto.StatusEnum.RUNNING);
+                        return upload;
+                });
+                when(pdfGenerationService.complete(plan, upload)).thenReturn(form);
+                when(generatedFormRepository.findById(form.getId())).thenReturn(Optional.of(form));
+                when(storageService.generatePresignedUrl(eq("forms/2024/c.pdf"), any(Duration.class)))
+                                .thenReturn("https://storage/c.pdf");
+
+                // When
+                FormGenerationJobDto submitted = nodeA.submit(request);
+
+                // Then
+                assertThat(nodeB.getJob(submitted.getJobId(), userId))
+                                .get()
+                                .extracting(FormGenerationJobDto::getStatus)
+                                .isEqualTo(FormGenerationJobDto.StatusEnum.QUEUED);
+
+                queued.forEach(Runnable::run);
+
+                FormGenerationJobDto job = nodeB.getJob(submitted.getJobId(), userId).orElseThrow();
+                assertThat(job.getStatus()).isEqualTo(FormGenerationJobDto.StatusEnum.COMPLETED);
+                assertThat(job.getResult().getFormId()).isEqualTo(form.getId());
+                assertThat(job.getResult().getDownloadUrl()).isEqualTo("https://storage/c.pdf");
+        }
+
+        @Test
+        @DisplayName("Should fail jobs not updated within the timeout and delete expired ones")
+        void shouldCleanUpJobs() {
+                // Given
+                FormGenerationJobService service = service(new SyncTaskExecutor());
+                when(jobRepository.updateStageNotUpdatedSince(anyCollection(), any(), eq(FormGenerationJob.Stage.FAILED),
+                                anyString())).thenReturn(1);
+
+                // When
+                service.cleanUpJobs();
+
+                // Then
+                verify(jobRepository).updateStageNotUpdatedSince(
+                                argThat(stages -> !stages.contains(FormGenerationJob.Stage.COMPLETED)
+                                                && !stages.contains(FormGenerationJob.Stage.FAILED)
+                                                && stages.contains(FormGenerationJob.Stage.RENDERING)),
+                                any(), eq(FormGenerationJob.Stage.FAILED), contains("interrupted"));
+                verify(jobRepository).deleteNotUpdatedSince(any());
+        }
+}
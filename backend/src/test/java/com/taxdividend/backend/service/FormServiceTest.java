@@ -0,0 +1,256 @@
+package com.taxdividend.backend.service;
+
+import com.taxdividend.backend.mapper.FormMapper;
+import com.taxdividend.backend.model.GeneratedForm;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.GeneratedFormRepository;
+import io.minio.StatObjectResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FormService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Form Service Tests")
+class FormServiceTest {
+
+        private static final UUID USER_ID = UUID.randomUUID();
+        private static final UUID FORM_ID = UUID.randomUUID();
+        private static final String S3_KEY = "forms/5000_2024.pdf";
+        private static final long SIZE = 1_000;
+        private static final String ETAG = "\"d41d8cd98f00b204e9800998ecf8427e\"";
+
+        @Mock
+        private GeneratedFormRepository generatedFormRepository;
+
+        @Mock
+        private StorageService storageService;
+
+        @Mock
+        private AuditService auditService;
+
+        @Mock
+        private FormMapper mapper;
+
+        @Mock
+        private StatObjectResponse stat;
+
+        @InjectMocks
+        private FormService formService;
+
+        @BeforeEach
+        void setUp() {
+                User user = User.builder().id(USER_ID).build();
+                GeneratedForm form = GeneratedForm.builder()
+                                .id(FORM_ID)
+                                .user(user)
+                                .s3Key(S3_KEY)
+                                .fileName("5000_2024.pdf")
+                                .formType("5000")
+                                .build();
+
+                lenient().when(generatedFormRepository.findById(FORM_ID)).thenReturn(Optional.of(form));
+                lenient().when(storageService.statFile(S3_KEY)).thenReturn(stat);
+                lenient().when(stat.size()).thenReturn(SIZE);
+                lenient().when(stat.etag()).thenReturn("d41d8cd98f00b204e9800998ecf8427e");
+        }
+
+        @Test
+        @DisplayName("Should stream the whole file and audit the download")
+        void shouldDownloadWholeFile() throws Exception {
+                // Given
+                InputStream content = new ByteArrayInputStream(new byte[(int) SIZE]);
+                when(storageService.downloadFile(S3_KEY)).thenReturn(content);
+
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, null, null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(response.getHeaders().getContentLength()).isEqualTo(SIZE);
+                assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+                assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+                assertThat(response.getBody().getInputStream()).isSameAs(content);
+                verify(auditService).logAction(USER_ID, "FORM_DOWNLOADED", "FORM", FORM_ID, null, null, null);
+                verify(storageService, never()).downloadFileRange(anyString(), anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should answer a range with 206 and Content-Range without auditing a resumed chunk")
+        void shouldDownloadRange() {
+                // Given
+                when(storageService.downloadFileRange(S3_KEY, 100, 100))
+                                .thenReturn(new ByteArrayInputStream(new byte[100]));
+
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, "bytes=100-199", null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+                assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-199/1000");
+                assertThat(response.getHeaders().getContentLength()).isEqualTo(100);
+                verify(storageService, never()).downloadFile(anyString());
+                verifyNoInteractions(auditService);
+        }
+
+        @Test
+        @DisplayName("Should audit a range download that starts at the first byte")
+        void shouldAuditRangeFromStart() {
+                // Given
+                when(storageService.downloadFileRange(S3_KEY, 0, SIZE))
+                                .thenReturn(new ByteArrayInputStream(new byte[(int) SIZE]));
+
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, "bytes=0-", null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+                assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-999/1000");
+                verify(auditService).logAction(USER_ID, "FORM_DOWNLOADED", "FORM", FORM_ID, null, null, null);
+        }
+
+        @Test
+        @DisplayName("Should serve a suffix range from the end of the file")
+        void shouldDownloadSuffixRange() {
+                // Given
+                when(storageService.downloadFileRange(S3_KEY, 900, 100))
+                                .thenReturn(new ByteArrayInputStream(new byte[100]));
+
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, "bytes=-100", null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+                assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 900-999/1000");
+                verifyNoInteractions(auditService);
+        }
+
+        @Test
+        @DisplayName("Should coalesce several ranges into their span")
+        void shouldCoalesceRanges() {
+                // Given
+                when(storageService.downloadFileRange(S3_KEY, 100, 400))
+                                .thenReturn(new ByteArrayInputStream(new byte[400]));
+
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID,
+                                "bytes=300-499, 100-199", null);
+
+                // Then
+                assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 100-499/1000");
+                assertThat(response.getHeaders().getContentLength()).isEqualTo(400);
+        }
+
+        @Test
+        @DisplayName("Should answer 416 for a range past the end of the file")
+        void shouldRejectUnsatisfiableRange() {
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, "bytes=1000-", null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+                verify(storageService, never()).downloadFileRange(anyString(), anyLong(), anyLong());
+                verifyNoInteractions(auditService);
+        }
+
+        @Test
+        @DisplayName("Should answer 416 for an empty suffix range")
+        void shouldRejectEmptySuffixRange() {
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, "bytes=-0", null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+                verify(storageService, never()).downloadFileRange(anyString(), anyLong(), anyLong());
+                verifyNoInteractions(auditService);
+        }
+
+        @Test
+        @DisplayName("Should answer 416 for a malformed range")
+        void shouldRejectMalformedRange() {
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, "pages=1-2", null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+                verify(storageService, never()).downloadFile(anyString());
+        }
+
+        @Test
+        @DisplayName("Should answer 304 when If-None-Match holds the current ETag")
+        void shouldReturnNotModified() {
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, "bytes=0-",
+                                "\"stale\", W/" + ETAG);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+                assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+                assertThat(response.getBody()).isNull();
+                verify(storageService, never()).downloadFile(anyString());
+                verify(storageService, never()).downloadFileRange(anyString(), anyLong(), anyLong());
+                verifyNoInteractions(auditService);
+        }
+
+        @Test
+        @DisplayName("Should download again when If-None-Match holds another ETag")
+        void shouldDownloadOnStaleEtag() {
+                // Given
+                when(storageService.downloadFile(S3_KEY)).thenReturn(new ByteArrayInputStream(new byte[(int) SIZE]));
+
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, null, "\"stale\"");
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+
+        @Test
+        @DisplayName("Should answer 404 for another user's form without touching storage")
+        void shouldHideOtherUsersForm() {
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, UUID.randomUUID(), null, null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+                verifyNoInteractions(storageService, auditService);
+        }
+
+        @Test
+        @DisplayName("Should answer 500 when the file cannot be read from storage")
+        void shouldFailWhenStorageFails() {
+                // Given
+                when(storageService.statFile(any())).thenThrow(new RuntimeException("bucket unavailable"));
+
+                // When
+                ResponseEntity<Resource> response = formService.downloadForm(FORM_ID, USER_ID, null, null);
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+                verifyNoInteractions(auditService);
+        }
+}
@@ -14,6 +14,10 @@ import com.taxdividend.backend.repository.UserRepository;
 import com.taxdividend.backend.service.pdf.PdfFormFiller;
 import com.taxdividend.backend.service.pdf.Form5000FieldMapper;
 import com.taxdividend.backend.service.pdf.Form5001FieldMapper;
+import com.taxdividend.backend.service.pdf.FormContentHasher;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,17 +28,23 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -68,6 +78,9 @@ class PdfGenerationServiceTest {
         @Mock
         private Form5001FieldMapper form5001Mapper;
 
+        @Mock
+        private FormContentHasher formContentHasher;
+
         @InjectMocks
         private PdfGenerationService pdfGenerationService;
 
@@ -102,10 +115,14 @@ class PdfGenerationServiceTest {
 
                 lenient().when(form5000Mapper.mapToFormFields(any(User.class), anyInt()))
                                 .thenReturn(mockFieldValues);
-                lenient().when(form5001Mapper.mapToFormFields(any(User.class), anyList(), anyInt()))
-                                .thenReturn(mockFieldValues);
-                lenient().when(pdfFormFiller.fillPdfForm(anyString(), anyMap(), anyBoolean()))
-                                .thenReturn("MOCK PDF CONTENT".getBytes());
+                lenient().when(form5001Mapper.mapToFormPages(any(User.class), anyList(), anyInt()))
+                                .thenReturn(List.of(mockFieldValues));
+                lenient().when(pdfFormFiller.fillForm(anyString(), anyMap(), anyBoolean()))
+                                .thenAnswer(invocation -> blankDocument());
+                lenient().when(pdfFormFiller.fillPages(anyString(), anyInt(), anyList()))
+                                .thenAnswer(invocation -> blankDocument());
+                lenient().when(formContentHasher.hash(anyString(), any(), any()))
+                                .thenReturn("content-hash");
         }
 
         @Test
@@ -144,6 +161,111 @@ class PdfGenerationServiceTest {
                 verify(generatedFormRepository).save(any(GeneratedForm.class));
         }
 
+        @Test
+        @DisplayName("Should stream the rendered Form 5000 into storage and close it")
+        void shouldStreamRenderedFormIntoStorage() throws Exception {
+                // Given
+                PDDocument document = blankDocument();
+                when(pdfFormFiller.fillForm(anyString(), anyMap(), anyBoolean())).thenReturn(document);
+                List<Integer> uploadedPages = new ArrayList<>();
+                when(storageService.uploadFile(any(), anyString(), eq("application/pdf"), eq("forms")))
+                                .thenAnswer(invocation -> {
+                                        InputStream in = invocation.getArgument(0);
+                                        try (PDDocument uploaded = Loader.loadPDF(in.readAllBytes())) {
+                                                uploadedPages.add(uploaded.getNumberOfPages());
+                                        }
+                                        return FileUploadResultDTO.builder()
+                                                        .success(true)
+                                                        .s3Key("forms/2024/12/form-5000.pdf")
+                                                        .build();
+                                });
+                PdfGenerationService.RenderPlan plan = new PdfGenerationService.RenderPlan(testUser.getId(),
+                                "5000", 2024, "Form_5000_test@example.com_2024.pdf", "forms",
+                                testUser.getEmail(), Map.of("test", "value"), null, List.of());
+
+                // When
+                FileUploadResultDTO result = pdfGenerationService.render(plan);
+
+                // Then
+                assertThat(result.getS3Key()).isEqualTo("forms/2024/12/form-5000.pdf");
+                assertThat(uploadedPages).containsExactly(1);
+                assertThat(document.getDocument().isClosed()).isTrue();
+                verify(storageService, never()).deleteFile(anyString());
+        }
+
+        @Test
+        @DisplayName("Should reuse a stored Form 5000 with unchanged content")
+        void shouldReuseStoredForm5000WithSameContentHash() throws Exception {
+                // Given
+                Integer taxYear = 2024;
+                GeneratedForm storedForm = GeneratedForm.builder()
+                                .id(UUID.randomUUID())
+                                .user(testUser)
+                                .formType("5000")
+                                .taxYear(taxYear)
+                                .s3Key("forms/2024/12/form-5000.pdf")
+                                .contentHash("content-hash")
+                                .expiresAt(LocalDateTime.now().plusDays(2))
+                                .build();
+
+                when(generatedFormRepository.findFirstByUserIdAndFormTypeAndContentHashAndExpiresAtAfterOrderByCreatedAtDesc(
+                                eq(testUser.getId()), eq("5000"), eq("content-hash"), any(LocalDateTime.class)))
+                                .thenReturn(Optional.of(storedForm));
+                when(storageService.fileExists("forms/2024/12/form-5000.pdf")).thenReturn(true);
+                when(storageService.generatePresignedUrl(anyString(), any(Duration.class)))
+                                .thenReturn("https://minio.example.com/presigned-url");
+                when(generatedFormRepository.save(any(GeneratedForm.class)))
+                                .thenAnswer(invocation -> invocation.getArgument(0));
+
+                // When
+                GenerateFormResultDto result = pdfGenerationService.generateForm5000(testUser, taxYear);
+
+                // Then
+                assertThat(result.getSuccess()).isTrue();
+                assertThat(result.getFormId()).isEqualTo(storedForm.getId());
+                assertThat(storedForm.getExpiresAt()).isAfter(LocalDateTime.now().plusDays(29));
+
+                verify(pdfFormFiller, never()).fillForm(anyString(), anyMap(), anyBoolean());
+                verify(storageService, never()).uploadFile(any(InputStream.class), anyString(), anyString(),
+                                anyString());
+        }
+
+        @Test
+        @DisplayName("Should render again when the stored form's object is gone")
+        void shouldRenderAgainWhenStoredObjectMissing() {
+                // Given
+                Integer taxYear = 2024;
+                GeneratedForm storedForm = GeneratedForm.builder()
+                                .id(UUID.randomUUID())
+                                .user(testUser)
+                                .formType("5000")
+                                .s3Key("forms/2024/12/deleted.pdf")
+                                .contentHash("content-hash")
+                                .expiresAt(LocalDateTime.now().plusDays(2))
+                                .build();
+
+                when(generatedFormRepository.findFirstByUserIdAndFormTypeAndContentHashAndExpiresAtAfterOrderByCreatedAtDesc(
+                                any(UUID.class), anyString(), anyString(), any(LocalDateTime.class)))
+                                .thenReturn(Optional.of(storedForm));
+                when(storageService.fileExists("forms/2024/12/deleted.pdf")).thenReturn(false);
+                when(storageService.uploadFile(any(), anyString(), anyString(), anyString()))
+                                .thenReturn(FileUploadResultDTO.builder()
+                                                .success(true)
+                                                .s3Key("forms/2024/12/form-5000.pdf")
+                                                .build());
+                when(storageService.generatePresignedUrl(anyString(), any(Duration.class)))
+                                .thenReturn("https://minio.example.com/presigned-url");
+                when(generatedFormRepository.save(any(GeneratedForm.class)))
+                                .thenAnswer(invocation -> invocation.getArgument(0));
+
+                // When
+                pdfGenerationService.generateForm5000(testUser, taxYear);
+
+                // Then
+                verify(generatedFormRepository).save(argThat(form -> "forms/2024/12/form-5000.pdf"
+                                .equals(form.getS3Key()) && "content-hash".equals(form.getContentHash())));
+        }
+
         @Test
         @DisplayName("Should generate Form 5001 successfully")
         void shouldGenerateForm5001Successfully() {
@@ -190,9 +312,13 @@ class PdfGenerationServiceTest {
                                 .s3Key("bundles/2024/12/bundle.zip")
                                 .fileSize(5120L)
                                 .build();
+                List<String> zipEntries = new ArrayList<>();
 
-                when(storageService.uploadFile(any(), anyString(), anyString(), anyString()))
-                                .thenReturn(uploadResult);
+                when(storageService.uploadFile(any(), anyString(), eq("application/zip"), eq("bundles")))
+                                .thenAnswer(invocation -> {
+                                        zipEntries.addAll(readZipEntries(invocation.getArgument(0)));
+                                        return uploadResult;
+                                });
                 when(storageService.generatePresignedUrl(anyString(), any(Duration.class)))
                                 .thenReturn("https://minio.example.com/presigned-url");
                 when(generatedFormRepository.save(any(GeneratedForm.class)))
@@ -210,11 +336,67 @@ class PdfGenerationServiceTest {
                 assertThat(result.getFormType()).isEqualTo("BUNDLE");
                 assertThat(result.getDividendCount()).isEqualTo(2);
                 assertThat(result.getDownloadUrl()).isNotNull();
+                assertThat(zipEntries).containsExactly(
+                                "Form_5000_test@example.com_2024.pdf",
+                                "Form_5001_test@example.com_2024.pdf");
 
                 verify(storageService).uploadFile(any(InputStream.class), anyString(), anyString(), anyString());
                 verify(generatedFormRepository).save(any(GeneratedForm.class));
         }
 
+        @Test
+        @DisplayName("Should render both BUNDLE forms concurrently")
+        void shouldRenderBundleFormsConcurrently() throws Exception {
+                // Given: each form only completes once the other one has started
+                CountDownLatch bothStarted = new CountDownLatch(2);
+                when(pdfFormFiller.fillForm(anyString(), anyMap(), anyBoolean())).thenAnswer(invocation -> {
+                        bothStarted.countDown();
+                        assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+                        return blankDocument();
+                });
+                when(pdfFormFiller.fillPages(anyString(), anyInt(), anyList())).thenAnswer(invocation -> {
+                        bothStarted.countDown();
+                        assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+                        return blankDocument();
+                });
+                when(storageService.uploadFile(any(), anyString(), anyString(), anyString()))
+                                .thenAnswer(invocation -> {
+                                        readZipEntries(invocation.getArgument(0));
+                                        return FileUploadResultDTO.builder()
+                                                        .success(true)
+                                                        .s3Key("bundles/2024/12/bundle.zip")
+                                                        .build();
+                                });
+                PdfGenerationService.RenderPlan plan = new PdfGenerationService.RenderPlan(testUser.getId(),
+                                "BUNDLE", 2024, "Bundle_test@example.com_2024.zip", "bundles",
+                                testUser.getEmail(), Map.of("test", "value"), List.of(Map.of("test", "value")),
+                                List.of());
+
+                // When
+                FileUploadResultDTO result = pdfGenerationService.render(plan);
+
+                // Then
+                assertThat(result.getS3Key()).isEqualTo("bundles/2024/12/bundle.zip");
+                assertThat(bothStarted.getCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not upload a BUNDLE when one form fails to render")
+        void shouldNotUploadBundleWhenRenderingFails() throws Exception {
+                // Given
+                when(pdfFormFiller.fillPages(anyString(), anyInt(), anyList()))
+                                .thenThrow(new IOException("Template corrupted"));
+
+                // When/Then
+                assertThatThrownBy(() -> pdfGenerationService.generateBundle(testUser, testDividends, 2024))
+                                .isInstanceOf(PdfGenerationException.class)
+                                .hasStackTraceContaining("Template corrupted");
+
+                verify(storageService, never()).uploadFile(any(InputStream.class), anyString(), anyString(),
+                                anyString());
+                verify(generatedFormRepository, never()).save(any(GeneratedForm.class));
+        }
+
         @Test
         @DisplayName("Should throw exception when user data incomplete for Form 5000")
         void shouldThrowExceptionWhenUserDataIncomplete() {
@@ -412,6 +594,27 @@ class PdfGenerationServiceTest {
                 verify(dividendRepository, times(2)).save(any(Dividend.class));
         }
 
+        private static List<String> readZipEntries(InputStream in) throws IOException {
+                List<String> names = new ArrayList<>();
+                try (ZipInputStream zip = new ZipInputStream(in)) {
+                        ZipEntry entry;
+                        while ((entry = zip.getNextEntry()) != null) {
+                                names.add(entry.getName());
+                                // Each form is saved straight into its entry and must parse on its own
+                                try (PDDocument document = Loader.loadPDF(zip.readAllBytes())) {
+                                        assertThat(document.getNumberOfPages()).isEqualTo(1);
+                                }
+                        }
+                }
+                return names;
+        }
+
+        private static PDDocument blankDocument() {
+                PDDocument document = new PDDocument();
+                document.addPage(new PDPage());
+                return document;
+        }
+
         // Helper method
         private Dividend createTestDividend(String isin, String name,
                         String gross, String withholding, String reclaimable) {
@@ -2,24 +2,31 @@ package com.taxdividend.backend.service;
 
 import com.taxdividend.backend.dto.FileUploadResultDTO;
 import com.taxdividend.backend.exception.StorageException;
+import com.taxdividend.backend.service.storage.MinioMultipartClient;
+import com.taxdividend.backend.service.storage.PartBufferPool;
 
 import io.minio.*;
 import io.minio.messages.DeleteError;
 import io.minio.messages.Item;
+import io.minio.messages.Part;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +43,13 @@ class StorageServiceTest {
         @Mock
         private MinioClient minioClient;
 
+        @Mock
+        private MinioMultipartClient multipartClient;
+
+        @Spy
+        private PartBufferPool partBufferPool = new PartBufferPool(PartBufferPool.MIN_PART_SIZE, 2,
+                        Duration.ofSeconds(1));
+
         @InjectMocks
         private StorageService storageService;
 
@@ -146,6 +160,94 @@ class StorageServiceTest {
                 assertThat(result.getFileSize()).isEqualTo(content.length);
 
                 verify(minioClient).putObject(any(PutObjectArgs.class));
+                verifyNoInteractions(multipartClient);
+                verify(partBufferPool, never()).acquire();
+        }
+
+        @Test
+        @DisplayName("Should send a stream smaller than one part with a single PUT from a pooled buffer")
+        void shouldUploadMediumInputStreamWithSinglePut() throws Exception {
+                // Given: larger than the first chunk, smaller than a part
+                byte[] content = new byte[200 * 1024];
+                content[content.length - 1] = 42;
+                List<byte[]> sent = new ArrayList<>();
+                when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+                        PutObjectArgs args = invocation.getArgument(0);
+                        sent.add(args.stream().readAllBytes());
+                        return mock(ObjectWriteResponse.class);
+                });
+
+                // When
+                FileUploadResultDTO result = storageService.uploadFile(
+                                new ByteArrayInputStream(content), "form.pdf", "application/pdf", "forms");
+
+                // Then
+                assertThat(result.getSuccess()).isTrue();
+                assertThat(result.getFileSize()).isEqualTo(content.length);
+                assertThat(sent).singleElement().isEqualTo(content);
+
+                verifyNoInteractions(multipartClient);
+                verify(partBufferPool).acquire();
+                verify(partBufferPool).release(any(byte[].class));
+        }
+
+        @Test
+        @DisplayName("Should stream a large InputStream as a multipart upload")
+        void shouldStreamLargeInputStreamAsMultipartUpload() throws Exception {
+                // Given: two full parts and a short last one
+                int partSize = partBufferPool.partSize();
+                byte[] content = new byte[2 * partSize + 100];
+                List<Integer> partLengths = new ArrayList<>();
+
+                when(multipartClient.createMultipartUpload(eq(TEST_BUCKET), anyString(), eq("application/zip")))
+                                .thenReturn("upload-1");
+                when(multipartClient.uploadPart(eq(TEST_BUCKET), anyString(), eq("upload-1"), anyInt(),
+                                any(byte[].class), anyInt()))
+                                .thenAnswer(invocation -> {
+                                        partLengths.add(invocation.getArgument(5));
+                                        return new Part(invocation.getArgument(3), "etag");
+                                });
+                when(multipartClient.completeMultipartUpload(eq(TEST_BUCKET), anyString(), eq("upload-1"),
+                                anyList()))
+                                .thenReturn(mock(ObjectWriteResponse.class));
+
+                // When
+                FileUploadResultDTO result = storageService.uploadFile(
+                                new ByteArrayInputStream(content), "bundle.zip", "application/zip", "bundles");
+
+                // Then
+                assertThat(result.getSuccess()).isTrue();
+                assertThat(result.getFileSize()).isEqualTo(content.length);
+                assertThat(partLengths).containsExactly(partSize, partSize, 100);
+
+                verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+                verify(partBufferPool).release(any(byte[].class));
+        }
+
+        @Test
+        @DisplayName("Should abort the multipart upload when a part fails")
+        void shouldAbortMultipartUploadWhenPartFails() throws Exception {
+                // Given
+                byte[] content = new byte[partBufferPool.partSize() + 1];
+
+                when(multipartClient.createMultipartUpload(anyString(), anyString(), anyString()))
+                                .thenReturn("upload-1");
+                when(multipartClient.uploadPart(anyString(), anyString(), anyString(), anyInt(),
+                                any(byte[].class), anyInt()))
+                                .thenReturn(new Part(1, "etag"))
+                                .thenThrow(new IOException("Connection reset"));
+
+                // When
+                FileUploadResultDTO result = storageService.uploadFile(
+                                new ByteArrayInputStream(content), "bundle.zip", "application/zip", "bundles");
+
+                // Then
+                assertThat(result.getSuccess()).isFalse();
+                assertThat(result.getErrorMessage()).contains("Connection reset");
+
+                verify(multipartClient).abortMultipartUpload(eq(TEST_BUCKET), anyString(), eq("upload-1"));
+                verify(multipartClient, never()).completeMultipartUpload(anyString(), anyString(), anyString(),
+                                anyList());
         }
 
         @Test
@@ -187,6 +289,38 @@ class StorageServiceTest {
                 verify(minioClient).getObject(any(GetObjectArgs.class));
         }
 
+        @Test
+        @DisplayName("Should download byte range with offset and length")
+        void shouldDownloadFileRange() throws Exception {
+                // Given
+                String s3Key = "forms/2024/12/test.pdf";
+                GetObjectResponse response = mock(GetObjectResponse.class);
+
+                when(minioClient.getObject(any(GetObjectArgs.class)))
+                                .thenReturn(response);
+
+                // When
+                InputStream result = storageService.downloadFileRange(s3Key, 100, 50);
+
+                // Then
+                assertThat(result).isSameAs(response);
+                verify(minioClient).getObject(argThat((GetObjectArgs args) -> args.offset() == 100L
+                                && args.length() == 50L
+                                && s3Key.equals(args.object())));
+        }
+
+        @Test
+        @DisplayName("Should throw StorageException when stat fails")
+        void shouldThrowWhenStatFails() throws Exception {
+                // Given
+                when(minioClient.statObject(any(StatObjectArgs.class)))
+                                .thenThrow(new RuntimeException("Object does not exist"));
+
+                // When/Then
+                assertThatThrownBy(() -> storageService.statFile("forms/missing.pdf"))
+                                .isInstanceOf(StorageException.class);
+        }
+
         @Test
         @DisplayName("Should delete file successfully")
         void shouldDeleteFileSuccessfully() throws Exception {
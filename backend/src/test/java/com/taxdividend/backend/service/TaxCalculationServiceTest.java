@@ -1,14 +1,20 @@
 package com.taxdividend.backend.service;
 
+import com.taxdividend.backend.api.dto.ResidenceCountrySimulationDto;
+import com.taxdividend.backend.api.dto.ResidenceSimulationResultDto;
 import com.taxdividend.backend.api.dto.TaxCalculationBatchResultDto;
 import com.taxdividend.backend.api.dto.TaxCalculationResultDto;
 import com.taxdividend.backend.exception.TaxCalculationException;
 import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.FxRate;
 import com.taxdividend.backend.model.TaxRule;
 import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendBatchOperations.CalculatedAmounts;
 import com.taxdividend.backend.repository.DividendRepository;
-import com.taxdividend.backend.repository.TaxRuleRepository;
 import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.fx.FxRateIndex;
+import com.taxdividend.backend.service.tax.SecurityTypeClassifier;
+import com.taxdividend.backend.service.tax.TaxRuleIndex;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -20,8 +26,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -41,11 +49,17 @@ class TaxCalculationServiceTest {
         private DividendRepository dividendRepository;
 
         @Mock
-        private TaxRuleRepository taxRuleRepository;
+        private TaxRuleIndex taxRuleIndex;
 
         @Mock
         private UserRepository userRepository;
 
+        @Mock
+        private FxRateIndex fxRateIndex;
+
+        @Mock
+        private SecurityTypeClassifier securityTypeClassifier;
+
         @InjectMocks
         private TaxCalculationService taxCalculationService;
 
@@ -55,6 +69,16 @@ class TaxCalculationServiceTest {
 
         @BeforeEach
         void setUp() {
+                // Totals in EUR; 1 EUR = 1.25 USD, fixed on Friday 2024-12-13
+                FxRate usd = FxRate.builder()
+                                .currency("USD")
+                                .rateDate(LocalDate.of(2024, 12, 13))
+                                .rate(new BigDecimal("1.25"))
+                                .build();
+                lenient().when(fxRateIndex.snapshot()).thenReturn(FxRateIndex.Snapshot.of(1, List.of(usd), 7));
+                lenient().when(fxRateIndex.reportingCurrency()).thenReturn("EUR");
+                lenient().when(securityTypeClassifier.classify(any())).thenReturn("EQUITY");
+
                 // Create test user
                 testUser = User.builder()
                                 .id(UUID.randomUUID())
@@ -93,7 +117,7 @@ class TaxCalculationServiceTest {
         @DisplayName("Should calculate reclaimable amount correctly")
         void shouldCalculateReclaimableAmountCorrectly() {
                 // Given
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
 
@@ -114,7 +138,7 @@ class TaxCalculationServiceTest {
                 assertThat(result.getReclaimableAmount())
                                 .isEqualByComparingTo(new BigDecimal("15.00"));
 
-                verify(taxRuleRepository).findApplicableRule(
+                verify(taxRuleIndex).findApplicableRule(
                                 "FR", "CH", "EQUITY", testDividend.getPaymentDate());
         }
 
@@ -122,7 +146,7 @@ class TaxCalculationServiceTest {
         @DisplayName("Should handle no treaty found")
         void shouldHandleNoTreatyFound() {
                 // Given
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 anyString(), anyString(), anyString(), any(LocalDate.class)))
                                 .thenReturn(Optional.empty());
 
@@ -143,7 +167,7 @@ class TaxCalculationServiceTest {
                 UUID dividendId = testDividend.getId();
                 when(dividendRepository.findById(dividendId))
                                 .thenReturn(Optional.of(testDividend));
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
                 when(dividendRepository.save(any(Dividend.class)))
@@ -195,7 +219,7 @@ class TaxCalculationServiceTest {
 
                 List<Dividend> dividends = Arrays.asList(testDividend, dividend2);
 
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
 
@@ -237,10 +261,10 @@ class TaxCalculationServiceTest {
                 List<Dividend> dividends = Arrays.asList(testDividend, dividend2);
 
                 // FR-CH treaty exists, but US-CH doesn't
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("US"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenThrow(new RuntimeException("DB Error"));
 
@@ -268,7 +292,7 @@ class TaxCalculationServiceTest {
                                 .thenReturn(Optional.of(testUser));
                 when(dividendRepository.findByUserId(userId))
                                 .thenReturn(Arrays.asList(testDividend));
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
 
@@ -321,7 +345,7 @@ class TaxCalculationServiceTest {
         @DisplayName("Should find applicable tax rule")
         void shouldFindApplicableTaxRule() {
                 // Given
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
 
@@ -339,7 +363,7 @@ class TaxCalculationServiceTest {
         void shouldHandleZeroWithholdingTax() {
                 // Given
                 testDividend.setWithholdingTax(BigDecimal.ZERO);
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
 
@@ -358,7 +382,7 @@ class TaxCalculationServiceTest {
         void shouldEnsureReclaimableAmountNeverNegative() {
                 // Given: treaty rate higher than actual withholding
                 testDividend.setWithholdingTax(new BigDecimal("10.00")); // Less than 15%
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
 
@@ -378,7 +402,7 @@ class TaxCalculationServiceTest {
                 // Given
                 testDividend.setGrossAmount(new BigDecimal("100.123")); // 3 decimals
                 testDividend.setWithholdingTax(new BigDecimal("30.456")); // 3 decimals
-                when(taxRuleRepository.findApplicableRule(
+                when(taxRuleIndex.findApplicableRule(
                                 eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
                                 .thenReturn(Optional.of(testTaxRule));
 
@@ -391,4 +415,191 @@ class TaxCalculationServiceTest {
                 assertThat(result.getWithheldAmount().scale()).isEqualTo(2);
                 assertThat(result.getReclaimableAmount().scale()).isEqualTo(2);
         }
+
+        @Test
+        @DisplayName("Batch fixed-point path should match per-dividend results exactly")
+        void shouldMatchPerDividendResultsInBatch() {
+                // Given - exact 2-decimal amounts (fixed-point), 3 decimals (BigDecimal fallback),
+                // a rounding tie and a negative difference
+                String[][] amounts = {
+                                { "100.00", "30.00" }, { "0.30", "0.05" }, { "100.123", "30.456" },
+                                { "100.00", "10.00" }, { "77.77", "23.33" } };
+                List<Dividend> dividends = new ArrayList<>();
+                for (String[] a : amounts) {
+                        dividends.add(Dividend.builder()
+                                        .id(UUID.randomUUID())
+                                        .user(testUser)
+                                        .isin("FR0000120271")
+                                        .grossAmount(new BigDecimal(a[0]))
+                                        .withholdingTax(new BigDecimal(a[1]))
+                                        .withholdingRate(new BigDecimal("30.00"))
+                                        .currency("EUR")
+                                        .paymentDate(LocalDate.of(2024, 12, 15))
+                                        .sourceCountry("FR")
+                                        .build());
+                }
+                when(taxRuleIndex.findApplicableRule(
+                                eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
+                                .thenReturn(Optional.of(testTaxRule));
+
+                // When
+                TaxCalculationBatchResultDto batch = taxCalculationService.calculateBatch(dividends, "CH");
+
+                // Then
+                BigDecimal expectedTotal = BigDecimal.ZERO;
+                for (int i = 0; i < dividends.size(); i++) {
+                        TaxCalculationResultDto single = taxCalculationService.calculateForDividend(
+                                        dividends.get(i), "CH");
+                        assertThat(batch.getResults().get(i)).isEqualTo(single);
+                        expectedTotal = expectedTotal.add(single.getReclaimableAmount());
+                }
+                assertThat(batch.getTotalReclaimableAmount()).isEqualTo(expectedTotal.setScale(2));
+                assertThat(batch.getSuccessCount()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Should write back all calculated amounts in a single update")
+        void shouldBulkUpdateCalculatedAmountsForUser() {
+                // Given
+                when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+                when(dividendRepository.findByUserId(testUser.getId())).thenReturn(List.of(testDividend));
+                when(taxRuleIndex.findApplicableRule(
+                                eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
+                                .thenReturn(Optional.of(testTaxRule));
+                when(dividendRepository.updateCalculatedAmounts(eq(testUser.getId()), anyList())).thenReturn(1);
+
+                // When
+                TaxCalculationBatchResultDto result = taxCalculationService.calculateAndUpdateForUser(
+                                testUser.getId());
+
+                // Then
+                assertThat(result.getSuccessCount()).isEqualTo(1);
+                verify(dividendRepository).updateCalculatedAmounts(testUser.getId(), List.of(
+                                new CalculatedAmounts(testDividend.getId(), new BigDecimal("15.00"),
+                                                new BigDecimal("15.00"))));
+                verify(dividendRepository, never()).findById(any());
+                verify(dividendRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should simulate several residence countries against one rule snapshot")
+        void shouldSimulateResidenceCountries() {
+                // Given - FR -> CH treaty only
+                TaxRuleIndex.Snapshot snapshot = new TaxRuleIndex.Snapshot(7, Map.of(
+                                new TaxRuleIndex.Key("FR", "CH", "EQUITY"), new TaxRule[] { testTaxRule }),
+                                1, null);
+                when(taxRuleIndex.snapshot()).thenReturn(snapshot);
+                when(dividendRepository.findByUserIdAndPaymentDateBetween(testUser.getId(),
+                                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)))
+                                .thenReturn(List.of(testDividend));
+
+                // When
+                ResidenceSimulationResultDto result = taxCalculationService.simulateResidenceCountries(
+                                testUser.getId(), List.of("ch", "DE", "CH"), 2024);
+
+                // Then
+                assertThat(result.getDividendCount()).isEqualTo(1);
+                assertThat(result.getSimulations()).extracting(ResidenceCountrySimulationDto::getResidenceCountry)
+                                .containsExactly("CH", "DE");
+                assertThat(result.getSimulations().get(0).getSuccessCount()).isEqualTo(1);
+                assertThat(result.getSimulations().get(0).getTotalReclaimableAmount())
+                                .isEqualByComparingTo("15.00");
+                assertThat(result.getSimulations().get(1).getFailureCount()).isEqualTo(1);
+                assertThat(result.getSimulations().get(1).getTotalReclaimableAmount())
+                                .isEqualByComparingTo("0.00");
+
+                // Rules come from the pinned snapshot only; nothing is written
+                verify(taxRuleIndex, never()).findApplicableRule(any(), any(), any(), any());
+                verify(dividendRepository, never()).updateCalculatedAmounts(any(), anyList());
+                verify(dividendRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should convert batch totals to the reporting currency")
+        void shouldConvertBatchTotalToReportingCurrency() {
+                // Given - same FR treaty, paid in USD and in JPY (no rate available)
+                Dividend usdDividend = Dividend.builder()
+                                .id(UUID.randomUUID())
+                                .user(testUser)
+                                .isin("FR0000131104")
+                                .grossAmount(new BigDecimal("125.00"))
+                                .withholdingTax(new BigDecimal("37.50"))
+                                .currency("USD")
+                                .paymentDate(LocalDate.of(2024, 12, 15))
+                                .sourceCountry("FR")
+                                .build();
+                Dividend jpyDividend = Dividend.builder()
+                                .id(UUID.randomUUID())
+                                .user(testUser)
+                                .isin("FR0000120578")
+                                .grossAmount(new BigDecimal("10000.00"))
+                                .withholdingTax(new BigDecimal("3000.00"))
+                                .currency("JPY")
+                                .paymentDate(LocalDate.of(2024, 12, 15))
+                                .sourceCountry("FR")
+                                .build();
+                when(taxRuleIndex.findApplicableRule(
+                                eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
+                                .thenReturn(Optional.of(testTaxRule));
+
+                // When
+                TaxCalculationBatchResultDto result = taxCalculationService.calculateBatch(
+                                List.of(testDividend, usdDividend, jpyDividend), "CH");
+
+                // Then - 15.00 EUR + 18.75 USD (15.00 EUR); the JPY amount is left out
+                assertThat(result.getSuccessCount()).isEqualTo(3);
+                assertThat(result.getResults().get(1).getReclaimableAmount()).isEqualByComparingTo("18.75");
+                assertThat(result.getTotalReclaimableAmount()).isEqualByComparingTo("30.00");
+                assertThat(result.getCurrency()).isEqualTo("EUR");
+                assertThat(result.getUnconvertedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should use the rule of the classified security type")
+        void shouldUseRuleOfClassifiedSecurityType() {
+                // Given - a French government bond, exempt under the FR-CH treaty
+                TaxRule bondRule = TaxRule.builder()
+                                .id(UUID.randomUUID())
+                                .sourceCountry("FR")
+                                .residenceCountry("CH")
+                                .securityType("BOND")
+                                .standardWithholdingRate(new BigDecimal("30.00"))
+                                .treatyRate(new BigDecimal("0.00"))
+                                .reliefAtSourceAvailable(false)
+                                .refundProcedureAvailable(true)
+                                .effectiveFrom(LocalDate.of(2023, 1, 1))
+                                .build();
+                when(securityTypeClassifier.classify("FR0000120271")).thenReturn("BOND");
+                when(taxRuleIndex.findApplicableRule(
+                                eq("FR"), eq("CH"), eq("BOND"), any(LocalDate.class)))
+                                .thenReturn(Optional.of(bondRule));
+
+                // When
+                TaxCalculationResultDto result = taxCalculationService.calculateForDividend(testDividend, "CH");
+
+                // Then - the whole 30.00 withheld is reclaimable
+                assertThat(result.getTreatyRate()).isEqualByComparingTo("0.00");
+                assertThat(result.getReclaimableAmount()).isEqualByComparingTo("30.00");
+                verify(taxRuleIndex, never()).findApplicableRule(any(), any(), eq("EQUITY"), any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to the equity rule when the type has no treaty rule")
+        void shouldFallBackToEquityRule() {
+                // Given
+                when(securityTypeClassifier.classify("FR0000120271")).thenReturn("REIT");
+                when(taxRuleIndex.findApplicableRule(
+                                eq("FR"), eq("CH"), eq("REIT"), any(LocalDate.class)))
+                                .thenReturn(Optional.empty());
+                when(taxRuleIndex.findApplicableRule(
+                                eq("FR"), eq("CH"), eq("EQUITY"), any(LocalDate.class)))
+                                .thenReturn(Optional.of(testTaxRule));
+
+                // When
+                TaxCalculationResultDto result = taxCalculationService.calculateForDividend(testDividend, "CH");
+
+                // Then
+                assertThat(result.getTreatyRate()).isEqualByComparingTo("15.00");
+                assertThat(result.getReclaimableAmount()).isEqualByComparingTo("15.00");
+        }
 }
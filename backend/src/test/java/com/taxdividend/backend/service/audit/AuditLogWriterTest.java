@@ -0,0 +1,280 @@
+package com.taxdividend.backend.service.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuditLogWriter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Audit Log Writer Tests")
+class AuditLogWriterTest {
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        @TempDir
+        private Path tempDir;
+
+        private final ObjectMapper objectMapper = new ObjectMapper()
+                        .registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        private SimpleMeterRegistry meterRegistry;
+        private Path spillFile;
+
+        @BeforeEach
+        void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                spillFile = tempDir.resolve("audit-spill.jsonl");
+        }
+
+        private AuditLogWriter writer(int capacity, AuditLogWriter.OverflowPolicy policy) {
+                return writer(capacity, policy, spillFile, false);
+        }
+
+        private AuditLogWriter writer(int capacity, AuditLogWriter.OverflowPolicy policy, Path file,
+                        boolean requireVolume) {
+                return new AuditLogWriter(jdbcTemplate, transactionManager, objectMapper, meterRegistry,
+                                capacity, 10, Duration.ofMillis(20), policy, Duration.ofMillis(10),
+                                Duration.ofSeconds(5), file, requireVolume);
+        }
+
+        private static AuditEvent event(String action) {
+                return AuditEvent.of(UUID.randomUUID(), action, "FORM", UUID.randomUUID(),
+                                Map.of("formType", "5000"), null, null);
+        }
+
+        private double events(String outcome) {
+                return meterRegistry.get("audit.writer.events").tag("outcome", outcome).counter().count();
+        }
+
+        @Test
+        @DisplayName("Should batch-insert queued events and flush on shutdown")
+        void shouldWriteQueuedEvents() throws Exception {
+                // Given
+                AuditLogWriter writer = writer(100, AuditLogWriter.OverflowPolicy.SPILL);
+                writer.start();
+
+                // When
+                for (int i = 0; i < 5; i++) {
+                        writer.submit(event("FORM_DOWNLOADED"));
+                }
+                writer.stop();
+
+                // Then
+                verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), anyCollection(), anyInt(),
+                                any(ParameterizedPreparedStatementSetter.class));
+                assertThat(events("written")).isEqualTo(5);
+                assertThat(spillFile).doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Should spill overflow to disk under the SPILL policy")
+        void shouldSpillOverflow() throws Exception {
+                // Given - writer not started, so the buffer never drains
+                AuditLogWriter writer = writer(1, AuditLogWriter.OverflowPolicy.SPILL);
+
+                // When
+                writer.submit(event("FIRST"));
+                writer.submit(event("SECOND"));
+
+                // Then
+                List<String> lines = Files.readAllLines(spillFile);
+                assertThat(lines).singleElement().asString().contains("SECOND");
+                assertThat(events("spilled")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should drop overflow under the DROP policy")
+        void shouldDropOverflow() {
+                // Given
+                AuditLogWriter writer = writer(1, AuditLogWriter.OverflowPolicy.DROP);
+
+                // When
+                writer.submit(event("FIRST"));
+                writer.submit(event("SECOND"));
+
+                // Then
+                assertThat(spillFile).doesNotExist();
+                assertThat(events("dropped")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should spill a failed batch and replay it on the next start")
+        @SuppressWarnings("unchecked")
+        void shouldReplaySpilledEvents() throws Exception {
+                // Given - database down for the first writer
+                when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                                any(ParameterizedPreparedStatementSetter.class)))
+                                .thenThrow(new DataAccessResourceFailureException("db down"));
+
+                AuditLogWriter first = writer(100, AuditLogWriter.OverflowPolicy.SPILL);
+                first.start();
+                first.submit(event("FORM_DELETED"));
+                first.submit(event("FORM_DELETED"));
+                first.stop();
+
+                assertThat(Files.readAllLines(spillFile)).hasSize(2);
+
+                // When - database back
+                reset(jdbcTemplate);
+                AuditLogWriter second = writer(100, AuditLogWriter.OverflowPolicy.SPILL);
+                second.start();
+                second.stop();
+
+                // Then
+                verify(jdbcTemplate).batchUpdate(anyString(),
+                                (Collection<AuditEvent>) argThat(events -> ((Collection<?>) events).size() == 2),
+                                anyInt(), any(ParameterizedPreparedStatementSetter.class));
+                assertThat(spillFile).doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Should keep spilling while a replay is writing to the database")
+        void shouldSpillDuringReplay() throws Exception {
+                // Given - one event left from a previous run, and a replay stuck in the database
+                Files.writeString(spillFile, objectMapper.writeValueAsString(event("LEFT_OVER")) + "\n");
+                CountDownLatch replayStarted = new CountDownLatch(1);
+                CountDownLatch releaseReplay = new CountDownLatch(1);
+                when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(),
+                                any(ParameterizedPreparedStatementSetter.class)))
+                                .thenAnswer(invocation -> {
+                                        replayStarted.countDown();
+                                        releaseReplay.await(5, TimeUnit.SECONDS);
+                                        return new int[0][];
+                                })
+                                .thenReturn(new int[0][]);
+
+                AuditLogWriter writer = writer(1, AuditLogWriter.OverflowPolicy.SPILL);
+                writer.start();
+                assertThat(replayStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+                // When - the buffer fills up while the replay is still running
+                long start = System.nanoTime();
+                writer.submit(event("FIRST"));
+                writer.submit(event("SECOND"));
+                Duration spillTime = Duration.ofNanos(System.nanoTime() - start);
+
+                // Then - the overflow went to a new spill file without waiting for the replay
+                assertThat(spillTime).isLessThan(Duration.ofSeconds(1));
+                assertThat(Files.readAllLines(spillFile)).singleElement().asString().contains("SECOND");
+
+                releaseReplay.countDown();
+                writer.stop();
+
+                // Left-over replay, FIRST, then the new spill file
+                verify(jdbcTemplate, times(3)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                                any(ParameterizedPreparedStatementSetter.class));
+                assertThat(spillFile).doesNotExist();
+                assertThat(tempDir.resolve("audit-spill.jsonl.replaying")).doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Should replay the spill file of a writer that is no longer running")
+        @SuppressWarnings("unchecked")
+        void shouldReplayOrphanedSpillFile() throws Exception {
+                // Given - a file and free lock left by a replica whose container was recreated
+                Path orphan = tempDir.resolve("audit-spill-old-replica.jsonl");
+                Files.writeString(orphan, objectMapper.writeValueAsString(event("LEFT_OVER")) + "\n");
+                Files.createFile(tempDir.resolve("audit-spill-old-replica.jsonl.lock"));
+
+                // When
+                AuditLogWriter writer = writer(100, AuditLogWriter.OverflowPolicy.SPILL);
+                writer.start();
+                writer.stop();
+
+                // Then
+                verify(jdbcTemplate).batchUpdate(anyString(),
+                                (Collection<AuditEvent>) argThat(events -> ((Collection<?>) events).size() == 1),
+                                anyInt(), any(ParameterizedPreparedStatementSetter.class));
+                assertThat(orphan).doesNotExist();
+                assertThat(tempDir.resolve("audit-spill-old-replica.jsonl.lock")).doesNotExist();
+        }
+
+        @Test
+        @DisplayName("Should leave the spill file of a running writer alone")
+        void shouldNotReplayLiveSpillFile() throws Exception {
+                // Given - another replica holds the lock of the file it has spilled to
+                Path otherFile = tempDir.resolve("audit-spill-other-replica.jsonl");
+                Files.writeString(otherFile, objectMapper.writeValueAsString(event("SPILLED")) + "\n");
+
+                try (FileChannel channel = FileChannel.open(tempDir.resolve("audit-spill-other-replica.jsonl.lock"),
+                                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                                FileLock lock = channel.lock()) {
+                        // When
+                        AuditLogWriter writer = writer(100, AuditLogWriter.OverflowPolicy.SPILL);
+                        writer.start();
+                        writer.stop();
+                }
+
+                // Then
+                assertThat(otherFile).exists();
+                verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(),
+                                any(ParameterizedPreparedStatementSetter.class));
+        }
+
+        @Test
+        @DisplayName("Should refuse to share a spill file with a running writer")
+        void shouldRefuseSharedSpillFile() throws Exception {
+                // Given
+                AuditLogWriter first = writer(100, AuditLogWriter.OverflowPolicy.SPILL);
+                first.start();
+
+                // When/Then
+                try {
+                        assertThatThrownBy(writer(100, AuditLogWriter.OverflowPolicy.SPILL)::start)
+                                        .isInstanceOf(IllegalStateException.class)
+                                        .hasMessageContaining("used by another writer");
+                } finally {
+                        first.stop();
+                }
+        }
+
+        @Test
+        @DisplayName("Should not start without the spill volume when one is required")
+        void shouldRequireSpillVolume() {
+                // Given - the volume is not mounted, so its directory is missing
+                Path unmounted = tempDir.resolve("audit-volume/audit-spill.jsonl");
+                AuditLogWriter writer = writer(100, AuditLogWriter.OverflowPolicy.SPILL, unmounted, true);
+
+                // When/Then
+                assertThatThrownBy(writer::start)
+                                .isInstanceOf(IllegalStateException.class)
+                                .hasMessageContaining("mount a volume");
+                assertThat(unmounted.getParent()).doesNotExist();
+        }
+}
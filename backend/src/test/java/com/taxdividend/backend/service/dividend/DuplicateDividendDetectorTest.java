@@ -0,0 +1,130 @@
+package com.taxdividend.backend.service.dividend;
+
+import com.taxdividend.backend.repository.DividendBatchOperations.DividendKey;
+import com.taxdividend.backend.repository.DividendRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DuplicateDividendDetector.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Duplicate Dividend Detector Tests")
+class DuplicateDividendDetectorTest {
+
+        private static final UUID USER_ID = UUID.randomUUID();
+        private static final DividendKey STORED = key("FR0000120271", LocalDate.of(2024, 5, 31), "100.00");
+        private static final DividendKey NEW = key("FR0000120271", LocalDate.of(2024, 11, 29), "100.00");
+
+        @Mock
+        private DividendRepository dividendRepository;
+
+        private DuplicateDividendDetector detector;
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        void setUp() {
+                lenient().when(dividendRepository.countByUserId(USER_ID)).thenReturn(1L);
+                lenient().doAnswer(invocation -> {
+                        invocation.getArgument(1, Consumer.class).accept(STORED);
+                        return null;
+                }).when(dividendRepository).forEachKey(eq(USER_ID), any());
+
+                detector = new DuplicateDividendDetector(dividendRepository, new SimpleMeterRegistry(),
+                                100, Duration.ofHours(1), 0.01);
+        }
+
+        @Test
+        @DisplayName("Should query only the keys the filter cannot rule out")
+        void shouldQueryOnlyPossibleDuplicates() {
+                // Given
+                when(dividendRepository.findExistingKeys(USER_ID, List.of(STORED))).thenReturn(Set.of(STORED));
+
+                // When
+                Set<DividendKey> existing = detector.findExisting(USER_ID, List.of(STORED, NEW, STORED));
+
+                // Then
+                assertThat(existing).containsExactly(STORED);
+                verify(dividendRepository).findExistingKeys(USER_ID, List.of(STORED));
+        }
+
+        @Test
+        @DisplayName("Should not query the database when every key is ruled out")
+        void shouldSkipQueryForNewKeys() {
+                assertThat(detector.findExisting(USER_ID, List.of(NEW))).isEmpty();
+
+                verify(dividendRepository, never()).findExistingKeys(any(), anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should build the filter once and add inserted keys to it")
+        void shouldRecordInsertedKeys() {
+                // Given
+                detector.findExisting(USER_ID, List.of(NEW));
+                detector.recordInserted(USER_ID, List.of(NEW));
+                when(dividendRepository.findExistingKeys(USER_ID, List.of(NEW))).thenReturn(Set.of(NEW));
+
+                // When
+                Set<DividendKey> existing = detector.findExisting(USER_ID, List.of(NEW));
+
+                // Then
+                assertThat(existing).containsExactly(NEW);
+                verify(dividendRepository, times(1)).forEachKey(eq(USER_ID), any());
+        }
+
+        @Test
+        @DisplayName("Should never miss an added hash and stay near the target false positive rate")
+        void bloomFilterShouldHaveNoFalseNegatives() {
+                // Given
+                BloomFilter filter = BloomFilter.create(10_000, 0.01);
+                for (int i = 0; i < 10_000; i++) {
+                        filter.put(DuplicateDividendDetector.hash(key("CH0038863350", LocalDate.of(2024, 1, 1), i)));
+                }
+
+                // When
+                int falsePositives = 0;
+                for (int i = 10_000; i < 20_000; i++) {
+                        if (filter.mightContain(
+                                        DuplicateDividendDetector.hash(key("CH0038863350", LocalDate.of(2024, 1, 1), i)))) {
+                                falsePositives++;
+                        }
+                }
+
+                // Then
+                for (int i = 0; i < 10_000; i++) {
+                        assertThat(filter.mightContain(
+                                        DuplicateDividendDetector.hash(key("CH0038863350", LocalDate.of(2024, 1, 1), i))))
+                                        .isTrue();
+                }
+                assertThat(falsePositives).isLessThan(200);
+                assertThat(filter.isSaturated()).isFalse();
+        }
+
+        private static DividendKey key(String isin, LocalDate paymentDate, String grossAmount) {
+                return new DividendKey(isin, paymentDate, new BigDecimal(grossAmount));
+        }
+
+        private static DividendKey key(String isin, LocalDate paymentDate, int grossCents) {
+                return new DividendKey(isin, paymentDate, BigDecimal.valueOf(grossCents, 2));
+        }
+}
@@ -0,0 +1,159 @@
+package com.taxdividend.backend.service.fx;
+
+import com.taxdividend.backend.service.ClusterLock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EcbRateLoader.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ECB Rate Loader Tests")
+class EcbRateLoaderTest {
+
+        private static final String FEED = """
+                        <?xml version="1.0" encoding="UTF-8"?>
+                        <gesmes:Envelope xmlns:gesmes="http://www.gesmes.org/xml/2002-08-01"
+                                        xmlns="http://www.ecb.int/vocabulary/2002-08-01/eurofxref">
+                            <gesmes:subject>Reference rates</gesmes:subject>
+                            <Cube>
+                                <Cube time="2024-06-14">
+                                    <Cube currency="USD" rate="1.0699"/>
+                                    <Cube currency="CHF" rate="0.9545"/>
+                                </Cube>
+                                <Cube time="2024-06-13">
+                                    <Cube currency="USD" rate="1.0784"/>
+                                </Cube>
+                            </Cube>
+                        </gesmes:Envelope>
+                        """;
+
+        @TempDir
+        Path tempDir;
+
+        @Mock
+        private JdbcTemplate jdbcTemplate;
+
+        @Mock
+        private ClusterLock clusterLock;
+
+        @Mock
+        private ClusterLock.Lease lease;
+
+        @Mock
+        private FxRateIndex fxRateIndex;
+
+        @Captor
+        private ArgumentCaptor<List<Object[]>> rowsCaptor;
+
+        private Path feed;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                feed = Files.writeString(tempDir.resolve("eurofxref.xml"), FEED);
+                lenient().when(clusterLock.tryAcquire("fx-rates-ecb")).thenReturn(Optional.of(lease));
+        }
+
+        @Test
+        @DisplayName("Should read every fixing of the feed")
+        void shouldParseFeed() throws Exception {
+                // When
+                List<EcbRateLoader.EcbRate> rates = EcbRateLoader.parse(
+                                new ByteArrayInputStream(FEED.getBytes(StandardCharsets.UTF_8)));
+
+                // Then
+                assertThat(rates).containsExactly(
+                                new EcbRateLoader.EcbRate("USD", LocalDate.of(2024, 6, 14), new BigDecimal("1.0699")),
+                                new EcbRateLoader.EcbRate("CHF", LocalDate.of(2024, 6, 14), new BigDecimal("0.9545")),
+                                new EcbRateLoader.EcbRate("USD", LocalDate.of(2024, 6, 13), new BigDecimal("1.0784")));
+        }
+
+        @Test
+        @DisplayName("Should reject a feed without rates")
+        void shouldRejectEmptyFeed() {
+                String empty = "<Envelope><Cube></Cube></Envelope>";
+
+                assertThatThrownBy(() -> EcbRateLoader.parse(
+                                new ByteArrayInputStream(empty.getBytes(StandardCharsets.UTF_8))))
+                                .hasMessageContaining("no rates");
+        }
+
+        @Test
+        @DisplayName("Should upsert the rates and refresh the index")
+        void shouldStoreRates() throws Exception {
+                // When
+                loader(true).load();
+
+                // Then
+                verify(jdbcTemplate).batchUpdate(contains("ON CONFLICT (currency, rate_date)"), rowsCaptor.capture());
+                assertThat(rowsCaptor.getValue()).hasSize(3);
+                assertThat(rowsCaptor.getValue().get(0)).containsExactly(
+                                "USD", Date.valueOf(LocalDate.of(2024, 6, 14)), new BigDecimal("1.0699"), "ECB");
+                verify(fxRateIndex).refreshIfChanged();
+                verify(lease).close();
+        }
+
+        @Test
+        @DisplayName("Should leave the load to the node holding the lock")
+        void shouldSkipWhileLockedElsewhere() {
+                // Given
+                when(clusterLock.tryAcquire("fx-rates-ecb")).thenReturn(Optional.empty());
+
+                // When
+                loader(true).load();
+
+                // Then
+                verifyNoInteractions(jdbcTemplate, fxRateIndex);
+        }
+
+        @Test
+        @DisplayName("Should log and keep existing rates when the feed is unavailable")
+        void shouldSurviveUnavailableFeed() throws Exception {
+                // Given
+                Files.delete(feed);
+
+                // When / Then
+                assertThatCode(() -> loader(true).load()).doesNotThrowAnyException();
+                verifyNoInteractions(jdbcTemplate, fxRateIndex);
+                verify(lease).close();
+        }
+
+        @Test
+        @DisplayName("Should do nothing when disabled")
+        void shouldDoNothingWhenDisabled() {
+                // When
+                loader(false).load();
+
+                // Then
+                verifyNoInteractions(clusterLock, jdbcTemplate, fxRateIndex);
+        }
+
+        private EcbRateLoader loader(boolean enabled) {
+                return new EcbRateLoader(jdbcTemplate, clusterLock, fxRateIndex, enabled, feed.toUri().toString(),
+                                Duration.ofSeconds(5));
+        }
+}
@@ -0,0 +1,149 @@
+package com.taxdividend.backend.service.fx;
+
+import com.taxdividend.backend.model.FxRate;
+import com.taxdividend.backend.repository.FxRateRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FxRateIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FX Rate Index Tests")
+class FxRateIndexTest {
+
+        // Thursday and Friday fixings; no rates over the weekend
+        private static final LocalDate THURSDAY = LocalDate.of(2024, 6, 13);
+        private static final LocalDate FRIDAY = LocalDate.of(2024, 6, 14);
+        private static final LocalDate SUNDAY = LocalDate.of(2024, 6, 16);
+
+        @Mock
+        private FxRateRepository fxRateRepository;
+
+        private FxRateIndex fxRateIndex;
+        private List<FxRate> rates;
+
+        @BeforeEach
+        void setUp() {
+                rates = new ArrayList<>(List.of(
+                                rate("USD", FRIDAY, "1.2500"),
+                                rate("USD", THURSDAY, "1.2000"),
+                                rate("chf", FRIDAY, "0.9500")));
+                lenient().when(fxRateRepository.findAll()).thenReturn(rates);
+
+                fxRateIndex = new FxRateIndex(fxRateRepository, "eur", Duration.ofDays(7));
+        }
+
+        @Test
+        @DisplayName("Should convert with the fixing of the payment date")
+        void shouldConvertWithExactFixing() {
+                assertThat(fxRateIndex.convert(new BigDecimal("120.00"), "USD", "EUR", THURSDAY))
+                                .contains(new BigDecimal("100.00"));
+                assertThat(fxRateIndex.convert(new BigDecimal("100.00"), "EUR", "USD", FRIDAY))
+                                .contains(new BigDecimal("125.00"));
+        }
+
+        @Test
+        @DisplayName("Should fall back to the latest earlier fixing within the staleness limit")
+        void shouldUseLatestEarlierFixing() {
+                assertThat(fxRateIndex.convert(new BigDecimal("125.00"), "USD", "EUR", SUNDAY))
+                                .contains(new BigDecimal("100.00"));
+                assertThat(fxRateIndex.convert(new BigDecimal("125.00"), "USD", "EUR", FRIDAY.plusDays(8)))
+                                .isEmpty();
+                assertThat(fxRateIndex.convert(new BigDecimal("125.00"), "USD", "EUR", THURSDAY.minusDays(1)))
+                                .isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should cross convert through the base currency with a single rounding")
+        void shouldCrossConvert() {
+                // 100 USD = 80 EUR = 76 CHF
+                assertThat(fxRateIndex.convert(new BigDecimal("100.00"), "usd", "CHF", FRIDAY))
+                                .contains(new BigDecimal("76.00"));
+                // 10 CHF = 10 / 0.95 * 1.25 = 13.157... USD
+                assertThat(fxRateIndex.convert(BigDecimal.TEN, "CHF", "USD", FRIDAY))
+                                .contains(new BigDecimal("13.16"));
+        }
+
+        @Test
+        @DisplayName("Should return the amount unchanged for the same currency and empty for unknown ones")
+        void shouldHandleSameAndUnknownCurrencies() {
+                assertThat(fxRateIndex.convert(new BigDecimal("12.345"), "JPY", "jpy", null))
+                                .contains(new BigDecimal("12.345"));
+                assertThat(fxRateIndex.convert(BigDecimal.TEN, "JPY", "EUR", FRIDAY)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should total mixed currencies in the reporting currency")
+        void shouldTotalMixedCurrencies() {
+                CurrencyTotal total = fxRateIndex.newReportingTotal();
+
+                assertThat(total.add(new BigDecimal("10.005"), "EUR", FRIDAY)).isTrue();
+                assertThat(total.addMinorUnits(1_000, null, FRIDAY)).isTrue();
+                assertThat(total.add(new BigDecimal("125.00"), "USD", FRIDAY)).isTrue();
+                assertThat(total.add(new BigDecimal("500"), "JPY", FRIDAY)).isFalse();
+
+                assertThat(total.currency()).isEqualTo("EUR");
+                assertThat(total.amount()).isEqualTo(new BigDecimal("120.01"));
+                assertThat(total.unconvertedCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should rebuild only when the version probe changes")
+        void shouldRebuildOnlyWhenRatesChange() {
+                LocalDateTime loadedAt = LocalDateTime.of(2024, 6, 14, 16, 0);
+                rates.forEach(rate -> rate.setUpdatedAt(loadedAt));
+                FxRateIndex.Snapshot first = fxRateIndex.reload();
+
+                when(fxRateRepository.findVersion()).thenReturn(version(3, loadedAt));
+                fxRateIndex.refreshIfChanged();
+                assertThat(fxRateIndex.snapshot()).isSameAs(first);
+
+                rates.add(rate("USD", FRIDAY.plusDays(3), "1.3000"));
+                when(fxRateRepository.findVersion()).thenReturn(version(4, loadedAt));
+                fxRateIndex.refreshIfChanged();
+
+                assertThat(fxRateIndex.snapshot().version()).isEqualTo(first.version() + 1);
+                assertThat(fxRateIndex.convert(new BigDecimal("130.00"), "USD", "EUR", FRIDAY.plusDays(3)))
+                                .isEqualTo(Optional.of(new BigDecimal("100.00")));
+                verify(fxRateRepository, times(2)).findAll();
+        }
+
+        private static FxRate rate(String currency, LocalDate date, String rate) {
+                return FxRate.builder()
+                                .currency(currency)
+                                .rateDate(date)
+                                .rate(new BigDecimal(rate))
+                                .build();
+        }
+
+        private static FxRateRepository.FxRateVersion version(long count, LocalDateTime lastUpdatedAt) {
+                return new FxRateRepository.FxRateVersion() {
+                        @Override
+                        public long getRateCount() {
+                                return count;
+                        }
+
+                        @Override
+                        public LocalDateTime getLastUpdatedAt() {
+                                return lastUpdatedAt;
+                        }
+                };
+        }
+}
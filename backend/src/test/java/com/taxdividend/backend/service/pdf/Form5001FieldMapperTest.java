@@ -0,0 +1,204 @@
+package com.taxdividend.backend.service.pdf;
+
+import com.taxdividend.backend.exception.PdfGenerationException;
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.FxRate;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.service.fx.FxRateIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import org.apache.pdfbox.pdmodel.interactive.form.PDField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for Form5001FieldMapper.
+ */
+@DisplayName("Form 5001 Field Mapper Tests")
+class Form5001FieldMapperTest {
+
+        private Form5001FieldMapper mapper;
+        private User user;
+
+        @BeforeEach
+        void setUp() {
+                // 1 EUR = 1.25 USD, fixed on the Friday before the test payment dates
+                FxRate usd = FxRate.builder()
+                                .currency("USD")
+                                .rateDate(LocalDate.of(2024, 5, 31))
+                                .rate(new BigDecimal("1.25"))
+                                .build();
+                mapper = new Form5001FieldMapper(FxRateIndex.Snapshot.of(1, List.of(usd), 7));
+                user = User.builder()
+                                .id(UUID.randomUUID())
+                                .email("test@example.com")
+                                .fullName("John Doe")
+                                .address("Test Street 123, 8000 Zurich")
+                                .build();
+        }
+
+        @Test
+        @DisplayName("Should keep up to seventeen dividends on a single page")
+        void shouldMapSinglePage() {
+                List<Map<String, String>> pages = mapper.mapToFormPages(user, dividends(17), 2024);
+
+                assertThat(pages).hasSize(1);
+                assertThat(pages.get(0))
+                                .containsEntry("a1", "John Doe")
+                                .containsEntry("b11", "Security 1 (FR0000000001)")
+                                .containsEntry("b171", "Security 17 (FR0000000017)")
+                                .containsEntry("b172", "01/06/2024")
+                                .containsEntry("zc4", amount(17 * 15));
+        }
+
+        @Test
+        @DisplayName("Should split dividends across pages with page numbers and running totals")
+        void shouldPaginateWithRunningTotals() {
+                List<Map<String, String>> pages = mapper.mapToFormPages(user, dividends(40), 2024);
+
+                // The first line of every page is taken by the page number and amounts brought forward
+                assertThat(pages).hasSize(3);
+
+                Map<String, String> first = pages.get(0);
+                assertThat(first)
+                                .containsEntry("b11", "Page 1/3")
+                                .containsEntry("b21", "Security 1 (FR0000000001)")
+                                .containsEntry("b171", "Security 16 (FR0000000016)")
+                                .doesNotContainKey("zc11")
+                                .containsEntry("zc4", amount(16 * 15));
+
+                Map<String, String> second = pages.get(1);
+                assertThat(second)
+                                .containsEntry("b21", "Security 17 (FR0000000017)")
+                                .containsEntry("zc11", amount(16 * 100))
+                                .containsEntry("zc21", amount(16 * 30))
+                                .containsEntry("b17", amount(16 * 15))
+                                .containsEntry("zc31", amount(16 * 15))
+                                .containsEntry("zc4", amount(32 * 15));
+                assertThat(second.get("b11")).startsWith("Page 2/3");
+
+                Map<String, String> last = pages.get(2);
+                assertThat(last)
+                                .containsEntry("b91", "Security 40 (FR0000000040)")
+                                .doesNotContainKey("b101")
+                                .containsEntry("zc11", amount(32 * 100))
+                                .containsEntry("zc4", amount(40 * 15));
+                assertThat(last.get("b11")).startsWith("Page 3/3");
+        }
+
+        @Test
+        @DisplayName("Should fill fields that exist in the template")
+        void shouldFillTemplateFields() throws IOException {
+                SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+                PdfFormFiller filler = new PdfFormFiller(new PdfTemplateRegistry(meterRegistry), meterRegistry);
+
+                for (Map<String, String> page : mapper.mapToFormPages(user, dividends(20), 2024)) {
+                        byte[] pdf = filler.fillPdfForm(PdfTemplateRegistry.FORM_5001_TEMPLATE, page, false);
+
+                        try (PDDocument document = Loader.loadPDF(pdf)) {
+                                PDAcroForm acroForm = document.getDocumentCatalog().getAcroForm();
+                                page.forEach((fieldName, value) -> {
+                                        PDField field = acroForm.getField(fieldName);
+                                        assertThat(field).as(fieldName).isNotNull();
+                                        assertThat(field.getValueAsString()).as(fieldName).isEqualTo(value);
+                                });
+                        }
+                }
+        }
+
+        @Test
+        @DisplayName("Should still truncate the single-page mapping")
+        void shouldTruncateSinglePageMapping() {
+                Map<String, String> fields = mapper.mapToFormFields(user, dividends(20), 2024);
+
+                assertThat(fields)
+                                .containsKey("b171")
+                                .doesNotContainKey("b181")
+                                .containsEntry("zc4", amount(17 * 15));
+        }
+
+        @Test
+        @DisplayName("Should convert totals to EUR and keep line amounts in their own currency")
+        void shouldConvertTotalsToEur() {
+                List<Dividend> dividends = new ArrayList<>(dividends(2));
+                dividends.add(Dividend.builder()
+                                .id(UUID.randomUUID())
+                                .isin("US0378331005")
+                                .securityName("Apple Inc")
+                                .grossAmount(new BigDecimal("125.00"))
+                                .withholdingTax(new BigDecimal("37.50"))
+                                .reclaimableAmount(new BigDecimal("18.75"))
+                                .currency("USD")
+                                .paymentDate(LocalDate.of(2024, 6, 2))
+                                .sourceCountry("US")
+                                .build());
+
+                Map<String, String> fields = mapper.mapToFormFields(user, dividends, 2024);
+
+                assertThat(fields)
+                                .containsEntry("b31", "Apple Inc (US0378331005) - USD")
+                                .containsEntry("zc13", amount(125))
+                                .containsEntry("zc33", amount(18.75))
+                                .containsEntry("zc11", amount(100))
+                                .containsEntry("zc4", amount(45));
+        }
+
+        @Test
+        @DisplayName("Should refuse totals that would leave out amounts without an FX rate")
+        void shouldRejectUnconvertibleAmounts() {
+                List<Dividend> dividends = new ArrayList<>(dividends(1));
+                dividends.add(Dividend.builder()
+                                .id(UUID.randomUUID())
+                                .isin("JP3633400001")
+                                .securityName("Toyota")
+                                .grossAmount(new BigDecimal("10000.00"))
+                                .withholdingTax(new BigDecimal("1500.00"))
+                                .reclaimableAmount(new BigDecimal("300.00"))
+                                .currency("JPY")
+                                .paymentDate(LocalDate.of(2024, 6, 1))
+                                .sourceCountry("JP")
+                                .build());
+
+                assertThatThrownBy(() -> mapper.mapToFormFields(user, dividends, 2024))
+                                .isInstanceOf(PdfGenerationException.class)
+                                .hasMessageContaining("1 dividend(s) in JPY");
+                assertThatThrownBy(() -> mapper.mapToFormPages(user, dividends, 2024))
+                                .isInstanceOf(PdfGenerationException.class)
+                                .hasMessageContaining("1 dividend(s) in JPY");
+        }
+
+        private static List<Dividend> dividends(int count) {
+                return IntStream.rangeClosed(1, count)
+                                .mapToObj(i -> Dividend.builder()
+                                                .id(UUID.randomUUID())
+                                                .isin(String.format("FR%010d", i))
+                                                .securityName("Security " + i)
+                                                .grossAmount(new BigDecimal("100.00"))
+                                                .withholdingTax(new BigDecimal("30.00"))
+                                                .reclaimableAmount(new BigDecimal("15.00"))
+                                                .currency("EUR")
+                                                .paymentDate(LocalDate.of(2024, 6, 1))
+                                                .sourceCountry("FR")
+                                                .build())
+                                .toList();
+        }
+
+        private static String amount(double value) {
+                // Same (locale-dependent) formatting as the mapper
+                return String.format("%.2f", BigDecimal.valueOf(value));
+        }
+}
@@ -0,0 +1,58 @@
+package com.taxdividend.backend.service.pdf;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for FormContentHasher, using the real form templates.
+ */
+@DisplayName("Form Content Hasher Tests")
+class FormContentHasherTest {
+
+        private FormContentHasher hasher;
+
+        @BeforeEach
+        void setUp() {
+                hasher = new FormContentHasher(new PdfTemplateRegistry(new SimpleMeterRegistry()));
+        }
+
+        @Test
+        @DisplayName("Should hash equal fields equally regardless of map order")
+        void shouldIgnoreFieldOrder() throws IOException {
+                Map<String, String> fields = new LinkedHashMap<>();
+                fields.put("name", "John Doe");
+                fields.put("country", "CH");
+                Map<String, String> reordered = new LinkedHashMap<>();
+                reordered.put("country", "CH");
+                reordered.put("name", "John Doe");
+
+                String hash = hasher.hash("5000", fields, null);
+
+                assertThat(hash).hasSize(64).isEqualTo(hasher.hash("5000", reordered, null));
+        }
+
+        @Test
+        @DisplayName("Should change when a value, the page split or the form type changes")
+        void shouldDistinguishContent() throws IOException {
+                Map<String, String> page = Map.of("isin", "FR0000120271", "amount", "100.00");
+                String hash = hasher.hash("5001", null, List.of(page));
+
+                assertThat(hasher.hash("5001", null, List.of(Map.of("isin", "FR0000120271", "amount", "100.01"))))
+                                .isNotEqualTo(hash);
+                assertThat(hasher.hash("5001", null, List.of(Map.of("isin", "FR0000120271"), Map.of("amount",
+                                "100.00")))).isNotEqualTo(hash);
+                assertThat(hasher.hash("BUNDLE", null, List.of(page))).isNotEqualTo(hash);
+                assertThat(hasher.hash("5001", Map.of("a", "bc"), null))
+                                .isNotEqualTo(hasher.hash("5001", Map.of("ab", "c"), null));
+        }
+}
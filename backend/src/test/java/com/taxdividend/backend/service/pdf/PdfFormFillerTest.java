@@ -0,0 +1,78 @@
+package com.taxdividend.backend.service.pdf;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PdfFormFiller, using the real form templates.
+ */
+@DisplayName("PDF Form Filler Tests")
+class PdfFormFillerTest {
+
+        private SimpleMeterRegistry meterRegistry;
+        private PdfTemplateRegistry templateRegistry;
+        private PdfFormFiller filler;
+
+        @BeforeEach
+        void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                templateRegistry = new PdfTemplateRegistry(meterRegistry);
+                filler = new PdfFormFiller(templateRegistry, meterRegistry);
+        }
+
+        @Test
+        @DisplayName("Should fill the template once and repeat only the table page")
+        void shouldRepeatOnlyTablePage() throws IOException {
+                int templatePages;
+                try (PDDocument template = templateRegistry.get(PdfTemplateRegistry.FORM_5001_TEMPLATE).open()) {
+                        templatePages = template.getNumberOfPages();
+                }
+
+                List<Map<String, String>> pages = List.of(
+                                Map.of("a1", "John Doe", "b11", "FR0000000001"),
+                                Map.of("a1", "John Doe", "b11", "FR0000000002", "b21", "FR0000000099"),
+                                Map.of("a1", "John Doe", "b11", "FR0000000003"));
+
+                byte[] pdf = filler.fillPdfPages(PdfTemplateRegistry.FORM_5001_TEMPLATE,
+                                PdfTemplateRegistry.FORM_5001_TABLE_PAGE, pages);
+
+                try (PDDocument merged = Loader.loadPDF(pdf)) {
+                        assertThat(merged.getNumberOfPages()).isEqualTo(templatePages + 2);
+
+                        // Continuation pages follow the first table page, each with its own lines
+                        int tablePage = PdfTemplateRegistry.FORM_5001_TABLE_PAGE;
+                        assertThat(pageText(merged, tablePage))
+                                        .contains("FR0000000001")
+                                        .doesNotContain("FR0000000002", "FR0000000099");
+                        assertThat(pageText(merged, tablePage + 1))
+                                        .contains("FR0000000002", "FR0000000099")
+                                        .doesNotContain("FR0000000001", "FR0000000003");
+                        assertThat(pageText(merged, tablePage + 2))
+                                        .contains("FR0000000003")
+                                        .doesNotContain("FR0000000002", "FR0000000099");
+                        assertThat(pageText(merged, 0)).contains("JohnDoe");
+                }
+                // Template read from the classpath once, whatever the page count
+                assertThat(meterRegistry.get("pdf.template.cache").tag("result", "miss").counter().count())
+                                .isEqualTo(1);
+        }
+
+        private static String pageText(PDDocument document, int pageIndex) throws IOException {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setStartPage(pageIndex + 1);
+                stripper.setEndPage(pageIndex + 1);
+                // Table pages are rotated, ignore how the stripper breaks their lines
+                return stripper.getText(document).replaceAll("\\s+", "");
+        }
+}
@@ -0,0 +1,71 @@
+package com.taxdividend.backend.service.pdf;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PdfTemplateRegistry, using the real form templates.
+ */
+@DisplayName("PDF Template Registry Tests")
+class PdfTemplateRegistryTest {
+
+        private SimpleMeterRegistry meterRegistry;
+        private PdfTemplateRegistry registry;
+
+        @BeforeEach
+        void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                registry = new PdfTemplateRegistry(meterRegistry);
+        }
+
+        @Test
+        @DisplayName("Should load a template once and serve later lookups from memory")
+        void shouldCacheTemplate() throws IOException {
+                PdfTemplateRegistry.PdfTemplate first = registry.get(PdfTemplateRegistry.FORM_5000_TEMPLATE);
+                PdfTemplateRegistry.PdfTemplate second = registry.get(PdfTemplateRegistry.FORM_5000_TEMPLATE);
+
+                assertThat(second).isSameAs(first);
+                assertThat(first.bytes()).isNotEmpty();
+                assertThat(meterRegistry.get("pdf.template.cache").tag("result", "miss").counter().count())
+                                .isEqualTo(1);
+                assertThat(meterRegistry.get("pdf.template.cache").tag("result", "hit").counter().count())
+                                .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should index fully qualified field names")
+        void shouldIndexFieldPaths() throws IOException {
+                PdfTemplateRegistry.PdfTemplate template = registry.get(PdfTemplateRegistry.FORM_5001_TEMPLATE);
+
+                assertThat(template.fieldPaths()).isNotEmpty();
+                template.fieldPaths().values()
+                                .forEach(path -> assertThat(template.resolveField(path)).isEqualTo(path));
+                assertThat(template.resolveField("no-such-field")).isNull();
+        }
+
+        @Test
+        @DisplayName("Should open independent documents from the cached bytes")
+        void shouldOpenIndependentDocuments() throws IOException {
+                PdfTemplateRegistry.PdfTemplate template = registry.get(PdfTemplateRegistry.FORM_5000_TEMPLATE);
+
+                try (PDDocument first = template.open(); PDDocument second = template.open()) {
+                        assertThat(first).isNotSameAs(second);
+                        assertThat(first.getNumberOfPages()).isEqualTo(second.getNumberOfPages());
+                }
+        }
+
+        @Test
+        @DisplayName("Should fail for a missing template")
+        void shouldFailForMissingTemplate() {
+                assertThatThrownBy(() -> registry.get("templates/forms/missing.pdf"))
+                                .isInstanceOf(IOException.class);
+        }
+}
@@ -0,0 +1,87 @@
+package com.taxdividend.backend.service.storage;
+
+import com.taxdividend.backend.exception.StorageException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PartBufferPool.
+ */
+@DisplayName("Part Buffer Pool Tests")
+class PartBufferPoolTest {
+
+        @Test
+        @DisplayName("Should reuse a released buffer")
+        void shouldReuseReleasedBuffer() {
+                // Given
+                PartBufferPool pool = new PartBufferPool(PartBufferPool.MIN_PART_SIZE, 1, Duration.ofMillis(100));
+                byte[] first = pool.acquire();
+
+                // When
+                pool.release(first);
+                byte[] second = pool.acquire();
+
+                // Then
+                assertThat(second).isSameAs(first);
+                assertThat(second).hasSize(pool.partSize());
+        }
+
+        @Test
+        @DisplayName("Should fail once every buffer stays taken past the timeout")
+        void shouldFailWhenPoolExhausted() {
+                // Given
+                PartBufferPool pool = new PartBufferPool(PartBufferPool.MIN_PART_SIZE, 2, Duration.ofMillis(50));
+                pool.acquire();
+                pool.acquire();
+
+                // When/Then
+                assertThatThrownBy(pool::acquire)
+                                .isInstanceOf(StorageException.class)
+                                .hasMessageContaining("No upload buffer available");
+        }
+
+        @Test
+        @DisplayName("Should hand a released buffer to an upload waiting for one")
+        void shouldUnblockWaitingAcquire() throws Exception {
+                // Given
+                PartBufferPool pool = new PartBufferPool(PartBufferPool.MIN_PART_SIZE, 1, Duration.ofSeconds(5));
+                byte[] taken = pool.acquire();
+                CompletableFuture<byte[]> waiting = CompletableFuture.supplyAsync(pool::acquire);
+
+                // When
+                Thread.sleep(50);
+                assertThat(waiting).isNotDone();
+                pool.release(taken);
+
+                // Then
+                assertThat(waiting.get(5, TimeUnit.SECONDS)).isSameAs(taken);
+        }
+
+        @Test
+        @DisplayName("Should ignore buffers that do not come from the pool")
+        void shouldIgnoreForeignBuffers() {
+                // Given
+                PartBufferPool pool = new PartBufferPool(PartBufferPool.MIN_PART_SIZE, 1, Duration.ofMillis(50));
+                pool.acquire();
+
+                // When
+                pool.release(new byte[16]);
+
+                // Then: the foreign buffer returned no permit
+                assertThatThrownBy(pool::acquire).isInstanceOf(StorageException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject part sizes below the S3 minimum")
+        void shouldRejectSmallPartSize() {
+                assertThatThrownBy(() -> new PartBufferPool(DataSize.ofMegabytes(1), 1, Duration.ofSeconds(1)))
+                                .isInstanceOf(IllegalArgumentException.class);
+        }
+}
@@ -0,0 +1,333 @@
+package com.taxdividend.backend.service.tax;
+
+import com.taxdividend.backend.api.dto.TaxCalculationResultDto;
+import com.taxdividend.backend.model.Dividend;
+import com.taxdividend.backend.model.JobCheckpoint;
+import com.taxdividend.backend.model.User;
+import com.taxdividend.backend.repository.DividendRepository;
+import com.taxdividend.backend.repository.JobCheckpointRepository;
+import com.taxdividend.backend.repository.UserRepository;
+import com.taxdividend.backend.service.ClusterLock;
+import com.taxdividend.backend.service.TaxCalculationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DividendRecalculationJob.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Dividend Recalculation Job Tests")
+class DividendRecalculationJobTest {
+
+        private static final UUID MIN_UUID = new UUID(0L, 0L);
+        private static final TaxRuleIndex.Key FR_CH = new TaxRuleIndex.Key("FR", "CH", "EQUITY");
+        private static final TaxRuleIndex.Key DE_CH = new TaxRuleIndex.Key("DE", "CH", "EQUITY");
+
+        @Mock
+        private DividendRepository dividendRepository;
+
+        @Mock
+        private UserRepository userRepository;
+
+        @Mock
+        private JobCheckpointRepository checkpointRepository;
+
+        @Mock
+        private ClusterLock clusterLock;
+
+        @Mock
+        private ClusterLock.Lease lease;
+
+        @Mock
+        private TaxCalculationService taxCalculationService;
+
+        @Mock
+        private TaxRuleIndex taxRuleIndex;
+
+        @Mock
+        private PlatformTransactionManager transactionManager;
+
+        private SimpleMeterRegistry meterRegistry;
+        private DividendRecalculationJob job;
+
+        private User user;
+
+        @BeforeEach
+        void setUp() {
+                meterRegistry = new SimpleMeterRegistry();
+                // chunk size 2, one user per partition
+                job = new DividendRecalculationJob(dividendRepository, userRepository, checkpointRepository,
+                                clusterLock, taxCalculationService, taxRuleIndex, transactionManager, meterRegistry,
+                                2, 2, 1);
+
+                user = User.builder()
+                                .id(UUID.randomUUID())
+                                .email("test@example.com")
+                                .country("CH")
+                                .build();
+
+                lenient().when(checkpointRepository.save(any(JobCheckpoint.class)))
+                                .thenAnswer(invocation -> invocation.getArgument(0));
+                lenient().when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+                lenient().when(clusterLock.tryAcquire(DividendRecalculationJob.JOB_NAME)).thenReturn(Optional.of(lease));
+                lenient().when(clusterLock.acquire(DividendRecalculationJob.RULE_CHANGES_LOCK)).thenReturn(lease);
+        }
+
+        @Test
+        @DisplayName("Should recalculate every chunk of every user and clear the checkpoint")
+        void shouldRecalculateAllChunks() {
+                Dividend d1 = dividend();
+                Dividend d2 = dividend();
+                Dividend d3 = dividend();
+
+                when(checkpointRepository.findById(DividendRecalculationJob.JOB_NAME)).thenReturn(Optional.empty());
+                when(dividendRepository.countUsersWithUnsubmittedDividends(MIN_UUID)).thenReturn(1L);
+                when(dividendRepository.findUserIdsWithUnsubmittedDividends(eq(MIN_UUID), any()))
+                                .thenReturn(List.of(user.getId()));
+                when(dividendRepository.findUserIdsWithUnsubmittedDividends(eq(user.getId()), any()))
+                                .thenReturn(List.of());
+                when(dividendRepository.findUnsubmittedChunk(eq(user.getId()), eq(MIN_UUID), any()))
+                                .thenReturn(List.of(d1, d2));
+                when(dividendRepository.findUnsubmittedChunk(eq(user.getId()), eq(d2.getId()), any()))
+                                .thenReturn(List.of(d3));
+                when(taxCalculationService.calculateForDividend(any(Dividend.class), eq("CH")))
+                                .thenReturn(result("3.00"));
+
+                DividendRecalculationJob.Summary summary = job.run();
+
+                assertThat(summary.updatedCount()).isEqualTo(3);
+                assertThat(summary.failedCount()).isZero();
+                assertThat(summary.totalReclaimable()).isEqualByComparingTo("9.00");
+                assertThat(d3.getReclaimableAmount()).isEqualByComparingTo("3.00");
+                assertThat(meterRegistry.get("tax.recalculation.dividends").tag("outcome", "updated")
+                                .counter().count()).isEqualTo(3);
+                verify(checkpointRepository).deleteById(DividendRecalculationJob.JOB_NAME);
+                verify(lease).close();
+        }
+
+        @Test
+        @DisplayName("Should refuse a full run while another node holds its lock")
+        void shouldNotRunWhileLockedElsewhere() {
+                when(clusterLock.tryAcquire(DividendRecalculationJob.JOB_NAME)).thenReturn(Optional.empty());
+
+                assertThatThrownBy(() -> job.run())
+                                .isInstanceOf(IllegalStateException.class)
+                                .hasMessageContaining("running on another node");
+
+                verifyNoInteractions(checkpointRepository, dividendRepository);
+        }
+
+        @Test
+        @DisplayName("Should resume after the checkpointed user")
+        void shouldResumeFromCheckpoint() {
+                UUID lastUserId = UUID.randomUUID();
+                JobCheckpoint checkpoint = JobCheckpoint.builder()
+                                .jobName(DividendRecalculationJob.JOB_NAME)
+                                .lastKey(lastUserId.toString())
+                                .startedAt(LocalDateTime.now())
+                                .build();
+
+                when(checkpointRepository.findById(DividendRecalculationJob.JOB_NAME))
+                                .thenReturn(Optional.of(checkpoint));
+                when(dividendRepository.findUserIdsWithUnsubmittedDividends(eq(lastUserId), any()))
+                                .thenReturn(List.of());
+
+                DividendRecalculationJob.Summary summary = job.run();
+
+                assertThat(summary.updatedCount()).isZero();
+                verify(dividendRepository, never()).findUserIdsWithUnsubmittedDividends(eq(MIN_UUID), any());
+                verify(dividendRepository).countUsersWithUnsubmittedDividends(lastUserId);
+        }
+
+        @Test
+        @DisplayName("Should count dividends of users without residence country as failures")
+        void shouldFailDividendsWithoutResidenceCountry() {
+                user.setCountry(null);
+                Dividend d1 = dividend();
+
+                when(checkpointRepository.findById(DividendRecalculationJob.JOB_NAME)).thenReturn(Optional.empty());
+                when(dividendRepository.findUserIdsWithUnsubmittedDividends(eq(MIN_UUID), any()))
+                                .thenReturn(List.of(user.getId()));
+                when(dividendRepository.findUserIdsWithUnsubmittedDividends(eq(user.getId()), any()))
+                                .thenReturn(List.of());
+                when(dividendRepository.findUnsubmittedChunk(eq(user.getId()), eq(MIN_UUID), any()))
+                                .thenReturn(List.of(d1));
+
+                DividendRecalculationJob.Summary summary = job.run();
+
+                assertThat(summary.failedCount()).isEqualTo(1);
+                verifyNoInteractions(taxCalculationService);
+        }
+
+        @Test
+        @DisplayName("Should recalculate only dividends in the affected treaty ranges, chunk by chunk")
+        void shouldRecalculateAffectedRanges() {
+                Dividend d1 = dividend();
+                Dividend d2 = dividend();
+                Dividend d3 = dividend();
+                LocalDate from = LocalDate.of(2024, 1, 1);
+                LocalDate to = LocalDate.of(2024, 12, 31);
+                TaxRulesChangedEvent.AffectedRange range = new TaxRulesChangedEvent.AffectedRange(
+                                new TaxRuleIndex.Key("FR", "CH", "EQUITY"), from, to);
+
+                when(dividendRepository.findUnsubmittedChunkForTreaty(eq("FR"), eq("CH"), eq(from), eq(to),
+                                eq(from), eq(MIN_UUID), any()))
+                                .thenReturn(List.of(d1, d2));
+                when(dividendRepository.findUnsubmittedChunkForTreaty(eq("FR"), eq("CH"), eq(from), eq(to),
+                                eq(d2.getPaymentDate()), eq(d2.getId()), any()))
+                                .thenReturn(List.of(d3));
+                when(taxCalculationService.calculateForDividend(any(Dividend.class), eq("CH")))
+                                .thenReturn(result("3.00"));
+
+                DividendRecalculationJob.Summary summary = job.recalculateAffected(List.of(range));
+
+                assertThat(summary.updatedCount()).isEqualTo(3);
+                assertThat(summary.totalReclaimable()).isEqualByComparingTo("9.00");
+                assertThat(d3.getTreatyRate()).isEqualByComparingTo("15.00");
+                verify(dividendRepository, never()).findUserIdsWithUnsubmittedDividends(any(), any());
+                verifyNoInteractions(checkpointRepository);
+        }
+
+        @Test
+        @DisplayName("Should recalculate every payment date of keys changed while no node was running")
+        void shouldCatchUpWithRulesChangedAtStartup() {
+                // Given - FR rules changed by a migration, DE rules unchanged, ES rules deleted
+                when(checkpointRepository.findByJobNameStartingWith(DividendRecalculationJob.APPLIED_RULES_PREFIX))
+                                .thenReturn(List.of(applied("FR:CH:EQUITY", "v1"), applied("DE:CH:EQUITY", "v1"),
+                                                applied("ES:CH:EQUITY", "v1")));
+
+                // When
+                job.applyRuleChanges(Map.of(FR_CH, "v2", DE_CH, "v1"), null, List.of());
+
+                // Then
+                verify(dividendRepository).findUnsubmittedChunkForTreaty(eq("FR"), eq("CH"),
+                                eq(TaxRuleIndex.OPEN_START), eq(TaxRuleIndex.OPEN_END), any(), any(), any());
+                verify(dividendRepository).findUnsubmittedChunkForTreaty(eq("ES"), eq("CH"),
+                                eq(TaxRuleIndex.OPEN_START), eq(TaxRuleIndex.OPEN_END), any(), any(), any());
+                verify(dividendRepository, never()).findUnsubmittedChunkForTreaty(eq("DE"), any(), any(), any(), any(),
+                                any(), any());
+                verify(checkpointRepository).save(argThat((JobCheckpoint row) ->
+                                row.getJobName().equals("tax-rules-applied:FR:CH:EQUITY") && row.getLastKey().equals("v2")));
+                verify(checkpointRepository).deleteById("tax-rules-applied:ES:CH:EQUITY");
+                verify(lease).close();
+        }
+
+        @Test
+        @DisplayName("Should recalculate only the event ranges when the stored fingerprint is the one they were diffed from")
+        void shouldUseEventRangesWhenUpToDate() {
+                // Given
+                LocalDate from = LocalDate.of(2024, 1, 1);
+                LocalDate to = LocalDate.of(2024, 12, 31);
+                when(checkpointRepository.findByJobNameStartingWith(DividendRecalculationJob.APPLIED_RULES_PREFIX))
+                                .thenReturn(List.of(applied("FR:CH:EQUITY", "v1")));
+
+                // When
+                job.applyRuleChanges(Map.of(FR_CH, "v2"), Map.of(FR_CH, "v1"),
+                                List.of(new TaxRulesChangedEvent.AffectedRange(FR_CH, from, to)));
+
+                // Then
+                verify(dividendRepository).findUnsubmittedChunkForTreaty(eq("FR"), eq("CH"), eq(from), eq(to),
+                                eq(from), eq(MIN_UUID), any());
+                verify(dividendRepository, never()).findUnsubmittedChunkForTreaty(any(), any(),
+                                eq(TaxRuleIndex.OPEN_START), any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should recalculate every payment date when the stored fingerprint lags behind the event")
+        void shouldWidenRangesWhenBehind() {
+                // Given - the change before this one was never applied
+                when(checkpointRepository.findByJobNameStartingWith(DividendRecalculationJob.APPLIED_RULES_PREFIX))
+                                .thenReturn(List.of(applied("FR:CH:EQUITY", "v1")));
+
+                // When
+                job.applyRuleChanges(Map.of(FR_CH, "v3"), Map.of(FR_CH, "v2"),
+                                List.of(new TaxRulesChangedEvent.AffectedRange(FR_CH, LocalDate.of(2024, 1, 1),
+                                                LocalDate.of(2024, 12, 31))));
+
+                // Then
+                verify(dividendRepository).findUnsubmittedChunkForTreaty(eq("FR"), eq("CH"),
+                                eq(TaxRuleIndex.OPEN_START), eq(TaxRuleIndex.OPEN_END), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should skip a change another node already applied")
+        void shouldSkipChangeAppliedElsewhere() {
+                // Given
+                when(checkpointRepository.findByJobNameStartingWith(DividendRecalculationJob.APPLIED_RULES_PREFIX))
+                                .thenReturn(List.of(applied("FR:CH:EQUITY", "v2")));
+
+                // When
+                DividendRecalculationJob.Summary summary = job.applyRuleChanges(Map.of(FR_CH, "v2"),
+                                Map.of(FR_CH, "v1"), List.of(new TaxRulesChangedEvent.AffectedRange(FR_CH,
+                                                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))));
+
+                // Then
+                assertThat(summary.updatedCount()).isZero();
+                verifyNoInteractions(dividendRepository);
+                verify(checkpointRepository, never()).save(any());
+                verify(lease).close();
+        }
+
+        @Test
+        @DisplayName("Should keep the stored fingerprints when recalculation fails, so the change is retried")
+        void shouldNotStoreFingerprintWhenRecalculationFails() {
+                // Given
+                when(checkpointRepository.findByJobNameStartingWith(DividendRecalculationJob.APPLIED_RULES_PREFIX))
+                                .thenReturn(List.of(applied("FR:CH:EQUITY", "v1")));
+                when(dividendRepository.findUnsubmittedChunkForTreaty(any(), any(), any(), any(), any(), any(), any()))
+                                .thenThrow(new IllegalStateException("Connection refused"));
+
+                // When/Then
+                assertThatThrownBy(() -> job.applyRuleChanges(Map.of(FR_CH, "v2"), null, List.of()))
+                                .hasMessage("Connection refused");
+                verify(checkpointRepository, never()).save(any());
+                verify(lease).close();
+        }
+
+        private static JobCheckpoint applied(String key, String fingerprint) {
+                return JobCheckpoint.builder()
+                                .jobName(DividendRecalculationJob.APPLIED_RULES_PREFIX + key)
+                                .lastKey(fingerprint)
+                                .startedAt(LocalDateTime.now())
+                                .build();
+        }
+
+        private Dividend dividend() {
+                return Dividend.builder()
+                                .id(UUID.randomUUID())
+                                .user(user)
+                                .isin("FR0000120271")
+                                .paymentDate(LocalDate.of(2024, 5, 15))
+                                .grossAmount(new BigDecimal("100.00"))
+                                .withholdingTax(new BigDecimal("25.00"))
+                                .withholdingRate(new BigDecimal("25.00"))
+                                .sourceCountry("FR")
+                                .build();
+        }
+
+        private static TaxCalculationResultDto result(String reclaimable) {
+                TaxCalculationResultDto result = new TaxCalculationResultDto();
+                result.setReclaimableAmount(new BigDecimal(reclaimable));
+                result.setTreatyRate(new BigDecimal("15.00"));
+                return result;
+        }
+}
@@ -0,0 +1,109 @@
+package com.taxdividend.backend.service.tax;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for FixedPointTaxKernel.
+ * Every result is checked against the BigDecimal formula used by TaxCalculationService.
+ */
+@DisplayName("Fixed-Point Tax Kernel Tests")
+class FixedPointTaxKernelTest {
+
+        private static BigDecimal bigDecimalTreatyWithholding(BigDecimal gross, BigDecimal rate) {
+                return gross.multiply(rate).divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        }
+
+        @Test
+        @DisplayName("Should match BigDecimal HALF_UP rounding on ties")
+        void shouldRoundHalfUpOnTies() {
+                // Given - 0.10 * 5% = 0.005 -> 0.01, 0.30 * 15% = 0.045 -> 0.05
+                String[][] cases = {
+                                { "0.10", "5.00" }, { "0.30", "15.00" }, { "0.01", "50.00" },
+                                { "-0.10", "5.00" }, { "0.09", "5.00" }, { "123.45", "12.50" } };
+
+                for (String[] c : cases) {
+                        BigDecimal gross = new BigDecimal(c[0]);
+                        BigDecimal rate = new BigDecimal(c[1]);
+
+                        // When
+                        long result = FixedPointTaxKernel.treatyWithholding(
+                                        FixedPointTaxKernel.toMinorUnits(gross),
+                                        FixedPointTaxKernel.toBasisPoints(rate));
+
+                        // Then
+                        assertThat(FixedPointTaxKernel.fromMinorUnits(result))
+                                        .as("%s * %s%%", c[0], c[1])
+                                        .isEqualTo(bigDecimalTreatyWithholding(gross, rate));
+                }
+        }
+
+        @Test
+        @DisplayName("Should be bit-identical to the BigDecimal path on random inputs")
+        void shouldMatchBigDecimalOnRandomInputs() {
+                // Given
+                Random random = new Random(42);
+                int count = 10_000;
+                long[] gross = new long[count];
+                long[] withheld = new long[count];
+                long[] rate = new long[count];
+                long[] reclaimable = new long[count];
+                BigDecimal expectedTotal = BigDecimal.ZERO;
+                BigDecimal[] expected = new BigDecimal[count];
+
+                for (int i = 0; i < count; i++) {
+                        BigDecimal g = BigDecimal.valueOf(random.nextLong(100_000_000L), 2);
+                        BigDecimal r = BigDecimal.valueOf(random.nextInt(5_000), 2);
+                        BigDecimal w = BigDecimal.valueOf(random.nextLong(40_000_000L), 2);
+
+                        gross[i] = FixedPointTaxKernel.toMinorUnits(g);
+                        rate[i] = FixedPointTaxKernel.toBasisPoints(r);
+                        withheld[i] = FixedPointTaxKernel.toMinorUnits(w);
+
+                        expected[i] = w.subtract(bigDecimalTreatyWithholding(g, r)).setScale(2, RoundingMode.HALF_UP);
+                        if (expected[i].signum() > 0) {
+                                expectedTotal = expectedTotal.add(expected[i]);
+                        }
+                }
+
+                // When
+                long total = FixedPointTaxKernel.calculate(gross, withheld, rate, reclaimable, count);
+
+                // Then
+                for (int i = 0; i < count; i++) {
+                        assertThat(FixedPointTaxKernel.fromMinorUnits(reclaimable[i])).isEqualTo(expected[i]);
+                }
+                assertThat(FixedPointTaxKernel.fromMinorUnits(total)).isEqualTo(expectedTotal.setScale(2));
+        }
+
+        @Test
+        @DisplayName("Should convert exact values regardless of scale")
+        void shouldConvertExactValues() {
+                assertThat(FixedPointTaxKernel.toMinorUnits(new BigDecimal("100"))).isEqualTo(10_000L);
+                assertThat(FixedPointTaxKernel.toMinorUnits(new BigDecimal("12.5"))).isEqualTo(1_250L);
+                assertThat(FixedPointTaxKernel.toMinorUnits(new BigDecimal("12.34000"))).isEqualTo(1_234L);
+                assertThat(FixedPointTaxKernel.toMinorUnits(new BigDecimal("1E+3"))).isEqualTo(100_000L);
+                assertThat(FixedPointTaxKernel.toBasisPoints(new BigDecimal("15.00"))).isEqualTo(1_500L);
+        }
+
+        @Test
+        @DisplayName("Should reject values that cannot be represented exactly")
+        void shouldRejectNonRepresentableValues() {
+                assertThat(FixedPointTaxKernel.toMinorUnits(null))
+                                .isEqualTo(FixedPointTaxKernel.NOT_REPRESENTABLE);
+                assertThat(FixedPointTaxKernel.toMinorUnits(new BigDecimal("0.005")))
+                                .isEqualTo(FixedPointTaxKernel.NOT_REPRESENTABLE);
+                assertThat(FixedPointTaxKernel.toMinorUnits(new BigDecimal("1E+20")))
+                                .isEqualTo(FixedPointTaxKernel.NOT_REPRESENTABLE);
+                assertThat(FixedPointTaxKernel.toMinorUnits(new BigDecimal("100000000000.00")))
+                                .isEqualTo(FixedPointTaxKernel.NOT_REPRESENTABLE);
+                assertThat(FixedPointTaxKernel.toBasisPoints(new BigDecimal("1000.00")))
+                                .isEqualTo(FixedPointTaxKernel.NOT_REPRESENTABLE);
+        }
+}
@@ -0,0 +1,124 @@
+package com.taxdividend.backend.service.tax;
+
+import com.taxdividend.backend.model.SecurityMasterEntry;
+import com.taxdividend.backend.repository.SecurityMasterRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SecurityTypeClassifier.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Security Type Classifier Tests")
+class SecurityTypeClassifierTest {
+
+        private static final LocalDateTime LOADED_AT = LocalDateTime.of(2024, 6, 1, 8, 0);
+
+        @Mock
+        private SecurityMasterRepository securityMasterRepository;
+
+        @InjectMocks
+        private SecurityTypeClassifier classifier;
+
+        private List<SecurityMasterEntry> entries;
+
+        @BeforeEach
+        void setUp() {
+                entries = new ArrayList<>(List.of(
+                                entry("XS", "BOND", LOADED_AT),
+                                entry("FR0013", "bond", LOADED_AT),
+                                entry("FR0000121964", "REIT", LOADED_AT)));
+                lenient().when(securityMasterRepository.findAll()).thenReturn(entries);
+        }
+
+        @Test
+        @DisplayName("Should prefer the exact ISIN, then the longest prefix, then EQUITY")
+        void shouldClassifyByLongestMatch() {
+                assertThat(classifier.classify("FR0000121964")).isEqualTo("REIT");
+                assertThat(classifier.classify(" fr0013508470 ")).isEqualTo("BOND");
+                assertThat(classifier.classify("XS1234567890")).isEqualTo("BOND");
+                assertThat(classifier.classify("FR0000120271")).isEqualTo("EQUITY");
+                assertThat(classifier.classify(null)).isEqualTo("EQUITY");
+                assertThat(classifier.snapshot().prefixLengths()).containsExactly(12, 6, 2);
+        }
+
+        @Test
+        @DisplayName("Should merge changed entries without reloading the table")
+        void shouldMergeChangedEntriesIncrementally() {
+                classifier.reload();
+                LocalDateTime changedAt = LOADED_AT.plusHours(1);
+                when(securityMasterRepository.findVersion()).thenReturn(version(4, changedAt));
+                when(securityMasterRepository.findByUpdatedAtGreaterThanEqual(LOADED_AT)).thenReturn(List.of(
+                                entry("FR0000121964", "EQUITY", changedAt),
+                                entry("LU", "FUND", changedAt)));
+
+                classifier.refreshIfChanged();
+
+                assertThat(classifier.classify("FR0000121964")).isEqualTo("EQUITY");
+                assertThat(classifier.classify("LU0123456789")).isEqualTo("FUND");
+                assertThat(classifier.snapshot().lastUpdatedAt()).isEqualTo(changedAt);
+                verify(securityMasterRepository, times(1)).findAll();
+        }
+
+        @Test
+        @DisplayName("Should reload the table when entries were deleted")
+        void shouldReloadWhenEntriesDeleted() {
+                classifier.reload();
+                entries.remove(0);
+                when(securityMasterRepository.findVersion()).thenReturn(version(2, LOADED_AT));
+                when(securityMasterRepository.findByUpdatedAtGreaterThanEqual(LOADED_AT)).thenReturn(List.of());
+
+                classifier.refreshIfChanged();
+
+                assertThat(classifier.classify("XS1234567890")).isEqualTo("EQUITY");
+                verify(securityMasterRepository, times(2)).findAll();
+        }
+
+        @Test
+        @DisplayName("Should not touch the table when nothing changed")
+        void shouldSkipRefreshWhenUnchanged() {
+                SecurityTypeClassifier.Snapshot loaded = classifier.reload();
+                when(securityMasterRepository.findVersion()).thenReturn(version(3, LOADED_AT));
+
+                classifier.refreshIfChanged();
+
+                assertThat(classifier.snapshot()).isSameAs(loaded);
+                verify(securityMasterRepository, never()).findByUpdatedAtGreaterThanEqual(any());
+        }
+
+        private static SecurityMasterEntry entry(String isinPrefix, String securityType, LocalDateTime updatedAt) {
+                return SecurityMasterEntry.builder()
+                                .isinPrefix(isinPrefix)
+                                .securityType(securityType)
+                                .updatedAt(updatedAt)
+                                .build();
+        }
+
+        private static SecurityMasterRepository.SecurityMasterVersion version(long count,
+                        LocalDateTime lastUpdatedAt) {
+                return new SecurityMasterRepository.SecurityMasterVersion() {
+                        @Override
+                        public long getEntryCount() {
+                                return count;
+                        }
+
+                        @Override
+                        public LocalDateTime getLastUpdatedAt() {
+                                return lastUpdatedAt;
+                        }
+                };
+        }
+}
@@ -0,0 +1,237 @@
+package com.taxdividend.backend.service.tax;
+
+import com.taxdividend.backend.model.TaxRule;
+import com.taxdividend.backend.repository.TaxRuleRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TaxRuleIndex.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tax Rule Index Tests")
+class TaxRuleIndexTest {
+
+        @Mock
+        private TaxRuleRepository taxRuleRepository;
+
+        @Mock
+        private CacheManager cacheManager;
+
+        @Mock
+        private Cache cache;
+
+        @Mock
+        private ApplicationEventPublisher eventPublisher;
+
+        @InjectMocks
+        private TaxRuleIndex taxRuleIndex;
+
+        private TaxRule oldTreaty;
+        private TaxRule currentTreaty;
+        private List<TaxRule> rules;
+
+        @BeforeEach
+        void setUp() {
+                lenient().when(cacheManager.getCache(anyString())).thenReturn(cache);
+
+                // FR -> CH equity: 20% until end of 2022, then 15% open-ended
+                oldTreaty = rule("FR", "CH", "EQUITY", "20.00",
+                                LocalDate.of(2010, 1, 1), LocalDate.of(2022, 12, 31));
+                currentTreaty = rule("FR", "CH", "EQUITY", "15.00",
+                                LocalDate.of(2023, 1, 1), null);
+
+                rules = new ArrayList<>(List.of(currentTreaty, oldTreaty,
+                                rule("FR", "CH", "BOND", "0.00", LocalDate.of(2023, 1, 1), null)));
+                lenient().when(taxRuleRepository.findAll()).thenReturn(rules);
+        }
+
+        @Test
+        @DisplayName("Should resolve rule by effective date interval")
+        void shouldResolveRuleByEffectiveDate() {
+                Optional<TaxRule> before = taxRuleIndex.findApplicableRule("FR", "CH", "EQUITY",
+                                LocalDate.of(2022, 6, 30));
+                Optional<TaxRule> boundary = taxRuleIndex.findApplicableRule("FR", "CH", "EQUITY",
+                                LocalDate.of(2023, 1, 1));
+                Optional<TaxRule> after = taxRuleIndex.findApplicableRule("FR", "CH", "EQUITY",
+                                LocalDate.of(2024, 12, 15));
+
+                assertThat(before).map(TaxRule::getId).contains(oldTreaty.getId());
+                assertThat(boundary).map(TaxRule::getId).contains(currentTreaty.getId());
+                assertThat(after).map(TaxRule::getId).contains(currentTreaty.getId());
+
+                // Loaded once, then served from memory
+                verify(taxRuleRepository, times(1)).findAll();
+        }
+
+        @Test
+        @DisplayName("Should return empty before first effective date or for unknown treaty")
+        void shouldReturnEmptyWhenNoRuleApplies() {
+                assertThat(taxRuleIndex.findApplicableRule("FR", "CH", "EQUITY", LocalDate.of(2005, 1, 1)))
+                                .isEmpty();
+                assertThat(taxRuleIndex.findApplicableRule("US", "CH", "EQUITY", LocalDate.of(2024, 1, 1)))
+                                .isEmpty();
+                assertThat(taxRuleIndex.findApplicableRule("FR", "CH", "REIT", LocalDate.of(2024, 1, 1)))
+                                .isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should match keys case-insensitively")
+        void shouldMatchKeysCaseInsensitively() {
+                assertThat(taxRuleIndex.findApplicableRule("fr", "ch", "equity", LocalDate.of(2024, 1, 1)))
+                                .map(TaxRule::getId)
+                                .contains(currentTreaty.getId());
+        }
+
+        @Test
+        @DisplayName("Should return empty when rule has expired")
+        void shouldReturnEmptyWhenRuleExpired() {
+                rules.remove(currentTreaty);
+
+                assertThat(taxRuleIndex.findApplicableRule("FR", "CH", "EQUITY", LocalDate.of(2024, 1, 1)))
+                                .isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should swap in a new version and clear the rule cache on reload")
+        void shouldSwapSnapshotOnReload() {
+                long initialVersion = taxRuleIndex.version();
+
+                rules.add(rule("DE", "CH", "EQUITY", "15.00", LocalDate.of(2020, 1, 1), null));
+                taxRuleIndex.reload();
+
+                assertThat(taxRuleIndex.version()).isEqualTo(initialVersion + 1);
+                assertThat(taxRuleIndex.findApplicableRule("DE", "CH", "EQUITY", LocalDate.of(2024, 1, 1)))
+                                .isPresent();
+                verify(cache, times(2)).clear();
+        }
+
+        @Test
+        @DisplayName("Should only rebuild when the tax_rules version changes")
+        void shouldOnlyRebuildWhenVersionChanges() {
+                long initialVersion = taxRuleIndex.version();
+                LocalDateTime lastUpdatedAt = taxRuleIndex.snapshot().lastUpdatedAt();
+
+                TaxRuleRepository.TaxRuleVersion unchanged = version(3, lastUpdatedAt);
+                when(taxRuleRepository.findVersion()).thenReturn(unchanged);
+                taxRuleIndex.refreshIfChanged();
+                assertThat(taxRuleIndex.version()).isEqualTo(initialVersion);
+
+                TaxRuleRepository.TaxRuleVersion changed = version(3, lastUpdatedAt.plusMinutes(1));
+                when(taxRuleRepository.findVersion()).thenReturn(changed);
+                taxRuleIndex.refreshIfChanged();
+                assertThat(taxRuleIndex.version()).isEqualTo(initialVersion + 1);
+        }
+
+        @Test
+        @DisplayName("Should publish only the date ranges of changed rules on reload")
+        void shouldPublishAffectedRangesOnReload() {
+                taxRuleIndex.reload();
+                verifyNoInteractions(eventPublisher);
+
+                // Treaty rate of the open-ended rule changes, a new DE rule is added
+                currentTreaty.setTreatyRate(new BigDecimal("10.00"));
+                rules.add(rule("DE", "CH", "EQUITY", "15.00", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)));
+                taxRuleIndex.reload();
+
+                ArgumentCaptor<TaxRulesChangedEvent> captor = ArgumentCaptor.forClass(TaxRulesChangedEvent.class);
+                verify(eventPublisher).publishEvent(captor.capture());
+                assertThat(captor.getValue().ranges()).containsExactlyInAnyOrder(
+                                new TaxRulesChangedEvent.AffectedRange(new TaxRuleIndex.Key("FR", "CH", "EQUITY"),
+                                                LocalDate.of(2023, 1, 1), TaxRuleIndex.OPEN_END),
+                                new TaxRulesChangedEvent.AffectedRange(new TaxRuleIndex.Key("DE", "CH", "EQUITY"),
+                                                LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)));
+
+                TaxRuleIndex.Key frEquity = new TaxRuleIndex.Key("FR", "CH", "EQUITY");
+                TaxRuleIndex.Key frBond = new TaxRuleIndex.Key("FR", "CH", "BOND");
+                TaxRulesChangedEvent event = captor.getValue();
+                assertThat(event.previousFingerprints()).doesNotContainKey(new TaxRuleIndex.Key("DE", "CH", "EQUITY"));
+                assertThat(event.fingerprints()).containsKey(new TaxRuleIndex.Key("DE", "CH", "EQUITY"));
+                assertThat(event.fingerprints().get(frEquity)).isNotEqualTo(event.previousFingerprints().get(frEquity));
+                assertThat(event.fingerprints().get(frBond)).isEqualTo(event.previousFingerprints().get(frBond));
+        }
+
+        @Test
+        @DisplayName("Should fingerprint only what drives the calculation")
+        void shouldIgnoreIdsAndScaleInFingerprints() {
+                TaxRuleIndex.Key frEquity = new TaxRuleIndex.Key("FR", "CH", "EQUITY");
+                String before = taxRuleIndex.reload().fingerprints().get(frEquity);
+
+                // Same rule re-inserted under a new id, rate written with another scale
+                rules.remove(currentTreaty);
+                TaxRule reinserted = rule("FR", "CH", "EQUITY", "15.0", LocalDate.of(2023, 1, 1), null);
+                rules.add(reinserted);
+                assertThat(taxRuleIndex.reload().fingerprints().get(frEquity)).isEqualTo(before);
+
+                reinserted.setRefundProcedureAvailable(Boolean.FALSE);
+                assertThat(taxRuleIndex.reload().fingerprints().get(frEquity)).isNotEqualTo(before)
+                                .hasSize(64);
+        }
+
+        @Test
+        @DisplayName("Should merge adjacent ranges and cover removed rules")
+        void shouldMergeAdjacentRangesOfRemovedRules() {
+                taxRuleIndex.reload();
+
+                rules.remove(oldTreaty);
+                rules.remove(currentTreaty);
+                taxRuleIndex.reload();
+
+                ArgumentCaptor<TaxRulesChangedEvent> captor = ArgumentCaptor.forClass(TaxRulesChangedEvent.class);
+                verify(eventPublisher).publishEvent(captor.capture());
+                assertThat(captor.getValue().ranges()).containsExactly(
+                                new TaxRulesChangedEvent.AffectedRange(new TaxRuleIndex.Key("FR", "CH", "EQUITY"),
+                                                LocalDate.of(2010, 1, 1), TaxRuleIndex.OPEN_END));
+        }
+
+        private static TaxRule rule(String source, String residence, String type, String treatyRate,
+                        LocalDate from, LocalDate to) {
+                return TaxRule.builder()
+                                .id(UUID.randomUUID())
+                                .sourceCountry(source)
+                                .residenceCountry(residence)
+                                .securityType(type)
+                                .standardWithholdingRate(new BigDecimal("30.00"))
+                                .treatyRate(new BigDecimal(treatyRate))
+                                .effectiveFrom(from)
+                                .effectiveTo(to)
+                                .updatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(from.getYear() % 28))
+                                .build();
+        }
+
+        private static TaxRuleRepository.TaxRuleVersion version(long count, LocalDateTime lastUpdatedAt) {
+                return new TaxRuleRepository.TaxRuleVersion() {
+                        @Override
+                        public long getRuleCount() {
+                                return count;
+                        }
+
+                        @Override
+                        public LocalDateTime getLastUpdatedAt() {
+                                return lastUpdatedAt;
+                        }
+                };
+        }
+}
@@ -6,7 +6,9 @@ import com.taxdividend.bff.client.api.DividendsApi;
 import com.taxdividend.bff.client.model.BulkImportDividendItem;
 import com.taxdividend.bff.client.model.BulkImportDividendsRequest;
 import com.taxdividend.bff.client.model.BulkImportDividendsResponse;
+import com.taxdividend.bff.client.model.Dividend;
 import com.taxdividend.bff.client.model.DividendStatement;
+import com.taxdividend.bff.client.model.DividendStatementStatus;
 import com.taxdividend.bff.mapper.DividendMapper;
 import com.taxdividend.bff.model.DividendCaseDto;
 import com.taxdividend.bff.model.DividendDto;
@@ -18,12 +20,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.http.codec.multipart.Part;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.util.Comparator;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
 
@@ -39,6 +49,8 @@ public class DividendService {
     private final DividendMapper dividendMapper;
     private final com.taxdividend.bff.agent.client.api.ParsingApi parsingApi;
 
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
     // ==================== Public API ====================
 
     public Mono<DividendStatsDto> getDividendStats(Integer taxYear) {
@@ -119,13 +131,84 @@ public class DividendService {
 
     private Mono<DividendStatementDto> processStatement(File tempFile, FilePart filePart) {
         return filePart.transferTo(tempFile.toPath())
-                .then(parseWithAgent(tempFile))
-                .flatMap(agentResponse -> createStatementInBackend(tempFile, agentResponse))
-                .flatMap(this::importDividendsToBackend)
-                .map(this::buildResponse)
+                .then(Mono.defer(() -> findExistingStatement(tempFile)))
+                .flatMap(existing -> isProcessed(existing)
+                        ? buildExistingResponse(existing)
+                        : resumeStatement(tempFile, existing))
+                .switchIfEmpty(Mono.defer(() -> parseWithAgent(tempFile)
+                        .flatMap(agentResponse -> createStatementInBackend(tempFile, agentResponse))
+                        .flatMap(this::importDividendsToBackend)
+                        .map(this::buildResponse)))
                 .onErrorResume(this::handleError);
     }
 
+    // ==================== Duplicate Detection ====================
+
+    /**
+     * Statement already uploaded with the same file content, if any. Lookup
+     * failures fall back to a normal upload.
+     */
+    private Mono<DividendStatement> findExistingStatement(File tempFile) {
+        return Mono.fromCallable(() -> sha256Hex(tempFile))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(hash -> dividendStatementsApi.findDividendStatementByContentHash(hash)
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty()))
+                .doOnNext(statement -> log.info("Statement {} already uploaded with status {}",
+                        statement.getId(), statement.getStatus()))
+                .onErrorResume(e -> {
+                    log.warn("Duplicate statement lookup failed, processing upload normally", e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Whether dividends were already extracted from the statement, in which case
+     * parsing and import are skipped. A statement left UPLOADED or PARSING
+     * without dividends by an interrupted upload is resumed instead.
+     */
+    private static boolean isProcessed(DividendStatement statement) {
+        DividendStatementStatus status = statement.getStatus();
+        boolean parsed = status != null
+                && status != DividendStatementStatus.UPLOADED
+                && status != DividendStatementStatus.PARSING;
+        return parsed || (statement.getDividendCount() != null && statement.getDividendCount() > 0);
+    }
+
+    private Mono<DividendStatementDto> resumeStatement(File tempFile, DividendStatement statement) {
+        log.info("Statement {} was not processed, resuming parsing and import", statement.getId());
+        return parseWithAgent(tempFile)
+                .map(agentResponse -> new StatementWithDividends(statement, agentResponse))
+                .flatMap(this::importDividendsToBackend)
+                .map(this::buildResponse);
+    }
+
+    private Mono<DividendStatementDto> buildExistingResponse(DividendStatement statement) {
+        return dividendStatementsApi.listDividendStatementDividends(statement.getId())
+                .map(this::mapToDividendData)
+                .collectList()
+                .map(dividends -> {
+                    DividendStatementDto response = new DividendStatementDto();
+                    response.setDividends(dividends);
+                    return response;
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to load dividends of statement {}", statement.getId(), e);
+                    return Mono.error(new RuntimeException("Failed to load existing statement dividends", e));
+                });
+    }
+
+    private static String sha256Hex(File file) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
     // ==================== Agent Parsing ====================
 
     private Mono<com.taxdividend.bff.agent.client.model.ParsedDividendStatement> parseWithAgent(File tempFile) {
@@ -284,6 +367,18 @@ public class DividendService {
         return item;
     }
 
+    private DividendDto mapToDividendData(Dividend d) {
+        DividendDto dd = new DividendDto();
+        dd.setSecurityName(d.getSecurityName());
+        dd.setIsin(d.getIsin());
+        dd.setGrossAmount(d.getGrossAmount());
+        dd.setCurrency(d.getCurrency());
+        dd.setPaymentDate(d.getPaymentDate());
+        dd.setWithholdingTax(d.getWithholdingTax());
+        dd.setReclaimableAmount(d.getReclaimableAmount());
+        return dd;
+    }
+
     private DividendDto mapToDividendData(com.taxdividend.bff.agent.client.model.DocumentDividendData d) {
         DividendDto dd = new DividendDto();
         dd.setSecurityName(d.getSecurityName());
@@ -9,6 +9,7 @@ import com.taxdividend.bff.client.model.BulkImportDividendItem;
 import com.taxdividend.bff.client.model.BulkImportDividendsResponse;
 import com.taxdividend.bff.client.model.Dividend;
 import com.taxdividend.bff.client.model.DividendStatement;
+import com.taxdividend.bff.client.model.DividendStatementStatus;
 import com.taxdividend.bff.client.model.DividendStats;
 import com.taxdividend.bff.client.model.PaginatedDividendList;
 import com.taxdividend.bff.mapper.DividendMapper;
@@ -26,6 +27,7 @@ import org.springframework.http.codec.multipart.Part;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextImpl;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -282,6 +284,87 @@ class DividendServiceTest {
                 verify(dividendsApi).bulkImportDividends(any());
         }
 
+        @Test
+        @DisplayName("Should return existing dividends without parsing when the file was already uploaded")
+        void parseDividendStatement_DuplicateSkipsParsingAndImport() {
+                // Arrange
+                FilePart filePart = mock(FilePart.class);
+                when(filePart.filename()).thenReturn("statement.pdf");
+                when(filePart.transferTo(any(Path.class))).thenReturn(Mono.empty());
+
+                DividendStatement existing = new DividendStatement();
+                existing.setId(testStatementId);
+                existing.setStatus(DividendStatementStatus.PARSED);
+                // SHA-256 of the empty temp file
+                when(dividendStatementsApi.findDividendStatementByContentHash(
+                                "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855"))
+                                .thenReturn(Mono.just(existing));
+
+                Dividend dividend = new Dividend();
+                dividend.setSecurityName("Test Security");
+                dividend.setGrossAmount(new BigDecimal("100.00"));
+                dividend.setReclaimableAmount(new BigDecimal("15.00"));
+                when(dividendStatementsApi.listDividendStatementDividends(testStatementId))
+                                .thenReturn(Flux.just(dividend));
+
+                // Act & Assert
+                StepVerifier.create(dividendService.parseDividendStatement(filePart))
+                                .assertNext(response -> {
+                                        assertThat(response.getDividends()).hasSize(1);
+                                        assertThat(response.getDividends().get(0).getReclaimableAmount())
+                                                        .isEqualTo(new BigDecimal("15.00"));
+                                })
+                                .verifyComplete();
+
+                verifyNoInteractions(parsingApi);
+                verify(dividendStatementsApi, never()).uploadDividendStatement(any(), any(), any(), any());
+                verify(dividendsApi, never()).bulkImportDividends(any());
+        }
+
+        @Test
+        @DisplayName("Should resume parsing and import on an existing statement that was never processed")
+        void parseDividendStatement_UnprocessedDuplicateResumesOnExistingStatement() {
+                // Arrange
+                FilePart filePart = mock(FilePart.class);
+                when(filePart.filename()).thenReturn("statement.pdf");
+                when(filePart.transferTo(any(Path.class))).thenReturn(Mono.empty());
+
+                DividendStatement existing = new DividendStatement();
+                existing.setId(testStatementId);
+                existing.setStatus(DividendStatementStatus.UPLOADED);
+                existing.setDividendCount(0);
+                when(dividendStatementsApi.findDividendStatementByContentHash(anyString()))
+                                .thenReturn(Mono.just(existing));
+
+                DocumentDividendData agentDividend = new DocumentDividendData();
+                agentDividend.setSecurityName("Test Security");
+                agentDividend.setIsin("FR0000120271");
+                agentDividend.setGrossAmount(new BigDecimal("100.00"));
+                agentDividend.setCurrency("EUR");
+                agentDividend.setPaymentDate(LocalDate.of(2024, 6, 15));
+                ParsedDividendStatement agentResponse = new ParsedDividendStatement();
+                agentResponse.setData(List.of(agentDividend));
+                when(parsingApi.parseDocument(any(), any())).thenReturn(Mono.just(agentResponse));
+
+                when(dividendsApi.bulkImportDividends(any()))
+                                .thenReturn(Mono.just(new BulkImportDividendsResponse()));
+
+                // Act & Assert
+                StepVerifier.create(dividendService.parseDividendStatement(filePart))
+                                .assertNext(response -> {
+                                        assertThat(response.getDividends()).hasSize(1);
+                                        assertThat(response.getDividends().get(0).getIsin())
+                                                        .isEqualTo("FR0000120271");
+                                })
+                                .verifyComplete();
+
+                verify(parsingApi).parseDocument(any(), any());
+                verify(dividendsApi).bulkImportDividends(argThat(request ->
+                                testStatementId.equals(request.getStatementId())));
+                verify(dividendStatementsApi, never()).uploadDividendStatement(any(), any(), any(), any());
+                verify(dividendStatementsApi, never()).listDividendStatementDividends(any());
+        }
+
         @Test
         @DisplayName("Should handle agent parsing error")
         void parseDividendStatement_AgentError() {